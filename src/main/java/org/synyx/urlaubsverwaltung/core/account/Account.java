@@ -168,4 +168,21 @@ public class Account extends AbstractPersistable<Integer> {
 
         return new DateTime(this.validFrom).toDateMidnight().getYear();
     }
+
+
+    /**
+     * Creates a detached copy of this account with the same ID, so that the copy can be changed and saved without
+     * changing this account.
+     *
+     * @return  the copy of this account
+     */
+    Account copy() {
+
+        Account copy = new Account(person, validFrom, validTo, annualVacationDays, remainingVacationDays,
+                remainingVacationDaysExpire);
+        copy.setId(getId());
+        copy.setVacationDays(vacationDays);
+
+        return copy;
+    }
 }
@@ -6,6 +6,9 @@ import org.springframework.data.jpa.repository.Query;
 
 import org.synyx.urlaubsverwaltung.core.person.Person;
 
+import java.util.Date;
+import java.util.List;
+
 
 /**
  * Repository for {@link Account} entities.
@@ -14,6 +17,11 @@ import org.synyx.urlaubsverwaltung.core.person.Person;
  */
 public interface AccountDAO extends JpaRepository<Account, Integer> {
 
-    @Query("select x from Account x where YEAR(x.validFrom) = ?1 and x.person = ?2")
-    Account getHolidaysAccountByYearAndPerson(int year, Person person);
+    // range instead of YEAR(x.validFrom), so that the index on person and validFrom can be used
+    @Query("select x from Account x where x.person = ?3 and x.validFrom between ?1 and ?2")
+    Account getHolidaysAccountByValidFromAndPerson(Date firstDayOfYear, Date lastDayOfYear, Person person);
+
+
+    @Query("select x from Account x where x.validFrom between ?1 and ?2")
+    List<Account> getHolidaysAccountsByValidFrom(Date firstDayOfYear, Date lastDayOfYear);
 }
@@ -7,6 +7,8 @@ import org.synyx.urlaubsverwaltung.core.person.Person;
 
 import java.math.BigDecimal;
 
+import java.util.List;
+
 
 /**
  * Provides services related to {@link Account} entities.
@@ -34,6 +36,16 @@ public interface AccountService {
     Account getHolidaysAccount(int year, Person person);
 
 
+    /**
+     * Gets the {@link Account}s of all persons for the given year.
+     *
+     * @param  year  int
+     *
+     * @return  all {@link Account}s for the given year
+     */
+    List<Account> getHolidaysAccounts(int year);
+
+
     /**
      * Creates a {@link Account} with the given params.
      *
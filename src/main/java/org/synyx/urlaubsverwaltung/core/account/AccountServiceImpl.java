@@ -1,5 +1,8 @@
 package org.synyx.urlaubsverwaltung.core.account;
 
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+
 import org.apache.log4j.Logger;
 
 import org.joda.time.DateMidnight;
@@ -13,6 +16,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import org.synyx.urlaubsverwaltung.DateFormat;
+import org.synyx.urlaubsverwaltung.core.cache.CacheInvalidation;
+import org.synyx.urlaubsverwaltung.core.cache.CacheRegistry;
 import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.util.DateUtil;
@@ -20,10 +25,19 @@ import org.synyx.urlaubsverwaltung.core.util.DateUtil;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 
 /**
  * Implementation of interface {@link AccountService}.
  *
+ * <p>The holidays accounts are cached per person and year, because they are looked up by nearly every page and
+ * calculation. The cached accounts of a person are invalidated if one of his/her accounts is saved. Every caller gets
+ * its own copy of a cached account, so that changes of the caller are not visible to others before they are saved.
+ * </p>
+ *
  * @author  Aljona Murygina - murygina@synyx.de
  */
 @Service
@@ -38,17 +52,63 @@ class AccountServiceImpl implements AccountService {
     private final AccountDAO accountDAO;
     private final OwnCalendarService calendarService;
 
+    // key: id of the person, value: accounts of the person by year, absent if the person has no account for the year
+    private final Cache<Integer, ConcurrentMap<Integer, Optional<Account>>> accounts;
+
     @Autowired
-    AccountServiceImpl(AccountDAO accountDAO, OwnCalendarService calendarService) {
+    AccountServiceImpl(AccountDAO accountDAO, OwnCalendarService calendarService, CacheRegistry cacheRegistry) {
 
         this.accountDAO = accountDAO;
         this.calendarService = calendarService;
+        this.accounts = cacheRegistry.create("accounts");
     }
 
     @Override
     public Account getHolidaysAccount(int year, Person person) {
 
-        return accountDAO.getHolidaysAccountByYearAndPerson(year, person);
+        Integer personId = person.getId();
+
+        // not persisted persons have no accounts that could be cached
+        if (personId == null) {
+            return loadHolidaysAccount(year, person);
+        }
+
+        ConcurrentMap<Integer, Optional<Account>> accountsOfPerson = accounts.getIfPresent(personId);
+
+        if (accountsOfPerson == null) {
+            accountsOfPerson = new ConcurrentHashMap<>();
+
+            ConcurrentMap<Integer, Optional<Account>> existingAccounts = accounts.asMap().putIfAbsent(personId,
+                    accountsOfPerson);
+
+            if (existingAccounts != null) {
+                accountsOfPerson = existingAccounts;
+            }
+        }
+
+        Optional<Account> account = accountsOfPerson.get(year);
+
+        if (account == null) {
+            account = Optional.fromNullable(loadHolidaysAccount(year, person));
+            accountsOfPerson.put(year, account);
+        }
+
+        return account.isPresent() ? account.get().copy() : null;
+    }
+
+
+    private Account loadHolidaysAccount(int year, Person person) {
+
+        return accountDAO.getHolidaysAccountByValidFromAndPerson(DateUtil.getFirstDayOfYear(year).toDate(),
+                DateUtil.getLastDayOfYear(year).toDate(), person);
+    }
+
+
+    @Override
+    public List<Account> getHolidaysAccounts(int year) {
+
+        return accountDAO.getHolidaysAccountsByValidFrom(DateUtil.getFirstDayOfYear(year).toDate(),
+                DateUtil.getLastDayOfYear(year).toDate());
     }
 
 
@@ -61,6 +121,7 @@ class AccountServiceImpl implements AccountService {
         BigDecimal vacationDays = calculateActualVacationDays(account);
         account.setVacationDays(vacationDays);
         accountDAO.save(account);
+        invalidate(person);
 
         LOG.info("Created holidays account for " + person.getLoginName() + " with following values: " + "{validFrom: "
             + validFrom.toString(DateFormat.PATTERN) + ", validTo: " + validTo.toString(DateFormat.PATTERN)
@@ -83,6 +144,7 @@ class AccountServiceImpl implements AccountService {
         account.setVacationDays(vacationDays);
 
         accountDAO.save(account);
+        invalidate(account.getPerson());
 
         LOG.info("Edited holidays account of " + account.getPerson().getLoginName() + " with following values: "
             + "{validFrom: " + validFrom.toString(DateFormat.PATTERN) + ", validTo: "
@@ -230,5 +292,32 @@ class AccountServiceImpl implements AccountService {
     public void save(Account account) {
 
         accountDAO.save(account);
+        invalidate(account.getPerson());
+    }
+
+
+    /**
+     * Removes the cached accounts of the given person, has to be called whenever an account of the person is saved. If
+     * there is a running transaction, the accounts are removed again after commit or rollback so that they can not be
+     * reloaded with stale data in the meantime.
+     *
+     * @param  person  whose accounts should be invalidated
+     */
+    private void invalidate(Person person) {
+
+        final Integer personId = person.getId();
+
+        if (personId == null) {
+            return;
+        }
+
+        CacheInvalidation.invalidateNowAndAfterCompletion(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    accounts.invalidate(personId);
+                }
+            });
     }
 }
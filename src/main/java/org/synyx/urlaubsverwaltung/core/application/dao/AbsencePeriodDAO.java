@@ -0,0 +1,167 @@
+package org.synyx.urlaubsverwaltung.core.application.dao;
+
+import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+
+import org.hibernate.jdbc.Work;
+
+import org.joda.time.DateMidnight;
+
+import org.springframework.stereotype.Repository;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsencePeriod;
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsencePeriodHandler;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+
+import java.io.IOException;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import java.util.Date;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+
+
+/**
+ * Reads the absence periods of applications for leave and sick notes with a forward only cursor. Only the needed
+ * columns are selected, so no entities (and no eagerly fetched associations) are loaded and the memory needed does
+ * not depend on the number of rows.
+ *
+ * @author  agent
+ */
+@Repository
+public class AbsencePeriodDAO {
+
+    // the MySQL driver streams the rows one by one instead of reading the whole result only with this fetch size
+    private static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    // other drivers (e.g. H2) reject negative fetch sizes, they read the rows in chunks of this size
+    private static final int FETCH_SIZE = 500;
+
+    private static final String MYSQL = "MySQL";
+
+    private static final String PERSON_COLUMNS = "p.loginName, p.email, p.firstName, p.lastName";
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    // determined by the database of the first query, see {@link #getFetchSize(Session)}
+    private volatile Integer fetchSize;
+
+    /**
+     * Reads the absence periods of the applications for leave with the given status in the given period.
+     *
+     * @param  startDate  of the period
+     * @param  endDate  of the period
+     * @param  status  of the applications for leave
+     * @param  handler  to handle every absence period with
+     *
+     * @throws  IOException  if the handler fails to write an absence period
+     */
+    public void scrollApplicationsForACertainTimeAndState(Date startDate, Date endDate, ApplicationStatus status,
+        AbsencePeriodHandler handler) throws IOException {
+
+        scroll("select x.startDate, x.endDate, " + PERSON_COLUMNS + ", x.howLong from Application x join x.person p "
+            + "where x.status = :status and ((x.startDate between :start and :end) "
+            + "or (x.endDate between :start and :end) or (x.startDate < :start and x.endDate > :end)) "
+            + "order by x.startDate", startDate, endDate, status, handler);
+    }
+
+
+    /**
+     * Reads the absence periods of the sick notes in the given period, sick notes are always absences of full days.
+     *
+     * @param  startDate  of the period
+     * @param  endDate  of the period
+     * @param  handler  to handle every absence period with
+     *
+     * @throws  IOException  if the handler fails to write an absence period
+     */
+    public void scrollSickNotesForACertainTime(Date startDate, Date endDate, AbsencePeriodHandler handler)
+        throws IOException {
+
+        scroll("select x.startDate, x.endDate, " + PERSON_COLUMNS + " from SickNote x join x.person p "
+            + "where (x.startDate between :start and :end) or (x.endDate between :start and :end) "
+            + "order by x.startDate", startDate, endDate, null, handler);
+    }
+
+
+    private void scroll(String queryString, Date startDate, Date endDate, ApplicationStatus status,
+        AbsencePeriodHandler handler) throws IOException {
+
+        // the cursor has to stay open while the rows are handled, so the entity manager is not shared
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+
+        try {
+            Session session = (Session) entityManager.getDelegate();
+
+            Query query = session.createQuery(queryString);
+            query.setDate("start", startDate);
+            query.setDate("end", endDate);
+
+            if (status != null) {
+                query.setParameter("status", status);
+            }
+
+            query.setReadOnly(true);
+            query.setFetchSize(getFetchSize(session));
+
+            ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
+
+            try {
+                while (results.next()) {
+                    handler.handle(toAbsencePeriod(results.get()));
+                }
+            } finally {
+                results.close();
+            }
+        } finally {
+            entityManager.close();
+        }
+    }
+
+
+    /**
+     * Returns the fetch size for the database of the given session: rows are streamed one by one with MySQL, other
+     * databases read them in chunks.
+     */
+    private int getFetchSize(Session session) {
+
+        if (fetchSize == null) {
+            final StringBuilder databaseProductName = new StringBuilder();
+
+            session.doWork(new Work() {
+
+                    @Override
+                    public void execute(Connection connection) throws SQLException {
+
+                        databaseProductName.append(connection.getMetaData().getDatabaseProductName());
+                    }
+                });
+
+            if (MYSQL.equalsIgnoreCase(databaseProductName.toString())) {
+                fetchSize = MYSQL_STREAMING_FETCH_SIZE;
+            } else {
+                fetchSize = FETCH_SIZE;
+            }
+        }
+
+        return fetchSize;
+    }
+
+
+    private static AbsencePeriod toAbsencePeriod(Object[] row) {
+
+        // the day length is only selected for applications for leave
+        DayLength dayLength = row.length > 6 ? (DayLength) row[6] : DayLength.FULL;
+
+        return new AbsencePeriod(new DateMidnight(row[0]), new DateMidnight(row[1]), dayLength, (String) row[2],
+                (String) row[3], (String) row[4], (String) row[5]);
+    }
+}
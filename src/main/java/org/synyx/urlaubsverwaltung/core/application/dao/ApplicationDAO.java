@@ -5,10 +5,10 @@ import org.springframework.data.jpa.repository.Query;
 
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
-import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
 import org.synyx.urlaubsverwaltung.core.application.domain.VacationType;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -18,21 +18,29 @@ import java.util.List;
  *
  * @author  Aljona Murygina - murygina@synyx.de
  */
-public interface ApplicationDAO extends JpaRepository<Application, Integer> {
+public interface ApplicationDAO extends JpaRepository<Application, Integer>, ApplicationDAOCustom {
+
+    /**
+     * Joins all persons of an application for leave, so that list queries load them with the applications for leave
+     * instead of with one select per person.
+     */
+    String FETCH_PERSONS = "left join fetch x.person left join fetch x.applier left join fetch x.boss "
+        + "left join fetch x.canceller left join fetch x.rep ";
 
     @Query("select max(id) from Application x where x.person = ?1 and x.status = ?2")
     int getIdOfLatestApplication(Person person, ApplicationStatus status);
 
 
     @Query(
-        "select x from Application x where (x.startDate between ?1 and ?2) or (x.endDate between ?1 and ?2)"
+        "select x from Application x " + FETCH_PERSONS
+        + "where (x.startDate between ?1 and ?2) or (x.endDate between ?1 and ?2)"
         + " or (x.startDate < ?1 and x.endDate > ?2) order by x.startDate"
     )
     List<Application> getApplicationsForACertainTime(Date startDate, Date endDate);
 
 
     @Query(
-        "select x from Application x "
+        "select x from Application x " + FETCH_PERSONS
         + "where x.status = ?3 and ((x.startDate between ?1 and ?2) or (x.endDate between ?1 and ?2) "
         + "or (x.startDate < ?1 and x.endDate > ?2)) "
         + "order by x.startDate"
@@ -41,7 +49,7 @@ public interface ApplicationDAO extends JpaRepository<Application, Integer> {
 
 
     @Query(
-        "select x from Application x "
+        "select x from Application x " + FETCH_PERSONS
         + "where x.person = ?3 and ((x.startDate between ?1 and ?2) or (x.endDate between ?1 and ?2) "
         + "or (x.startDate < ?1 and x.endDate > ?2)) "
         + "order by x.startDate"
@@ -50,7 +58,7 @@ public interface ApplicationDAO extends JpaRepository<Application, Integer> {
 
 
     @Query(
-        "select x from Application x "
+        "select x from Application x " + FETCH_PERSONS
         + "where x.person = ?3 and x.status = ?4 and ((x.startDate between ?1 and ?2) or (x.endDate between ?1 and ?2) "
         + "or (x.startDate < ?1 and x.endDate > ?2)) "
         + "order by x.startDate"
@@ -60,53 +68,68 @@ public interface ApplicationDAO extends JpaRepository<Application, Integer> {
 
 
     @Query(
-        "select x from Application x where x.person = ?1 "
-        + "and ((x.startDate between ?2 and ?3) and (x.endDate between ?2 and ?3)) "
-        + "and x.vacationType = ?4 "
-        + "and (x.status = ?5 or x.status = ?6) "
+        "select x from Application x " + FETCH_PERSONS
+        + "where x.person = ?3 and x.vacationType = ?4 and (x.status = ?5 or x.status = ?6) "
+        + "and ((x.startDate between ?1 and ?2) or (x.endDate between ?1 and ?2) "
+        + "or (x.startDate < ?1 and x.endDate > ?2)) "
+        + "order by x.startDate"
+    )
+    List<Application> getApplicationsForACertainTimeAndPersonAndVacationTypeAndStates(Date startDate, Date endDate,
+        Person person, VacationType type, ApplicationStatus waitingState, ApplicationStatus allowedState);
+
+
+    @Query(
+        "select x from Application x " + FETCH_PERSONS
+        + "where x.vacationType = ?3 and (x.status = ?4 or x.status = ?5) "
+        + "and ((x.startDate between ?1 and ?2) or (x.endDate between ?1 and ?2) "
+        + "or (x.startDate < ?1 and x.endDate > ?2)) "
         + "order by x.startDate"
     )
-    List<Application> getApplicationsBetweenTwoMilestones(Person person, Date firstMilestone, Date lastMilestone,
+    List<Application> getApplicationsForACertainTimeAndVacationTypeAndStates(Date startDate, Date endDate,
         VacationType type, ApplicationStatus waitingState, ApplicationStatus allowedState);
 
 
     @Query(
-        "select x from Application x where x.person = ?1 "
-        + "and ((x.startDate < ?2) and (x.endDate between ?2 and ?3)) "
-        + "and x.vacationType = ?4 "
-        + "and (x.status = ?5 or x.status = ?6) "
+        "select x from Application x " + FETCH_PERSONS
+        + "where (x.status = ?3 or x.status = ?4) "
+        + "and ((x.startDate between ?1 and ?2) or (x.endDate between ?1 and ?2) "
+        + "or (x.startDate < ?1 and x.endDate > ?2)) "
         + "order by x.startDate"
     )
-    List<Application> getApplicationsBeforeFirstMilestone(Person person, Date firstMilestone, Date lastMilestone,
-        VacationType type, ApplicationStatus cancelledState, ApplicationStatus allowedState);
+    List<Application> getApplicationsForACertainTimeAndStates(Date startDate, Date endDate,
+        ApplicationStatus waitingState, ApplicationStatus allowedState);
 
 
     @Query(
-        "select x from Application x where x.person = ?1 "
-        + "and ((x.startDate between ?2 and ?3) and (x.endDate > ?3)) "
-        + "and x.vacationType = ?4 "
-        + "and (x.status = ?5 or x.status = ?6) "
+        "select x from Application x " + FETCH_PERSONS
+        + "where (x.status = ?3 or x.status = ?4) and x.person.id in (?5) "
+        + "and ((x.startDate between ?1 and ?2) or (x.endDate between ?1 and ?2) "
+        + "or (x.startDate < ?1 and x.endDate > ?2)) "
         + "order by x.startDate"
     )
-    List<Application> getApplicationsAfterLastMilestone(Person person, Date firstMilestone, Date lastMilestone,
-        VacationType type, ApplicationStatus cancelledState, ApplicationStatus allowedState);
+    List<Application> getApplicationsForACertainTimeAndStatesAndPersons(Date startDate, Date endDate,
+        ApplicationStatus waitingState, ApplicationStatus allowedState, Collection<Integer> personIds);
 
 
     @Query(
-        "select x from Application x where "
-        + "((x.startDate between ?1 and ?2) or (x.endDate between ?1 and ?2) or (x.startDate < ?1 and x.endDate > ?2)) "
-        + "and x.person = ?3 and (x.status = 'WAITING' or x.status = 'ALLOWED') and x.howLong = ?4 order by x.startDate"
+        "select x from Application x " + FETCH_PERSONS
+        + "where x.person = ?1 and (x.status = 'WAITING' or x.status = 'ALLOWED') "
+        + "order by x.startDate"
     )
-    List<Application> getRelevantActiveApplicationsByPeriodAndDayLength(Date startDate, Date endDate, Person person,
-        DayLength length);
+    List<Application> getActiveApplicationsByPerson(Person person);
 
 
     @Query(
         "select x from Application x "
-        + "where ((x.startDate between ?1 and ?2) or (x.endDate between ?1 and ?2) or "
-        + "(x.startDate < ?1 and x.endDate > ?2)) "
-        + "and x.person = ?3 and (x.status = 'WAITING' or x.status = 'ALLOWED') order by x.startDate"
+        + "where x.person = ?3 and x.startDate <= ?2 and x.endDate >= ?1 "
+        + "and (x.status = 'WAITING' or x.status = 'ALLOWED') order by x.startDate"
+    )
+    List<Application> getActiveApplicationsByPersonAndPeriod(Date startDate, Date endDate, Person person);
+
+
+    @Query(
+        "select x from Application x " + FETCH_PERSONS
+        + "where x.daysInStartYear is null or x.daysInEndYear is null"
     )
-    List<Application> getRelevantActiveApplicationsByPeriodForEveryDayLength(Date startDate, Date endDate,
-        Person person);
+    List<Application> getApplicationsWithoutDaysPerYear();
 }
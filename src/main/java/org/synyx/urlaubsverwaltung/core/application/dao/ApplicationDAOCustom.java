@@ -0,0 +1,36 @@
+package org.synyx.urlaubsverwaltung.core.application.dao;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationSortOrder;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+
+import java.util.Date;
+import java.util.List;
+
+
+/**
+ * Queries of {@link ApplicationDAO} that are built dynamically, implemented by {@link ApplicationDAOImpl}.
+ *
+ * @author  agent
+ */
+public interface ApplicationDAOCustom {
+
+    /**
+     * Get a page of the relevant applications for leave of the given period, sorted in the given order. Paging is done
+     * by the sort values of the last application for leave of the previous page (keyset paging), so the cost of a page
+     * does not depend on the number of previous pages.
+     *
+     * @param  startDate  of the period
+     * @param  endDate  of the period
+     * @param  status  of the applications for leave, {@code null} for all not cancelled applications for leave;
+     *                 cancelled applications for leave are only relevant if they have been allowed before
+     * @param  sortOrder  to sort the applications for leave by
+     * @param  ascending  true to sort ascending, false to sort descending
+     * @param  after  the last application for leave of the previous page, {@code null} for the first page
+     * @param  limit  maximum number of applications for leave of the page
+     *
+     * @return  the applications for leave of the page
+     */
+    List<Application> getApplicationsPage(Date startDate, Date endDate, ApplicationStatus status,
+        ApplicationSortOrder sortOrder, boolean ascending, Application after, int limit);
+}
@@ -0,0 +1,146 @@
+package org.synyx.urlaubsverwaltung.core.application.dao;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationSortOrder;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+
+import java.math.BigDecimal;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+
+
+/**
+ * Implementation of {@link ApplicationDAOCustom}, found by Spring Data by its name.
+ *
+ * @author  agent
+ */
+public class ApplicationDAOImpl implements ApplicationDAOCustom {
+
+    private static final String KEY_PARAMETER = "key";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Application> getApplicationsPage(Date startDate, Date endDate, ApplicationStatus status,
+        ApplicationSortOrder sortOrder, boolean ascending, Application after, int limit) {
+
+        List<String> keyExpressions = getKeyExpressions(sortOrder);
+
+        StringBuilder queryString = new StringBuilder("select x from Application x join fetch x.person p "
+                + "left join fetch x.applier left join fetch x.boss left join fetch x.canceller left join fetch x.rep "
+                + "where ((x.startDate between :startDate and :endDate) or (x.endDate between :startDate and :endDate) "
+                + "or (x.startDate < :startDate and x.endDate > :endDate))");
+
+        if (status == null) {
+            queryString.append(" and (x.status <> :cancelled or x.formerlyAllowed = true)");
+        } else {
+            queryString.append(" and x.status = :status");
+
+            if (status == ApplicationStatus.CANCELLED) {
+                queryString.append(" and x.formerlyAllowed = true");
+            }
+        }
+
+        if (after != null) {
+            queryString.append(" and ").append(getKeysetCondition(keyExpressions, 0, ascending ? ">" : "<"));
+        }
+
+        queryString.append(" order by ");
+
+        for (int i = 0; i < keyExpressions.size(); i++) {
+            queryString.append(i == 0 ? "" : ", ").append(keyExpressions.get(i)).append(ascending ? " asc" : " desc");
+        }
+
+        TypedQuery<Application> query = entityManager.createQuery(queryString.toString(), Application.class);
+        query.setParameter("startDate", startDate);
+        query.setParameter("endDate", endDate);
+
+        if (status == null) {
+            query.setParameter("cancelled", ApplicationStatus.CANCELLED);
+        } else {
+            query.setParameter("status", status);
+        }
+
+        if (after != null) {
+            List<Object> keyValues = getKeyValues(sortOrder, after);
+
+            for (int i = 0; i < keyValues.size(); i++) {
+                query.setParameter(KEY_PARAMETER + i, keyValues.get(i));
+            }
+        }
+
+        query.setMaxResults(limit);
+
+        return query.getResultList();
+    }
+
+
+    /**
+     * Get the expressions the applications for leave are ordered by, the ID is always the last one. Null values are
+     * replaced, because they can not be compared with the values of the previous page.
+     */
+    private static List<String> getKeyExpressions(ApplicationSortOrder sortOrder) {
+
+        switch (sortOrder) {
+            case PERSON:
+                return Arrays.asList("coalesce(p.firstName, '')", "coalesce(p.lastName, '')", "x.id");
+
+            case DAYS:
+                return Arrays.asList("coalesce(x.days, 0)", "x.id");
+
+            default:
+                return Arrays.asList("x.startDate", "x.id");
+        }
+    }
+
+
+    /**
+     * Get the values of the expressions of {@link #getKeyExpressions(ApplicationSortOrder)} for the given application
+     * for leave.
+     */
+    private static List<Object> getKeyValues(ApplicationSortOrder sortOrder, Application application) {
+
+        switch (sortOrder) {
+            case PERSON:
+
+                String firstName = application.getPerson().getFirstName();
+                String lastName = application.getPerson().getLastName();
+
+                return Arrays.<Object>asList(firstName == null ? "" : firstName, lastName == null ? "" : lastName,
+                        application.getId());
+
+            case DAYS:
+
+                BigDecimal days = application.getDays();
+
+                return Arrays.<Object>asList(days == null ? BigDecimal.ZERO : days, application.getId());
+
+            default:
+                return Arrays.<Object>asList(application.getStartDate().toDate(), application.getId());
+        }
+    }
+
+
+    /**
+     * Get the condition that the keys of an application for leave come after the keys of the previous page, e.g. for
+     * two keys: {@code a > :key0 or (a = :key0 and b > :key1)}.
+     */
+    private static String getKeysetCondition(List<String> keyExpressions, int index, String operator) {
+
+        String condition = keyExpressions.get(index) + " " + operator + " :" + KEY_PARAMETER + index;
+
+        if (index == keyExpressions.size() - 1) {
+            return condition;
+        }
+
+        return "(" + condition + " or (" + keyExpressions.get(index) + " = :" + KEY_PARAMETER + index + " and "
+            + getKeysetCondition(keyExpressions, index + 1, operator) + "))";
+    }
+}
@@ -0,0 +1,17 @@
+package org.synyx.urlaubsverwaltung.core.application.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationSignatures;
+
+
+/**
+ * Repository for {@link ApplicationSignatures} entities.
+ *
+ * @author  agent
+ */
+public interface ApplicationSignaturesDAO extends JpaRepository<ApplicationSignatures, Integer> {
+
+    ApplicationSignatures findByApplication(Application application);
+}
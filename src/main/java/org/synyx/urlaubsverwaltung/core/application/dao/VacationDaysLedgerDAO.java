@@ -0,0 +1,44 @@
+package org.synyx.urlaubsverwaltung.core.application.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import org.synyx.urlaubsverwaltung.core.account.Account;
+import org.synyx.urlaubsverwaltung.core.application.domain.VacationDaysLedger;
+
+import java.math.BigDecimal;
+
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * Repository for {@link VacationDaysLedger} entities.
+ *
+ * @author  agent
+ */
+public interface VacationDaysLedgerDAO extends JpaRepository<VacationDaysLedger, Integer> {
+
+    @Query("SELECT x FROM VacationDaysLedger x WHERE x.account = ?1")
+    VacationDaysLedger findByAccount(Account account);
+
+
+    @Query("SELECT x FROM VacationDaysLedger x WHERE x.account IN (?1)")
+    List<VacationDaysLedger> findByAccounts(Collection<Account> accounts);
+
+
+    // the days are added within the update statement, so concurrent changes of the ledger of an account do not get lost
+    @Transactional
+    @Modifying
+    @Query(
+        "UPDATE VacationDaysLedger x SET x.waitingDaysBeforeApril = x.waitingDaysBeforeApril + ?2, "
+        + "x.allowedDaysBeforeApril = x.allowedDaysBeforeApril + ?3, "
+        + "x.waitingDaysAfterApril = x.waitingDaysAfterApril + ?4, "
+        + "x.allowedDaysAfterApril = x.allowedDaysAfterApril + ?5 WHERE x.account = ?1"
+    )
+    int addDays(Account account, BigDecimal waitingDaysBeforeApril, BigDecimal allowedDaysBeforeApril,
+        BigDecimal waitingDaysAfterApril, BigDecimal allowedDaysAfterApril);
+}
@@ -0,0 +1,40 @@
+package org.synyx.urlaubsverwaltung.core.application.domain;
+
+import org.synyx.urlaubsverwaltung.core.person.Person;
+
+
+/**
+ * The absence of a person on a day, caused by an application for leave or a sick note.
+ *
+ * @author  agent
+ */
+public final class Absence {
+
+    private final Person person;
+    private final AbsenceKind kind;
+    private final DayLength dayLength;
+
+    public Absence(Person person, AbsenceKind kind, DayLength dayLength) {
+
+        this.person = person;
+        this.kind = kind;
+        this.dayLength = dayLength;
+    }
+
+    public Person getPerson() {
+
+        return person;
+    }
+
+
+    public AbsenceKind getKind() {
+
+        return kind;
+    }
+
+
+    public DayLength getDayLength() {
+
+        return dayLength;
+    }
+}
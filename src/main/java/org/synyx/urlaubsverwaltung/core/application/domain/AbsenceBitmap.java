@@ -0,0 +1,217 @@
+package org.synyx.urlaubsverwaltung.core.application.domain;
+
+import org.joda.time.DateMidnight;
+
+import org.synyx.urlaubsverwaltung.core.util.DateUtil;
+
+
+/**
+ * The absences of a person in a year with the resolution of half days: every day of the year is represented by two
+ * bits (morning and noon) and every {@link AbsenceKind} has its own plane of bits, so that the absences of a period can
+ * be checked with bit operations on whole words instead of iterating over the days.
+ *
+ * @author  agent
+ */
+public final class AbsenceBitmap {
+
+    // the morning of a day is the even bit, the noon of a day is the following odd bit
+    private static final long MORNING_BITS = 0x5555555555555555L;
+    private static final long NOON_BITS = MORNING_BITS << 1;
+
+    private static final int BITS_PER_WORD = 64;
+    private static final int MAX_DAYS_OF_YEAR = 366;
+    private static final int WORDS = (2 * MAX_DAYS_OF_YEAR + BITS_PER_WORD - 1) / BITS_PER_WORD;
+
+    private final int year;
+    private final DateMidnight firstDayOfYear;
+    private final DateMidnight lastDayOfYear;
+
+    private final long[][] planes = new long[AbsenceKind.values().length][WORDS];
+
+    public AbsenceBitmap(int year) {
+
+        this.year = year;
+        this.firstDayOfYear = DateUtil.getFirstDayOfYear(year);
+        this.lastDayOfYear = DateUtil.getLastDayOfYear(year);
+    }
+
+    public int getYear() {
+
+        return year;
+    }
+
+
+    /**
+     * Marks the given period (as far as it is within the year of this bitmap) as absence of the given kind.
+     *
+     * @param  kind  of the absence
+     * @param  startDate  of the period, inclusive
+     * @param  endDate  of the period, inclusive
+     * @param  dayLength  the person is absent on every day of the period
+     */
+    public void add(AbsenceKind kind, DateMidnight startDate, DateMidnight endDate, DayLength dayLength) {
+
+        long pattern = getPattern(dayLength);
+
+        if (pattern == 0 || startDate.isAfter(lastDayOfYear) || endDate.isBefore(firstDayOfYear)) {
+            return;
+        }
+
+        long[] plane = planes[kind.ordinal()];
+
+        int fromBit = getFirstBit(startDate);
+        int toBit = getLastBit(endDate);
+
+        for (int word = fromBit / BITS_PER_WORD; word <= toBit / BITS_PER_WORD; word++) {
+            plane[word] |= getRangeMask(word, fromBit, toBit) & pattern;
+        }
+    }
+
+
+    /**
+     * Checks if the person is absent on the given day for the given day length with one of the given kinds of absence.
+     *
+     * @param  day  to check
+     * @param  dayLength  {@link DayLength#FULL} means absent on any half of the day
+     * @param  kinds  of absence to consider
+     *
+     * @return  true if the person is absent, else false
+     */
+    public boolean isAbsent(DateMidnight day, DayLength dayLength, AbsenceKind... kinds) {
+
+        return getNumberOfDaysWithAbsence(day, day, dayLength, kinds) > 0;
+    }
+
+
+    /**
+     * Counts the days of the given period (as far as it is within the year of this bitmap) on which the person is
+     * absent for the given day length with one of the given kinds of absence.
+     *
+     * @param  startDate  of the period, inclusive
+     * @param  endDate  of the period, inclusive
+     * @param  dayLength  {@link DayLength#FULL} means absent on any half of the day, {@link DayLength#MORNING} resp.
+     *                    {@link DayLength#NOON} means absent on this half of the day
+     * @param  kinds  of absence to consider
+     *
+     * @return  number of days with absence
+     */
+    public int getNumberOfDaysWithAbsence(DateMidnight startDate, DateMidnight endDate, DayLength dayLength,
+        AbsenceKind... kinds) {
+
+        if (dayLength == DayLength.ZERO || startDate.isAfter(lastDayOfYear) || endDate.isBefore(firstDayOfYear)) {
+            return 0;
+        }
+
+        int fromBit = getFirstBit(startDate);
+        int toBit = getLastBit(endDate);
+
+        int days = 0;
+
+        for (int word = fromBit / BITS_PER_WORD; word <= toBit / BITS_PER_WORD; word++) {
+            long absences = 0;
+
+            for (AbsenceKind kind : kinds) {
+                absences |= planes[kind.ordinal()][word];
+            }
+
+            // move the bits to the morning position, so that every day is counted once
+            long daysWithAbsence;
+
+            if (dayLength == DayLength.MORNING) {
+                daysWithAbsence = absences;
+            } else if (dayLength == DayLength.NOON) {
+                daysWithAbsence = absences >>> 1;
+            } else {
+                daysWithAbsence = absences | (absences >>> 1);
+            }
+
+            days += Long.bitCount(daysWithAbsence & getRangeMask(word, fromBit, toBit) & MORNING_BITS);
+        }
+
+        return days;
+    }
+
+
+    /**
+     * Get the halves of the given day on which the person is absent with the given kind of absence.
+     *
+     * @param  day  to check, days that are not within the year of this bitmap have no absence
+     * @param  kind  of absence
+     *
+     * @return  {@link DayLength#FULL}, {@link DayLength#MORNING} or {@link DayLength#NOON} if the person is absent on
+     *          the whole day resp. the half of the day, {@link DayLength#ZERO} if the person is not absent
+     */
+    public DayLength getDayLength(DateMidnight day, AbsenceKind kind) {
+
+        if (day.isBefore(firstDayOfYear) || day.isAfter(lastDayOfYear)) {
+            return DayLength.ZERO;
+        }
+
+        // the two bits of a day are never split over two words
+        int bit = getFirstBit(day);
+        long bitsOfDay = planes[kind.ordinal()][bit / BITS_PER_WORD] >>> (bit % BITS_PER_WORD);
+
+        boolean morning = (bitsOfDay & 1L) != 0;
+        boolean noon = (bitsOfDay & 2L) != 0;
+
+        if (morning && noon) {
+            return DayLength.FULL;
+        } else if (morning) {
+            return DayLength.MORNING;
+        } else if (noon) {
+            return DayLength.NOON;
+        }
+
+        return DayLength.ZERO;
+    }
+
+
+    private static long getPattern(DayLength dayLength) {
+
+        switch (dayLength) {
+            case FULL:
+                return MORNING_BITS | NOON_BITS;
+
+            case MORNING:
+                return MORNING_BITS;
+
+            case NOON:
+                return NOON_BITS;
+
+            default:
+                return 0;
+        }
+    }
+
+
+    private int getFirstBit(DateMidnight startDate) {
+
+        if (startDate.isBefore(firstDayOfYear)) {
+            return 0;
+        }
+
+        return 2 * (startDate.getDayOfYear() - 1);
+    }
+
+
+    private int getLastBit(DateMidnight endDate) {
+
+        DateMidnight lastDay = endDate.isAfter(lastDayOfYear) ? lastDayOfYear : endDate;
+
+        return 2 * (lastDay.getDayOfYear() - 1) + 1;
+    }
+
+
+    /**
+     * Get the bits of the given word that are within the given range of bits.
+     */
+    private static long getRangeMask(int word, int fromBit, int toBit) {
+
+        int lowestBit = Math.max(fromBit, word * BITS_PER_WORD);
+        int highestBit = Math.min(toBit, word * BITS_PER_WORD + BITS_PER_WORD - 1);
+
+        int numberOfBits = highestBit - lowestBit + 1;
+
+        return (-1L >>> (BITS_PER_WORD - numberOfBits)) << (lowestBit - word * BITS_PER_WORD);
+    }
+}
@@ -0,0 +1,113 @@
+package org.synyx.urlaubsverwaltung.core.application.domain;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.Days;
+
+import org.synyx.urlaubsverwaltung.core.person.Person;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * The {@link Absence}s of persons in a period, indexed by the day of the period.
+ *
+ * @author  agent
+ */
+public final class AbsenceCalendar {
+
+    private final DateMidnight startDate;
+    private final List<List<Absence>> absencesPerDay;
+
+    public AbsenceCalendar(DateMidnight startDate, DateMidnight endDate) {
+
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date " + endDate + " is before start date " + startDate);
+        }
+
+        this.startDate = startDate;
+
+        int numberOfDays = Days.daysBetween(startDate, endDate).getDays() + 1;
+
+        this.absencesPerDay = new ArrayList<List<Absence>>(numberOfDays);
+
+        for (int i = 0; i < numberOfDays; i++) {
+            absencesPerDay.add(new ArrayList<Absence>());
+        }
+    }
+
+    /**
+     * Adds the absence of the given person on every day of the given period, as far as it is within the period of
+     * this calendar.
+     *
+     * @param  person  who is absent
+     * @param  kind  of the absence
+     * @param  from  start of the absence, inclusive
+     * @param  to  end of the absence, inclusive
+     * @param  dayLength  the person is absent on every day
+     */
+    public void add(Person person, AbsenceKind kind, DateMidnight from, DateMidnight to, DayLength dayLength) {
+
+        int firstDay = Math.max(0, Days.daysBetween(startDate, from).getDays());
+        int lastDay = Math.min(getNumberOfDays() - 1, Days.daysBetween(startDate, to).getDays());
+
+        if (firstDay > lastDay) {
+            return;
+        }
+
+        Absence absence = new Absence(person, kind, dayLength);
+
+        for (int day = firstDay; day <= lastDay; day++) {
+            absencesPerDay.get(day).add(absence);
+        }
+    }
+
+
+    public int getNumberOfDays() {
+
+        return absencesPerDay.size();
+    }
+
+
+    /**
+     * @param  day  index of the day, 0 is the start date of the period
+     *
+     * @return  the date of the day with the given index
+     */
+    public DateMidnight getDate(int day) {
+
+        return startDate.plusDays(day);
+    }
+
+
+    /**
+     * @param  day  index of the day, 0 is the start date of the period
+     *
+     * @return  all absences on the day with the given index
+     */
+    public List<Absence> getAbsences(int day) {
+
+        return Collections.unmodifiableList(absencesPerDay.get(day));
+    }
+
+
+    /**
+     * @param  day  index of the day, 0 is the start date of the period
+     *
+     * @return  the persons that are absent on the day with the given index, every person is contained once even if
+     *          the person has several absences on this day (e.g. in the morning and at noon)
+     */
+    public Set<Person> getAbsentPersons(int day) {
+
+        Set<Person> persons = new LinkedHashSet<Person>();
+
+        for (Absence absence : absencesPerDay.get(day)) {
+            persons.add(absence.getPerson());
+        }
+
+        return persons;
+    }
+}
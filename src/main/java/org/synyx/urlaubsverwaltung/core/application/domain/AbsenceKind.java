@@ -0,0 +1,13 @@
+package org.synyx.urlaubsverwaltung.core.application.domain;
+
+/**
+ * Describes the kinds of absence that are saved in separate planes of an {@link AbsenceBitmap}.
+ *
+ * @author  agent
+ */
+public enum AbsenceKind {
+
+    VACATION_WAITING,
+    VACATION_ALLOWED,
+    SICK_NOTE;
+}
@@ -0,0 +1,75 @@
+package org.synyx.urlaubsverwaltung.core.application.domain;
+
+import org.joda.time.DateMidnight;
+
+
+/**
+ * The period of an absence of a person with only the information needed for exports, i.e. without loading the whole
+ * application for leave resp. sick note and person.
+ *
+ * @author  agent
+ */
+public final class AbsencePeriod {
+
+    private final DateMidnight startDate;
+    private final DateMidnight endDate;
+    private final DayLength dayLength;
+
+    private final String loginName;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+
+    public AbsencePeriod(DateMidnight startDate, DateMidnight endDate, DayLength dayLength, String loginName,
+        String email, String firstName, String lastName) {
+
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.dayLength = dayLength;
+        this.loginName = loginName;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    public DateMidnight getStartDate() {
+
+        return startDate;
+    }
+
+
+    public DateMidnight getEndDate() {
+
+        return endDate;
+    }
+
+
+    public DayLength getDayLength() {
+
+        return dayLength;
+    }
+
+
+    public String getLoginName() {
+
+        return loginName;
+    }
+
+
+    public String getEmail() {
+
+        return email;
+    }
+
+
+    public String getFirstName() {
+
+        return firstName;
+    }
+
+
+    public String getLastName() {
+
+        return lastName;
+    }
+}
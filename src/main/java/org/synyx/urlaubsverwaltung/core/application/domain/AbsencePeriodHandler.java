@@ -0,0 +1,22 @@
+package org.synyx.urlaubsverwaltung.core.application.domain;
+
+import java.io.IOException;
+
+
+/**
+ * Handles absence periods one by one while they are read from the database, so that they never have to be held in
+ * memory all at once.
+ *
+ * @author  agent
+ */
+public interface AbsencePeriodHandler {
+
+    /**
+     * Handles the given absence period.
+     *
+     * @param  period  to be handled
+     *
+     * @throws  IOException  if the absence period can not be written
+     */
+    void handle(AbsencePeriod period) throws IOException;
+}
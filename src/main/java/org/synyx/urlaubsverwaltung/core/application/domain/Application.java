@@ -4,14 +4,17 @@ import com.google.common.base.MoreObjects;
 
 import org.joda.time.DateMidnight;
 import org.joda.time.DateTime;
+import org.joda.time.Days;
 
 import org.springframework.data.jpa.domain.AbstractPersistable;
 
 import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.util.DateUtil;
+import org.synyx.urlaubsverwaltung.core.util.HalfDayUtil;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 
-import java.util.Arrays;
 import java.util.Date;
 
 import javax.persistence.*;
@@ -48,6 +51,11 @@ public class Application extends AbstractPersistable<Integer> {
     // Number of days the application for leave 'costs'
     private BigDecimal days;
 
+    // Number of days in the year of the start date and in the year of the end date, both are equal to the number of
+    // days if the application for leave does not span the turn of the year
+    private BigDecimal daysInStartYear;
+    private BigDecimal daysInEndYear;
+
     // Period of holiday
     @Temporal(javax.persistence.TemporalType.DATE)
     private Date startDate;
@@ -97,14 +105,6 @@ public class Application extends AbstractPersistable<Integer> {
     // if application has been cancelled during status waiting: formerlyAllowed is false
     private boolean formerlyAllowed;
 
-    // Signature of applicant
-    @Column(columnDefinition = "longblob")
-    private byte[] signaturePerson;
-
-    // Signature of boss
-    @Column(columnDefinition = "longblob")
-    private byte[] signatureBoss;
-
     // team informed about holidays?
     private boolean teamInformed;
 
@@ -230,6 +230,80 @@ public class Application extends AbstractPersistable<Integer> {
     }
 
 
+    public BigDecimal getDaysInStartYear() {
+
+        return daysInStartYear;
+    }
+
+
+    public void setDaysInStartYear(BigDecimal daysInStartYear) {
+
+        this.daysInStartYear = daysInStartYear;
+    }
+
+
+    public BigDecimal getDaysInEndYear() {
+
+        return daysInEndYear;
+    }
+
+
+    public void setDaysInEndYear(BigDecimal daysInEndYear) {
+
+        this.daysInEndYear = daysInEndYear;
+    }
+
+
+    /**
+     * Returns the number of days the application for leave 'costs' in the given year. If the application for leave
+     * spans the turn of the year and the number of days per year has not been calculated yet, the days are split by
+     * the number of calendar days in each year and rounded to half days, until the DaysPerYearService calculates them.
+     *
+     * @param  year  to get the number of days for
+     *
+     * @return  number of days in the given year, zero if the application for leave is not within the given year
+     */
+    public BigDecimal getDaysInYear(int year) {
+
+        int startYear = getStartDate().getYear();
+        int endYear = getEndDate().getYear();
+
+        if (startYear == endYear) {
+            return year == startYear ? days : BigDecimal.ZERO;
+        }
+
+        if (year != startYear && year != endYear) {
+            return BigDecimal.ZERO;
+        }
+
+        if (daysInStartYear == null || daysInEndYear == null) {
+            return estimateDaysInYear(year);
+        }
+
+        return year == startYear ? daysInStartYear : daysInEndYear;
+    }
+
+
+    private BigDecimal estimateDaysInYear(int year) {
+
+        if (days == null) {
+            return BigDecimal.ZERO;
+        }
+
+        DateMidnight firstDayOfEndYear = DateUtil.getFirstDayOfYear(getEndDate().getYear());
+
+        long calendarDaysInStartYear = Days.daysBetween(getStartDate(), firstDayOfEndYear).getDays();
+        long calendarDays = Days.daysBetween(getStartDate(), getEndDate()).getDays() + 1;
+
+        long halfDays = days.multiply(BigDecimal.valueOf(2)).setScale(0, RoundingMode.HALF_UP).longValue();
+        long halfDaysInStartYear = halfDays * calendarDaysInStartYear / calendarDays;
+
+        long halfDaysInYear = year == getStartDate().getYear() ? halfDaysInStartYear : halfDays - halfDaysInStartYear;
+
+        return HalfDayUtil.toDays(halfDaysInYear);
+    }
+
+
     public DateMidnight getEndDate() {
 
         if (this.endDate == null) {
@@ -298,46 +372,6 @@ public class Application extends AbstractPersistable<Integer> {
     }
 
 
-    public byte[] getSignatureBoss() {
-
-        if (signatureBoss == null) {
-            return null;
-        }
-
-        return Arrays.copyOf(signatureBoss, signatureBoss.length);
-    }
-
-
-    public void setSignatureBoss(byte[] signatureBoss) {
-
-        if (signatureBoss != null) {
-            this.signatureBoss = Arrays.copyOf(signatureBoss, signatureBoss.length);
-        } else {
-            this.signatureBoss = null;
-        }
-    }
-
-
-    public byte[] getSignaturePerson() {
-
-        if (signaturePerson == null) {
-            return null;
-        }
-
-        return Arrays.copyOf(signaturePerson, signaturePerson.length);
-    }
-
-
-    public void setSignaturePerson(byte[] signaturePerson) {
-
-        if (signaturePerson != null) {
-            this.signaturePerson = Arrays.copyOf(signaturePerson, signaturePerson.length);
-        } else {
-            this.signaturePerson = null;
-        }
-    }
-
-
     public DateMidnight getStartDate() {
 
         if (this.startDate == null) {
@@ -0,0 +1,89 @@
+package org.synyx.urlaubsverwaltung.core.application.domain;
+
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+import java.util.Arrays;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.OneToOne;
+
+
+/**
+ * The signatures of an {@link Application}. Kept apart from the application for leave, so that the signature blobs
+ * are only loaded when they are needed and not with every application for leave.
+ *
+ * @author  agent
+ */
+@Entity
+public class ApplicationSignatures extends AbstractPersistable<Integer> {
+
+    private static final long serialVersionUID = 7710293847561029384L;
+
+    @OneToOne
+    private Application application;
+
+    // Signature of applicant
+    @Column(columnDefinition = "longblob")
+    private byte[] signaturePerson;
+
+    // Signature of boss
+    @Column(columnDefinition = "longblob")
+    private byte[] signatureBoss;
+
+    public ApplicationSignatures() {
+
+        /* OK */
+    }
+
+
+    public ApplicationSignatures(Application application) {
+
+        this.application = application;
+    }
+
+    public Application getApplication() {
+
+        return application;
+    }
+
+
+    public byte[] getSignatureBoss() {
+
+        if (signatureBoss == null) {
+            return null;
+        }
+
+        return Arrays.copyOf(signatureBoss, signatureBoss.length);
+    }
+
+
+    public void setSignatureBoss(byte[] signatureBoss) {
+
+        if (signatureBoss != null) {
+            this.signatureBoss = Arrays.copyOf(signatureBoss, signatureBoss.length);
+        } else {
+            this.signatureBoss = null;
+        }
+    }
+
+
+    public byte[] getSignaturePerson() {
+
+        if (signaturePerson == null) {
+            return null;
+        }
+
+        return Arrays.copyOf(signaturePerson, signaturePerson.length);
+    }
+
+
+    public void setSignaturePerson(byte[] signaturePerson) {
+
+        if (signaturePerson != null) {
+            this.signaturePerson = Arrays.copyOf(signaturePerson, signaturePerson.length);
+        } else {
+            this.signaturePerson = null;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.synyx.urlaubsverwaltung.core.application.domain;
+
+/**
+ * Sort orders of the lists of applications for leave. Applications for leave with the same sort value are ordered by
+ * their ID, so that the order is total and the lists can be paged by the last shown application for leave.
+ *
+ * @author  agent
+ */
+public enum ApplicationSortOrder {
+
+    START_DATE,
+    PERSON,
+    DAYS
+}
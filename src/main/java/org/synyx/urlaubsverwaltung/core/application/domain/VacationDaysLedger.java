@@ -0,0 +1,119 @@
+package org.synyx.urlaubsverwaltung.core.application.domain;
+
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+import org.synyx.urlaubsverwaltung.core.account.Account;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Entity;
+import javax.persistence.OneToOne;
+
+
+/**
+ * Materialized number of vacation days used of an {@link Account}, i.e. the days of the waiting and allowed
+ * applications for leave of type holiday before April (when remaining vacation days may expire) and from April on.
+ * The ledger is updated on every change of the status of an {@link Application} and can be rebuilt from the
+ * applications for leave at any time.
+ *
+ * @author  agent
+ */
+@Entity
+public class VacationDaysLedger extends AbstractPersistable<Integer> {
+
+    private static final long serialVersionUID = 3572318463548273416L;
+
+    @OneToOne
+    private Account account;
+
+    private BigDecimal waitingDaysBeforeApril = BigDecimal.ZERO;
+    private BigDecimal allowedDaysBeforeApril = BigDecimal.ZERO;
+    private BigDecimal waitingDaysAfterApril = BigDecimal.ZERO;
+    private BigDecimal allowedDaysAfterApril = BigDecimal.ZERO;
+
+    public VacationDaysLedger() {
+
+        /* OK */
+    }
+
+
+    public VacationDaysLedger(Account account) {
+
+        this.account = account;
+    }
+
+    public Account getAccount() {
+
+        return account;
+    }
+
+
+    public void setAccount(Account account) {
+
+        this.account = account;
+    }
+
+
+    public BigDecimal getWaitingDaysBeforeApril() {
+
+        return waitingDaysBeforeApril;
+    }
+
+
+    public void setWaitingDaysBeforeApril(BigDecimal waitingDaysBeforeApril) {
+
+        this.waitingDaysBeforeApril = waitingDaysBeforeApril;
+    }
+
+
+    public BigDecimal getAllowedDaysBeforeApril() {
+
+        return allowedDaysBeforeApril;
+    }
+
+
+    public void setAllowedDaysBeforeApril(BigDecimal allowedDaysBeforeApril) {
+
+        this.allowedDaysBeforeApril = allowedDaysBeforeApril;
+    }
+
+
+    public BigDecimal getWaitingDaysAfterApril() {
+
+        return waitingDaysAfterApril;
+    }
+
+
+    public void setWaitingDaysAfterApril(BigDecimal waitingDaysAfterApril) {
+
+        this.waitingDaysAfterApril = waitingDaysAfterApril;
+    }
+
+
+    public BigDecimal getAllowedDaysAfterApril() {
+
+        return allowedDaysAfterApril;
+    }
+
+
+    public void setAllowedDaysAfterApril(BigDecimal allowedDaysAfterApril) {
+
+        this.allowedDaysAfterApril = allowedDaysAfterApril;
+    }
+
+
+    /**
+     * Checks if the given ledger contains the same number of days as this one.
+     *
+     * @param  other  ledger to compare with
+     *
+     * @return  true if all numbers of days are equal, else false
+     */
+    public boolean hasSameDaysAs(VacationDaysLedger other) {
+
+        return waitingDaysBeforeApril.compareTo(other.waitingDaysBeforeApril) == 0
+            && allowedDaysBeforeApril.compareTo(other.allowedDaysBeforeApril) == 0
+            && waitingDaysAfterApril.compareTo(other.waitingDaysAfterApril) == 0
+            && allowedDaysAfterApril.compareTo(other.allowedDaysAfterApril) == 0;
+    }
+}
@@ -0,0 +1,151 @@
+package org.synyx.urlaubsverwaltung.core.application.service;
+
+import com.google.common.cache.Cache;
+
+import org.joda.time.DateMidnight;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.stereotype.Service;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsenceBitmap;
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsenceKind;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.cache.CacheInvalidation;
+import org.synyx.urlaubsverwaltung.core.cache.CacheRegistry;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteDAO;
+import org.synyx.urlaubsverwaltung.core.util.DateUtil;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * Provides the {@link AbsenceBitmap}s of the persons: a bitmap is built on first access from the active applications
+ * for leave and the active sick notes of the person and is kept until an application for leave or a sick note of the
+ * person is saved. Like all caches of the {@link CacheRegistry} the bitmaps expire after the configured time to live,
+ * so that absences saved on another node are noticed. The bitmaps are built from the {@link ActiveApplicationIndex},
+ * which expires after the same time, so a node notices such absences after twice the time to live at the latest.
+ *
+ * @author  agent
+ */
+@Service
+public class AbsenceBitmapService {
+
+    private final ActiveApplicationIndex activeApplicationIndex;
+    private final SickNoteDAO sickNoteDAO;
+
+    // key: id of the person, value: bitmaps of the person by year
+    private final Cache<Integer, ConcurrentMap<Integer, AbsenceBitmap>> bitmapsByPerson;
+
+    // is incremented on every invalidation, so that bitmaps built concurrently to an invalidation are not cached
+    private long modificationCount = 0;
+
+    @Autowired
+    AbsenceBitmapService(ActiveApplicationIndex activeApplicationIndex, SickNoteDAO sickNoteDAO,
+        CacheRegistry cacheRegistry) {
+
+        this.activeApplicationIndex = activeApplicationIndex;
+        this.sickNoteDAO = sickNoteDAO;
+        this.bitmapsByPerson = cacheRegistry.create("absenceBitmaps");
+    }
+
+    /**
+     * Get the absences of the given person in the given year.
+     *
+     * @param  person  to get the absences of
+     * @param  year  to get the absences for
+     *
+     * @return  the {@link AbsenceBitmap} of the person and year, must not be modified
+     */
+    public AbsenceBitmap getAbsenceBitmap(Person person, int year) {
+
+        Integer personId = person.getId();
+
+        ConcurrentMap<Integer, AbsenceBitmap> bitmaps = personId == null ? null
+                                                                          : bitmapsByPerson.getIfPresent(personId);
+        AbsenceBitmap bitmap = bitmaps == null ? null : bitmaps.get(year);
+
+        if (bitmap != null) {
+            return bitmap;
+        }
+
+        long modificationCountBeforeBuilding;
+
+        synchronized (this) {
+            modificationCountBeforeBuilding = modificationCount;
+        }
+
+        bitmap = buildAbsenceBitmap(person, year);
+
+        synchronized (this) {
+            if (personId != null && modificationCount == modificationCountBeforeBuilding) {
+                bitmapsByPerson.asMap().putIfAbsent(personId, new ConcurrentHashMap<Integer, AbsenceBitmap>());
+
+                ConcurrentMap<Integer, AbsenceBitmap> bitmapsOfPerson = bitmapsByPerson.getIfPresent(personId);
+
+                if (bitmapsOfPerson != null) {
+                    bitmapsOfPerson.putIfAbsent(year, bitmap);
+                }
+            }
+        }
+
+        return bitmap;
+    }
+
+
+    /**
+     * Discards the cached absences of the given person, has to be called if an application for leave or a sick note of
+     * the person has been saved. If there is a running transaction, the absences are discarded again after commit or
+     * rollback.
+     *
+     * @param  person  whose absences have changed
+     */
+    public void invalidate(Person person) {
+
+        final Integer personId = person.getId();
+
+        if (personId == null) {
+            return;
+        }
+
+        CacheInvalidation.invalidateNowAndAfterCompletion(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    synchronized (AbsenceBitmapService.this) {
+                        modificationCount++;
+                        bitmapsByPerson.invalidate(personId);
+                    }
+                }
+            });
+    }
+
+
+    private AbsenceBitmap buildAbsenceBitmap(Person person, int year) {
+
+        AbsenceBitmap bitmap = new AbsenceBitmap(year);
+
+        DateMidnight firstDayOfYear = DateUtil.getFirstDayOfYear(year);
+        DateMidnight lastDayOfYear = DateUtil.getLastDayOfYear(year);
+
+        for (ActiveApplicationIndex.Interval interval
+                : activeApplicationIndex.getOverlappingIntervals(person, firstDayOfYear, lastDayOfYear)) {
+            AbsenceKind kind = interval.getStatus() == ApplicationStatus.ALLOWED ? AbsenceKind.VACATION_ALLOWED
+                                                                                 : AbsenceKind.VACATION_WAITING;
+
+            bitmap.add(kind, interval.getStartDate(), interval.getEndDate(), interval.getDayLength());
+        }
+
+        for (SickNote sickNote
+                : sickNoteDAO.findActiveByPersonAndPeriod(person, firstDayOfYear.toDate(), lastDayOfYear.toDate())) {
+            bitmap.add(AbsenceKind.SICK_NOTE, sickNote.getStartDate(), sickNote.getEndDate(), DayLength.FULL);
+        }
+
+        return bitmap;
+    }
+}
@@ -0,0 +1,64 @@
+package org.synyx.urlaubsverwaltung.core.application.service;
+
+import org.joda.time.DateMidnight;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.stereotype.Service;
+
+import org.synyx.urlaubsverwaltung.core.application.dao.AbsencePeriodDAO;
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsencePeriodHandler;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+
+import java.io.IOException;
+
+
+/**
+ * Exports the absence periods of a certain period row by row, e.g. for full-year exports of an HR system, without
+ * holding all of them in memory.
+ *
+ * @author  agent
+ */
+@Service
+public class AbsenceExportService {
+
+    private final AbsencePeriodDAO absencePeriodDAO;
+
+    @Autowired
+    public AbsenceExportService(AbsencePeriodDAO absencePeriodDAO) {
+
+        this.absencePeriodDAO = absencePeriodDAO;
+    }
+
+    /**
+     * Exports the absence periods of the allowed applications for leave in the given period.
+     *
+     * @param  startDate  of the period
+     * @param  endDate  of the period
+     * @param  handler  to handle every absence period with
+     *
+     * @throws  IOException  if the handler fails to write an absence period
+     */
+    public void exportAllowedVacations(DateMidnight startDate, DateMidnight endDate, AbsencePeriodHandler handler)
+        throws IOException {
+
+        absencePeriodDAO.scrollApplicationsForACertainTimeAndState(startDate.toDate(), endDate.toDate(),
+            ApplicationStatus.ALLOWED, handler);
+    }
+
+
+    /**
+     * Exports the absence periods of the sick notes in the given period.
+     *
+     * @param  startDate  of the period
+     * @param  endDate  of the period
+     * @param  handler  to handle every absence period with
+     *
+     * @throws  IOException  if the handler fails to write an absence period
+     */
+    public void exportSickNotes(DateMidnight startDate, DateMidnight endDate, AbsencePeriodHandler handler)
+        throws IOException {
+
+        absencePeriodDAO.scrollSickNotesForACertainTime(startDate.toDate(), endDate.toDate(), handler);
+    }
+}
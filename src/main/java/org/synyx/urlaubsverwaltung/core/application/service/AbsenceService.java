@@ -0,0 +1,136 @@
+package org.synyx.urlaubsverwaltung.core.application.service;
+
+import org.joda.time.DateMidnight;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.stereotype.Service;
+
+import org.synyx.urlaubsverwaltung.core.application.dao.ApplicationDAO;
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsenceBitmap;
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsenceCalendar;
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsenceKind;
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.person.PersonService;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteDAO;
+import org.synyx.urlaubsverwaltung.core.util.DateUtil;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+
+
+/**
+ * Answers the question which persons are absent in a certain period. The absences of all persons are built from the
+ * waiting and allowed applications for leave and the active sick notes of the period, which are loaded with one query
+ * each. The absences of given persons, e.g. of a team calendar, are read from the cached {@link AbsenceBitmap}s of the
+ * persons, so that a calendar shown again within the time to live of the bitmaps does not query the database.
+ *
+ * @author  agent
+ */
+@Service
+public class AbsenceService {
+
+    private final ApplicationDAO applicationDAO;
+    private final SickNoteDAO sickNoteDAO;
+    private final AbsenceBitmapService absenceBitmapService;
+    private final PersonService personService;
+
+    @Autowired
+    public AbsenceService(ApplicationDAO applicationDAO, SickNoteDAO sickNoteDAO,
+        AbsenceBitmapService absenceBitmapService, PersonService personService) {
+
+        this.applicationDAO = applicationDAO;
+        this.sickNoteDAO = sickNoteDAO;
+        this.absenceBitmapService = absenceBitmapService;
+        this.personService = personService;
+    }
+
+    /**
+     * Get the absences of the given persons in the given period.
+     *
+     * @param  startDate  of the period
+     * @param  endDate  of the period, must not be before the start date
+     * @param  personIds  IDs of the persons to get the absences of, {@code null} to get the absences of all persons
+     *
+     * @return  the absences per day of the period
+     */
+    public AbsenceCalendar getAbsences(DateMidnight startDate, DateMidnight endDate, Collection<Integer> personIds) {
+
+        AbsenceCalendar calendar = new AbsenceCalendar(startDate, endDate);
+
+        if (personIds != null) {
+            for (Integer personId : new LinkedHashSet<Integer>(personIds)) {
+                Person person = personService.getPersonByID(personId);
+
+                if (person != null) {
+                    addAbsencesOfPerson(calendar, person, startDate, endDate);
+                }
+            }
+
+            return calendar;
+        }
+
+        for (Application application : applicationDAO.getApplicationsForACertainTimeAndStates(startDate.toDate(),
+                endDate.toDate(), ApplicationStatus.WAITING, ApplicationStatus.ALLOWED)) {
+            AbsenceKind kind = application.getStatus() == ApplicationStatus.ALLOWED
+                ? AbsenceKind.VACATION_ALLOWED : AbsenceKind.VACATION_WAITING;
+
+            calendar.add(application.getPerson(), kind, application.getStartDate(), application.getEndDate(),
+                application.getHowLong());
+        }
+
+        for (SickNote sickNote : sickNoteDAO.findActiveByPeriod(startDate.toDate(), endDate.toDate())) {
+            calendar.add(sickNote.getPerson(), AbsenceKind.SICK_NOTE, sickNote.getStartDate(), sickNote.getEndDate(),
+                DayLength.FULL);
+        }
+
+        return calendar;
+    }
+
+
+    /**
+     * Adds the absences of the given person from the bitmaps of the years of the period, consecutive days with the same
+     * kind of absence and the same day length are added as one absence.
+     */
+    private void addAbsencesOfPerson(AbsenceCalendar calendar, Person person, DateMidnight startDate,
+        DateMidnight endDate) {
+
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            AbsenceBitmap bitmap = absenceBitmapService.getAbsenceBitmap(person, year);
+
+            DateMidnight from = year == startDate.getYear() ? startDate : DateUtil.getFirstDayOfYear(year);
+            DateMidnight to = year == endDate.getYear() ? endDate : DateUtil.getLastDayOfYear(year);
+
+            for (AbsenceKind kind : AbsenceKind.values()) {
+                DateMidnight rangeStart = from;
+                DayLength rangeDayLength = bitmap.getDayLength(from, kind);
+
+                for (DateMidnight day = from.plusDays(1); !day.isAfter(to); day = day.plusDays(1)) {
+                    DayLength dayLength = bitmap.getDayLength(day, kind);
+
+                    if (dayLength != rangeDayLength) {
+                        addRange(calendar, person, kind, rangeStart, day.minusDays(1), rangeDayLength);
+
+                        rangeStart = day;
+                        rangeDayLength = dayLength;
+                    }
+                }
+
+                addRange(calendar, person, kind, rangeStart, to, rangeDayLength);
+            }
+        }
+    }
+
+
+    private static void addRange(AbsenceCalendar calendar, Person person, AbsenceKind kind, DateMidnight from,
+        DateMidnight to, DayLength dayLength) {
+
+        if (dayLength != DayLength.ZERO) {
+            calendar.add(person, kind, from, to, dayLength);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package org.synyx.urlaubsverwaltung.core.application.service;
+
+import com.google.common.cache.Cache;
+
+import org.joda.time.DateMidnight;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.stereotype.Service;
+
+import org.synyx.urlaubsverwaltung.core.application.dao.ApplicationDAO;
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.cache.CacheInvalidation;
+import org.synyx.urlaubsverwaltung.core.cache.CacheRegistry;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+
+/**
+ * Keeps the periods of the active (waiting or allowed) {@link Application}s for leave of every person sorted by start
+ * date in memory, so that the applications overlapping a period can be found without querying the database. The
+ * periods of a person are loaded on first access and are discarded by {@link ApplicationService#save(Application)}
+ * after commit, so that they are loaded again with the saved application. Like all caches of the {@link CacheRegistry}
+ * the periods expire after the configured time to live, so that applications saved on another node are noticed.
+ *
+ * @author  agent
+ */
+@Service
+class ActiveApplicationIndex {
+
+    private final ApplicationDAO applicationDAO;
+
+    // key: id of the person
+    private final Cache<Integer, Intervals> intervalsByPerson;
+
+    // is incremented on every invalidation, so that applications loaded concurrently to a change are not cached
+    private long modificationCount = 0;
+
+    @Autowired
+    ActiveApplicationIndex(ApplicationDAO applicationDAO, CacheRegistry cacheRegistry) {
+
+        this.applicationDAO = applicationDAO;
+        this.intervalsByPerson = cacheRegistry.create("activeApplications");
+    }
+
+    /**
+     * Get the active applications for leave of the given person that overlap the given period, sorted by start date.
+     *
+     * @param  person  to get the applications for leave of
+     * @param  startDate  of the period, inclusive
+     * @param  endDate  of the period, inclusive
+     *
+     * @return  the overlapping intervals, sorted by start date
+     */
+    List<Interval> getOverlappingIntervals(Person person, DateMidnight startDate, DateMidnight endDate) {
+
+        return getIntervals(person).getOverlapping(startDate.getMillis(), endDate.getMillis());
+    }
+
+
+    /**
+     * Discards the applications for leave of the given person, has to be called if an application for leave of the
+     * person has been saved. If there is a running transaction, the applications are discarded again after commit or
+     * rollback.
+     *
+     * @param  person  whose applications for leave have changed
+     */
+    void invalidate(Person person) {
+
+        final Integer personId = person.getId();
+
+        if (personId == null) {
+            return;
+        }
+
+        CacheInvalidation.invalidateNowAndAfterCompletion(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    synchronized (ActiveApplicationIndex.this) {
+                        modificationCount++;
+                        intervalsByPerson.invalidate(personId);
+                    }
+                }
+            });
+    }
+
+
+    private Intervals getIntervals(Person person) {
+
+        Integer personId = person.getId();
+
+        Intervals intervals = personId == null ? null : intervalsByPerson.getIfPresent(personId);
+
+        if (intervals != null) {
+            return intervals;
+        }
+
+        long modificationCountBeforeLoading;
+
+        synchronized (this) {
+            modificationCountBeforeLoading = modificationCount;
+        }
+
+        intervals = Intervals.of(applicationDAO.getActiveApplicationsByPerson(person));
+
+        synchronized (this) {
+            if (personId != null && modificationCount == modificationCountBeforeLoading) {
+                intervalsByPerson.asMap().putIfAbsent(personId, intervals);
+            }
+        }
+
+        return intervals;
+    }
+
+    /**
+     * The period of an active application for leave, the dates are saved as milliseconds to compare them without
+     * creating date objects. Only the values needed to find overlapping applications are kept, not the application
+     * itself, so that the index never holds entities that may be changed by other threads.
+     */
+    static final class Interval {
+
+        private final Integer id;
+        private final long start;
+        private final long end;
+        private final DayLength dayLength;
+        private final ApplicationStatus status;
+
+        private Interval(Application application) {
+
+            this.id = application.getId();
+            this.start = application.getStartDate().getMillis();
+            this.end = application.getEndDate().getMillis();
+            this.dayLength = application.getHowLong();
+            this.status = application.getStatus();
+        }
+
+        Integer getId() {
+
+            return id;
+        }
+
+
+        DateMidnight getStartDate() {
+
+            return new DateMidnight(start);
+        }
+
+
+        DateMidnight getEndDate() {
+
+            return new DateMidnight(end);
+        }
+
+
+        DayLength getDayLength() {
+
+            return dayLength;
+        }
+
+
+        ApplicationStatus getStatus() {
+
+            return status;
+        }
+    }
+
+    /**
+     * Immutable snapshot of the intervals of a person sorted by start, the maximum end of all intervals up to an index
+     * is saved too, so that the search for overlapping intervals can stop at the first interval that is ending before
+     * the searched period and has no predecessor ending later.
+     */
+    private static final class Intervals {
+
+        private static final Comparator<Interval> BY_START = new Comparator<Interval>() {
+
+            @Override
+            public int compare(Interval i1, Interval i2) {
+
+                return i1.start < i2.start ? -1 : (i1.start == i2.start ? 0 : 1);
+            }
+        };
+
+        private final Interval[] intervals;
+        private final long[] maxEnds;
+
+        private Intervals(Interval[] intervals) {
+
+            Arrays.sort(intervals, BY_START);
+
+            this.intervals = intervals;
+            this.maxEnds = new long[intervals.length];
+
+            for (int i = 0; i < intervals.length; i++) {
+                maxEnds[i] = i == 0 ? intervals[i].end : Math.max(maxEnds[i - 1], intervals[i].end);
+            }
+        }
+
+        static Intervals of(List<Application> applications) {
+
+            Interval[] intervals = new Interval[applications.size()];
+
+            for (int i = 0; i < intervals.length; i++) {
+                intervals[i] = new Interval(applications.get(i));
+            }
+
+            return new Intervals(intervals);
+        }
+
+
+        List<Interval> getOverlapping(long start, long end) {
+
+            // binary search for the first interval starting after the end of the period
+            int low = 0;
+            int high = intervals.length;
+
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+
+                if (intervals[middle].start <= end) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            List<Interval> overlapping = new ArrayList<Interval>();
+
+            for (int i = low - 1; i >= 0 && maxEnds[i] >= start; i--) {
+                if (intervals[i].end >= start) {
+                    overlapping.add(intervals[i]);
+                }
+            }
+
+            Collections.reverse(overlapping);
+
+            return overlapping;
+        }
+    }
+}
@@ -4,8 +4,6 @@ import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.Comment;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 
-import java.math.BigDecimal;
-
 
 /**
  * Provides interactions with applications for leave, i.e. apply for leave, allow, cancel etc.
@@ -15,13 +13,13 @@ import java.math.BigDecimal;
 public interface ApplicationInteractionService {
 
     /**
-     * Returns the calculated vacation days of the given application.
+     * Calculates the vacation days of the given application and sets them as number of days of the application, in
+     * total and per year, so that the days of an application for leave spanning the turn of the year need not be
+     * recalculated for each year.
      *
      * @param  application  of which the vacation days are calculated
-     *
-     * @return  calculated vacation days of the given application
      */
-    BigDecimal getNumberOfVacationDays(Application application);
+    void setNumberOfVacationDays(Application application);
 
 
     /**
@@ -8,12 +8,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import org.springframework.stereotype.Service;
 
+import org.springframework.transaction.annotation.Transactional;
+
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.application.domain.Comment;
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
 import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
+import org.synyx.urlaubsverwaltung.core.changelog.ChangeLogService;
 import org.synyx.urlaubsverwaltung.core.mail.MailService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.util.DateUtil;
 
 import java.math.BigDecimal;
 
@@ -22,6 +27,7 @@ import java.math.BigDecimal;
  * @author  Aljona Murygina - murygina@synyx.de
  */
 @Service
+@Transactional
 public class ApplicationInteractionServiceImpl implements ApplicationInteractionService {
 
     private static final Logger LOG = Logger.getLogger(ApplicationInteractionServiceImpl.class);
@@ -31,23 +37,50 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
     private final SignService signService;
     private final CommentService commentService;
     private final MailService mailService;
+    private final VacationDaysLedgerService vacationDaysLedgerService;
+    private final ChangeLogService changeLogService;
 
     @Autowired
     public ApplicationInteractionServiceImpl(ApplicationService applicationService, OwnCalendarService calendarService,
-        SignService signService, CommentService commentService, MailService mailService) {
+        SignService signService, CommentService commentService, MailService mailService,
+        VacationDaysLedgerService vacationDaysLedgerService, ChangeLogService changeLogService) {
 
         this.applicationService = applicationService;
         this.calendarService = calendarService;
         this.signService = signService;
         this.commentService = commentService;
         this.mailService = mailService;
+        this.vacationDaysLedgerService = vacationDaysLedgerService;
+        this.changeLogService = changeLogService;
     }
 
     @Override
-    public BigDecimal getNumberOfVacationDays(Application application) {
+    public void setNumberOfVacationDays(Application application) {
+
+        DayLength dayLength = application.getHowLong();
+        DateMidnight startDate = application.getStartDate();
+        DateMidnight endDate = application.getEndDate();
+        Person person = application.getPerson();
+
+        int startYear = startDate.getYear();
+        int endYear = endDate.getYear();
+
+        if (startYear == endYear) {
+            BigDecimal days = calendarService.getWorkDays(dayLength, startDate, endDate, person);
 
-        return calendarService.getWorkDays(application.getHowLong(), application.getStartDate(),
-                application.getEndDate(), application.getPerson());
+            application.setDays(days);
+            application.setDaysInStartYear(days);
+            application.setDaysInEndYear(days);
+        } else {
+            BigDecimal daysInStartYear = calendarService.getWorkDays(dayLength, startDate,
+                    DateUtil.getLastDayOfYear(startYear), person);
+            BigDecimal daysInEndYear = calendarService.getWorkDays(dayLength, DateUtil.getFirstDayOfYear(endYear),
+                    endDate, person);
+
+            application.setDays(daysInStartYear.add(daysInEndYear));
+            application.setDaysInStartYear(daysInStartYear);
+            application.setDaysInEndYear(daysInEndYear);
+        }
     }
 
 
@@ -56,17 +89,17 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
 
         Person person = application.getPerson();
 
-        BigDecimal days = calendarService.getWorkDays(application.getHowLong(), application.getStartDate(),
-                application.getEndDate(), person);
+        setNumberOfVacationDays(application);
 
         application.setStatus(ApplicationStatus.WAITING);
-        application.setDays(days);
         application.setApplier(applier);
         application.setApplicationDate(DateMidnight.now());
 
+        applicationService.save(application);
         signService.signApplicationByUser(application, applier);
+        changeLogService.logChange(application);
 
-        applicationService.save(application);
+        vacationDaysLedgerService.update(application, null);
 
         LOG.info("Created application for leave: " + application.toString());
 
@@ -101,13 +134,17 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
     @Override
     public void allow(Application application, Person boss, Comment comment) {
 
+        ApplicationStatus formerStatus = application.getStatus();
+
         application.setStatus(ApplicationStatus.ALLOWED);
         application.setBoss(boss);
         application.setEditedDate(DateMidnight.now());
 
+        applicationService.save(application);
         signService.signApplicationByBoss(application, boss);
+        changeLogService.logChange(application);
 
-        applicationService.save(application);
+        vacationDaysLedgerService.update(application, formerStatus);
 
         LOG.info("Allowed application for leave: " + application.toString());
 
@@ -124,13 +161,17 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
     @Override
     public void reject(Application application, Person boss, Comment comment) {
 
+        ApplicationStatus formerStatus = application.getStatus();
+
         application.setStatus(ApplicationStatus.REJECTED);
         application.setBoss(boss);
         application.setEditedDate(DateMidnight.now());
 
+        applicationService.save(application);
         signService.signApplicationByBoss(application, boss);
+        changeLogService.logChange(application);
 
-        applicationService.save(application);
+        vacationDaysLedgerService.update(application, formerStatus);
 
         LOG.info("Rejected application for leave: " + application.toString());
 
@@ -143,7 +184,9 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
     @Override
     public void cancel(Application application, Person canceller, Comment comment) {
 
-        boolean cancellingAllowedApplication = application.getStatus().equals(ApplicationStatus.ALLOWED);
+        ApplicationStatus formerStatus = application.getStatus();
+
+        boolean cancellingAllowedApplication = formerStatus.equals(ApplicationStatus.ALLOWED);
 
         application.setStatus(ApplicationStatus.CANCELLED);
         application.setCanceller(canceller);
@@ -154,6 +197,9 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
         }
 
         applicationService.save(application);
+        changeLogService.logChange(application);
+
+        vacationDaysLedgerService.update(application, formerStatus);
 
         LOG.info("Cancelled application for leave: " + application);
 
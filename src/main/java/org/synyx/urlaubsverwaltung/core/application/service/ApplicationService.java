@@ -3,9 +3,11 @@ package org.synyx.urlaubsverwaltung.core.application.service;
 import org.joda.time.DateMidnight;
 
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationSortOrder;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 
+import java.util.Collection;
 import java.util.List;
 
 
@@ -83,6 +85,42 @@ public interface ApplicationService {
         ApplicationStatus status);
 
 
+    /**
+     * Gets all {@link Application}s with vacation time between startDate x and endDate y for the given state and the
+     * given persons, loaded with one query for all persons.
+     *
+     * @param  startDate {@link DateMidnight}
+     * @param  endDate {@link DateMidnight}
+     * @param  status {@link org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus}
+     * @param  personIds  IDs of the persons to get the applications for
+     *
+     * @return  all {@link Application}s of the given persons with the given state and vacation time between startDate
+     *          x and endDate y
+     */
+    List<Application> getApplicationsForACertainPeriodAndStateAndPersons(DateMidnight startDate, DateMidnight endDate,
+        ApplicationStatus status, Collection<Integer> personIds);
+
+
+    /**
+     * Gets a page of the relevant {@link Application}s with vacation time between startDate x and endDate y, sorted
+     * and filtered by the database.
+     *
+     * @param  startDate {@link DateMidnight}
+     * @param  endDate {@link DateMidnight}
+     * @param  status  of the applications, {@code null} for all not cancelled and all formerly allowed applications
+     * @param  sortOrder  to sort the applications by
+     * @param  ascending  true to sort ascending, false to sort descending
+     * @param  afterId  id of the last application of the previous page, {@code null} for the first page
+     * @param  limit  maximum number of applications of the page
+     *
+     * @return  the {@link Application}s of the page
+     *
+     * @throws  IllegalArgumentException  if there is no application with the given afterId
+     */
+    List<Application> getApplicationsPage(DateMidnight startDate, DateMidnight endDate, ApplicationStatus status,
+        ApplicationSortOrder sortOrder, boolean ascending, Integer afterId, int limit);
+
+
     /**
      * Gets all {@link Application}s with vacation time between startDate x and endDate y for the given person and
      * state.
@@ -97,4 +135,13 @@ public interface ApplicationService {
      */
     List<Application> getApplicationsForACertainPeriodAndPersonAndState(DateMidnight startDate, DateMidnight endDate,
         Person person, ApplicationStatus status);
+
+
+    /**
+     * Gets all {@link Application}s whose number of days per year has not been calculated yet, i.e. applications for
+     * leave created before the number of days has been saved per year.
+     *
+     * @return  all {@link Application}s without number of days per year
+     */
+    List<Application> getApplicationsWithoutDaysPerYear();
 }
@@ -12,9 +12,12 @@ import org.springframework.util.Assert;
 
 import org.synyx.urlaubsverwaltung.core.application.dao.ApplicationDAO;
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationSortOrder;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 
@@ -27,11 +30,16 @@ import java.util.List;
 class ApplicationServiceImpl implements ApplicationService {
 
     private final ApplicationDAO applicationDAO;
+    private final ActiveApplicationIndex activeApplicationIndex;
+    private final AbsenceBitmapService absenceBitmapService;
 
     @Autowired
-    public ApplicationServiceImpl(ApplicationDAO applicationDAO) {
+    public ApplicationServiceImpl(ApplicationDAO applicationDAO, ActiveApplicationIndex activeApplicationIndex,
+        AbsenceBitmapService absenceBitmapService) {
 
         this.applicationDAO = applicationDAO;
+        this.activeApplicationIndex = activeApplicationIndex;
+        this.absenceBitmapService = absenceBitmapService;
     }
 
     @Override
@@ -52,6 +60,9 @@ class ApplicationServiceImpl implements ApplicationService {
     public void save(Application application) {
 
         applicationDAO.save(application);
+
+        activeApplicationIndex.invalidate(application.getPerson());
+        absenceBitmapService.invalidate(application.getPerson());
     }
 
 
@@ -78,6 +89,40 @@ class ApplicationServiceImpl implements ApplicationService {
     }
 
 
+    @Override
+    public List<Application> getApplicationsForACertainPeriodAndStateAndPersons(DateMidnight startDate,
+        DateMidnight endDate, ApplicationStatus status, Collection<Integer> personIds) {
+
+        // an empty list of persons can not be queried with "in"
+        if (personIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return applicationDAO.getApplicationsForACertainTimeAndStatesAndPersons(startDate.toDate(), endDate.toDate(),
+                status, status, personIds);
+    }
+
+
+    @Override
+    public List<Application> getApplicationsPage(DateMidnight startDate, DateMidnight endDate,
+        ApplicationStatus status, ApplicationSortOrder sortOrder, boolean ascending, Integer afterId, int limit) {
+
+        Application after = null;
+
+        if (afterId != null) {
+            after = applicationDAO.findOne(afterId);
+
+            // without the keys of the previous page the first page would be shown again
+            if (after == null) {
+                throw new IllegalArgumentException("No application for leave found with ID=" + afterId);
+            }
+        }
+
+        return applicationDAO.getApplicationsPage(startDate.toDate(), endDate.toDate(), status, sortOrder, ascending,
+                after, limit);
+    }
+
+
     @Override
     public List<Application> getApplicationsForACertainPeriodAndPersonAndState(DateMidnight startDate,
         DateMidnight endDate, Person person, ApplicationStatus status) {
@@ -85,4 +130,11 @@ class ApplicationServiceImpl implements ApplicationService {
         return applicationDAO.getApplicationsForACertainTimeAndPersonAndState(startDate.toDate(), endDate.toDate(),
                 person, status);
     }
+
+
+    @Override
+    public List<Application> getApplicationsWithoutDaysPerYear() {
+
+        return applicationDAO.getApplicationsWithoutDaysPerYear();
+    }
 }
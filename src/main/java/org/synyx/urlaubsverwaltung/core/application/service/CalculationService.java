@@ -9,18 +9,19 @@ import org.springframework.stereotype.Service;
 
 import org.synyx.urlaubsverwaltung.core.account.Account;
 import org.synyx.urlaubsverwaltung.core.account.AccountService;
-import org.synyx.urlaubsverwaltung.core.application.dao.ApplicationDAO;
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
-import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
-import org.synyx.urlaubsverwaltung.core.application.domain.VacationType;
-import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.util.CalcUtil;
-import org.synyx.urlaubsverwaltung.core.util.DateUtil;
 
 import java.math.BigDecimal;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 /**
@@ -32,17 +33,14 @@ import java.util.List;
 @Service
 public class CalculationService {
 
-    private final ApplicationDAO applicationDAO;
     private final AccountService accountService;
-    private final OwnCalendarService calendarService;
+    private final VacationDaysLedgerService vacationDaysLedgerService;
 
     @Autowired
-    public CalculationService(ApplicationDAO applicationDAO, AccountService accountService,
-        OwnCalendarService calendarService) {
+    public CalculationService(AccountService accountService, VacationDaysLedgerService vacationDaysLedgerService) {
 
-        this.applicationDAO = applicationDAO;
         this.accountService = accountService;
-        this.calendarService = calendarService;
+        this.vacationDaysLedgerService = vacationDaysLedgerService;
     }
 
     /**
@@ -57,64 +55,39 @@ public class CalculationService {
      */
     public boolean checkApplication(Application application) {
 
-        if (application.getStartDate().getYear() != application.getEndDate().getYear()) {
-            Person person = application.getPerson();
-            int startYear = application.getStartDate().getYear();
-            int endYear = application.getEndDate().getYear();
-            DateMidnight lastDayOfOldYear = DateUtil.getLastDayOfYear(application.getStartDate().getYear());
-            DateMidnight firstDayOfNewYear = DateUtil.getFirstDayOfYear(endYear);
-
-            Application tmp1 = new Application();
-            tmp1.setStartDate(application.getStartDate());
-            tmp1.setEndDate(lastDayOfOldYear);
-            tmp1.setPerson(person);
-            tmp1.setHowLong(application.getHowLong());
-            tmp1.setDays(calendarService.getWorkDays(tmp1.getHowLong(), application.getStartDate(), lastDayOfOldYear,
-                    application.getPerson()));
-
-            Application tmp2 = new Application();
-            tmp2.setStartDate(firstDayOfNewYear);
-            tmp2.setEndDate(application.getEndDate());
-            tmp2.setPerson(person);
-            tmp2.setHowLong(application.getHowLong());
-            tmp2.setDays(calendarService.getWorkDays(application.getHowLong(), firstDayOfNewYear,
-                    application.getEndDate(), application.getPerson()));
+        Person person = application.getPerson();
+        int startYear = application.getStartDate().getYear();
+        int endYear = application.getEndDate().getYear();
+
+        if (startYear != endYear) {
+            // the number of days of the application for leave per year is calculated on applying for leave
+            BigDecimal daysInStartYear = application.getDaysInYear(startYear);
+            BigDecimal daysInEndYear = application.getDaysInYear(endYear);
 
             if (accountService.getHolidaysAccount(startYear, person) == null) {
                 /**
                  * NOTE: This may happen if someone applies for leave for the past year and there is no account.
                  * In this case just check if there are enough vacation days for this year.
                  */
-                return checkIfThereAreEnoughVacationDays(tmp2);
+                return checkIfThereAreEnoughVacationDays(endYear, person, daysInEndYear);
             } else {
                 // this is the normal case: someone applies for leave for the next year
-                if (checkIfThereAreEnoughVacationDays(tmp1) && checkIfThereAreEnoughVacationDays(tmp2)) {
-                    return true;
-                }
+                return checkIfThereAreEnoughVacationDays(startYear, person, daysInStartYear)
+                    && checkIfThereAreEnoughVacationDays(endYear, person, daysInEndYear);
             }
-        } else {
-            return checkIfThereAreEnoughVacationDays(application);
         }
 
-        return false;
+        return checkIfThereAreEnoughVacationDays(startYear, person, application.getDays());
     }
 
 
-    private boolean checkIfThereAreEnoughVacationDays(Application application) {
+    private boolean checkIfThereAreEnoughVacationDays(int year, Person person, BigDecimal days) {
 
-        Account account = accountService.getOrCreateNewAccount(application.getStartDate().getYear(),
-                application.getPerson());
+        Account account = accountService.getOrCreateNewAccount(year, person);
 
         BigDecimal vacationDays = calculateTotalLeftVacationDays(account);
 
-        BigDecimal workDays = calendarService.getWorkDays(application.getHowLong(), application.getStartDate(),
-                application.getEndDate(), application.getPerson());
-
-        if (vacationDays.compareTo(workDays) >= 0) {
-            return true;
-        }
-
-        return false;
+        return vacationDays.compareTo(days) >= 0;
     }
 
 
@@ -128,11 +101,17 @@ public class CalculationService {
      */
     public BigDecimal calculateTotalLeftVacationDays(Account account) {
 
+        return calculateTotalLeftVacationDays(account, getUsedVacationDays(account));
+    }
+
+
+    private BigDecimal calculateTotalLeftVacationDays(Account account, UsedVacationDays usedVacationDays) {
+
         BigDecimal vacationDays = account.getVacationDays();
         BigDecimal remainingVacationDays = account.getRemainingVacationDays();
 
-        BigDecimal daysBeforeApril = getDaysBeforeApril(account);
-        BigDecimal daysAfterApril = getDaysAfterApril(account);
+        BigDecimal daysBeforeApril = usedVacationDays.getDaysBeforeApril();
+        BigDecimal daysAfterApril = usedVacationDays.getDaysAfterApril();
 
         BigDecimal result = remainingVacationDays.subtract(daysBeforeApril);
 
@@ -177,13 +156,19 @@ public class CalculationService {
      */
     public BigDecimal calculateLeftVacationDays(Account account) {
 
+        return calculateLeftVacationDays(account, getUsedVacationDays(account));
+    }
+
+
+    private BigDecimal calculateLeftVacationDays(Account account, UsedVacationDays usedVacationDays) {
+
         BigDecimal vacationDays = account.getVacationDays();
         BigDecimal remainingVacationDays = account.getRemainingVacationDays();
 
-        BigDecimal daysBeforeApril = getDaysBeforeApril(account);
-        BigDecimal daysAfterApril = getDaysAfterApril(account);
+        BigDecimal daysBeforeApril = usedVacationDays.getDaysBeforeApril();
+        BigDecimal daysAfterApril = usedVacationDays.getDaysAfterApril();
 
-        if (daysBeforeApril.equals(BigDecimal.ZERO) && daysAfterApril.equals(BigDecimal.ZERO)) {
+        if (CalcUtil.isZero(daysBeforeApril) && CalcUtil.isZero(daysAfterApril)) {
             return vacationDays;
         }
 
@@ -233,10 +218,16 @@ public class CalculationService {
      */
     public BigDecimal calculateLeftRemainingVacationDays(Account account) {
 
+        return calculateLeftRemainingVacationDays(account, getUsedVacationDays(account));
+    }
+
+
+    private BigDecimal calculateLeftRemainingVacationDays(Account account, UsedVacationDays usedVacationDays) {
+
         BigDecimal remainingVacationDays = account.getRemainingVacationDays();
 
-        BigDecimal daysBeforeApril = getDaysBeforeApril(account);
-        BigDecimal daysAfterApril = getDaysAfterApril(account);
+        BigDecimal daysBeforeApril = usedVacationDays.getDaysBeforeApril();
+        BigDecimal daysAfterApril = usedVacationDays.getDaysAfterApril();
 
         // subtract days before April in every case
         BigDecimal result = remainingVacationDays.subtract(daysBeforeApril);
@@ -255,57 +246,81 @@ public class CalculationService {
     }
 
 
-    protected BigDecimal getDaysBeforeApril(Account account) {
-
-        DateMidnight firstOfJanuary = new DateMidnight(account.getYear(), DateTimeConstants.JANUARY, 1);
-        DateMidnight lastOfMarch = new DateMidnight(account.getYear(), DateTimeConstants.MARCH, 31);
-
-        BigDecimal daysBeforeApril = getDaysBetweenTwoMilestones(account.getPerson(), firstOfJanuary, lastOfMarch);
+    /**
+     * Calculates the left vacation days of all persons that have an {@link Account} for the given year, see
+     * {@link #calculateLeftVacationDays(int, Collection)}.
+     *
+     * @param  year  of the accounts
+     *
+     * @return  left vacation days per person
+     */
+    public Map<Person, LeftVacationDays> calculateLeftVacationDays(int year) {
 
-        return daysBeforeApril;
+        return calculateLeftVacationDaysOfAccounts(year, accountService.getHolidaysAccounts(year));
     }
 
 
-    protected BigDecimal getDaysAfterApril(Account account) {
+    /**
+     * Calculates the left vacation days of the given persons for the given year like
+     * {@link #calculateTotalLeftVacationDays(Account)}, {@link #calculateLeftVacationDays(Account)} and
+     * {@link #calculateLeftRemainingVacationDays(Account)} do for a single {@link Account}. The accounts and the
+     * {@link org.synyx.urlaubsverwaltung.core.application.domain.VacationDaysLedger}s of all persons are loaded at
+     * once.
+     *
+     * @param  year  of the accounts
+     * @param  persons  to calculate the left vacation days for
+     *
+     * @return  left vacation days per person, persons without {@link Account} for the given year are not contained
+     */
+    public Map<Person, LeftVacationDays> calculateLeftVacationDays(int year, Collection<Person> persons) {
 
-        DateMidnight firstOfApril = new DateMidnight(account.getYear(), DateTimeConstants.APRIL, 1);
-        DateMidnight lastOfDecember = new DateMidnight(account.getYear(), DateTimeConstants.DECEMBER, 31);
+        Set<Person> relevantPersons = new HashSet<>(persons);
+        List<Account> accounts = new ArrayList<>();
 
-        BigDecimal daysAfterApril = getDaysBetweenTwoMilestones(account.getPerson(), firstOfApril, lastOfDecember);
+        for (Account account : accountService.getHolidaysAccounts(year)) {
+            if (relevantPersons.contains(account.getPerson())) {
+                accounts.add(account);
+            }
+        }
 
-        return daysAfterApril;
+        return calculateLeftVacationDaysOfAccounts(year, accounts);
     }
 
 
-    protected BigDecimal getDaysBetweenTwoMilestones(Person person, DateMidnight firstMilestone,
-        DateMidnight lastMilestone) {
+    private Map<Person, LeftVacationDays> calculateLeftVacationDaysOfAccounts(int year, List<Account> accounts) {
+
+        Map<Person, LeftVacationDays> leftVacationDays = new HashMap<>();
 
-        List<Application> applicationsBetweenMilestones = applicationDAO.getApplicationsBetweenTwoMilestones(person,
-                firstMilestone.toDate(), lastMilestone.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING,
-                ApplicationStatus.ALLOWED);
+        if (accounts.isEmpty()) {
+            return leftVacationDays;
+        }
 
-        List<Application> applicationsBetweenMilestonesSpanningFirstMilestone =
-            applicationDAO.getApplicationsBeforeFirstMilestone(person, firstMilestone.toDate(), lastMilestone.toDate(),
-                VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED);
-        List<Application> applicationsBetweenMilestonesSpanningLastMilestone =
-            applicationDAO.getApplicationsAfterLastMilestone(person, firstMilestone.toDate(), lastMilestone.toDate(),
-                VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED);
+        List<UsedVacationDays> usedVacationDays = vacationDaysLedgerService.getUsedVacationDays(year, accounts);
 
-        BigDecimal days = BigDecimal.ZERO;
+        for (int i = 0; i < accounts.size(); i++) {
+            Account account = accounts.get(i);
+            UsedVacationDays usedVacationDaysOfAccount = usedVacationDays.get(i);
 
-        for (Application a : applicationsBetweenMilestones) {
-            days = days.add(a.getDays());
+            leftVacationDays.put(account.getPerson(),
+                new LeftVacationDays(account, calculateTotalLeftVacationDays(account, usedVacationDaysOfAccount),
+                    calculateLeftVacationDays(account, usedVacationDaysOfAccount),
+                    calculateLeftRemainingVacationDays(account, usedVacationDaysOfAccount)));
         }
 
-        for (Application a : applicationsBetweenMilestonesSpanningFirstMilestone) {
-            days = days.add(calendarService.getWorkDays(a.getHowLong(), firstMilestone, a.getEndDate(), a.getPerson()));
-        }
+        return leftVacationDays;
+    }
 
-        for (Application a : applicationsBetweenMilestonesSpanningLastMilestone) {
-            days = days.add(calendarService.getWorkDays(a.getHowLong(), a.getStartDate(), lastMilestone,
-                        a.getPerson()));
-        }
 
-        return days;
+    /**
+     * Returns the number of vacation days of the given {@link Account} used before April and from April on, i.e. the
+     * days of the waiting and allowed applications for leave of type holiday, see {@link VacationDaysLedgerService}.
+     *
+     * @param  account {@link Account}
+     *
+     * @return  used vacation days before April and from April on
+     */
+    protected UsedVacationDays getUsedVacationDays(Account account) {
+
+        return vacationDaysLedgerService.getUsedVacationDays(account);
     }
 }
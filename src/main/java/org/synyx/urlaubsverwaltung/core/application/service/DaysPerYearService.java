@@ -0,0 +1,104 @@
+package org.synyx.urlaubsverwaltung.core.application.service;
+
+import org.apache.log4j.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.stereotype.Service;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
+import org.synyx.urlaubsverwaltung.core.calendar.workingtime.NoValidWorkingTimeException;
+import org.synyx.urlaubsverwaltung.core.util.DateUtil;
+
+import java.math.BigDecimal;
+
+import java.util.Collection;
+
+
+/**
+ * Calculates the number of days per year of {@link Application}s for leave that have been saved without it, i.e.
+ * before the number of days has been saved per year or while the working time of the person was missing. The number of
+ * days per year is calculated on startup and again on first use of such an application for leave.
+ *
+ * @author  agent
+ */
+@Service
+public class DaysPerYearService {
+
+    private static final Logger LOG = Logger.getLogger(DaysPerYearService.class);
+
+    private final ApplicationService applicationService;
+    private final OwnCalendarService calendarService;
+
+    @Autowired
+    public DaysPerYearService(ApplicationService applicationService, OwnCalendarService calendarService) {
+
+        this.applicationService = applicationService;
+        this.calendarService = calendarService;
+    }
+
+
+    /**
+     * Calculates and saves the number of days per year of the given applications for leave that have been saved
+     * without it. If it can not be calculated, {@link Application#getDaysInYear(int)} falls back to an estimation.
+     *
+     * @param  applications  to calculate the number of days per year of, if not saved yet
+     */
+    public void ensureDaysPerYear(Collection<Application> applications) {
+
+        for (Application application : applications) {
+            if (application.getDaysInStartYear() != null && application.getDaysInEndYear() != null) {
+                continue;
+            }
+
+            try {
+                updateDaysPerYear(application);
+            } catch (NoValidWorkingTimeException | ArithmeticException ex) {
+                LOG.warn("Could not calculate number of days per year of application for leave with ID="
+                    + application.getId() + ": " + ex.getMessage());
+            }
+        }
+    }
+
+
+    /**
+     * Calculates and saves the number of days in the start and in the end year of the given application for leave.
+     *
+     * @param  application  without number of days per year
+     *
+     * @return  {@code true} if the number of days per year has been saved, {@code false} if the application for leave
+     *          has been skipped
+     *
+     * @throws  NoValidWorkingTimeException  if the person has no working time for the period of the application
+     */
+    public boolean updateDaysPerYear(Application application) {
+
+        if (application.getDays() == null || application.getStartDate() == null
+                || application.getEndDate() == null) {
+            LOG.warn("Skipping application for leave with ID=" + application.getId()
+                + " without number of days or period.");
+
+            return false;
+        }
+
+        int startYear = application.getStartDate().getYear();
+        int endYear = application.getEndDate().getYear();
+
+        if (startYear == endYear) {
+            application.setDaysInStartYear(application.getDays());
+            application.setDaysInEndYear(application.getDays());
+        } else {
+            // the saved number of days is kept, only the split between the two years is calculated
+            BigDecimal daysInStartYear = calendarService.getWorkDays(application.getHowLong(),
+                    application.getStartDate(), DateUtil.getLastDayOfYear(startYear), application.getPerson());
+
+            application.setDaysInStartYear(daysInStartYear);
+            application.setDaysInEndYear(application.getDays().subtract(daysInStartYear));
+        }
+
+        applicationService.save(application);
+
+        return true;
+    }
+}
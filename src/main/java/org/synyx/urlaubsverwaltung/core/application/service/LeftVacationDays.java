@@ -0,0 +1,65 @@
+package org.synyx.urlaubsverwaltung.core.application.service;
+
+import org.synyx.urlaubsverwaltung.core.account.Account;
+
+import java.math.BigDecimal;
+
+
+/**
+ * Represents the number of vacation days left of an {@link Account}, see {@link CalculationService}.
+ *
+ * @author  agent
+ */
+public class LeftVacationDays {
+
+    private final Account account;
+
+    private final BigDecimal totalLeftVacationDays;
+
+    private final BigDecimal leftVacationDays;
+
+    private final BigDecimal leftRemainingVacationDays;
+
+    public LeftVacationDays(Account account, BigDecimal totalLeftVacationDays, BigDecimal leftVacationDays,
+        BigDecimal leftRemainingVacationDays) {
+
+        this.account = account;
+        this.totalLeftVacationDays = totalLeftVacationDays;
+        this.leftVacationDays = leftVacationDays;
+        this.leftRemainingVacationDays = leftRemainingVacationDays;
+    }
+
+    public Account getAccount() {
+
+        return account;
+    }
+
+
+    /**
+     * @return  vacation days and remaining vacation days that can be used for applying for leave, see
+     *          {@link CalculationService#calculateTotalLeftVacationDays(Account)}
+     */
+    public BigDecimal getTotalLeftVacationDays() {
+
+        return totalLeftVacationDays;
+    }
+
+
+    /**
+     * @return  left vacation days without remaining vacation days, see
+     *          {@link CalculationService#calculateLeftVacationDays(Account)}
+     */
+    public BigDecimal getLeftVacationDays() {
+
+        return leftVacationDays;
+    }
+
+
+    /**
+     * @return  left remaining vacation days, see {@link CalculationService#calculateLeftRemainingVacationDays(Account)}
+     */
+    public BigDecimal getLeftRemainingVacationDays() {
+
+        return leftRemainingVacationDays;
+    }
+}
@@ -6,9 +6,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import org.springframework.stereotype.Service;
 
+import org.synyx.urlaubsverwaltung.core.application.dao.ApplicationSignaturesDAO;
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationSignatures;
 import org.synyx.urlaubsverwaltung.core.mail.MailService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.person.PersonKeys;
+import org.synyx.urlaubsverwaltung.core.person.PersonService;
 import org.synyx.urlaubsverwaltung.security.CryptoUtil;
 
 import java.security.InvalidKeyException;
@@ -19,7 +23,8 @@ import java.security.spec.InvalidKeySpecException;
 
 
 /**
- * Signs application when its state changes.
+ * Signs application when its state changes. The keys of the persons and the signatures of the applications for leave
+ * are stored apart from the persons and the applications for leave and only loaded here.
  *
  * @author  Aljona Murygina - murygina@synyx.de
  */
@@ -29,15 +34,20 @@ public class SignService {
     private static final Logger LOG = Logger.getLogger(SignService.class);
 
     private final MailService mailService;
+    private final PersonService personService;
+    private final ApplicationSignaturesDAO applicationSignaturesDAO;
 
     @Autowired
-    public SignService(MailService mailService) {
+    public SignService(MailService mailService, PersonService personService,
+        ApplicationSignaturesDAO applicationSignaturesDAO) {
 
         this.mailService = mailService;
+        this.personService = personService;
+        this.applicationSignaturesDAO = applicationSignaturesDAO;
     }
 
     /**
-     * Generates applier signature of application for leave.
+     * Generates applier signature of application for leave, the application for leave has to be saved before.
      *
      * @param  application
      * @param  user
@@ -47,13 +57,15 @@ public class SignService {
         byte[] data = signApplication(application, user);
 
         if (data != null) {
-            application.setSignaturePerson(data);
+            ApplicationSignatures signatures = getSignatures(application);
+            signatures.setSignaturePerson(data);
+            applicationSignaturesDAO.save(signatures);
         }
     }
 
 
     /**
-     * Generates allower/rejecter signature of application for leave.
+     * Generates allower/rejecter signature of application for leave, the application for leave has to be saved before.
      *
      * @param  application
      * @param  boss
@@ -63,11 +75,32 @@ public class SignService {
         byte[] data = signApplication(application, boss);
 
         if (data != null) {
-            application.setSignatureBoss(data);
+            ApplicationSignatures signatures = getSignatures(application);
+            signatures.setSignatureBoss(data);
+            applicationSignaturesDAO.save(signatures);
         }
     }
 
 
+    /**
+     * Get the signatures of the given application for leave.
+     *
+     * @param  application {@link Application}
+     *
+     * @return  the existing signatures of the application for leave or new empty signatures if it has none yet
+     */
+    public ApplicationSignatures getSignatures(Application application) {
+
+        ApplicationSignatures signatures = applicationSignaturesDAO.findByApplication(application);
+
+        if (signatures == null) {
+            return new ApplicationSignatures(application);
+        }
+
+        return signatures;
+    }
+
+
     /**
      * Generates signature (byte[]) by private key of {@link Person}.
      *
@@ -78,8 +111,19 @@ public class SignService {
      */
     private byte[] signApplication(Application application, Person person) {
 
+        PersonKeys keys = personService.getKeys(person);
+
+        if (keys == null) {
+            String message = "No key pair for person " + person.getLoginName();
+
+            LOG.error("An error occurred during signing application with id " + application.getId() + ": " + message);
+            mailService.sendSignErrorNotification(application.getId(), message);
+
+            return null;
+        }
+
         try {
-            PrivateKey privKey = CryptoUtil.getPrivateKeyByBytes(person.getPrivateKey());
+            PrivateKey privKey = CryptoUtil.getPrivateKeyByBytes(keys.getPrivateKey());
 
             StringBuilder build = new StringBuilder();
 
@@ -0,0 +1,34 @@
+package org.synyx.urlaubsverwaltung.core.application.service;
+
+import java.math.BigDecimal;
+
+
+/**
+ * Represents the number of vacation days used in a year, divided into the days before April (when remaining vacation
+ * days may expire) and the days from April on.
+ *
+ * @author  agent
+ */
+public class UsedVacationDays {
+
+    private final BigDecimal daysBeforeApril;
+
+    private final BigDecimal daysAfterApril;
+
+    public UsedVacationDays(BigDecimal daysBeforeApril, BigDecimal daysAfterApril) {
+
+        this.daysBeforeApril = daysBeforeApril;
+        this.daysAfterApril = daysAfterApril;
+    }
+
+    public BigDecimal getDaysBeforeApril() {
+
+        return daysBeforeApril;
+    }
+
+
+    public BigDecimal getDaysAfterApril() {
+
+        return daysAfterApril;
+    }
+}
@@ -0,0 +1,50 @@
+package org.synyx.urlaubsverwaltung.core.application.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.stereotype.Service;
+
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import org.synyx.urlaubsverwaltung.core.application.dao.VacationDaysLedgerDAO;
+import org.synyx.urlaubsverwaltung.core.application.domain.VacationDaysLedger;
+
+import java.util.List;
+
+
+/**
+ * Saves new {@link VacationDaysLedger}s in a transaction of their own: there is only one ledger per account, so if two
+ * requests create the ledger of an account at the same time, one of them fails. This must only roll back the new
+ * ledgers, not the transaction of the request.
+ *
+ * @author  agent
+ */
+@Service
+public class VacationDaysLedgerCreationService {
+
+    private final VacationDaysLedgerDAO ledgerDAO;
+
+    @Autowired
+    public VacationDaysLedgerCreationService(VacationDaysLedgerDAO ledgerDAO) {
+
+        this.ledgerDAO = ledgerDAO;
+    }
+
+    /**
+     * Saves the given new ledgers and commits them at once.
+     *
+     * @param  ledgers  to be saved
+     *
+     * @throws  org.springframework.dao.DataIntegrityViolationException  if there is a ledger for one of the accounts
+     *                                                                     already, none of the ledgers is saved then
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void create(List<VacationDaysLedger> ledgers) {
+
+        ledgerDAO.save(ledgers);
+
+        // the ledgers are inserted here, so that a duplicate ledger fails here and not on commit
+        ledgerDAO.flush();
+    }
+}
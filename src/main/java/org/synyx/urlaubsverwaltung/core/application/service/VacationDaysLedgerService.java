@@ -0,0 +1,505 @@
+package org.synyx.urlaubsverwaltung.core.application.service;
+
+import org.apache.log4j.Logger;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import org.springframework.stereotype.Service;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import org.synyx.urlaubsverwaltung.core.account.Account;
+import org.synyx.urlaubsverwaltung.core.account.AccountService;
+import org.synyx.urlaubsverwaltung.core.application.dao.ApplicationDAO;
+import org.synyx.urlaubsverwaltung.core.application.dao.VacationDaysLedgerDAO;
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+import org.synyx.urlaubsverwaltung.core.application.domain.VacationDaysLedger;
+import org.synyx.urlaubsverwaltung.core.application.domain.VacationType;
+import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
+import org.synyx.urlaubsverwaltung.core.calendar.WorkDaysRequest;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.util.DateUtil;
+import org.synyx.urlaubsverwaltung.core.util.HalfDayUtil;
+
+import java.math.BigDecimal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Service for handling {@link VacationDaysLedger}s: the number of vacation days used of an {@link Account} is
+ * calculated from the applications for leave only once, afterwards the ledger is updated with the days of every
+ * application for leave whose status changes.
+ *
+ * @author  agent
+ */
+@Service
+@Transactional
+public class VacationDaysLedgerService {
+
+    private static final Logger LOG = Logger.getLogger(VacationDaysLedgerService.class);
+
+    private static final int BEFORE_APRIL = 0;
+    private static final int AFTER_APRIL = 1;
+
+    private static final int WAITING = 0;
+    private static final int ALLOWED = 1;
+
+    private final VacationDaysLedgerDAO ledgerDAO;
+    private final ApplicationDAO applicationDAO;
+    private final AccountService accountService;
+    private final OwnCalendarService calendarService;
+    private final DaysPerYearService daysPerYearService;
+    private final VacationDaysLedgerCreationService ledgerCreationService;
+
+    @Autowired
+    public VacationDaysLedgerService(VacationDaysLedgerDAO ledgerDAO, ApplicationDAO applicationDAO,
+        AccountService accountService, OwnCalendarService calendarService, DaysPerYearService daysPerYearService,
+        VacationDaysLedgerCreationService ledgerCreationService) {
+
+        this.ledgerDAO = ledgerDAO;
+        this.applicationDAO = applicationDAO;
+        this.accountService = accountService;
+        this.calendarService = calendarService;
+        this.daysPerYearService = daysPerYearService;
+        this.ledgerCreationService = ledgerCreationService;
+    }
+
+    /**
+     * Returns the number of vacation days of the given {@link Account} used before April and from April on. If there
+     * is no ledger for the account yet, it is calculated from the applications for leave and saved.
+     *
+     * @param  account {@link Account}
+     *
+     * @return  used vacation days before April and from April on
+     */
+    public UsedVacationDays getUsedVacationDays(Account account) {
+
+        VacationDaysLedger ledger = ledgerDAO.findByAccount(account);
+
+        if (ledger == null) {
+            ledger = createLedgers(account.getYear(), Arrays.asList(account)).get(0);
+        }
+
+        return getUsedVacationDays(ledger);
+    }
+
+
+    /**
+     * Returns the number of vacation days used before April and from April on for each of the given accounts, the
+     * ledgers of all accounts are loaded at once, missing ones are calculated and saved.
+     *
+     * @param  year  of the accounts
+     * @param  accounts  to get the used vacation days for
+     *
+     * @return  used vacation days in the order of the given accounts
+     */
+    public List<UsedVacationDays> getUsedVacationDays(int year, List<Account> accounts) {
+
+        Map<Account, VacationDaysLedger> ledgers = getLedgers(accounts);
+
+        List<Account> accountsWithoutLedger = new ArrayList<>();
+
+        for (Account account : accounts) {
+            if (!ledgers.containsKey(account)) {
+                accountsWithoutLedger.add(account);
+            }
+        }
+
+        if (!accountsWithoutLedger.isEmpty()) {
+            for (VacationDaysLedger ledger : createLedgers(year, accountsWithoutLedger)) {
+                ledgers.put(ledger.getAccount(), ledger);
+            }
+        }
+
+        List<UsedVacationDays> usedVacationDays = new ArrayList<>(accounts.size());
+
+        for (Account account : accounts) {
+            usedVacationDays.add(getUsedVacationDays(ledgers.get(account)));
+        }
+
+        return usedVacationDays;
+    }
+
+
+    /**
+     * Books the days of the given {@link Application} of type holiday on the ledgers of the affected accounts: the
+     * days are removed from the former status and added to the current status of the application for leave. Must be
+     * called after the application for leave has been saved.
+     *
+     * @param  application {@link Application} whose status has changed
+     * @param  formerStatus  status before the change, {@code null} if the application for leave is new
+     */
+    public void update(Application application, ApplicationStatus formerStatus) {
+
+        if (application.getVacationType() != VacationType.HOLIDAY) {
+            return;
+        }
+
+        int formerStatusIndex = getStatusIndex(formerStatus);
+        int statusIndex = getStatusIndex(application.getStatus());
+
+        if (formerStatusIndex == statusIndex) {
+            return;
+        }
+
+        Person person = application.getPerson();
+
+        daysPerYearService.ensureDaysPerYear(Arrays.asList(application));
+
+        // an application for leave spanning the turn of the year is booked on the accounts of both years
+        for (int year = application.getStartDate().getYear(); year <= application.getEndDate().getYear(); year++) {
+            Account account = accountService.getHolidaysAccount(year, person);
+
+            if (account == null) {
+                // the ledger is calculated from the applications for leave as soon as the account is used
+                continue;
+            }
+
+            long[] halfDays = calculateUsedHalfDays(year, Arrays.asList(application))[0];
+
+            // [status][period]
+            long[][] halfDaysToAdd = new long[2][2];
+
+            if (formerStatusIndex >= 0) {
+                halfDaysToAdd[formerStatusIndex][BEFORE_APRIL] -= halfDays[BEFORE_APRIL];
+                halfDaysToAdd[formerStatusIndex][AFTER_APRIL] -= halfDays[AFTER_APRIL];
+            }
+
+            if (statusIndex >= 0) {
+                halfDaysToAdd[statusIndex][BEFORE_APRIL] += halfDays[BEFORE_APRIL];
+                halfDaysToAdd[statusIndex][AFTER_APRIL] += halfDays[AFTER_APRIL];
+            }
+
+            // if there is no ledger yet, nothing is updated: the ledger is calculated from the applications for leave
+            // including this one as soon as the account is used
+            ledgerDAO.addDays(account, HalfDayUtil.toDays(halfDaysToAdd[WAITING][BEFORE_APRIL]),
+                HalfDayUtil.toDays(halfDaysToAdd[ALLOWED][BEFORE_APRIL]),
+                HalfDayUtil.toDays(halfDaysToAdd[WAITING][AFTER_APRIL]),
+                HalfDayUtil.toDays(halfDaysToAdd[ALLOWED][AFTER_APRIL]));
+        }
+    }
+
+
+    /**
+     * Calculates the ledgers of all accounts of the given year from the applications for leave and corrects the saved
+     * ledgers that differ, e.g. because the working time of a person has been changed.
+     *
+     * @param  year  of the accounts
+     *
+     * @return  number of ledgers that have been created or corrected
+     */
+    public int rebuildLedgers(int year) {
+
+        List<Account> accounts = accountService.getHolidaysAccounts(year);
+
+        if (accounts.isEmpty()) {
+            return 0;
+        }
+
+        return rebuildLedgers(year, accounts);
+    }
+
+
+    /**
+     * Calculates the ledgers of the accounts of the given person from the given date on, i.e. of the year of the date
+     * and all later years up to the next year, and corrects the saved ledgers that differ. Must be called whenever the
+     * working time of the person is changed, because the used vacation days depend on the working days.
+     *
+     * @param  person  whose ledgers should be rebuilt
+     * @param  from  date from which on the used vacation days have changed
+     *
+     * @return  number of ledgers that have been created or corrected
+     */
+    public int rebuildLedgers(Person person, DateMidnight from) {
+
+        int lastYear = Math.max(from.getYear(), DateMidnight.now().getYear() + 1);
+
+        int rebuiltLedgers = 0;
+
+        for (int year = from.getYear(); year <= lastYear; year++) {
+            Account account = accountService.getHolidaysAccount(year, person);
+
+            if (account != null) {
+                rebuiltLedgers += rebuildLedgers(year, Arrays.asList(account));
+            }
+        }
+
+        return rebuiltLedgers;
+    }
+
+
+    private int rebuildLedgers(int year, List<Account> accounts) {
+
+        Map<Account, VacationDaysLedger> savedLedgers = getLedgers(accounts);
+        List<VacationDaysLedger> calculatedLedgers = calculateLedgers(year, accounts);
+
+        List<VacationDaysLedger> ledgersToSave = new ArrayList<>();
+
+        for (VacationDaysLedger calculatedLedger : calculatedLedgers) {
+            VacationDaysLedger savedLedger = savedLedgers.get(calculatedLedger.getAccount());
+
+            if (savedLedger == null) {
+                ledgersToSave.add(calculatedLedger);
+            } else if (!savedLedger.hasSameDaysAs(calculatedLedger)) {
+                LOG.warn("Correcting vacation days ledger of account " + savedLedger.getAccount().getId() + " for "
+                    + year);
+
+                savedLedger.setWaitingDaysBeforeApril(calculatedLedger.getWaitingDaysBeforeApril());
+                savedLedger.setAllowedDaysBeforeApril(calculatedLedger.getAllowedDaysBeforeApril());
+                savedLedger.setWaitingDaysAfterApril(calculatedLedger.getWaitingDaysAfterApril());
+                savedLedger.setAllowedDaysAfterApril(calculatedLedger.getAllowedDaysAfterApril());
+
+                ledgersToSave.add(savedLedger);
+            }
+        }
+
+        if (!ledgersToSave.isEmpty()) {
+            ledgerDAO.save(ledgersToSave);
+        }
+
+        return ledgersToSave.size();
+    }
+
+
+    private Map<Account, VacationDaysLedger> getLedgers(List<Account> accounts) {
+
+        Map<Account, VacationDaysLedger> ledgers = new HashMap<>();
+
+        if (accounts.isEmpty()) {
+            return ledgers;
+        }
+
+        for (VacationDaysLedger ledger : ledgerDAO.findByAccounts(accounts)) {
+            ledgers.put(ledger.getAccount(), ledger);
+        }
+
+        return ledgers;
+    }
+
+
+    /**
+     * Calculates and saves the ledgers of the given accounts. If another request has saved the ledger of one of the
+     * accounts in the meantime, none of them is saved: the saved ledgers are read again, the ones that can not be read
+     * yet are calculated on the next use again.
+     */
+    private List<VacationDaysLedger> createLedgers(int year, List<Account> accounts) {
+
+        List<VacationDaysLedger> ledgers = calculateLedgers(year, accounts);
+
+        try {
+            ledgerCreationService.create(ledgers);
+        } catch (DataIntegrityViolationException ex) {
+            LOG.info("Vacation days ledgers for " + year + " have been created concurrently: " + ex.getMessage());
+
+            Map<Account, VacationDaysLedger> savedLedgers = getLedgers(accounts);
+
+            for (int i = 0; i < ledgers.size(); i++) {
+                VacationDaysLedger savedLedger = savedLedgers.get(accounts.get(i));
+
+                if (savedLedger != null) {
+                    ledgers.set(i, savedLedger);
+                }
+            }
+        }
+
+        return ledgers;
+    }
+
+
+    private List<VacationDaysLedger> calculateLedgers(int year, List<Account> accounts) {
+
+        Map<Person, List<Application>> applicationsByPerson = new HashMap<>();
+
+        if (accounts.size() == 1) {
+            Person person = accounts.get(0).getPerson();
+
+            applicationsByPerson.put(person,
+                applicationDAO.getApplicationsForACertainTimeAndPersonAndVacationTypeAndStates(
+                    DateUtil.getFirstDayOfYear(year).toDate(), DateUtil.getLastDayOfYear(year).toDate(), person,
+                    VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED));
+        } else {
+            List<Application> applications = applicationDAO.getApplicationsForACertainTimeAndVacationTypeAndStates(
+                    DateUtil.getFirstDayOfYear(year).toDate(), DateUtil.getLastDayOfYear(year).toDate(),
+                    VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED);
+
+            for (Application application : applications) {
+                List<Application> applicationsOfPerson = applicationsByPerson.get(application.getPerson());
+
+                if (applicationsOfPerson == null) {
+                    applicationsOfPerson = new ArrayList<>();
+                    applicationsByPerson.put(application.getPerson(), applicationsOfPerson);
+                }
+
+                applicationsOfPerson.add(application);
+            }
+        }
+
+        return calculateLedgers(year, accounts, applicationsByPerson);
+    }
+
+
+    private List<VacationDaysLedger> calculateLedgers(int year, List<Account> accounts,
+        Map<Person, List<Application>> applicationsByPerson) {
+
+        List<Application> applications = new ArrayList<>();
+
+        // number of applications for leave per account, they are contained in the list in the order of the accounts
+        int[] numberOfApplications = new int[accounts.size()];
+
+        for (int i = 0; i < accounts.size(); i++) {
+            List<Application> applicationsOfAccount = applicationsByPerson.get(accounts.get(i).getPerson());
+
+            if (applicationsOfAccount == null) {
+                applicationsOfAccount = Collections.emptyList();
+            }
+
+            applications.addAll(applicationsOfAccount);
+            numberOfApplications[i] = applicationsOfAccount.size();
+        }
+
+        daysPerYearService.ensureDaysPerYear(applications);
+
+        long[][] halfDaysOfApplications = calculateUsedHalfDays(year, applications);
+
+        List<VacationDaysLedger> ledgers = new ArrayList<>(accounts.size());
+
+        int applicationIndex = 0;
+
+        for (int i = 0; i < accounts.size(); i++) {
+            // [status][period]
+            long[][] halfDays = new long[2][2];
+
+            for (int j = 0; j < numberOfApplications[i]; j++, applicationIndex++) {
+                int statusIndex = getStatusIndex(applications.get(applicationIndex).getStatus());
+
+                if (statusIndex >= 0) {
+                    halfDays[statusIndex][BEFORE_APRIL] += halfDaysOfApplications[applicationIndex][BEFORE_APRIL];
+                    halfDays[statusIndex][AFTER_APRIL] += halfDaysOfApplications[applicationIndex][AFTER_APRIL];
+                }
+            }
+
+            VacationDaysLedger ledger = new VacationDaysLedger(accounts.get(i));
+            ledger.setWaitingDaysBeforeApril(HalfDayUtil.toDays(halfDays[WAITING][BEFORE_APRIL]));
+            ledger.setAllowedDaysBeforeApril(HalfDayUtil.toDays(halfDays[ALLOWED][BEFORE_APRIL]));
+            ledger.setWaitingDaysAfterApril(HalfDayUtil.toDays(halfDays[WAITING][AFTER_APRIL]));
+            ledger.setAllowedDaysAfterApril(HalfDayUtil.toDays(halfDays[ALLOWED][AFTER_APRIL]));
+
+            ledgers.add(ledger);
+        }
+
+        return ledgers;
+    }
+
+
+    /**
+     * Calculates the number of half days of the given applications for leave in the given year before April and from
+     * April on. Applications whose part within the year is fully within one of these periods count with their number
+     * of days in the year, for those spanning April only the workdays of the part within the respective period are
+     * counted; these are calculated at once.
+     *
+     * @param  year  to calculate the used half days for
+     * @param  applications  to calculate the used half days of
+     *
+     * @return  half days before April and from April on per application for leave
+     */
+    private long[][] calculateUsedHalfDays(int year, List<Application> applications) {
+
+        DateMidnight[] firstMilestones = new DateMidnight[2];
+        firstMilestones[BEFORE_APRIL] = new DateMidnight(year, DateTimeConstants.JANUARY, 1);
+        firstMilestones[AFTER_APRIL] = new DateMidnight(year, DateTimeConstants.APRIL, 1);
+
+        DateMidnight[] lastMilestones = new DateMidnight[2];
+        lastMilestones[BEFORE_APRIL] = new DateMidnight(year, DateTimeConstants.MARCH, 31);
+        lastMilestones[AFTER_APRIL] = new DateMidnight(year, DateTimeConstants.DECEMBER, 31);
+
+        // used half days per application and period between two milestones
+        long[][] halfDays = new long[applications.size()][2];
+
+        // every request is related to an application and a period
+        List<WorkDaysRequest> requests = new ArrayList<>();
+        List<int[]> applicationAndPeriodOfRequests = new ArrayList<>();
+
+        for (int i = 0; i < applications.size(); i++) {
+            Application application = applications.get(i);
+
+            // only the part of an application for leave spanning the turn of the year within the year is relevant
+            DateMidnight startDate = application.getStartDate().isBefore(firstMilestones[BEFORE_APRIL])
+                ? firstMilestones[BEFORE_APRIL] : application.getStartDate();
+            DateMidnight endDate = application.getEndDate().isAfter(lastMilestones[AFTER_APRIL])
+                ? lastMilestones[AFTER_APRIL] : application.getEndDate();
+
+            for (int period = BEFORE_APRIL; period <= AFTER_APRIL; period++) {
+                DateMidnight firstMilestone = firstMilestones[period];
+                DateMidnight lastMilestone = lastMilestones[period];
+
+                if (endDate.isBefore(firstMilestone) || startDate.isAfter(lastMilestone)) {
+                    continue;
+                }
+
+                if (!startDate.isBefore(firstMilestone) && !endDate.isAfter(lastMilestone)) {
+                    halfDays[i][period] += HalfDayUtil.toHalfDays(application.getDaysInYear(year));
+                } else {
+                    DateMidnight startDateBetweenMilestones = startDate.isBefore(firstMilestone) ? firstMilestone
+                                                                                                 : startDate;
+                    DateMidnight endDateBetweenMilestones = endDate.isAfter(lastMilestone) ? lastMilestone : endDate;
+
+                    requests.add(new WorkDaysRequest(application.getPerson(), application.getHowLong(),
+                            startDateBetweenMilestones, endDateBetweenMilestones));
+                    applicationAndPeriodOfRequests.add(new int[] { i, period });
+                }
+            }
+        }
+
+        if (!requests.isEmpty()) {
+            long[] halfDaysOfRequests = calendarService.getWorkDaysInHalfDays(requests);
+
+            for (int j = 0; j < halfDaysOfRequests.length; j++) {
+                int[] applicationAndPeriod = applicationAndPeriodOfRequests.get(j);
+
+                halfDays[applicationAndPeriod[0]][applicationAndPeriod[1]] += halfDaysOfRequests[j];
+            }
+        }
+
+        return halfDays;
+    }
+
+
+    private static UsedVacationDays getUsedVacationDays(VacationDaysLedger ledger) {
+
+        // the ledger is saved with two fraction digits, the sums are normalized to the scale used in calculations
+        long halfDaysBeforeApril = HalfDayUtil.toHalfDays(ledger.getWaitingDaysBeforeApril())
+            + HalfDayUtil.toHalfDays(ledger.getAllowedDaysBeforeApril());
+        long halfDaysAfterApril = HalfDayUtil.toHalfDays(ledger.getWaitingDaysAfterApril())
+            + HalfDayUtil.toHalfDays(ledger.getAllowedDaysAfterApril());
+
+        return new UsedVacationDays(HalfDayUtil.toDays(halfDaysBeforeApril).setScale(1),
+                HalfDayUtil.toDays(halfDaysAfterApril).setScale(1));
+    }
+
+
+    private static int getStatusIndex(ApplicationStatus status) {
+
+        if (status == ApplicationStatus.WAITING) {
+            return WAITING;
+        }
+
+        if (status == ApplicationStatus.ALLOWED) {
+            return ALLOWED;
+        }
+
+        // other states do not use vacation days
+        return -1;
+    }
+}
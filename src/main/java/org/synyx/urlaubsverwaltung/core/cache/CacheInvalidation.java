@@ -0,0 +1,41 @@
+package org.synyx.urlaubsverwaltung.core.cache;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+
+/**
+ * Invalidates cached data that has been saved.
+ *
+ * @author  agent
+ */
+public final class CacheInvalidation {
+
+    private CacheInvalidation() {
+
+        // Hide constructor for util classes
+    }
+
+    /**
+     * Runs the given invalidation at once and, if there is a running transaction, again after its completion, so that
+     * data loaded before the end of the transaction can not stay in the cache: neither data of another thread that has
+     * been loaded before the commit, nor data of the same transaction that has been loaded before a rollback.
+     *
+     * @param  invalidation  that removes the changed data from the cache
+     */
+    public static void invalidateNowAndAfterCompletion(final Runnable invalidation) {
+
+        invalidation.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                    @Override
+                    public void afterCompletion(int status) {
+
+                        invalidation.run();
+                    }
+                });
+        }
+    }
+}
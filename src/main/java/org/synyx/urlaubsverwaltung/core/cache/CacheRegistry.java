@@ -0,0 +1,109 @@
+package org.synyx.urlaubsverwaltung.core.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import org.apache.log4j.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Creates the in-memory caches of the rarely changing data like persons, working times, holidays accounts and the
+ * indexes of the active applications for leave and absences, with the configured maximum size and time to live, and
+ * keeps track of their statistics. Every in-memory cache of the application has to be created here.
+ *
+ * <p>Every cache is invalidated by the service that owns it as soon as the cached data is saved. If the application
+ * is deployed on several nodes, a node does not notice changes saved by another node, therefore every cached entry
+ * expires after the configured time to live and is loaded again from the database. The time to live is the maximum
+ * time a node may work with stale data, for caches that are built from other caches, like the absence bitmaps, it is
+ * a multiple of the time to live.</p>
+ *
+ * @author  agent
+ */
+@Component
+public class CacheRegistry {
+
+    private static final Logger LOG = Logger.getLogger(CacheRegistry.class);
+
+    private final long maximumSize;
+    private final long expireAfterWriteMinutes;
+
+    // key: name of the cache
+    private final ConcurrentMap<String, Cache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CacheRegistry(@Value("${cache.maximumSize}") long maximumSize,
+        @Value("${cache.expireAfterWrite}") long expireAfterWriteMinutes) {
+
+        this.maximumSize = maximumSize;
+        this.expireAfterWriteMinutes = expireAfterWriteMinutes;
+    }
+
+    /**
+     * Creates a new cache with the configured maximum size and time to live that records statistics.
+     *
+     * @param  name  of the cache, used for the statistics
+     *
+     * @return  the new cache
+     *
+     * @throws  IllegalArgumentException  if there is already a cache with the given name
+     */
+    public <K, V> Cache<K, V> create(String name) {
+
+        Cache<K, V> cache = CacheBuilder.newBuilder().maximumSize(maximumSize).expireAfterWrite(
+                    expireAfterWriteMinutes, TimeUnit.MINUTES).recordStats().build();
+
+        if (caches.putIfAbsent(name, cache) != null) {
+            throw new IllegalArgumentException("There is already a cache with name " + name);
+        }
+
+        return cache;
+    }
+
+
+    /**
+     * Returns the statistics of all caches, i.e. hits, misses, loads and evictions since the start of the application.
+     *
+     * @return  statistics by name of the cache, sorted by name
+     */
+    public SortedMap<String, CacheStats> getStatistics() {
+
+        SortedMap<String, CacheStats> statistics = new TreeMap<>();
+
+        for (Map.Entry<String, Cache<?, ?>> entry : caches.entrySet()) {
+            statistics.put(entry.getKey(), entry.getValue().stats());
+        }
+
+        return statistics;
+    }
+
+
+    /**
+     * This cronjob is executed every hour, it logs the statistics of all caches.
+     */
+    @Scheduled(cron = "0 0 * * * *")
+    void logStatistics() {
+
+        for (Map.Entry<String, CacheStats> entry : getStatistics().entrySet()) {
+            CacheStats stats = entry.getValue();
+
+            LOG.info("Cache " + entry.getKey() + ": {size: " + caches.get(entry.getKey()).size() + ", hits: "
+                + stats.hitCount() + ", misses: " + stats.missCount() + ", hitRate: " + stats.hitRate()
+                + ", evictions: " + stats.evictionCount() + "}");
+        }
+    }
+}
@@ -5,9 +5,14 @@
 package org.synyx.urlaubsverwaltung.core.calendar;
 
 import com.google.common.base.Predicate;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 
+import com.google.common.io.Resources;
+
 import de.jollyday.Holiday;
 import de.jollyday.HolidayManager;
 
@@ -30,6 +35,7 @@ import java.math.BigDecimal;
 import java.net.URL;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -52,9 +58,24 @@ public class JollydayCalendar {
     private static final String CHRISTMAS_EVE_PROPERTY_KEY = "CHRISTMAS_EVE";
     private static final String NEW_YEARS_EVE_PROPERTY_KEY = "NEW_YEARS_EVE";
 
+    // number of years whose working durations are kept in memory at the same time
+    private static final int MAXIMUM_CACHED_YEARS = 20;
+
+    // working durations are stored as number of half days: 0 = public holiday, 1 = half day, 2 = full work day
+    private static final byte HALF_DAYS_OF_FULL_DAY = 2;
+    private static final BigDecimal[] DURATIONS_BY_HALF_DAYS = new BigDecimal[] {
+        DayLength.ZERO.getDuration(), DayLength.MORNING.getDuration(), DayLength.FULL.getDuration()
+    };
+
     private HolidayManager manager;
     private Properties businessProperties;
 
+    // per year: working duration in half days, indexed by day of year - 1
+    private final LoadingCache<Integer, byte[]> workingDurationsPerYear;
+
+    // the public holidays depend only on the holiday definition and the business properties
+    private final int configurationVersion;
+
     public JollydayCalendar() throws IOException {
 
         this(PropertiesUtil.load(BUSINESS_PROPERTIES_FILE));
@@ -69,8 +90,37 @@ public class JollydayCalendar {
         URL url = cl.getResource(HOLIDAY_DEFINITION_FILE);
 
         manager = HolidayManager.getInstance(url);
+
+        try {
+            configurationVersion = Arrays.hashCode(Resources.toByteArray(url)) * 31 + properties.hashCode();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not read holiday definition " + HOLIDAY_DEFINITION_FILE, ex);
+        }
+
+        workingDurationsPerYear = CacheBuilder.newBuilder().maximumSize(MAXIMUM_CACHED_YEARS).build(
+                new CacheLoader<Integer, byte[]>() {
+
+                    @Override
+                    public byte[] load(Integer year) {
+
+                        return compileWorkingDurationsOfYear(year);
+                    }
+                });
     }
 
+    /**
+     * Get the version of the configuration of the public holidays, i.e. of the holiday definition and of the working
+     * durations of Christmas Eve and New Year's Eve. The public holidays of a year do not change as long as the
+     * version does not change.
+     *
+     * @return  version of the configuration of the public holidays
+     */
+    public int getConfigurationVersion() {
+
+        return configurationVersion;
+    }
+
+
     /**
      * Checks if the given date is a public holiday by lookup in the given set of public holidays.
      *
@@ -99,17 +149,67 @@ public class JollydayCalendar {
      */
     public BigDecimal getWorkingDurationOfDate(DateMidnight date) {
 
-        if (isPublicHoliday(date)) {
-            if (DateUtil.isChristmasEve(date)) {
-                return getConfiguredVacationDayCountForHoliday(CHRISTMAS_EVE_PROPERTY_KEY);
-            } else if (DateUtil.isNewYearsEve(date)) {
-                return getConfiguredVacationDayCountForHoliday(NEW_YEARS_EVE_PROPERTY_KEY);
-            } else {
-                return DayLength.ZERO.getDuration();
+        return DURATIONS_BY_HALF_DAYS[getWorkingDurationOfDateInHalfDays(date)];
+    }
+
+
+    /**
+     * Returns the working duration for a date as number of half days, i.e. 2 for a non public holiday, 1 for a public
+     * holiday that is configured to be a half day (e.g. Christmas Eve) and 0 for a public holiday. The durations of a
+     * whole year are compiled on first access and kept in a bounded cache, so a lookup is just an array access.
+     *
+     * @param  date  to get working duration for
+     *
+     * @return  working duration of the given date in half days
+     */
+    public int getWorkingDurationOfDateInHalfDays(DateMidnight date) {
+
+        byte[] workingDurationsOfYear = workingDurationsPerYear.getUnchecked(date.getYear());
+
+        return workingDurationsOfYear[date.getDayOfYear() - 1];
+    }
+
+
+    /**
+     * Builds the working durations (in half days) of every day of the given year by applying the public holidays of
+     * the year to an array of full work days.
+     *
+     * @param  year  to compile working durations for
+     *
+     * @return  working durations in half days, indexed by day of year - 1
+     */
+    private byte[] compileWorkingDurationsOfYear(int year) {
+
+        int daysOfYear = DateUtil.getLastDayOfYear(year).getDayOfYear();
+
+        byte[] workingDurations = new byte[daysOfYear];
+        Arrays.fill(workingDurations, HALF_DAYS_OF_FULL_DAY);
+
+        for (Holiday holiday : manager.getHolidays(year)) {
+            DateMidnight date = holiday.getDate().toDateMidnight();
+
+            if (date.getYear() == year) {
+                workingDurations[date.getDayOfYear() - 1] = getWorkingDurationOfPublicHolidayInHalfDays(date);
             }
         }
 
-        return DayLength.FULL.getDuration();
+        return workingDurations;
+    }
+
+
+    private byte getWorkingDurationOfPublicHolidayInHalfDays(DateMidnight date) {
+
+        BigDecimal duration;
+
+        if (DateUtil.isChristmasEve(date)) {
+            duration = getConfiguredVacationDayCountForHoliday(CHRISTMAS_EVE_PROPERTY_KEY);
+        } else if (DateUtil.isNewYearsEve(date)) {
+            duration = getConfiguredVacationDayCountForHoliday(NEW_YEARS_EVE_PROPERTY_KEY);
+        } else {
+            duration = DayLength.ZERO.getDuration();
+        }
+
+        return (byte) duration.multiply(BigDecimal.valueOf(HALF_DAYS_OF_FULL_DAY)).intValue();
     }
 
 
@@ -137,13 +237,18 @@ public class JollydayCalendar {
 
 
     /**
-     * Returns the number of days that should be calculated for the given holiday.
+     * Returns the number of days that should be calculated for the given holiday. If there is no configuration for
+     * the given holiday, it is handled like every other public holiday.
      */
     private BigDecimal getConfiguredVacationDayCountForHoliday(String holidayName) {
 
         String propertyName = String.format(VACATION_DAY_COUNT_CONFIGURATION, holidayName);
         String vacationDayCountConfig = businessProperties.getProperty(propertyName);
 
+        if (vacationDayCountConfig == null) {
+            return DayLength.ZERO.getDuration();
+        }
+
         DayLength dayLength = DayLength.valueOf(vacationDayCountConfig);
 
         return dayLength.getDuration();
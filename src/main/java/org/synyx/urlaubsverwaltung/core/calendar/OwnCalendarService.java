@@ -2,6 +2,8 @@
 package org.synyx.urlaubsverwaltung.core.calendar;
 
 import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.Days;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -13,10 +15,25 @@ import org.synyx.urlaubsverwaltung.core.calendar.workingtime.NoValidWorkingTimeE
 import org.synyx.urlaubsverwaltung.core.calendar.workingtime.WorkingTime;
 import org.synyx.urlaubsverwaltung.core.calendar.workingtime.WorkingTimeService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
-import org.synyx.urlaubsverwaltung.core.util.DateUtil;
+import org.synyx.urlaubsverwaltung.core.util.HalfDayUtil;
 
 import java.math.BigDecimal;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import javax.annotation.PreDestroy;
+
 
 /**
  * Service for calendar purpose.
@@ -26,21 +43,47 @@ import java.math.BigDecimal;
 @Service
 public class OwnCalendarService {
 
+    private static final int QUARTER_DAYS_PER_DAY = 4;
+
+    private static final int WEEKDAYS_PER_WEEK = 5;
+
+    // batches with less requests are calculated in the calling thread
+    private static final int MINIMUM_REQUESTS_FOR_PARALLEL_CALCULATION = 1000;
+
     private final JollydayCalendar jollydayCalendar;
     private final WorkingTimeService workingTimeService;
+    private final WorkDayCounter workDayCounter;
+    private final ExecutorService parallelCalculationPool;
 
     @Autowired
     public OwnCalendarService(JollydayCalendar jollydayCalendar, WorkingTimeService workingTimeService) {
 
         this.jollydayCalendar = jollydayCalendar;
         this.workingTimeService = workingTimeService;
+        this.workDayCounter = new WorkDayCounter(jollydayCalendar);
+
+        // the worker threads are daemon threads that terminate when they are idle, the pool is shut down with the
+        // application context (the common pool of Java 8 is not available with Java 7)
+        this.parallelCalculationPool = new ForkJoinPool();
+    }
+
+    /**
+     * Shuts down the pool of the parallel calculation, so that no worker threads are left after the application
+     * context has been closed, e.g. after a redeployment.
+     */
+    @PreDestroy
+    public void shutdown() {
+
+        parallelCalculationPool.shutdown();
     }
 
+
     /**
      * Note: the start date must be before or equal the end date; this is validated prior to that method
      *
      * <p>This method calculates how many weekdays are between declared start date and end date (official holidays are
-     * ignored here)</p>
+     * ignored here). Every full week of the period has five weekdays, so only the weekdays of the remaining days have
+     * to be counted.</p>
      *
      * @param  startDate
      * @param  endDate
@@ -49,25 +92,32 @@ public class OwnCalendarService {
      */
     public double getWeekDays(DateMidnight startDate, DateMidnight endDate) {
 
-        double workDays = 0.0;
+        if (endDate.isBefore(startDate)) {
+            return 0.0;
+        }
 
-        if (!startDate.equals(endDate)) {
-            DateMidnight day = startDate;
+        int numberOfDays = Days.daysBetween(startDate, endDate).getDays() + 1;
 
-            while (!day.isAfter(endDate)) {
-                if (DateUtil.isWorkDay(day)) {
-                    workDays++;
-                }
+        // index of the weekday of the start date within a week starting on monday
+        int startIndex = startDate.getDayOfWeek() - DateTimeConstants.MONDAY;
 
-                day = day.plusDays(1);
-            }
-        } else {
-            if (DateUtil.isWorkDay(startDate)) {
-                workDays++;
-            }
-        }
+        return getWeekDaysOfFirstDaysOfWeek(startIndex + numberOfDays) - getWeekDaysOfFirstDaysOfWeek(startIndex);
+    }
 
-        return workDays;
+
+    /**
+     * Returns the number of weekdays of the given number of consecutive days starting on a monday.
+     *
+     * @param  numberOfDays
+     *
+     * @return  number of weekdays
+     */
+    private static long getWeekDaysOfFirstDaysOfWeek(long numberOfDays) {
+
+        long fullWeeks = numberOfDays / DateTimeConstants.DAYS_PER_WEEK;
+        long remainingDays = numberOfDays % DateTimeConstants.DAYS_PER_WEEK;
+
+        return fullWeeks * WEEKDAYS_PER_WEEK + Math.min(remainingDays, WEEKDAYS_PER_WEEK);
     }
 
 
@@ -102,7 +152,8 @@ public class OwnCalendarService {
      * This method calculates how many workdays are used in the stated period (from start date to end date) considering
      * the personal working time of the given person, getNumberOfPublicHolidays calculates the number of official
      * holidays within the personal workdays period. Number of workdays results from difference between personal
-     * workdays and official holidays.
+     * workdays and official holidays. If the working time of the person changes within the period, every part of the
+     * period is calculated with the working time valid for it.
      *
      * @param  dayLength
      * @param  startDate
@@ -113,37 +164,295 @@ public class OwnCalendarService {
      */
     public BigDecimal getWorkDays(DayLength dayLength, DateMidnight startDate, DateMidnight endDate, Person person) {
 
-        WorkingTime workingTime = workingTimeService.getByPersonAndValidityDateEqualsOrMinorDate(person, startDate);
+        return HalfDayUtil.toDays(getWorkDaysInHalfDays(dayLength, startDate, endDate, person)).setScale(1);
+    }
+
+
+    /**
+     * Calculates the number of workdays like {@link #getWorkDays(DayLength, DateMidnight, DateMidnight, Person)}, but
+     * returns them as number of half days, so that sums of workdays can be calculated without {@link BigDecimal}.
+     *
+     * @param  dayLength
+     * @param  startDate
+     * @param  endDate
+     * @param  person
+     *
+     * @return  number of workdays in half days
+     */
+    public long getWorkDaysInHalfDays(DayLength dayLength, DateMidnight startDate, DateMidnight endDate,
+        Person person) {
+
+        List<WorkingTime> workingTimes = workingTimeService.getByPersonAndPeriod(person, startDate, endDate);
+
+        return getWorkDaysInHalfDays(dayLength, startDate, endDate, person, workingTimes);
+    }
+
+
+    /**
+     * Calculates the number of workdays for every given request like
+     * {@link #getWorkDays(DayLength, DateMidnight, DateMidnight, Person)}, but the working times of all persons are
+     * loaded at once. Large batches are calculated in parallel.
+     *
+     * @param  requests  periods to calculate the number of workdays for
+     *
+     * @return  number of workdays per request, in the order of the requests
+     */
+    public List<BigDecimal> getWorkDays(List<WorkDaysRequest> requests) {
+
+        long[] halfDays = getWorkDaysInHalfDays(requests);
+
+        List<BigDecimal> workDays = new ArrayList<>(halfDays.length);
+
+        for (long halfDaysOfRequest : halfDays) {
+            workDays.add(HalfDayUtil.toDays(halfDaysOfRequest).setScale(1));
+        }
+
+        return workDays;
+    }
+
+
+    /**
+     * Calculates the number of workdays for every given request like {@link #getWorkDays(List)}, but returns them as
+     * number of half days.
+     *
+     * @param  requests  periods to calculate the number of workdays for
+     *
+     * @return  number of workdays in half days per request, in the order of the requests
+     */
+    public long[] getWorkDaysInHalfDays(List<WorkDaysRequest> requests) {
+
+        Long[] calculatedHalfDays = calculateWorkDaysInHalfDays(requests, false);
+
+        long[] halfDays = new long[calculatedHalfDays.length];
+
+        for (int i = 0; i < calculatedHalfDays.length; i++) {
+            halfDays[i] = calculatedHalfDays[i];
+        }
+
+        return halfDays;
+    }
+
+
+    /**
+     * Calculates the number of workdays for every given request like {@link #getWorkDaysInHalfDays(List)}, but a
+     * request that can not be calculated does not fail the whole batch.
+     *
+     * @param  requests  periods to calculate the number of workdays for
+     *
+     * @return  number of workdays in half days per request, in the order of the requests, {@code null} for requests
+     *          without valid working time or whose number of workdays can not be divided by the day length
+     */
+    public Long[] getWorkDaysInHalfDaysOrNull(List<WorkDaysRequest> requests) {
+
+        return calculateWorkDaysInHalfDays(requests, true);
+    }
+
+
+    /**
+     * Calculates the number of workdays of every single day of the given periods, as if there was one request per day
+     * for {@link #getWorkDaysInHalfDays(List)}. Every period is passed only once: the working duration of each day is
+     * read from the cached working durations of its year and multiplied with the day length of its weekday given by
+     * the working time valid at this day.
+     *
+     * @param  requests  periods to calculate the number of workdays of every day for
+     *
+     * @return  number of workdays in half days per day, the days of all periods one after another in the order of the
+     *          requests
+     *
+     * @throws  NoValidWorkingTimeException  if there is no working time valid at the start date of a period
+     * @throws  ArithmeticException  if the number of workdays of a day can not be divided by the day length
+     */
+    public long[] getWorkDaysPerDayInHalfDays(List<WorkDaysRequest> requests) {
+
+        Map<Person, List<WorkingTime>> timelines = workingTimeService.getTimelines(getPersons(requests));
+
+        int numberOfDays = 0;
+
+        for (WorkDaysRequest request : requests) {
+            numberOfDays += Days.daysBetween(request.getStartDate(), request.getEndDate()).getDays() + 1;
+        }
+
+        long[] halfDays = new long[numberOfDays];
+
+        int dayIndex = 0;
+
+        for (WorkDaysRequest request : requests) {
+            DateMidnight startDate = request.getStartDate();
+            DateMidnight endDate = request.getEndDate();
+
+            List<WorkingTime> workingTimes = WorkingTimeService.getByTimelineAndPeriod(
+                    timelines.get(request.getPerson()), startDate, endDate);
+
+            if (workingTimes.isEmpty()) {
+                throw new NoValidWorkingTimeException("No working time found for User '"
+                    + request.getPerson().getLoginName() + "' in period " + startDate.toString(DateFormat.PATTERN)
+                    + " - " + endDate.toString(DateFormat.PATTERN) + ". Please contact the application manager.");
+            }
+
+            int halfDaysOfDayLength = WorkDayCounter.getHalfDays(request.getDayLength());
+
+            int workingTimeIndex = 0;
+
+            for (DateMidnight day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+                if (workingTimeIndex + 1 < workingTimes.size()
+                        && !workingTimes.get(workingTimeIndex + 1).getValidFrom().isAfter(day)) {
+                    workingTimeIndex++;
+                }
+
+                DayLength dayLengthOfWeekday = workingTimes.get(workingTimeIndex).getDayLengthForWeekDay(
+                        day.getDayOfWeek());
+
+                long quarterDays = jollydayCalendar.getWorkingDurationOfDateInHalfDays(day)
+                    * WorkDayCounter.getHalfDays(dayLengthOfWeekday);
+
+                // like a single day period: less than a day is not divided by the day length
+                halfDays[dayIndex++] = quarterDays < QUARTER_DAYS_PER_DAY ? WorkDayCounter.toHalfDays(quarterDays)
+                                                                           : halfDaysOfDayLength;
+            }
+        }
+
+        return halfDays;
+    }
+
+
+    private static Set<Person> getPersons(List<WorkDaysRequest> requests) {
+
+        Set<Person> persons = new LinkedHashSet<>();
+
+        for (WorkDaysRequest request : requests) {
+            persons.add(request.getPerson());
+        }
+
+        return persons;
+    }
+
+
+    private Long[] calculateWorkDaysInHalfDays(final List<WorkDaysRequest> requests,
+        final boolean invalidRequestsAreNull) {
+
+        final Long[] halfDays = new Long[requests.size()];
+
+        // group the requests by person, so that the working times of every person are looked up only once
+        Map<Person, List<Integer>> requestIndexesByPerson = new LinkedHashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            Person person = requests.get(i).getPerson();
+
+            List<Integer> requestIndexes = requestIndexesByPerson.get(person);
+
+            if (requestIndexes == null) {
+                requestIndexes = new ArrayList<>();
+                requestIndexesByPerson.put(person, requestIndexes);
+            }
+
+            requestIndexes.add(i);
+        }
+
+        Map<Person, List<WorkingTime>> timelines = workingTimeService.getTimelines(requestIndexesByPerson.keySet());
+
+        List<Runnable> calculations = new ArrayList<>(requestIndexesByPerson.size());
+
+        for (Map.Entry<Person, List<Integer>> entry : requestIndexesByPerson.entrySet()) {
+            final List<Integer> requestIndexes = entry.getValue();
+            final List<WorkingTime> timeline = timelines.get(entry.getKey());
+
+            calculations.add(new Runnable() {
+
+                    @Override
+                    public void run() {
+
+                        for (int i : requestIndexes) {
+                            WorkDaysRequest request = requests.get(i);
+
+                            List<WorkingTime> workingTimes = WorkingTimeService.getByTimelineAndPeriod(timeline,
+                                    request.getStartDate(), request.getEndDate());
+
+                            try {
+                                halfDays[i] = getWorkDaysInHalfDays(request.getDayLength(), request.getStartDate(),
+                                        request.getEndDate(), request.getPerson(), workingTimes);
+                            } catch (NoValidWorkingTimeException | ArithmeticException ex) {
+                                if (!invalidRequestsAreNull) {
+                                    throw ex;
+                                }
+                            }
+                        }
+                    }
+                });
+        }
+
+        if (requests.size() < MINIMUM_REQUESTS_FOR_PARALLEL_CALCULATION) {
+            for (Runnable calculation : calculations) {
+                calculation.run();
+            }
+        } else {
+            calculateInParallel(calculations);
+        }
+
+        return halfDays;
+    }
+
+
+    private void calculateInParallel(List<Runnable> calculations) {
 
-        if (workingTime == null) {
+        List<Callable<Object>> tasks = new ArrayList<>(calculations.size());
+
+        for (Runnable calculation : calculations) {
+            tasks.add(Executors.callable(calculation));
+        }
+
+        try {
+            for (Future<Object> calculation : parallelCalculationPool.invokeAll(tasks)) {
+                calculation.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Calculation of workdays has been interrupted", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            throw new IllegalStateException("Could not calculate workdays", ex.getCause());
+        }
+    }
+
+
+    private long getWorkDaysInHalfDays(DayLength dayLength, DateMidnight startDate, DateMidnight endDate,
+        Person person, List<WorkingTime> workingTimes) {
+
+        if (workingTimes.isEmpty()) {
             throw new NoValidWorkingTimeException("No working time found for User '" + person.getLoginName()
                 + "' in period " + startDate.toString(DateFormat.PATTERN) + " - " + endDate.toString(DateFormat.PATTERN)
                 + ". Please contact the application manager.");
         }
 
-        BigDecimal vacationDays = BigDecimal.ZERO;
+        // every day counts 1 for not public holiday, 0 for public holiday or 0.5 for Christmas Eve or New Year's Eve
+        // multiplied with the day length of the weekday given by the working time valid at this day
+        long quarterDays = 0;
 
-        DateMidnight day = startDate;
+        for (int i = 0; i < workingTimes.size(); i++) {
+            WorkingTime workingTime = workingTimes.get(i);
 
-        while (!day.isAfter(endDate)) {
-            // value may be 1 for public holiday, 0 for not public holiday or 0.5 for Christmas Eve or New Year's Eve
-            BigDecimal duration = jollydayCalendar.getWorkingDurationOfDate(day);
-
-            int dayOfWeek = day.getDayOfWeek();
-            BigDecimal workingDuration = workingTime.getDayLengthForWeekDay(dayOfWeek).getDuration();
+            DateMidnight from = i == 0 ? startDate : workingTime.getValidFrom();
+            DateMidnight to = i == workingTimes.size() - 1 ? endDate
+                                                            : workingTimes.get(i + 1).getValidFrom().minusDays(1);
 
-            BigDecimal result = duration.multiply(workingDuration);
-
-            vacationDays = vacationDays.add(result);
+            quarterDays += workDayCounter.getWorkingDurationInQuarterDays(from, to, workingTime);
+        }
 
-            day = day.plusDays(1);
+        // vacation days < 1 day --> must not be divided
+        if (quarterDays < QUARTER_DAYS_PER_DAY) {
+            return WorkDayCounter.toHalfDays(quarterDays);
         }
 
-        // vacation days < 1 day --> must not be divided, else an ArithmeticException is thrown
-        if (vacationDays.compareTo(BigDecimal.ONE) < 0) {
-            return vacationDays.setScale(1);
+        // multiplied with the day length of the period, i.e. with the number of half days divided by two
+        long dividedQuarterDays = quarterDays * WorkDayCounter.getHalfDays(dayLength);
+
+        if (dividedQuarterDays % 2 != 0) {
+            throw new ArithmeticException("Rounding necessary: " + WorkDayCounter.toDays(quarterDays)
+                + " days can not be divided by day length " + dayLength);
         }
 
-        return vacationDays.multiply(dayLength.getDuration()).setScale(1);
+        return WorkDayCounter.toHalfDays(dividedQuarterDays / 2);
     }
 }
@@ -0,0 +1,202 @@
+package org.synyx.urlaubsverwaltung.core.calendar;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import org.joda.time.DateMidnight;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.calendar.workingtime.WorkingTime;
+import org.synyx.urlaubsverwaltung.core.util.DateUtil;
+
+import java.math.BigDecimal;
+
+
+/**
+ * Counts the working duration of a period for a weekly working pattern using cumulative sums per year, so that the
+ * working duration of any period within a year is calculated by a single subtraction.
+ *
+ * <p>The cumulative sums combine the working duration of the day (see {@link JollydayCalendar}) with the day length of
+ * the weekday (see {@link WorkingTime}). Both are half days, so the sums are counted in quarter days.</p>
+ *
+ * @author  agent
+ */
+class WorkDayCounter {
+
+    // number of (year, working pattern) combinations whose cumulative sums are kept in memory at the same time
+    private static final int MAXIMUM_CACHED_SUMS = 200;
+
+    // every weekday of a working pattern is encoded with two bits
+    private static final int BITS_PER_WEEKDAY = 2;
+    private static final int WEEKDAY_MASK = 3;
+    private static final int BITS_PER_PATTERN = 7 * BITS_PER_WEEKDAY;
+
+    private static final int QUARTER_DAYS_SCALE = 2;
+    private static final int HUNDREDTHS_PER_QUARTER_DAY = 25;
+
+    private final JollydayCalendar jollydayCalendar;
+
+    // key: year and encoded working pattern, value: cumulative working durations in quarter days, value at index i is
+    // the sum of the first i days of the year
+    private final LoadingCache<Long, int[]> cumulativeSums;
+
+    WorkDayCounter(JollydayCalendar jollydayCalendar) {
+
+        this.jollydayCalendar = jollydayCalendar;
+
+        this.cumulativeSums = CacheBuilder.newBuilder().maximumSize(MAXIMUM_CACHED_SUMS).build(
+                new CacheLoader<Long, int[]>() {
+
+                    @Override
+                    public int[] load(Long key) {
+
+                        int year = (int) (key >> BITS_PER_PATTERN);
+                        int workingPattern = (int) (key & ((1 << BITS_PER_PATTERN) - 1));
+
+                        return compileCumulativeSums(year, workingPattern);
+                    }
+                });
+    }
+
+    /**
+     * Returns the working duration of the given period for the given working time, public holidays are considered.
+     *
+     * @param  startDate  of the period
+     * @param  endDate  of the period, if it is before the start date the working duration is zero
+     * @param  workingTime  to get the day lengths of the weekdays from
+     *
+     * @return  working duration of the period in days
+     */
+    BigDecimal getWorkingDuration(DateMidnight startDate, DateMidnight endDate, WorkingTime workingTime) {
+
+        return toDays(getWorkingDurationInQuarterDays(startDate, endDate, workingTime));
+    }
+
+
+    /**
+     * Converts the given number of quarter days to days.
+     *
+     * @param  quarterDays  to be converted
+     *
+     * @return  number of days
+     */
+    static BigDecimal toDays(long quarterDays) {
+
+        return BigDecimal.valueOf(quarterDays * HUNDREDTHS_PER_QUARTER_DAY, QUARTER_DAYS_SCALE);
+    }
+
+
+    /**
+     * Converts the given number of quarter days to half days.
+     *
+     * @param  quarterDays  to be converted, must be a multiple of half a day
+     *
+     * @return  number of half days
+     *
+     * @throws  ArithmeticException  if the given quarter days are not a multiple of half a day
+     */
+    static long toHalfDays(long quarterDays) {
+
+        if (quarterDays % 2 != 0) {
+            throw new ArithmeticException("Rounding necessary: " + toDays(quarterDays) + " is no multiple of 0.5");
+        }
+
+        return quarterDays / 2;
+    }
+
+
+    /**
+     * Returns the working duration of the given period for the given working time in quarter days.
+     *
+     * @param  startDate  of the period
+     * @param  endDate  of the period, if it is before the start date the working duration is zero
+     * @param  workingTime  to get the day lengths of the weekdays from
+     *
+     * @return  working duration of the period in quarter days
+     */
+    long getWorkingDurationInQuarterDays(DateMidnight startDate, DateMidnight endDate, WorkingTime workingTime) {
+
+        if (endDate.isBefore(startDate)) {
+            return 0;
+        }
+
+        int workingPattern = encodeWorkingPattern(workingTime);
+
+        long quarterDays = 0;
+
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            int[] sums = cumulativeSums.getUnchecked(((long) year << BITS_PER_PATTERN) | workingPattern);
+
+            int from = year == startDate.getYear() ? startDate.getDayOfYear() - 1 : 0;
+            int to = year == endDate.getYear() ? endDate.getDayOfYear() : sums.length - 1;
+
+            quarterDays += sums[to] - sums[from];
+        }
+
+        return quarterDays;
+    }
+
+
+    private int[] compileCumulativeSums(int year, int workingPattern) {
+
+        DateMidnight day = DateUtil.getFirstDayOfYear(year);
+        int daysOfYear = DateUtil.getLastDayOfYear(year).getDayOfYear();
+
+        int[] sums = new int[daysOfYear + 1];
+
+        for (int i = 0; i < daysOfYear; i++) {
+            int workingDurationOfDay = jollydayCalendar.getWorkingDurationOfDateInHalfDays(day);
+            int dayLengthOfWeekday = decodeWeekday(workingPattern, day.getDayOfWeek());
+
+            sums[i + 1] = sums[i] + (workingDurationOfDay * dayLengthOfWeekday);
+
+            day = day.plusDays(1);
+        }
+
+        return sums;
+    }
+
+
+    private static int encodeWorkingPattern(WorkingTime workingTime) {
+
+        int workingPattern = 0;
+
+        for (Day day : Day.values()) {
+            DayLength dayLength = workingTime.getDayLengthForWeekDay(day.getDayOfWeek());
+
+            workingPattern |= getHalfDays(dayLength) << ((day.getDayOfWeek() - 1) * BITS_PER_WEEKDAY);
+        }
+
+        return workingPattern;
+    }
+
+
+    /**
+     * Returns the given day length in half days.
+     *
+     * @param  dayLength  to be converted
+     *
+     * @return  2 for a full day, 1 for a morning or a noon, else 0
+     */
+    static int getHalfDays(DayLength dayLength) {
+
+        switch (dayLength) {
+            case FULL:
+                return 2;
+
+            case MORNING:
+            case NOON:
+                return 1;
+
+            default:
+                return 0;
+        }
+    }
+
+
+    private static int decodeWeekday(int workingPattern, int dayOfWeek) {
+
+        return (workingPattern >> ((dayOfWeek - 1) * BITS_PER_WEEKDAY)) & WEEKDAY_MASK;
+    }
+}
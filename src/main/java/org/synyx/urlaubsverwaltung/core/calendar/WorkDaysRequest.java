@@ -0,0 +1,55 @@
+package org.synyx.urlaubsverwaltung.core.calendar;
+
+import org.joda.time.DateMidnight;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+
+
+/**
+ * Describes a period of a person whose number of workdays should be calculated, used for calculating the workdays of
+ * many periods at once, see {@link OwnCalendarService#getWorkDays(java.util.List)}.
+ *
+ * @author  agent
+ */
+public class WorkDaysRequest {
+
+    private final Person person;
+
+    private final DayLength dayLength;
+
+    private final DateMidnight startDate;
+
+    private final DateMidnight endDate;
+
+    public WorkDaysRequest(Person person, DayLength dayLength, DateMidnight startDate, DateMidnight endDate) {
+
+        this.person = person;
+        this.dayLength = dayLength;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public Person getPerson() {
+
+        return person;
+    }
+
+
+    public DayLength getDayLength() {
+
+        return dayLength;
+    }
+
+
+    public DateMidnight getStartDate() {
+
+        return startDate;
+    }
+
+
+    public DateMidnight getEndDate() {
+
+        return endDate;
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.Query;
 
 import org.synyx.urlaubsverwaltung.core.person.Person;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -20,6 +21,10 @@ public interface WorkingTimeDAO extends JpaRepository<WorkingTime, Integer> {
     List<WorkingTime> findByPerson(Person person);
 
 
+    @Query("SELECT x FROM WorkingTime x WHERE x.person IN (?1) ORDER BY x.validFrom")
+    List<WorkingTime> findByPersons(Collection<Person> persons);
+
+
     @Query("SELECT x FROM WorkingTime x WHERE x.person = ?1 AND x.validFrom = ?2")
     WorkingTime findByPersonAndValidityDate(Person person, Date date);
 
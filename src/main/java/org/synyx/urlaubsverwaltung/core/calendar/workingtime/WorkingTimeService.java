@@ -1,22 +1,43 @@
 package org.synyx.urlaubsverwaltung.core.calendar.workingtime;
 
+import com.google.common.cache.Cache;
+import com.google.common.collect.ImmutableList;
+
 import org.joda.time.DateMidnight;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.springframework.context.annotation.Lazy;
+
 import org.springframework.stereotype.Service;
 
 import org.springframework.transaction.annotation.Transactional;
 
 import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.application.service.VacationDaysLedgerService;
+import org.synyx.urlaubsverwaltung.core.cache.CacheInvalidation;
+import org.synyx.urlaubsverwaltung.core.cache.CacheRegistry;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 
 /**
  * Service for handling {@link WorkingTime} entities.
  *
+ * <p>The working times of a person are loaded once into a timeline, i.e. a list sorted by validity date, that is used
+ * to find the working times valid at a certain date or in a certain period without querying the database. The timeline
+ * of a person is invalidated if one of his/her working times is changed.</p>
+ *
+ * <p>The vacation days ledgers of a person depend on his/her working days, so they are rebuilt if one of his/her
+ * working times is changed.</p>
+ *
  * @author  Aljona Murygina - murygina@synyx.de
  */
 @Service
@@ -25,10 +46,19 @@ public class WorkingTimeService {
 
     private final WorkingTimeDAO workingTimeDAO;
 
+    // resolved on first use, because the calculation of the ledgers depends on the working times itself
+    private final VacationDaysLedgerService vacationDaysLedgerService;
+
+    // key: id of the person, value: working times of the person sorted by validity date
+    private final Cache<Integer, List<WorkingTime>> timelines;
+
     @Autowired
-    public WorkingTimeService(WorkingTimeDAO workingTimeDAO) {
+    public WorkingTimeService(WorkingTimeDAO workingTimeDAO, CacheRegistry cacheRegistry,
+        @Lazy VacationDaysLedgerService vacationDaysLedgerService) {
 
         this.workingTimeDAO = workingTimeDAO;
+        this.vacationDaysLedgerService = vacationDaysLedgerService;
+        this.timelines = cacheRegistry.create("workingTimes");
     }
 
     public void touch(List<Integer> workingDays, DateMidnight validFrom, Person person) {
@@ -50,6 +80,10 @@ public class WorkingTimeService {
         workingTime.setWorkingDays(workingDays, DayLength.FULL);
 
         workingTimeDAO.save(workingTime);
+
+        invalidateTimeline(person);
+
+        vacationDaysLedgerService.rebuildLedgers(person, validFrom);
     }
 
 
@@ -61,7 +95,123 @@ public class WorkingTimeService {
 
     public WorkingTime getByPersonAndValidityDateEqualsOrMinorDate(Person person, DateMidnight date) {
 
-        return workingTimeDAO.findByPersonAndValidityDateEqualsOrMinorDate(person, date.toDate());
+        List<WorkingTime> timeline = getTimeline(person);
+
+        for (int i = timeline.size() - 1; i >= 0; i--) {
+            WorkingTime workingTime = timeline.get(i);
+
+            if (!workingTime.getValidFrom().isAfter(date)) {
+                return workingTime;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Returns the working times of the given person that are valid in the given period, sorted by validity date. The
+     * first working time of the list is the one valid at the start date of the period, every further working time
+     * replaces the previous one from its validity date on.
+     *
+     * @param  person  to get the working times for
+     * @param  startDate  of the period
+     * @param  endDate  of the period
+     *
+     * @return  working times valid in the given period or an empty list if there is no working time valid at the start
+     *          date of the period
+     */
+    public List<WorkingTime> getByPersonAndPeriod(Person person, DateMidnight startDate, DateMidnight endDate) {
+
+        return getByTimelineAndPeriod(getTimeline(person), startDate, endDate);
+    }
+
+
+    /**
+     * Returns the working times of the given timeline that are valid in the given period, like
+     * {@link #getByPersonAndPeriod(Person, DateMidnight, DateMidnight)} does for the timeline of a person.
+     *
+     * @param  timeline  working times of a person sorted by validity date, see {@link #getTimelines(Collection)}
+     * @param  startDate  of the period
+     * @param  endDate  of the period
+     *
+     * @return  working times valid in the given period or an empty list if there is no working time valid at the start
+     *          date of the period
+     */
+    public static List<WorkingTime> getByTimelineAndPeriod(List<WorkingTime> timeline, DateMidnight startDate,
+        DateMidnight endDate) {
+
+        List<WorkingTime> workingTimes = new ArrayList<>();
+
+        for (WorkingTime workingTime : timeline) {
+            DateMidnight validFrom = workingTime.getValidFrom();
+
+            if (validFrom.isAfter(endDate)) {
+                break;
+            }
+
+            // a working time valid at the start date replaces the working times valid before
+            if (!validFrom.isAfter(startDate)) {
+                workingTimes.clear();
+            }
+
+            workingTimes.add(workingTime);
+        }
+
+        if (!workingTimes.isEmpty() && workingTimes.get(0).getValidFrom().isAfter(startDate)) {
+            return new ArrayList<>();
+        }
+
+        return workingTimes;
+    }
+
+
+    /**
+     * Returns the timelines of the given persons, i.e. their working times sorted by validity date. The timelines that
+     * are not cached yet are loaded with a single query.
+     *
+     * @param  persons  to get the timelines for
+     *
+     * @return  timeline per person, empty if the person has no working time
+     */
+    public Map<Person, List<WorkingTime>> getTimelines(Collection<Person> persons) {
+
+        Map<Person, List<WorkingTime>> timelinesOfPersons = new HashMap<>();
+        Map<Integer, Person> personsToLoad = new HashMap<>();
+
+        for (Person person : persons) {
+            List<WorkingTime> timeline = person.getId() == null ? null : timelines.getIfPresent(person.getId());
+
+            if (timeline != null) {
+                timelinesOfPersons.put(person, timeline);
+            } else if (person.getId() == null) {
+                timelinesOfPersons.put(person, getTimeline(person));
+            } else {
+                personsToLoad.put(person.getId(), person);
+            }
+        }
+
+        if (!personsToLoad.isEmpty()) {
+            Map<Integer, ImmutableList.Builder<WorkingTime>> loadedTimelines = new HashMap<>();
+
+            for (Integer personId : personsToLoad.keySet()) {
+                loadedTimelines.put(personId, ImmutableList.<WorkingTime>builder());
+            }
+
+            // the working times are sorted by validity date, so every timeline is sorted too
+            for (WorkingTime workingTime : workingTimeDAO.findByPersons(personsToLoad.values())) {
+                loadedTimelines.get(workingTime.getPerson().getId()).add(workingTime);
+            }
+
+            for (Map.Entry<Integer, ImmutableList.Builder<WorkingTime>> entry : loadedTimelines.entrySet()) {
+                List<WorkingTime> timeline = entry.getValue().build();
+
+                timelines.put(entry.getKey(), timeline);
+                timelinesOfPersons.put(personsToLoad.get(entry.getKey()), timeline);
+            }
+        }
+
+        return timelinesOfPersons;
     }
 
 
@@ -69,4 +219,51 @@ public class WorkingTimeService {
 
         return workingTimeDAO.findLastOneByPerson(person);
     }
+
+
+    private List<WorkingTime> getTimeline(final Person person) {
+
+        if (person.getId() == null) {
+            return workingTimeDAO.findByPerson(person);
+        }
+
+        try {
+            return timelines.get(person.getId(), new Callable<List<WorkingTime>>() {
+
+                        @Override
+                        public List<WorkingTime> call() {
+
+                            return ImmutableList.copyOf(workingTimeDAO.findByPerson(person));
+                        }
+                    });
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Could not load working times of person " + person.getLoginName(),
+                ex.getCause());
+        }
+    }
+
+
+    /**
+     * Removes the timeline of the given person from the cache, if there is a running transaction the timeline is
+     * removed again after commit or rollback so that it can not be reloaded with stale data in the meantime.
+     *
+     * @param  person  whose timeline should be invalidated
+     */
+    private void invalidateTimeline(Person person) {
+
+        final Integer personId = person.getId();
+
+        if (personId == null) {
+            return;
+        }
+
+        CacheInvalidation.invalidateNowAndAfterCompletion(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    timelines.invalidate(personId);
+                }
+            });
+    }
 }
@@ -0,0 +1,36 @@
+package org.synyx.urlaubsverwaltung.core.changelog;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Date;
+import java.util.List;
+
+
+/**
+ * Repository for {@link ChangeLogEntry} entities.
+ *
+ * @author  agent
+ */
+public interface ChangeLogDAO extends JpaRepository<ChangeLogEntry, Integer> {
+
+    // keyset paging: the cursor is the last sequence the consumer has seen, so no offset has to be skipped
+    @Query(
+        "SELECT x FROM ChangeLogEntry x LEFT JOIN FETCH x.application LEFT JOIN FETCH x.sickNote "
+        + "WHERE x.id > ?1 AND x.id < ?2 ORDER BY x.id"
+    )
+    List<ChangeLogEntry> findBySequenceBetween(Integer after, Integer before, Pageable pageable);
+
+
+    @Query("SELECT MIN(x.id) FROM ChangeLogEntry x WHERE x.id > ?1 AND x.changeDate >= ?2")
+    Integer findFirstSequenceChangedSince(Integer sequence, Date changeDate);
+
+
+    @Query("SELECT MAX(x.id) FROM ChangeLogEntry x")
+    Integer findLastSequence();
+
+
+    @Query("SELECT COUNT(x.id) FROM ChangeLogEntry x WHERE x.id >= ?1")
+    long countFromSequence(Integer sequence);
+}
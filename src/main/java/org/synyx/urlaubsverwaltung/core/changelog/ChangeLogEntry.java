@@ -0,0 +1,78 @@
+package org.synyx.urlaubsverwaltung.core.changelog;
+
+import org.joda.time.DateTime;
+
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
+
+import java.util.Date;
+
+import javax.persistence.Entity;
+import javax.persistence.ManyToOne;
+import javax.persistence.Temporal;
+
+
+/**
+ * Entry of the change log: an application for leave or a sick note has been created or modified. The auto incremented
+ * ID is the change sequence that consumers of the change feed use as cursor. It is assigned on insert and not on
+ * commit, see {@link ChangeLogService} how the feed deals with that.
+ *
+ * @author  agent
+ */
+@Entity
+public class ChangeLogEntry extends AbstractPersistable<Integer> {
+
+    private static final long serialVersionUID = 4917381209547261873L;
+
+    // either the application for leave or the sick note is set
+    @ManyToOne
+    private Application application;
+
+    @ManyToOne
+    private SickNote sickNote;
+
+    @Temporal(javax.persistence.TemporalType.TIMESTAMP)
+    private Date changeDate;
+
+    public ChangeLogEntry() {
+
+        /* OK */
+    }
+
+
+    public ChangeLogEntry(Application application) {
+
+        this.application = application;
+        this.changeDate = DateTime.now().toDate();
+    }
+
+
+    public ChangeLogEntry(SickNote sickNote) {
+
+        this.sickNote = sickNote;
+        this.changeDate = DateTime.now().toDate();
+    }
+
+    public Application getApplication() {
+
+        return application;
+    }
+
+
+    public SickNote getSickNote() {
+
+        return sickNote;
+    }
+
+
+    public DateTime getChangeDate() {
+
+        if (this.changeDate == null) {
+            return null;
+        }
+
+        return new DateTime(this.changeDate);
+    }
+}
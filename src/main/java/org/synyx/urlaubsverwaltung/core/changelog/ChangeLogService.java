@@ -0,0 +1,118 @@
+package org.synyx.urlaubsverwaltung.core.changelog;
+
+import org.joda.time.DateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.data.domain.PageRequest;
+
+import org.springframework.stereotype.Service;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
+
+import java.util.List;
+
+
+/**
+ * Logs every creation and modification of applications for leave and sick notes, so that consumers can synchronize
+ * incrementally instead of downloading whole periods again.
+ *
+ * <p>The sequence of a change is assigned when the change is inserted, not when it is committed, so a change with a
+ * lower sequence may become visible after a change with a higher sequence. A consumer that has already seen the higher
+ * sequence would never get the lower one. Therefore changes are only handed out once they are older than
+ * {@link #SAFETY_LAG_SECONDS}, and never after a change that is younger: every transaction logging a change has to
+ * commit within this time. The clocks of all nodes have to be synchronized with a deviation far below this time.</p>
+ *
+ * @author  agent
+ */
+@Service
+public class ChangeLogService {
+
+    // time after which a logged change is expected to be committed
+    static final int SAFETY_LAG_SECONDS = 60;
+
+    private final ChangeLogDAO changeLogDAO;
+
+    @Autowired
+    public ChangeLogService(ChangeLogDAO changeLogDAO) {
+
+        this.changeLogDAO = changeLogDAO;
+    }
+
+    /**
+     * Logs that the given application for leave has been created or modified.
+     *
+     * @param  application  that has been saved
+     */
+    public void logChange(Application application) {
+
+        changeLogDAO.save(new ChangeLogEntry(application));
+    }
+
+
+    /**
+     * Logs that the given sick note has been created or modified.
+     *
+     * @param  sickNote  that has been saved
+     */
+    public void logChange(SickNote sickNote) {
+
+        changeLogDAO.save(new ChangeLogEntry(sickNote));
+    }
+
+
+    /**
+     * Get the changes after the given sequence in the order of their sequence. Changes younger than
+     * {@link #SAFETY_LAG_SECONDS} and all changes after them are left out, because there may be changes with lower
+     * sequence that are not committed yet.
+     *
+     * @param  sequence  the last sequence already known, 0 to get the changes from the beginning
+     * @param  limit  maximum number of changes
+     *
+     * @return  the changes after the given sequence with their application for leave resp. sick note
+     */
+    public List<ChangeLogEntry> getChangesAfter(int sequence, int limit) {
+
+        return changeLogDAO.findBySequenceBetween(sequence, getFirstUnsafeSequence(sequence),
+                new PageRequest(0, limit));
+    }
+
+
+    /**
+     * Get the first sequence after the given one that must not be handed out yet.
+     */
+    private int getFirstUnsafeSequence(int sequence) {
+
+        Integer firstUnsafeSequence = changeLogDAO.findFirstSequenceChangedSince(sequence,
+                DateTime.now().minusSeconds(SAFETY_LAG_SECONDS).toDate());
+
+        return firstUnsafeSequence == null ? Integer.MAX_VALUE : firstUnsafeSequence;
+    }
+
+
+    /**
+     * Get a version of all applications for leave and sick notes, it changes whenever any of them is created or
+     * modified, also if the change with the highest sequence is committed before a change with a lower sequence.
+     *
+     * <p>The changes before the first change within {@link #SAFETY_LAG_SECONDS} are committed and do not change
+     * anymore, so the version consists of this first young change and the number of committed changes from it on,
+     * which grows with every commit. If there is no young change, every change is committed and the last sequence is
+     * the version.</p>
+     *
+     * @return  version of the applications for leave and sick notes
+     */
+    public String getVersion() {
+
+        Integer firstYoungSequence = changeLogDAO.findFirstSequenceChangedSince(0,
+                DateTime.now().minusSeconds(SAFETY_LAG_SECONDS).toDate());
+
+        if (firstYoungSequence == null) {
+            Integer lastSequence = changeLogDAO.findLastSequence();
+
+            return String.valueOf(lastSequence == null ? 0 : lastSequence);
+        }
+
+        return firstYoungSequence + ":" + changeLogDAO.countFromSequence(firstYoungSequence);
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.stereotype.Service;
 import org.synyx.urlaubsverwaltung.core.account.Account;
 import org.synyx.urlaubsverwaltung.core.account.AccountService;
 import org.synyx.urlaubsverwaltung.core.application.service.CalculationService;
+import org.synyx.urlaubsverwaltung.core.application.service.LeftVacationDays;
 import org.synyx.urlaubsverwaltung.core.mail.MailService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
@@ -22,6 +23,7 @@ import java.math.BigDecimal;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -66,14 +68,18 @@ public class TurnOfTheYearAccountUpdaterService {
 
         List<Account> updatedAccounts = new ArrayList<>();
 
-        // get all their accounts and calculate the remaining vacation days for the new year
+        // get all their accounts of the last year and calculate the left vacation days at once
+        Map<Person, LeftVacationDays> leftVacationDaysLastYear = calculationService.calculateLeftVacationDays(year - 1,
+                persons);
+
+        // calculate the remaining vacation days for the new year
         for (Person person : persons) {
             LOG.info("Updating account of " + person.getLoginName());
 
-            Account accountLastYear = accountService.getHolidaysAccount(year - 1, person);
+            LeftVacationDays leftVacationDays = leftVacationDaysLastYear.get(person);
 
-            if (accountLastYear != null && accountLastYear.getAnnualVacationDays() != null) {
-                BigDecimal leftDays = calculationService.calculateTotalLeftVacationDays(accountLastYear);
+            if (leftVacationDays != null && leftVacationDays.getAccount().getAnnualVacationDays() != null) {
+                BigDecimal leftDays = leftVacationDays.getTotalLeftVacationDays();
 
                 Account accountNewYear = accountService.getOrCreateNewAccount(year, person);
 
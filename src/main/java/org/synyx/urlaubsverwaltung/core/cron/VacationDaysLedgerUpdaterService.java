@@ -0,0 +1,51 @@
+package org.synyx.urlaubsverwaltung.core.cron;
+
+import org.apache.log4j.Logger;
+
+import org.joda.time.DateMidnight;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import org.springframework.stereotype.Service;
+
+import org.synyx.urlaubsverwaltung.core.application.service.VacationDaysLedgerService;
+
+
+/**
+ * Is to be scheduled every night: checks the consistency of the vacation days ledgers by rebuilding them from the
+ * applications for leave.
+ *
+ * @author  agent
+ */
+@Service
+public class VacationDaysLedgerUpdaterService {
+
+    private static final Logger LOG = Logger.getLogger(VacationDaysLedgerUpdaterService.class);
+
+    private final VacationDaysLedgerService vacationDaysLedgerService;
+
+    @Autowired
+    public VacationDaysLedgerUpdaterService(VacationDaysLedgerService vacationDaysLedgerService) {
+
+        this.vacationDaysLedgerService = vacationDaysLedgerService;
+    }
+
+    /**
+     * This cronjob is executed every night at 03:00 am, it rebuilds the vacation days ledgers of the accounts of the
+     * last and the current year, so that e.g. changes of working times are reflected in the ledgers.
+     */
+    @Scheduled(cron = "0 0 3 * * *")
+    void rebuildVacationDaysLedgers() {
+
+        int year = DateMidnight.now().getYear();
+
+        for (int yearToRebuild = year - 1; yearToRebuild <= year; yearToRebuild++) {
+            int correctedLedgers = vacationDaysLedgerService.rebuildLedgers(yearToRebuild);
+
+            LOG.info("Rebuilt vacation days ledgers for " + yearToRebuild + ", created or corrected: "
+                + correctedLedgers);
+        }
+    }
+}
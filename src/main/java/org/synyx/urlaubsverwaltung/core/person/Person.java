@@ -5,6 +5,8 @@ import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
 
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.LazyCollection;
 import org.hibernate.annotations.LazyCollectionOption;
 
@@ -16,7 +18,6 @@ import org.synyx.urlaubsverwaltung.core.mail.MailNotification;
 import org.synyx.urlaubsverwaltung.security.Role;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 
 import javax.persistence.*;
@@ -42,29 +43,26 @@ public class Person extends AbstractPersistable<Integer> {
 
     private String email;
 
-    // private key of person - RSA
-    // private key has to be saved as byte[] in database
-    // when retrieved from database, byte[] have to be transformed back to private key
-    @Column(columnDefinition = "longblob")
-    private byte[] privateKey;
-
-    // public key of person
-    // saving like private key
-    @Column(columnDefinition = "longblob")
-    private byte[] publicKey;
-
+    // loaded for many persons at once, e.g. for the persons of a list of applications for leave
     @ElementCollection
     @LazyCollection(LazyCollectionOption.FALSE)
+    @Fetch(FetchMode.SUBSELECT)
     @Enumerated(EnumType.STRING)
     private Collection<Role> permissions;
 
     @ElementCollection
     @LazyCollection(LazyCollectionOption.FALSE)
+    @Fetch(FetchMode.SUBSELECT)
     @Enumerated(EnumType.STRING)
     private Collection<MailNotification> notifications;
 
     private boolean active;
 
+    // number of saves, incremented by the database on every save and never written from here, so that it is the same
+    // for all nodes and can not be reset by saving a stale copy
+    @Column(updatable = false)
+    private int version;
+
     public Person() {
 
         /* OK */
@@ -139,46 +137,6 @@ public class Person extends AbstractPersistable<Integer> {
     }
 
 
-    public byte[] getPrivateKey() {
-
-        if (privateKey == null) {
-            return null;
-        }
-
-        return Arrays.copyOf(privateKey, privateKey.length);
-    }
-
-
-    public void setPrivateKey(byte[] privateKey) {
-
-        if (privateKey != null) {
-            this.privateKey = Arrays.copyOf(privateKey, privateKey.length);
-        } else {
-            this.privateKey = null;
-        }
-    }
-
-
-    public byte[] getPublicKey() {
-
-        if (publicKey == null) {
-            return null;
-        }
-
-        return Arrays.copyOf(publicKey, publicKey.length);
-    }
-
-
-    public void setPublicKey(byte[] publicKey) {
-
-        if (publicKey != null) {
-            this.publicKey = Arrays.copyOf(publicKey, publicKey.length);
-        } else {
-            this.publicKey = null;
-        }
-    }
-
-
     public void setPermissions(Collection<Role> permissions) {
 
         this.permissions = permissions;
@@ -248,6 +206,24 @@ public class Person extends AbstractPersistable<Integer> {
     }
 
 
+    /**
+     * Creates a detached copy of this person with the same ID, so that the copy can be changed and saved without
+     * changing this person.
+     *
+     * @return  the copy of this person
+     */
+    Person copy() {
+
+        Person copy = new Person(loginName, lastName, firstName, email);
+        copy.setId(getId());
+        copy.setPermissions(permissions == null ? null : new ArrayList<>(permissions));
+        copy.setNotifications(notifications == null ? null : new ArrayList<>(notifications));
+        copy.setActive(active);
+
+        return copy;
+    }
+
+
     @Override
     public String toString() {
 
@@ -1,8 +1,11 @@
 package org.synyx.urlaubsverwaltung.core.person;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.List;
 
 
@@ -23,4 +26,16 @@ public interface PersonDAO extends JpaRepository<Person, Integer> {
 
     @Query("select x from Person x where x.active = false order by x.firstName")
     List<Person> findInactive();
+
+
+    // incremented within the update statement, so concurrent saves of a person are all counted
+    @Transactional
+    @Modifying
+    @Query("update Person x set x.version = x.version + 1 where x.id = ?1")
+    int incrementVersion(Integer id);
+
+
+    // the versions of the persons only grow and persons are never deleted, so the sum changes with every save
+    @Query("select coalesce(sum(x.version), 0) from Person x")
+    Long getVersionOfAllPersons();
 }
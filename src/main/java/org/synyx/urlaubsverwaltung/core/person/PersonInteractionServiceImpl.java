@@ -52,13 +52,13 @@ public class PersonInteractionServiceImpl implements PersonInteractionService {
 
         String action;
 
+        KeyPair keyPair = null;
+
         if (person.isNew()) {
             action = "Created";
 
             try {
-                KeyPair keyPair = CryptoUtil.generateKeyPair();
-                person.setPrivateKey(keyPair.getPrivate().getEncoded());
-                person.setPublicKey(keyPair.getPublic().getEncoded());
+                keyPair = CryptoUtil.generateKeyPair();
             } catch (NoSuchAlgorithmException ex) {
                 LOG.error("An error occurred while trying to generate a key pair for the person " + person.toString(),
                     ex);
@@ -72,6 +72,10 @@ public class PersonInteractionServiceImpl implements PersonInteractionService {
 
         personService.save(person);
 
+        if (keyPair != null) {
+            personService.saveKeyPair(person, keyPair);
+        }
+
         touchWorkingTime(person, personForm);
 
         touchAccount(person, personForm, locale);
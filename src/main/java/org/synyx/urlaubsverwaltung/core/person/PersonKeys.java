@@ -0,0 +1,71 @@
+package org.synyx.urlaubsverwaltung.core.person;
+
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+import java.util.Arrays;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.OneToOne;
+
+
+/**
+ * The RSA key pair of a {@link Person}, used to sign applications for leave. Kept apart from the person, so that the
+ * key blobs are only loaded when they are needed and not with every person.
+ *
+ * @author  agent
+ */
+@Entity
+public class PersonKeys extends AbstractPersistable<Integer> {
+
+    private static final long serialVersionUID = 2384765102938475610L;
+
+    @OneToOne
+    private Person person;
+
+    // keys have to be saved as byte[] in database
+    // when retrieved from database, byte[] have to be transformed back to keys
+    @Column(columnDefinition = "longblob")
+    private byte[] privateKey;
+
+    @Column(columnDefinition = "longblob")
+    private byte[] publicKey;
+
+    public PersonKeys() {
+
+        /* OK */
+    }
+
+
+    public PersonKeys(Person person, byte[] privateKey, byte[] publicKey) {
+
+        this.person = person;
+        this.privateKey = Arrays.copyOf(privateKey, privateKey.length);
+        this.publicKey = Arrays.copyOf(publicKey, publicKey.length);
+    }
+
+    public Person getPerson() {
+
+        return person;
+    }
+
+
+    public byte[] getPrivateKey() {
+
+        if (privateKey == null) {
+            return null;
+        }
+
+        return Arrays.copyOf(privateKey, privateKey.length);
+    }
+
+
+    public byte[] getPublicKey() {
+
+        if (publicKey == null) {
+            return null;
+        }
+
+        return Arrays.copyOf(publicKey, publicKey.length);
+    }
+}
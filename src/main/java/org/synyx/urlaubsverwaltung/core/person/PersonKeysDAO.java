@@ -0,0 +1,14 @@
+package org.synyx.urlaubsverwaltung.core.person;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+
+/**
+ * Repository for {@link PersonKeys} entities.
+ *
+ * @author  agent
+ */
+public interface PersonKeysDAO extends JpaRepository<PersonKeys, Integer> {
+
+    PersonKeys findByPerson(Person person);
+}
@@ -3,6 +3,8 @@ package org.synyx.urlaubsverwaltung.core.person;
 import org.synyx.urlaubsverwaltung.core.mail.MailNotification;
 import org.synyx.urlaubsverwaltung.security.Role;
 
+import java.security.KeyPair;
+
 import java.util.List;
 
 
@@ -23,6 +25,25 @@ public interface PersonService {
     void save(Person person);
 
 
+    /**
+     * Saves the given key pair as the keys of the given new {@link Person}, the person has to be saved before.
+     *
+     * @param  person {@link Person}
+     * @param  keyPair  to be saved for the person
+     */
+    void saveKeyPair(Person person, KeyPair keyPair);
+
+
+    /**
+     * Get the keys of the given {@link Person}, they are not loaded with the person itself.
+     *
+     * @param  person {@link Person}
+     *
+     * @return  the keys of the person or {@code null} if the person has no keys
+     */
+    PersonKeys getKeys(Person person);
+
+
     /**
      * finds a {@link Person} in the database by its primary key.
      *
@@ -86,4 +107,13 @@ public interface PersonService {
      * @return  returns all persons in a list
      */
     List<Person> getAllPersonsExcept(Person person);
+
+
+    /**
+     * Get a version of the persons returned by this service. The version changes whenever any person is saved, so it
+     * can be used to detect changes without comparing the persons.
+     *
+     * @return  version of the persons
+     */
+    long getPersonsVersion();
 }
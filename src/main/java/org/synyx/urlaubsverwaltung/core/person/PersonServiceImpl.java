@@ -1,6 +1,10 @@
 package org.synyx.urlaubsverwaltung.core.person;
 
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
+import com.google.common.cache.Cache;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 
@@ -10,15 +14,28 @@ import org.springframework.stereotype.Service;
 
 import org.springframework.transaction.annotation.Transactional;
 
+import org.synyx.urlaubsverwaltung.core.cache.CacheInvalidation;
+import org.synyx.urlaubsverwaltung.core.cache.CacheRegistry;
 import org.synyx.urlaubsverwaltung.core.mail.MailNotification;
 import org.synyx.urlaubsverwaltung.security.Role;
 
+import java.security.KeyPair;
+
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 
 /**
  * Implementation for {@link PersonService}.
  *
+ * <p>The persons are looked up by nearly every request, e.g. the logged-in user, so the persons by ID and by login
+ * name and the list of active persons are cached as detached copies, and every caller gets its own copy. All of them
+ * are invalidated if a person is saved.</p>
+ *
+ * <p>The version of the persons is not cached but read from the database, so that it is the same on all nodes and
+ * changes as soon as a save is committed, no matter which node has saved it.</p>
+ *
  * @author  Aljona Murygina
  * @author  Johannes Reuter
  */
@@ -26,39 +43,126 @@ import java.util.List;
 @Transactional
 class PersonServiceImpl implements PersonService {
 
+    // key of the cached list of active persons
+    private static final String ACTIVE_PERSONS = "active";
+
+    // the persons are cached and handed out as detached copies, so that nobody changes the cached persons
+    private static final Function<Person, Person> COPY = new Function<Person, Person>() {
+
+        @Override
+        public Person apply(Person person) {
+
+            return person.copy();
+        }
+    };
+
     private final PersonDAO personDAO;
+    private final PersonKeysDAO personKeysDAO;
+
+    // key: id of the person, absent if there is no person with the id
+    private final Cache<Integer, Optional<Person>> personsById;
+
+    // key: login name of the person, absent if there is no person with the login name
+    private final Cache<String, Optional<Person>> personsByLogin;
+
+    // key: kind of list, value: the persons of the list
+    private final Cache<String, List<Person>> personLists;
 
     @Autowired
-    public PersonServiceImpl(PersonDAO personDAO) {
+    public PersonServiceImpl(PersonDAO personDAO, PersonKeysDAO personKeysDAO, CacheRegistry cacheRegistry) {
 
         this.personDAO = personDAO;
+        this.personKeysDAO = personKeysDAO;
+        this.personsById = cacheRegistry.create("personsById");
+        this.personsByLogin = cacheRegistry.create("personsByLogin");
+        this.personLists = cacheRegistry.create("personLists");
     }
 
     @Override
     public void save(Person person) {
 
         personDAO.save(person);
+        personDAO.incrementVersion(person.getId());
+
+        invalidate();
     }
 
 
     @Override
-    public Person getPersonByID(Integer id) {
+    public void saveKeyPair(Person person, KeyPair keyPair) {
 
-        return personDAO.findOne(id);
+        personKeysDAO.save(new PersonKeys(person, keyPair.getPrivate().getEncoded(),
+                keyPair.getPublic().getEncoded()));
     }
 
 
     @Override
-    public Person getPersonByLogin(String loginName) {
+    public PersonKeys getKeys(Person person) {
 
-        return personDAO.findByLoginName(loginName);
+        return personKeysDAO.findByPerson(person);
+    }
+
+
+    @Override
+    public Person getPersonByID(final Integer id) {
+
+        if (id == null) {
+            return personDAO.findOne(id);
+        }
+
+        return load(personsById, id, new Callable<Optional<Person>>() {
+
+                    @Override
+                    public Optional<Person> call() {
+
+                        return Optional.fromNullable(personDAO.findOne(id)).transform(COPY);
+                    }
+                }).transform(COPY).orNull();
+    }
+
+
+    @Override
+    public Person getPersonByLogin(final String loginName) {
+
+        if (loginName == null) {
+            return personDAO.findByLoginName(loginName);
+        }
+
+        return load(personsByLogin, loginName, new Callable<Optional<Person>>() {
+
+                    @Override
+                    public Optional<Person> call() {
+
+                        return Optional.fromNullable(personDAO.findByLoginName(loginName)).transform(COPY);
+                    }
+                }).transform(COPY).orNull();
     }
 
 
     @Override
     public List<Person> getActivePersons() {
 
-        return personDAO.findActive();
+        List<Person> activePersons = load(personLists, ACTIVE_PERSONS, new Callable<List<Person>>() {
+
+                    @Override
+                    public List<Person> call() {
+
+                        return ImmutableList.copyOf(Lists.transform(personDAO.findActive(), COPY));
+                    }
+                });
+
+        // neither the cached list nor the cached persons must be changed by the caller
+        return Lists.newArrayList(Lists.transform(activePersons, COPY));
+    }
+
+
+    private static <K, V> V load(Cache<K, V> cache, K key, Callable<V> loader) {
+
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Could not load persons for " + key, ex.getCause());
+        }
     }
 
 
@@ -109,4 +213,36 @@ class PersonServiceImpl implements PersonService {
                         }
                     }));
     }
+
+
+    @Override
+    public long getPersonsVersion() {
+
+        return personDAO.getVersionOfAllPersons();
+    }
+
+
+    /**
+     * Removes all cached persons, if there is a running transaction the persons are removed again after commit or
+     * rollback so that they can not be reloaded with stale data in the meantime.
+     */
+    private void invalidate() {
+
+        CacheInvalidation.invalidateNowAndAfterCompletion(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    invalidateAll();
+                }
+            });
+    }
+
+
+    private void invalidateAll() {
+
+        personsById.invalidateAll();
+        personsByLogin.invalidateAll();
+        personLists.invalidateAll();
+    }
 }
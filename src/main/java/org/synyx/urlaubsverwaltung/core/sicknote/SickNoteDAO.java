@@ -5,6 +5,8 @@ import org.springframework.data.jpa.repository.Query;
 
 import org.synyx.urlaubsverwaltung.core.person.Person;
 
+import java.math.BigDecimal;
+
 import java.util.Date;
 import java.util.List;
 
@@ -30,22 +32,50 @@ public interface SickNoteDAO extends JpaRepository<SickNote, Integer> {
     List<SickNote> findByPeriod(Date startDate, Date endDate);
 
 
-    // NOTE: Following methods are to create statistic
+    @Query(
+        "SELECT x FROM SickNote x WHERE x.person = ?1 AND x.startDate <= ?3 AND x.endDate >= ?2 AND x.active = true "
+        + "ORDER BY x.startDate"
+    )
+    List<SickNote> findActiveByPersonAndPeriod(Person person, Date startDate, Date endDate);
 
-    @Query("SELECT x FROM SickNote x WHERE (YEAR(x.startDate) = ?1 OR YEAR(x.endDate) = ?1) AND x.active = true")
-    List<SickNote> findAllActiveByYear(int year);
 
+    @Query(
+        "SELECT x FROM SickNote x WHERE x.startDate <= ?2 AND x.endDate >= ?1 AND x.active = true "
+        + "ORDER BY x.startDate"
+    )
+    List<SickNote> findActiveByPeriod(Date startDate, Date endDate);
+
+
+    // NOTE: Following methods are to create statistic, they use ranges instead of YEAR(...) to be served by indexes
 
     @Query(
-        "SELECT COUNT(DISTINCT x.person) FROM SickNote x WHERE "
-        + "(YEAR(x.startDate) = ?1 OR YEAR(x.endDate) = ?1) AND x.active = true"
+        "SELECT COUNT(x) FROM SickNote x WHERE x.startDate >= ?1 AND x.endDate <= ?2 AND x.active = true"
     )
-    Long findNumberOfPersonsWithMinimumOneSickNote(int year);
+    Long findNumberOfActiveSickNotesWithinPeriod(Date startDate, Date endDate);
 
 
-    // NOTE: Only needed to send email after certain duration of a sick note
     @Query(
-        "SELECT x FROM SickNote x WHERE DATEDIFF(x.endDate, x.startDate) >= ?1 AND x.endDate = ?2) AND x.active = true"
+        "SELECT SUM(x.workDays) FROM SickNote x WHERE x.startDate >= ?1 AND x.endDate <= ?2 AND x.active = true"
     )
-    List<SickNote> findSickNotesByMinimumLengthAndEndDate(int limit, Date endDate);
+    BigDecimal findNumberOfWorkDaysOfActiveSickNotesWithinPeriod(Date startDate, Date endDate);
+
+
+    @Query(
+        "SELECT x FROM SickNote x WHERE ((x.startDate < ?1 AND x.endDate BETWEEN ?1 AND ?2) "
+        + "OR (x.endDate > ?2 AND x.startDate BETWEEN ?1 AND ?2)) AND x.active = true"
+    )
+    List<SickNote> findActiveSickNotesCrossingPeriodBounds(Date startDate, Date endDate);
+
+
+    @Query(
+        "SELECT COUNT(DISTINCT x.person) FROM SickNote x WHERE "
+        + "((x.startDate BETWEEN ?1 AND ?2) OR (x.endDate BETWEEN ?1 AND ?2)) AND x.active = true"
+    )
+    Long findNumberOfPersonsWithMinimumOneSickNote(Date startDate, Date endDate);
+
+
+    // NOTE: Only needed to send email after certain duration of a sick note, the minimum duration is given as latest
+    // start date, so that no DATEDIFF is needed
+    @Query("SELECT x FROM SickNote x WHERE x.endDate = ?1 AND x.startDate <= ?2 AND x.active = true")
+    List<SickNote> findActiveSickNotesByEndDateAndLatestStartDate(Date endDate, Date latestStartDate);
 }
@@ -13,10 +13,14 @@ import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.application.domain.Comment;
 import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.application.service.AbsenceBitmapService;
+import org.synyx.urlaubsverwaltung.core.application.service.ApplicationInteractionService;
 import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
 import org.synyx.urlaubsverwaltung.core.application.service.CommentService;
 import org.synyx.urlaubsverwaltung.core.application.service.SignService;
+import org.synyx.urlaubsverwaltung.core.application.service.VacationDaysLedgerService;
 import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
+import org.synyx.urlaubsverwaltung.core.changelog.ChangeLogService;
 import org.synyx.urlaubsverwaltung.core.mail.MailService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.sicknote.comment.SickNoteComment;
@@ -51,11 +55,17 @@ public class SickNoteService {
     private SignService signService;
     private CommentService commentService;
     private MailService mailService;
+    private VacationDaysLedgerService vacationDaysLedgerService;
+    private ApplicationInteractionService applicationInteractionService;
+    private AbsenceBitmapService absenceBitmapService;
+    private ChangeLogService changeLogService;
 
     @Autowired
     public SickNoteService(SickNoteDAO sickNoteDAO, SickNoteCommentDAO commentDAO, OwnCalendarService calendarService,
         ApplicationService applicationService, SignService signService, CommentService commentService,
-        MailService mailService) {
+        MailService mailService, VacationDaysLedgerService vacationDaysLedgerService,
+        ApplicationInteractionService applicationInteractionService, AbsenceBitmapService absenceBitmapService,
+        ChangeLogService changeLogService) {
 
         this.sickNoteDAO = sickNoteDAO;
         this.commentDAO = commentDAO;
@@ -64,6 +74,10 @@ public class SickNoteService {
         this.signService = signService;
         this.commentService = commentService;
         this.mailService = mailService;
+        this.vacationDaysLedgerService = vacationDaysLedgerService;
+        this.applicationInteractionService = applicationInteractionService;
+        this.absenceBitmapService = absenceBitmapService;
+        this.changeLogService = changeLogService;
     }
 
 
@@ -77,6 +91,8 @@ public class SickNoteService {
         sickNote.setLastEdited(DateMidnight.now());
 
         sickNoteDAO.save(sickNote);
+
+        absenceBitmapService.invalidate(sickNote.getPerson());
     }
 
 
@@ -87,7 +103,10 @@ public class SickNoteService {
         save(sickNote);
 
         SickNoteComment comment = new SickNoteComment();
-        addComment(sickNote.getId(), comment, status, loggedUser);
+        SickNote commentedSickNote = saveComment(sickNote.getId(), comment, status, loggedUser);
+
+        // the sick note is saved twice, but it is logged as one change
+        changeLogService.logChange(commentedSickNote);
     }
 
 
@@ -112,6 +131,19 @@ public class SickNoteService {
 
     public void addComment(Integer sickNoteId, SickNoteComment comment, SickNoteStatus status, Person author) {
 
+        SickNote sickNote = saveComment(sickNoteId, comment, status, author);
+
+        changeLogService.logChange(sickNote);
+    }
+
+
+    /**
+     * Saves the given comment and adds it to the sick note with the given ID, without logging the change.
+     *
+     * @return  the commented sick note
+     */
+    private SickNote saveComment(Integer sickNoteId, SickNoteComment comment, SickNoteStatus status, Person author) {
+
         SickNote sickNote = getById(sickNoteId);
 
         comment.setDate(DateMidnight.now());
@@ -123,6 +155,8 @@ public class SickNoteService {
         sickNote.addComment(comment);
 
         save(sickNote);
+
+        return sickNote;
     }
 
 
@@ -152,20 +186,20 @@ public class SickNoteService {
 
         Application application = appForm.createApplicationObject();
 
-        Person person = sickNote.getPerson();
-        BigDecimal workDays = calendarService.getWorkDays(application.getHowLong(), application.getStartDate(),
-                application.getEndDate(), person);
-
-        application.setPerson(person);
+        application.setPerson(sickNote.getPerson());
         application.setApplier(loggedUser);
-        application.setDays(workDays);
+
+        applicationInteractionService.setNumberOfVacationDays(application);
 
         application.setStatus(ApplicationStatus.ALLOWED);
         application.setApplicationDate(DateMidnight.now());
         application.setEditedDate(DateMidnight.now());
 
-        signService.signApplicationByUser(application, loggedUser);
         applicationService.save(application);
+        signService.signApplicationByUser(application, loggedUser);
+        changeLogService.logChange(application);
+
+        vacationDaysLedgerService.update(application, null);
 
         commentService.saveComment(new Comment(), loggedUser, application);
 
@@ -174,7 +208,10 @@ public class SickNoteService {
         save(sickNote);
 
         SickNoteComment sickNoteComment = new SickNoteComment();
-        addComment(sickNote.getId(), sickNoteComment, SickNoteStatus.CONVERTED_TO_VACATION, loggedUser);
+        SickNote commentedSickNote = saveComment(sickNote.getId(), sickNoteComment,
+                SickNoteStatus.CONVERTED_TO_VACATION, loggedUser);
+
+        changeLogService.logChange(commentedSickNote);
 
         mailService.sendSickNoteConvertedToVacationNotification(application);
     }
@@ -186,7 +223,10 @@ public class SickNoteService {
         save(sickNote);
 
         SickNoteComment sickNoteComment = new SickNoteComment();
-        addComment(sickNote.getId(), sickNoteComment, SickNoteStatus.CANCELLED, loggedUser);
+        SickNote commentedSickNote = saveComment(sickNote.getId(), sickNoteComment, SickNoteStatus.CANCELLED,
+                loggedUser);
+
+        changeLogService.logChange(commentedSickNote);
     }
 
 
@@ -201,6 +241,9 @@ public class SickNoteService {
 
         DateMidnight endDate = DateMidnight.now().plusDays(sickPayNotificationTime);
 
-        return sickNoteDAO.findSickNotesByMinimumLengthAndEndDate(sickPayLimit, endDate.toDate());
+        // the sick note lasts at least sickPayLimit days from its start date to the given end date
+        DateMidnight latestStartDate = endDate.minusDays(sickPayLimit);
+
+        return sickNoteDAO.findActiveSickNotesByEndDateAndLatestStartDate(endDate.toDate(), latestStartDate.toDate());
     }
 }
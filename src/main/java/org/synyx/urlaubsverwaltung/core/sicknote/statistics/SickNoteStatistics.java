@@ -6,11 +6,16 @@ import org.springframework.util.Assert;
 
 import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
 import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
+import org.synyx.urlaubsverwaltung.core.calendar.WorkDaysRequest;
 import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
 import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteDAO;
+import org.synyx.urlaubsverwaltung.core.util.DateUtil;
+import org.synyx.urlaubsverwaltung.core.util.HalfDayUtil;
 
 import java.math.BigDecimal;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 
@@ -34,13 +39,33 @@ public class SickNoteStatistics {
     public SickNoteStatistics(int year, SickNoteDAO sickNoteDAO, OwnCalendarService calendarService) {
 
         this.year = year;
-        this.numberOfPersonsWithMinimumOneSickNote = sickNoteDAO.findNumberOfPersonsWithMinimumOneSickNote(year);
         this.created = DateMidnight.now();
 
-        List<SickNote> sickNotes = sickNoteDAO.findAllActiveByYear(year);
+        Date firstDayOfYear = DateUtil.getFirstDayOfYear(year).toDate();
+        Date lastDayOfYear = DateUtil.getLastDayOfYear(year).toDate();
 
-        this.totalNumberOfSickNotes = sickNotes.size();
-        this.totalNumberOfSickDays = calculateTotalNumberOfSickDays(calendarService, sickNotes);
+        this.numberOfPersonsWithMinimumOneSickNote = zeroIfNull(sickNoteDAO.findNumberOfPersonsWithMinimumOneSickNote(
+                    firstDayOfYear, lastDayOfYear));
+
+        // the sick notes within the year are aggregated by the database using their persisted work days, only the
+        // sick notes crossing the turn of the year have to be loaded to calculate their work days within the year
+        Long numberOfSickNotesWithinYear = zeroIfNull(sickNoteDAO.findNumberOfActiveSickNotesWithinPeriod(
+                    firstDayOfYear, lastDayOfYear));
+        BigDecimal workDaysWithinYear = sickNoteDAO.findNumberOfWorkDaysOfActiveSickNotesWithinPeriod(firstDayOfYear,
+                lastDayOfYear);
+
+        List<SickNote> sickNotesCrossingYear = sickNoteDAO.findActiveSickNotesCrossingPeriodBounds(firstDayOfYear,
+                lastDayOfYear);
+
+        this.totalNumberOfSickNotes = numberOfSickNotesWithinYear.intValue() + sickNotesCrossingYear.size();
+        this.totalNumberOfSickDays = calculateTotalNumberOfSickDays(calendarService, sickNotesCrossingYear).add(
+                workDaysWithinYear == null ? BigDecimal.ZERO : workDaysWithinYear);
+    }
+
+
+    private static Long zeroIfNull(Long value) {
+
+        return value == null ? Long.valueOf(0) : value;
     }
 
     public int getTotalNumberOfSickNotes() {
@@ -57,7 +82,7 @@ public class SickNoteStatistics {
 
     private BigDecimal calculateTotalNumberOfSickDays(OwnCalendarService calendarService, List<SickNote> sickNotes) {
 
-        BigDecimal numberOfSickDays = BigDecimal.ZERO;
+        List<WorkDaysRequest> requests = new ArrayList<>(sickNotes.size());
 
         for (SickNote sickNote : sickNotes) {
             DateMidnight sickNoteStartDate = sickNote.getStartDate();
@@ -81,12 +106,20 @@ public class SickNoteStatistics {
                 endDate = sickNoteStartDate.dayOfYear().withMaximumValue();
             }
 
-            BigDecimal workDays = calendarService.getWorkDays(DayLength.FULL, startDate, endDate, sickNote.getPerson());
+            requests.add(new WorkDaysRequest(sickNote.getPerson(), DayLength.FULL, startDate, endDate));
+        }
+
+        if (requests.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+
+        long numberOfSickHalfDays = 0;
 
-            numberOfSickDays = numberOfSickDays.add(workDays);
+        for (long halfDays : calendarService.getWorkDaysInHalfDays(requests)) {
+            numberOfSickHalfDays += halfDays;
         }
 
-        return numberOfSickDays;
+        return HalfDayUtil.toDays(numberOfSickHalfDays);
     }
 
 
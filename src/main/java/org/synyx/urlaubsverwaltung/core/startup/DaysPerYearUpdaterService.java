@@ -0,0 +1,71 @@
+package org.synyx.urlaubsverwaltung.core.startup;
+
+import org.apache.log4j.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.stereotype.Service;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
+import org.synyx.urlaubsverwaltung.core.application.service.DaysPerYearService;
+import org.synyx.urlaubsverwaltung.core.calendar.workingtime.NoValidWorkingTimeException;
+
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+
+
+/**
+ * This service is executed every time the application is started to calculate the number of days per year of
+ * applications for leave that have been created before the number of days has been saved per year. Applications for
+ * leave that are skipped are calculated again by the {@link DaysPerYearService} on first use.
+ *
+ * @author  agent
+ */
+@Service
+public class DaysPerYearUpdaterService {
+
+    private static final Logger LOG = Logger.getLogger(DaysPerYearUpdaterService.class);
+
+    private final ApplicationService applicationService;
+    private final DaysPerYearService daysPerYearService;
+
+    @Autowired
+    public DaysPerYearUpdaterService(ApplicationService applicationService, DaysPerYearService daysPerYearService) {
+
+        this.applicationService = applicationService;
+        this.daysPerYearService = daysPerYearService;
+    }
+
+    @PostConstruct
+    public void updateApplicationsWithoutDaysPerYear() {
+
+        List<Application> applications = applicationService.getApplicationsWithoutDaysPerYear();
+
+        if (applications.isEmpty()) {
+            return;
+        }
+
+        LOG.info("Calculating number of days per year of " + applications.size() + " applications for leave.");
+
+        int failed = 0;
+
+        for (Application application : applications) {
+            // an invalid application for leave must not prevent the start of the application
+            try {
+                if (!daysPerYearService.updateDaysPerYear(application)) {
+                    failed++;
+                }
+            } catch (NoValidWorkingTimeException | ArithmeticException ex) {
+                LOG.error("Could not calculate number of days per year of application for leave with ID="
+                    + application.getId() + ".", ex);
+                failed++;
+            }
+        }
+
+        if (failed > 0) {
+            LOG.warn("Number of days per year of " + failed + " applications for leave could not be calculated.");
+        }
+    }
+}
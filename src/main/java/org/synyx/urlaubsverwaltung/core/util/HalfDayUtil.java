@@ -0,0 +1,54 @@
+package org.synyx.urlaubsverwaltung.core.util;
+
+import java.math.BigDecimal;
+
+
+/**
+ * This class contains auxiliary functions for fixed-point arithmetic with days: vacation days are always multiples of
+ * half a day, so sums of days are counted as number of half days in a primitive long and converted from and to
+ * {@link BigDecimal} only at the boundaries.
+ *
+ * @author  agent
+ */
+public final class HalfDayUtil {
+
+    private static final BigDecimal HALF_DAYS_PER_DAY = BigDecimal.valueOf(2);
+
+    private static final int TENTHS_PER_HALF_DAY = 5;
+
+    private HalfDayUtil() {
+
+        // Hide constructor for util classes
+    }
+
+    /**
+     * Converts the given number of days to half days.
+     *
+     * @param  days  to be converted, must be a multiple of half a day
+     *
+     * @return  number of half days
+     *
+     * @throws  ArithmeticException  if the given days are not a multiple of half a day
+     */
+    public static long toHalfDays(BigDecimal days) {
+
+        return days.multiply(HALF_DAYS_PER_DAY).longValueExact();
+    }
+
+
+    /**
+     * Converts the given number of half days to days, whole days have no fraction digits, half days have one.
+     *
+     * @param  halfDays  to be converted
+     *
+     * @return  number of days
+     */
+    public static BigDecimal toDays(long halfDays) {
+
+        if (halfDays % 2 == 0) {
+            return BigDecimal.valueOf(halfDays / 2);
+        }
+
+        return BigDecimal.valueOf(halfDays * TENTHS_PER_HALF_DAY, 1);
+    }
+}
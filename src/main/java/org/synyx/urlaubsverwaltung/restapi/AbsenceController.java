@@ -0,0 +1,99 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import com.wordnik.swagger.annotations.Api;
+import com.wordnik.swagger.annotations.ApiOperation;
+import com.wordnik.swagger.annotations.ApiParam;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.Days;
+import org.joda.time.format.DateTimeFormat;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.stereotype.Controller;
+
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Absence;
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsenceCalendar;
+import org.synyx.urlaubsverwaltung.core.application.service.AbsenceService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * @author  agent
+ */
+@Api(value = "Absences", description = "Get the absent persons per day of a certain period")
+@Controller("restApiAbsenceController")
+public class AbsenceController {
+
+    private static final String ROOT_URL = "/absences";
+
+    // one response object per day, so the period is limited to a year
+    private static final int MAX_NUMBER_OF_DAYS = 366;
+
+    @Autowired
+    private AbsenceService absenceService;
+
+    @ApiOperation(
+        value = "Get the absent persons per day of a certain period",
+        notes = "Get the number of absent persons and their absences (waiting or allowed vacation, sick note) per day "
+            + "of a certain period of at most 366 days. Information only reachable for users with role boss or office."
+    )
+    @RequestMapping(value = ROOT_URL, method = RequestMethod.GET)
+    @ModelAttribute("response")
+    public DayAbsencesListResponse absences(
+        @ApiParam(value = "Start date with pattern yyyy-MM-dd", defaultValue = "2014-01-01")
+        @RequestParam(value = "from", required = true)
+        String from,
+        @ApiParam(value = "End date with pattern yyyy-MM-dd", defaultValue = "2014-01-31")
+        @RequestParam(value = "to", required = true)
+        String to,
+        @ApiParam(value = "IDs of the persons, all persons if not given")
+        @RequestParam(value = "person", required = false)
+        List<Integer> personIds) {
+
+        DateMidnight startDate = parseDate(from);
+        DateMidnight endDate = parseDate(to);
+
+        if (endDate.isBefore(startDate)) {
+            throw new InvalidParameterException("Start date " + from + " is after end date " + to);
+        }
+
+        if (Days.daysBetween(startDate, endDate).getDays() >= MAX_NUMBER_OF_DAYS) {
+            throw new InvalidParameterException("Period must not be longer than " + MAX_NUMBER_OF_DAYS + " days");
+        }
+
+        AbsenceCalendar calendar = absenceService.getAbsences(startDate, endDate, personIds);
+
+        List<DayAbsencesResponse> dayResponses = new ArrayList<DayAbsencesResponse>(calendar.getNumberOfDays());
+
+        for (int day = 0; day < calendar.getNumberOfDays(); day++) {
+            List<PersonAbsenceResponse> absenceResponses = new ArrayList<PersonAbsenceResponse>();
+
+            for (Absence absence : calendar.getAbsences(day)) {
+                absenceResponses.add(new PersonAbsenceResponse(absence));
+            }
+
+            dayResponses.add(new DayAbsencesResponse(calendar.getDate(day).toString(RestApiDateFormat.PATTERN),
+                    calendar.getAbsentPersons(day).size(), absenceResponses));
+        }
+
+        return new DayAbsencesListResponse(dayResponses);
+    }
+
+
+    private static DateMidnight parseDate(String date) {
+
+        try {
+            return DateTimeFormat.forPattern(RestApiDateFormat.PATTERN).parseDateTime(date).toDateMidnight();
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidParameterException("Invalid date " + date);
+        }
+    }
+}
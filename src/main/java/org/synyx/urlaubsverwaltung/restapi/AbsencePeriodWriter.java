@@ -0,0 +1,73 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import com.google.gson.stream.JsonWriter;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsencePeriod;
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsencePeriodHandler;
+
+import java.io.IOException;
+
+
+/**
+ * Writes the absence periods as JSON list one by one while they are read from the database. The JSON is the same as
+ * the one of the former {@code MappingJacksonJsonView} of the list responses: the list is wrapped in a response
+ * object and fields with null values are written.
+ *
+ * @author  agent
+ */
+final class AbsencePeriodWriter implements AbsencePeriodHandler {
+
+    private final JsonWriter writer;
+
+    AbsencePeriodWriter(JsonWriter writer) {
+
+        this.writer = writer;
+        this.writer.setSerializeNulls(true);
+    }
+
+    /**
+     * Begins the list of absence periods with the given name.
+     *
+     * @param  name  of the list, e.g. vacations
+     *
+     * @throws  IOException  if the JSON can not be written
+     */
+    void beginList(String name) throws IOException {
+
+        writer.beginObject();
+        writer.name("response").beginObject();
+        writer.name(name).beginArray();
+    }
+
+
+    @Override
+    public void handle(AbsencePeriod period) throws IOException {
+
+        writer.beginObject();
+        writer.name("from").value(period.getStartDate().toString(RestApiDateFormat.PATTERN));
+        writer.name("to").value(period.getEndDate().toString(RestApiDateFormat.PATTERN));
+        writer.name("dayLength").value(period.getDayLength().getDuration());
+
+        writer.name("person").beginObject();
+        writer.name("ldapName").value(period.getLoginName());
+        writer.name("email").value(period.getEmail());
+        writer.name("firstName").value(period.getFirstName());
+        writer.name("lastName").value(period.getLastName());
+        writer.endObject();
+
+        writer.endObject();
+    }
+
+
+    /**
+     * Ends the list of absence periods.
+     *
+     * @throws  IOException  if the JSON can not be written
+     */
+    void endList() throws IOException {
+
+        writer.endArray();
+        writer.endObject();
+        writer.endObject();
+    }
+}
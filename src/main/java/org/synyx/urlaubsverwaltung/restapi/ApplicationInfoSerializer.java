@@ -0,0 +1,213 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import com.google.gson.stream.JsonWriter;
+
+import org.joda.time.DateMidnight;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
+import org.synyx.urlaubsverwaltung.core.calendar.WorkDaysRequest;
+import org.synyx.urlaubsverwaltung.core.util.HalfDayUtil;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Writes the applications for leave information of the calendar as JSON, either with one entry per day of every
+ * application for leave or range-encoded with one entry per application for leave.
+ *
+ * @author  agent
+ */
+final class ApplicationInfoSerializer {
+
+    private ApplicationInfoSerializer() {
+
+        // Hide constructor for util classes
+    }
+
+    /**
+     * Writes one entry per day of every given application for leave, weekends and public holidays included.
+     *
+     * @param  writer  to write to
+     * @param  applications  to be written
+     *
+     * @throws  IOException  if the JSON can not be written
+     */
+    static void writeDays(JsonWriter writer, List<Application> applications) throws IOException {
+
+        writer.beginArray();
+
+        for (Application application : applications) {
+            DateMidnight day = application.getStartDate();
+
+            while (!day.isAfter(application.getEndDate())) {
+                writer.beginObject();
+                writer.name("date").value(day.toString(RestApiDateFormat.PATTERN));
+                writer.name("applicationId").value(application.getId());
+                writer.name("status").value(application.getStatus().name());
+                writer.name("dayLength").value(application.getHowLong().getDuration());
+                writer.endObject();
+
+                day = day.plusDays(1);
+            }
+        }
+
+        writer.endArray();
+    }
+
+
+    /**
+     * Writes one entry per given application for leave with its period and day length. Days of the period on which the
+     * person is not absent with the day length of the application for leave (weekends, public holidays, half days
+     * because of the working time of the person or of Christmas Eve and New Year's Eve) are written as exceptions with
+     * the actual day length.
+     *
+     * @param  writer  to write to
+     * @param  applications  to be written
+     * @param  calendarService  to calculate the actual day lengths with
+     *
+     * @throws  IOException  if the JSON can not be written
+     */
+    static void writeRanges(JsonWriter writer, List<Application> applications, OwnCalendarService calendarService)
+        throws IOException {
+
+        writeRanges(writer, applications, calculateHalfDaysPerDay(applications, calendarService), 0);
+    }
+
+
+    /**
+     * Writes the applications for leave of several persons as one object with the ID of the person as name and the
+     * applications for leave of the person as value, each in the format of {@link #writeDays(JsonWriter, List)}.
+     *
+     * @param  writer  to write to
+     * @param  applicationsByPerson  applications for leave to be written grouped by the ID of their person
+     *
+     * @throws  IOException  if the JSON can not be written
+     */
+    static void writeDaysPerPerson(JsonWriter writer, Map<Integer, List<Application>> applicationsByPerson)
+        throws IOException {
+
+        writer.beginObject();
+
+        for (Map.Entry<Integer, List<Application>> entry : applicationsByPerson.entrySet()) {
+            writer.name(String.valueOf(entry.getKey()));
+            writeDays(writer, entry.getValue());
+        }
+
+        writer.endObject();
+    }
+
+
+    /**
+     * Writes the applications for leave of several persons as one object with the ID of the person as name and the
+     * applications for leave of the person as value, each in the format of
+     * {@link #writeRanges(JsonWriter, List, OwnCalendarService)}. The actual day lengths of all persons are calculated
+     * in one batch.
+     *
+     * @param  writer  to write to
+     * @param  applicationsByPerson  applications for leave to be written grouped by the ID of their person
+     * @param  calendarService  to calculate the actual day lengths with
+     *
+     * @throws  IOException  if the JSON can not be written
+     */
+    static void writeRangesPerPerson(JsonWriter writer, Map<Integer, List<Application>> applicationsByPerson,
+        OwnCalendarService calendarService) throws IOException {
+
+        List<Application> applications = new ArrayList<>();
+
+        for (List<Application> applicationsOfPerson : applicationsByPerson.values()) {
+            applications.addAll(applicationsOfPerson);
+        }
+
+        long[] halfDaysPerDay = calculateHalfDaysPerDay(applications, calendarService);
+
+        writer.beginObject();
+
+        int request = 0;
+
+        for (Map.Entry<Integer, List<Application>> entry : applicationsByPerson.entrySet()) {
+            writer.name(String.valueOf(entry.getKey()));
+            request = writeRanges(writer, entry.getValue(), halfDaysPerDay, request);
+        }
+
+        writer.endObject();
+    }
+
+
+    /**
+     * Calculates the actual day length in half days of every day of all the given applications for leave in one batch,
+     * with one request per application for leave.
+     */
+    private static long[] calculateHalfDaysPerDay(List<Application> applications, OwnCalendarService calendarService) {
+
+        List<WorkDaysRequest> requests = new ArrayList<>(applications.size());
+
+        for (Application application : applications) {
+            requests.add(new WorkDaysRequest(application.getPerson(), application.getHowLong(),
+                    application.getStartDate(), application.getEndDate()));
+        }
+
+        return calendarService.getWorkDaysPerDayInHalfDays(requests);
+    }
+
+
+    /**
+     * Writes the given applications for leave range-encoded, reading the actual day lengths from the given position.
+     *
+     * @return  the position of the first day length after the given applications for leave
+     */
+    private static int writeRanges(JsonWriter writer, List<Application> applications, long[] halfDaysPerDay,
+        int firstRequest) throws IOException {
+
+        writer.beginArray();
+
+        int request = firstRequest;
+
+        for (Application application : applications) {
+            long halfDaysOfDayLength = HalfDayUtil.toHalfDays(application.getHowLong().getDuration());
+
+            writer.beginObject();
+            writer.name("from").value(application.getStartDate().toString(RestApiDateFormat.PATTERN));
+            writer.name("to").value(application.getEndDate().toString(RestApiDateFormat.PATTERN));
+            writer.name("applicationId").value(application.getId());
+            writer.name("status").value(application.getStatus().name());
+            writer.name("dayLength").value(application.getHowLong().getDuration());
+
+            boolean hasExceptions = false;
+
+            DateMidnight day = application.getStartDate();
+
+            while (!day.isAfter(application.getEndDate())) {
+                long halfDays = halfDaysPerDay[request++];
+
+                if (halfDays != halfDaysOfDayLength) {
+                    if (!hasExceptions) {
+                        writer.name("exceptions").beginArray();
+                        hasExceptions = true;
+                    }
+
+                    writer.beginObject();
+                    writer.name("date").value(day.toString(RestApiDateFormat.PATTERN));
+                    writer.name("dayLength").value(HalfDayUtil.toDays(halfDays).setScale(1));
+                    writer.endObject();
+                }
+
+                day = day.plusDays(1);
+            }
+
+            if (hasExceptions) {
+                writer.endArray();
+            }
+
+            writer.endObject();
+        }
+
+        writer.endArray();
+
+        return request;
+    }
+}
@@ -0,0 +1,75 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import com.wordnik.swagger.annotations.Api;
+import com.wordnik.swagger.annotations.ApiOperation;
+import com.wordnik.swagger.annotations.ApiParam;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.stereotype.Controller;
+
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import org.synyx.urlaubsverwaltung.core.changelog.ChangeLogEntry;
+import org.synyx.urlaubsverwaltung.core.changelog.ChangeLogService;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * @author  agent
+ */
+@Api(value = "Changes", description = "Get the changed applications for leave and sick notes")
+@Controller("restApiChangeController")
+public class ChangeController {
+
+    private static final String ROOT_URL = "/changes";
+
+    private static final int MAXIMUM_LIMIT = 1000;
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @ApiOperation(
+        value = "Get the applications for leave and sick notes created or modified after a certain sequence",
+        notes = "Get the applications for leave and sick notes created or modified after a certain sequence in their "
+            + "current state, ordered by the sequence of their last change in the page. The next sequence of the "
+            + "response is the cursor for the next request. Changes are returned one minute after they have been "
+            + "made at the earliest. Information only reachable for users with role office."
+    )
+    @RequestMapping(value = ROOT_URL, method = RequestMethod.GET)
+    @ModelAttribute("response")
+    public ChangeListResponse changes(
+        @ApiParam(value = "Last sequence already known, 0 to get all changes", defaultValue = "0")
+        @RequestParam(value = "after", required = false, defaultValue = "0")
+        int after,
+        @ApiParam(value = "Maximum number of changes, at most 1000", defaultValue = "100")
+        @RequestParam(value = "limit", required = false, defaultValue = "100")
+        int limit) {
+
+        List<ChangeLogEntry> entries = changeLogService.getChangesAfter(after,
+                Math.max(1, Math.min(limit, MAXIMUM_LIMIT)));
+
+        // every application for leave resp. sick note is returned once in its current state, i.e. at its last change
+        Set<String> returned = new HashSet<String>();
+        List<ChangeResponse> changes = new ArrayList<ChangeResponse>();
+
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            ChangeResponse change = new ChangeResponse(entries.get(i));
+
+            if (returned.add(change.getType() + change.getId())) {
+                changes.add(0, change);
+            }
+        }
+
+        int next = entries.isEmpty() ? after : entries.get(entries.size() - 1).getId();
+
+        return new ChangeListResponse(changes, next);
+    }
+}
@@ -0,0 +1,42 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import java.util.List;
+
+
+/**
+ * @author  agent
+ */
+class ChangeListResponse {
+
+    private List<ChangeResponse> changes;
+    private int next;
+
+    ChangeListResponse(List<ChangeResponse> changes, int next) {
+
+        this.changes = changes;
+        this.next = next;
+    }
+
+    public List<ChangeResponse> getChanges() {
+
+        return changes;
+    }
+
+
+    public void setChanges(List<ChangeResponse> changes) {
+
+        this.changes = changes;
+    }
+
+
+    public int getNext() {
+
+        return next;
+    }
+
+
+    public void setNext(int next) {
+
+        this.next = next;
+    }
+}
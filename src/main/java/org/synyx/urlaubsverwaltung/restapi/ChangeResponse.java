@@ -0,0 +1,165 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.changelog.ChangeLogEntry;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
+
+import java.math.BigDecimal;
+
+
+/**
+ * @author  agent
+ */
+class ChangeResponse {
+
+    static final String TYPE_APPLICATION = "APPLICATION";
+    static final String TYPE_SICK_NOTE = "SICK_NOTE";
+
+    private static final String SICK_NOTE_ACTIVE = "ACTIVE";
+    private static final String SICK_NOTE_INACTIVE = "INACTIVE";
+
+    private int sequence;
+    private String changeDate;
+    private String type;
+    private Integer id;
+    private String from;
+    private String to;
+    private BigDecimal dayLength;
+    private String status;
+    private PersonResponse person;
+
+    ChangeResponse(ChangeLogEntry entry) {
+
+        this.sequence = entry.getId();
+        this.changeDate = entry.getChangeDate().toString();
+
+        Application application = entry.getApplication();
+        SickNote sickNote = entry.getSickNote();
+
+        if (application != null) {
+            this.type = TYPE_APPLICATION;
+            this.id = application.getId();
+            this.from = application.getStartDate().toString(RestApiDateFormat.PATTERN);
+            this.to = application.getEndDate().toString(RestApiDateFormat.PATTERN);
+            this.dayLength = application.getHowLong().getDuration();
+            this.status = application.getStatus().name();
+            this.person = new PersonResponse(application.getPerson());
+        } else {
+            this.type = TYPE_SICK_NOTE;
+            this.id = sickNote.getId();
+            this.from = sickNote.getStartDate().toString(RestApiDateFormat.PATTERN);
+            this.to = sickNote.getEndDate().toString(RestApiDateFormat.PATTERN);
+            this.dayLength = DayLength.FULL.getDuration();
+            this.status = sickNote.isActive() ? SICK_NOTE_ACTIVE : SICK_NOTE_INACTIVE;
+            this.person = new PersonResponse(sickNote.getPerson());
+        }
+    }
+
+    public int getSequence() {
+
+        return sequence;
+    }
+
+
+    public void setSequence(int sequence) {
+
+        this.sequence = sequence;
+    }
+
+
+    public String getChangeDate() {
+
+        return changeDate;
+    }
+
+
+    public void setChangeDate(String changeDate) {
+
+        this.changeDate = changeDate;
+    }
+
+
+    public String getType() {
+
+        return type;
+    }
+
+
+    public void setType(String type) {
+
+        this.type = type;
+    }
+
+
+    public Integer getId() {
+
+        return id;
+    }
+
+
+    public void setId(Integer id) {
+
+        this.id = id;
+    }
+
+
+    public String getFrom() {
+
+        return from;
+    }
+
+
+    public void setFrom(String from) {
+
+        this.from = from;
+    }
+
+
+    public String getTo() {
+
+        return to;
+    }
+
+
+    public void setTo(String to) {
+
+        this.to = to;
+    }
+
+
+    public BigDecimal getDayLength() {
+
+        return dayLength;
+    }
+
+
+    public void setDayLength(BigDecimal dayLength) {
+
+        this.dayLength = dayLength;
+    }
+
+
+    public String getStatus() {
+
+        return status;
+    }
+
+
+    public void setStatus(String status) {
+
+        this.status = status;
+    }
+
+
+    public PersonResponse getPerson() {
+
+        return person;
+    }
+
+
+    public void setPerson(PersonResponse person) {
+
+        this.person = person;
+    }
+}
@@ -0,0 +1,28 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import java.util.List;
+
+
+/**
+ * @author  agent
+ */
+class DayAbsencesListResponse {
+
+    private List<DayAbsencesResponse> days;
+
+    DayAbsencesListResponse(List<DayAbsencesResponse> days) {
+
+        this.days = days;
+    }
+
+    public List<DayAbsencesResponse> getDays() {
+
+        return days;
+    }
+
+
+    public void setDays(List<DayAbsencesResponse> days) {
+
+        this.days = days;
+    }
+}
@@ -0,0 +1,56 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import java.util.List;
+
+
+/**
+ * @author  agent
+ */
+class DayAbsencesResponse {
+
+    private String date;
+    private int absentPersons;
+    private List<PersonAbsenceResponse> absences;
+
+    DayAbsencesResponse(String date, int absentPersons, List<PersonAbsenceResponse> absences) {
+
+        this.date = date;
+        this.absentPersons = absentPersons;
+        this.absences = absences;
+    }
+
+    public String getDate() {
+
+        return date;
+    }
+
+
+    public void setDate(String date) {
+
+        this.date = date;
+    }
+
+
+    public int getAbsentPersons() {
+
+        return absentPersons;
+    }
+
+
+    public void setAbsentPersons(int absentPersons) {
+
+        this.absentPersons = absentPersons;
+    }
+
+
+    public List<PersonAbsenceResponse> getAbsences() {
+
+        return absences;
+    }
+
+
+    public void setAbsences(List<PersonAbsenceResponse> absences) {
+
+        this.absences = absences;
+    }
+}
@@ -0,0 +1,35 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
+import com.google.common.hash.Hashing;
+
+
+/**
+ * Creates the entity tags of the rest api endpoints that support conditional requests. The tag is derived from the
+ * versions of the data the payload is built of and from the request parameters, so a not modified request can be
+ * answered without loading and serializing the payload.
+ *
+ * @author  agent
+ */
+final class ETags {
+
+    private ETags() {
+
+        // Hide constructor for util classes
+    }
+
+    /**
+     * Creates a strong entity tag of the given parts.
+     *
+     * @param  parts  the payload depends on, i.e. name of the endpoint, versions of the data and request parameters
+     *
+     * @return  quoted entity tag
+     */
+    static String of(Object... parts) {
+
+        String joinedParts = Joiner.on('|').useForNull("").join(parts);
+
+        return "\"" + Hashing.murmur3_128().hashString(joinedParts, Charsets.UTF_8) + "\"";
+    }
+}
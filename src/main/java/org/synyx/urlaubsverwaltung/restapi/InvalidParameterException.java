@@ -0,0 +1,20 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import org.springframework.http.HttpStatus;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+
+/**
+ * Thrown if a request parameter of the rest api is not valid, the request is answered with 400 Bad Request.
+ *
+ * @author  agent
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+class InvalidParameterException extends RuntimeException {
+
+    InvalidParameterException(String message) {
+
+        super(message);
+    }
+}
@@ -0,0 +1,58 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Absence;
+
+import java.math.BigDecimal;
+
+
+/**
+ * @author  agent
+ */
+class PersonAbsenceResponse {
+
+    private PersonResponse person;
+    private String type;
+    private BigDecimal dayLength;
+
+    PersonAbsenceResponse(Absence absence) {
+
+        this.person = new PersonResponse(absence.getPerson());
+        this.type = absence.getKind().name();
+        this.dayLength = absence.getDayLength().getDuration();
+    }
+
+    public PersonResponse getPerson() {
+
+        return person;
+    }
+
+
+    public void setPerson(PersonResponse person) {
+
+        this.person = person;
+    }
+
+
+    public String getType() {
+
+        return type;
+    }
+
+
+    public void setType(String type) {
+
+        this.type = type;
+    }
+
+
+    public BigDecimal getDayLength() {
+
+        return dayLength;
+    }
+
+
+    public void setDayLength(BigDecimal dayLength) {
+
+        this.dayLength = dayLength;
+    }
+}
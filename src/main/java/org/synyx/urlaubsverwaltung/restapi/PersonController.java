@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
@@ -43,7 +44,11 @@ public class PersonController {
     public PersonListResponse persons(
         @ApiParam(value = "LDAP Login")
         @RequestParam(value = "ldap", required = false)
-        String ldapName) {
+        String ldapName, WebRequest request) {
+
+        if (request.checkNotModified(ETags.of(ROOT_URL, personService.getPersonsVersion(), ldapName))) {
+            return null;
+        }
 
         List<Person> persons = new ArrayList<Person>();
 
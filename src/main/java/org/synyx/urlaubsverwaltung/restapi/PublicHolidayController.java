@@ -19,6 +19,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 import org.synyx.urlaubsverwaltung.core.calendar.JollydayCalendar;
 
@@ -53,7 +54,12 @@ public class PublicHolidayController {
         String year,
         @ApiParam(value = "Month of year to get the public holidays for")
         @RequestParam(value = "month", required = false)
-        String month) {
+        String month, WebRequest request) {
+
+        // the public holidays of a year never change as long as the configuration does not change
+        if (request.checkNotModified(ETags.of(ROOT_URL, jollydayCalendar.getConfigurationVersion(), year, month))) {
+            return null;
+        }
 
         PublicHolidayListResponse emptyResponse = new PublicHolidayListResponse(Collections.EMPTY_LIST);
 
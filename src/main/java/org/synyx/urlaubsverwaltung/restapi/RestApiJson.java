@@ -0,0 +1,61 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletResponse;
+
+
+/**
+ * Shared JSON serialization of the rest api endpoints that write their payload directly to the response.
+ *
+ * @author  agent
+ */
+final class RestApiJson {
+
+    static final String NOT_AVAILABLE = "N/A";
+
+    private static final String JSON_CONTENT_TYPE = "application/json;charset=UTF-8";
+    private static final String TEXT_CONTENT_TYPE = "text/plain;charset=UTF-8";
+
+    private RestApiJson() {
+
+        // Hide constructor for util classes
+    }
+
+    /**
+     * Creates a writer that streams JSON directly to the given response, the writer has to be closed by the caller.
+     *
+     * @param  response  to write to
+     *
+     * @return  JSON writer for the response
+     *
+     * @throws  IOException  if the response can not be written
+     */
+    static JsonWriter createWriter(HttpServletResponse response) throws IOException {
+
+        response.setContentType(JSON_CONTENT_TYPE);
+
+        JsonWriter writer = new JsonWriter(response.getWriter());
+
+        // like Gson, fields with null values are omitted
+        writer.setSerializeNulls(false);
+
+        return writer;
+    }
+
+
+    /**
+     * Writes the information that the requested data is not available, e.g. because of invalid parameters.
+     *
+     * @param  response  to write to
+     *
+     * @throws  IOException  if the response can not be written
+     */
+    static void writeNotAvailable(HttpServletResponse response) throws IOException {
+
+        response.setContentType(TEXT_CONTENT_TYPE);
+        response.getWriter().write(NOT_AVAILABLE);
+    }
+}
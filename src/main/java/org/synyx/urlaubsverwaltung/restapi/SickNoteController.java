@@ -1,7 +1,6 @@
 package org.synyx.urlaubsverwaltung.restapi;
 
-import com.google.common.base.Function;
-import com.google.common.collect.Lists;
+import com.google.gson.stream.JsonWriter;
 
 import com.wordnik.swagger.annotations.Api;
 import com.wordnik.swagger.annotations.ApiOperation;
@@ -15,15 +14,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import org.springframework.stereotype.Controller;
 
-import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
-import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteService;
+import org.synyx.urlaubsverwaltung.core.application.service.AbsenceExportService;
 
-import java.util.List;
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletResponse;
 
 
 /**
@@ -36,38 +35,32 @@ public class SickNoteController {
     private static final String ROOT_URL = "/sicknotes";
 
     @Autowired
-    private SickNoteService sickNoteService;
+    private AbsenceExportService absenceExportService;
 
     @ApiOperation(
         value = "Get all sick notes for a certain period",
         notes = "Get all sick notes for a certain period. Information only reachable for users with role office."
     )
     @RequestMapping(value = ROOT_URL, method = RequestMethod.GET)
-    @ModelAttribute("response")
-    public SickNoteListResponse sickNotes(
+    public void sickNotes(
         @ApiParam(value = "Start date with pattern yyyy-MM-dd", defaultValue = "2014-01-01")
         @RequestParam(value = "from", required = true)
         String from,
         @ApiParam(value = "End date with pattern yyyy-MM-dd", defaultValue = "2014-12-31")
         @RequestParam(value = "to", required = true)
-        String to) {
+        String to, HttpServletResponse response) throws IOException {
 
         DateTimeFormatter formatter = DateTimeFormat.forPattern(RestApiDateFormat.PATTERN);
         DateMidnight startDate = formatter.parseDateTime(from).toDateMidnight();
         DateMidnight endDate = formatter.parseDateTime(to).toDateMidnight();
 
-        List<SickNote> sickNotes = sickNoteService.getByPeriod(startDate, endDate);
-
-        List<AbsenceResponse> sickNoteResponses = Lists.transform(sickNotes,
-                new Function<SickNote, AbsenceResponse>() {
-
-                    @Override
-                    public AbsenceResponse apply(SickNote sickNote) {
+        JsonWriter writer = RestApiJson.createWriter(response);
+        AbsencePeriodWriter periodWriter = new AbsencePeriodWriter(writer);
 
-                        return new AbsenceResponse(sickNote);
-                    }
-                });
+        periodWriter.beginList("sickNotes");
+        absenceExportService.exportSickNotes(startDate, endDate, periodWriter);
+        periodWriter.endList();
 
-        return new SickNoteListResponse(sickNoteResponses);
+        writer.close();
     }
 }
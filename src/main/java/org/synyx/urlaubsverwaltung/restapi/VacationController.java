@@ -1,9 +1,7 @@
 package org.synyx.urlaubsverwaltung.restapi;
 
-import com.google.common.base.Function;
-import com.google.common.collect.Lists;
-
-import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 
 import com.wordnik.swagger.annotations.Api;
 import com.wordnik.swagger.annotations.ApiOperation;
@@ -19,25 +17,36 @@ import org.springframework.stereotype.Controller;
 
 import org.springframework.util.StringUtils;
 
-import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
 
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.application.service.AbsenceExportService;
 import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
 import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
+import org.synyx.urlaubsverwaltung.core.calendar.WorkDaysRequest;
+import org.synyx.urlaubsverwaltung.core.changelog.ChangeLogService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
 import org.synyx.urlaubsverwaltung.core.util.DateUtil;
+import org.synyx.urlaubsverwaltung.security.Role;
+
+import java.io.IOException;
 
 import java.math.BigDecimal;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 
 /**
@@ -58,38 +67,43 @@ public class VacationController {
     @Autowired
     private OwnCalendarService ownCalendarService;
 
+    @Autowired
+    private AbsenceExportService absenceExportService;
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
     @ApiOperation(
         value = "Get all vacations for a certain period",
         notes = "Get all vacations for a certain period. Information only reachable for users with role boss or office."
     )
     @RequestMapping(value = ROOT_URL, method = RequestMethod.GET)
-    @ModelAttribute("response")
-    public VacationListResponse vacations(
+    public void vacations(
         @ApiParam(value = "Start date with pattern yyyy-MM-dd", defaultValue = "2014-01-01")
         @RequestParam(value = "from", required = true)
         String from,
         @ApiParam(value = "End date with pattern yyyy-MM-dd", defaultValue = "2014-12-31")
         @RequestParam(value = "to", required = true)
-        String to) {
+        String to, WebRequest request, HttpServletResponse response) throws IOException {
+
+        // the vacations contain the data of their persons
+        if (request.checkNotModified(ETags.of(ROOT_URL, changeLogService.getVersion(),
+                        personService.getPersonsVersion(), from, to))) {
+            return;
+        }
 
         DateTimeFormatter formatter = DateTimeFormat.forPattern(RestApiDateFormat.PATTERN);
         DateMidnight startDate = formatter.parseDateTime(from).toDateMidnight();
         DateMidnight endDate = formatter.parseDateTime(to).toDateMidnight();
 
-        List<Application> applications = applicationService.getApplicationsForACertainPeriodAndState(startDate, endDate,
-                ApplicationStatus.ALLOWED);
-
-        List<AbsenceResponse> vacationResponses = Lists.transform(applications,
-                new Function<Application, AbsenceResponse>() {
-
-                    @Override
-                    public AbsenceResponse apply(Application application) {
+        JsonWriter writer = RestApiJson.createWriter(response);
+        AbsencePeriodWriter periodWriter = new AbsencePeriodWriter(writer);
 
-                        return new AbsenceResponse(application);
-                    }
-                });
+        periodWriter.beginList("vacations");
+        absenceExportService.exportAllowedVacations(startDate, endDate, periodWriter);
+        periodWriter.endList();
 
-        return new VacationListResponse(vacationResponses);
+        writer.close();
     }
 
 
@@ -141,13 +155,44 @@ public class VacationController {
     }
 
 
+    @ApiOperation(
+        value = "Calculate the hypothetical number of vacation days for many periods and persons",
+        notes = "Calculate the hypothetical number of vacation days for many periods and persons at once. The request "
+            + "body is an array of objects with the fields from, to, length and person like the parameters of the "
+            + "single calculation, the response is an array with the number of vacation days per object in the same "
+            + "order, N/A for objects that are not valid in any way."
+    )
+    @RequestMapping(value = ROOT_URL + "/calculate", method = RequestMethod.POST)
+    public void numberOfVacationDaysBatch(HttpServletRequest request, HttpServletResponse response)
+        throws IOException {
+
+        List<WorkDaysRequest> requests;
+
+        try {
+            requests = WorkDaysCalculationBatch.read(new JsonReader(request.getReader()), personService);
+        } catch (IOException | IllegalStateException ex) {
+            // malformed JSON
+            RestApiJson.writeNotAvailable(response);
+
+            return;
+        }
+
+        JsonWriter writer = RestApiJson.createWriter(response);
+
+        WorkDaysCalculationBatch.calculateAndWrite(writer, requests, ownCalendarService);
+
+        writer.close();
+    }
+
+
     @ApiOperation(
         value = "Get applications for leave information for a certain period and person",
-        notes = "Get applications for leave information for a certain period and person"
+        notes = "Get applications for leave information for a certain period and person. By default there is one entry "
+            + "per day of every application for leave, in compact mode there is one entry per application for leave "
+            + "with the days differing from its day length (weekends, public holidays, half days) as exceptions."
     )
     @RequestMapping(value = ROOT_URL + "/application-info", method = RequestMethod.GET)
-    @ResponseBody
-    public String personsVacations(
+    public void personsVacations(
         @ApiParam(value = "Year to get the applications for leave for", defaultValue = "2014")
         @RequestParam("year")
         String year,
@@ -156,80 +201,189 @@ public class VacationController {
         String month,
         @ApiParam(value = "ID of the person")
         @RequestParam("person")
-        Integer personId) {
+        Integer personId,
+        @ApiParam(value = "One entry per application for leave instead of one entry per day", defaultValue = "false")
+        @RequestParam(value = "compact", required = false, defaultValue = "false")
+        boolean compact, WebRequest request, HttpServletResponse response) throws IOException {
+
+        // the compact mode depends on the working time of the person too, which is not versioned
+        if (!compact
+                && request.checkNotModified(ETags.of(ROOT_URL + "/application-info",
+                        changeLogService.getVersion(), year, month, personId))) {
+            return;
+        }
 
-        boolean hasYear = StringUtils.hasText(year);
-        boolean hasMonth = StringUtils.hasText(month);
+        List<Application> applications = getAllowedApplications(year, month, personId);
 
-        if (hasYear && personId != null) {
-            try {
-                Person person = personService.getPersonByID(personId);
+        if (applications == null) {
+            RestApiJson.writeNotAvailable(response);
 
-                if (person == null) {
-                    return "N/A";
-                }
+            return;
+        }
 
-                DateMidnight periodStart;
-                DateMidnight periodEnd;
+        JsonWriter writer = RestApiJson.createWriter(response);
 
-                if (hasMonth) {
-                    periodStart = DateUtil.getFirstDayOfMonth(Integer.parseInt(year), Integer.parseInt(month));
-                    periodEnd = DateUtil.getLastDayOfMonth(Integer.parseInt(year), Integer.parseInt(month));
-                } else {
-                    periodStart = DateUtil.getFirstDayOfYear(Integer.parseInt(year));
-                    periodEnd = DateUtil.getLastDayOfYear(Integer.parseInt(year));
-                }
+        if (compact) {
+            ApplicationInfoSerializer.writeRanges(writer, applications, ownCalendarService);
+        } else {
+            ApplicationInfoSerializer.writeDays(writer, applications);
+        }
 
-                List<Application> applications = applicationService.getApplicationsForACertainPeriodAndPersonAndState(
-                        periodStart, periodEnd, person, ApplicationStatus.ALLOWED);
+        writer.close();
+    }
 
-                List<VacationDate> vacationDateList = new ArrayList<>();
 
-                for (Application app : applications) {
-                    DateMidnight startDate = app.getStartDate();
-                    DateMidnight endDate = app.getEndDate();
+    @ApiOperation(
+        value = "Get the allowed vacations of several persons for a certain period",
+        notes = "Get the allowed vacations of several persons for a certain period, e.g. for a team calendar. The "
+            + "persons are given by their IDs and/or by a role. The result is one object with the ID of the person as "
+            + "name and the vacations of the person in the same format as the application info of a single person."
+    )
+    @RequestMapping(value = ROOT_URL + "/application-info/batch", method = RequestMethod.GET)
+    public void personsVacationsBatch(
+        @ApiParam(value = "Year to get the applications for leave for", defaultValue = "2014")
+        @RequestParam("year")
+        String year,
+        @ApiParam(value = "Month of year to get the applications for leave for")
+        @RequestParam(value = "month", required = false)
+        String month,
+        @ApiParam(value = "IDs of the persons")
+        @RequestParam(value = "person", required = false)
+        List<Integer> personIds,
+        @ApiParam(value = "Role of the persons, e.g. USER")
+        @RequestParam(value = "role", required = false)
+        String role,
+        @ApiParam(value = "One entry per application for leave instead of one entry per day", defaultValue = "false")
+        @RequestParam(value = "compact", required = false, defaultValue = "false")
+        boolean compact, WebRequest request, HttpServletResponse response) throws IOException {
+
+        // the compact mode depends on the working times too, which are not versioned, the role filter depends on the
+        // roles of the persons
+        if (!compact
+                && request.checkNotModified(ETags.of(ROOT_URL + "/application-info/batch",
+                        changeLogService.getVersion(), role == null ? null : personService.getPersonsVersion(), year,
+                        month, personIds, role))) {
+            return;
+        }
 
-                    DateMidnight day = startDate;
+        Map<Integer, List<Application>> applicationsByPerson = getAllowedApplicationsByPerson(year, month, personIds,
+                role);
 
-                    while (!day.isAfter(endDate)) {
-                        vacationDateList.add(new VacationDate(day.toString(RestApiDateFormat.PATTERN), app.getId(),
-                                app.getStatus().name(), app.getHowLong().getDuration()));
+        if (applicationsByPerson == null) {
+            RestApiJson.writeNotAvailable(response);
 
-                        day = day.plusDays(1);
+            return;
+        }
+
+        JsonWriter writer = RestApiJson.createWriter(response);
+
+        if (compact) {
+            ApplicationInfoSerializer.writeRangesPerPerson(writer, applicationsByPerson, ownCalendarService);
+        } else {
+            ApplicationInfoSerializer.writeDaysPerPerson(writer, applicationsByPerson);
+        }
+
+        writer.close();
+    }
+
+
+    /**
+     * Get the allowed applications for leave of the given person in the given year resp. month.
+     *
+     * @return  the applications for leave or {@code null} if the parameters are not valid in any way
+     */
+    private List<Application> getAllowedApplications(String year, String month, Integer personId) {
+
+        if (!StringUtils.hasText(year) || personId == null) {
+            return null;
+        }
+
+        try {
+            Person person = personService.getPersonByID(personId);
+
+            if (person == null) {
+                return null;
+            }
+
+            DateMidnight periodStart = getPeriodStart(year, month);
+            DateMidnight periodEnd = getPeriodEnd(year, month);
+
+            return applicationService.getApplicationsForACertainPeriodAndPersonAndState(periodStart, periodEnd, person,
+                    ApplicationStatus.ALLOWED);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Get the allowed applications for leave of the given persons in the given year resp. month, loaded with one query
+     * for the given persons only and grouped by the ID of their person. The role filter is resolved to the IDs of the
+     * persons with the role before.
+     *
+     * @return  the applications for leave grouped by the ID of their person in the order of the given IDs followed by
+     *          the persons with the given role, or {@code null} if the parameters are not valid in any way
+     */
+    private Map<Integer, List<Application>> getAllowedApplicationsByPerson(String year, String month,
+        List<Integer> personIds, String role) {
+
+        if (!StringUtils.hasText(year) || (personIds == null && !StringUtils.hasText(role))) {
+            return null;
+        }
+
+        try {
+            Map<Integer, List<Application>> applicationsByPerson = new LinkedHashMap<>();
+
+            if (personIds != null) {
+                for (Integer personId : personIds) {
+                    applicationsByPerson.put(personId, new ArrayList<Application>());
+                }
+            }
+
+            if (StringUtils.hasText(role)) {
+                for (Person person : personService.getPersonsByRole(Role.valueOf(role))) {
+                    if (!applicationsByPerson.containsKey(person.getId())) {
+                        applicationsByPerson.put(person.getId(), new ArrayList<Application>());
                     }
                 }
+            }
 
-                String json = new Gson().toJson(vacationDateList);
+            List<Application> applications = applicationService.getApplicationsForACertainPeriodAndStateAndPersons(
+                    getPeriodStart(year, month), getPeriodEnd(year, month), ApplicationStatus.ALLOWED,
+                    applicationsByPerson.keySet());
 
-                return json;
-            } catch (NumberFormatException ex) {
-                return "N/A";
+            for (Application application : applications) {
+                List<Application> applicationsOfPerson = applicationsByPerson.get(application.getPerson().getId());
+
+                if (applicationsOfPerson != null) {
+                    applicationsOfPerson.add(application);
+                }
             }
-        }
 
-        return "N/A";
+            return applicationsByPerson;
+        } catch (IllegalArgumentException ex) {
+            // invalid number or unknown role
+            return null;
+        }
     }
 
-    private class VacationDate {
 
-        private final String date;
-        private final Integer applicationId;
-        private final String status;
-        private final BigDecimal dayLength;
+    private static DateMidnight getPeriodStart(String year, String month) {
 
-        public VacationDate(String date, Integer applicationId, String status, BigDecimal dayLength) {
-
-            this.date = date;
-            this.applicationId = applicationId;
-            this.status = status;
-            this.dayLength = dayLength;
+        if (StringUtils.hasText(month)) {
+            return DateUtil.getFirstDayOfMonth(Integer.parseInt(year), Integer.parseInt(month));
         }
 
-        @Override
-        public String toString() {
+        return DateUtil.getFirstDayOfYear(Integer.parseInt(year));
+    }
+
 
-            return "date = " + this.date + ", href = " + this.applicationId + ", status = " + status + ", dayLength = "
-                + dayLength;
+    private static DateMidnight getPeriodEnd(String year, String month) {
+
+        if (StringUtils.hasText(month)) {
+            return DateUtil.getLastDayOfMonth(Integer.parseInt(year), Integer.parseInt(month));
         }
+
+        return DateUtil.getLastDayOfYear(Integer.parseInt(year));
     }
 }
@@ -0,0 +1,176 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+import org.springframework.util.StringUtils;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
+import org.synyx.urlaubsverwaltung.core.calendar.WorkDaysRequest;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.person.PersonService;
+import org.synyx.urlaubsverwaltung.core.util.HalfDayUtil;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Reads many (from, to, length, person) tuples of the vacation days calculation as JSON, calculates the number of
+ * vacation days of all of them in one batch and writes the results as JSON in the order of the tuples.
+ *
+ * @author  agent
+ */
+final class WorkDaysCalculationBatch {
+
+    private WorkDaysCalculationBatch() {
+
+        // Hide constructor for util classes
+    }
+
+    /**
+     * Reads an array of objects with the fields from, to, length and person. Every person is looked up only once, no
+     * matter how many tuples refer to it.
+     *
+     * @param  reader  to read from
+     * @param  personService  to look up the persons with
+     *
+     * @return  one request per tuple in the order of the tuples, {@code null} for tuples that are not valid in any way
+     *
+     * @throws  IOException  if the JSON can not be read
+     */
+    static List<WorkDaysRequest> read(JsonReader reader, PersonService personService) throws IOException {
+
+        DateTimeFormatter formatter = DateTimeFormat.forPattern(RestApiDateFormat.PATTERN);
+
+        Map<Integer, Person> persons = new HashMap<>();
+        List<WorkDaysRequest> requests = new ArrayList<>();
+
+        reader.beginArray();
+
+        while (reader.hasNext()) {
+            String from = null;
+            String to = null;
+            String length = null;
+            String personId = null;
+
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.nextNull();
+                } else if ("from".equals(name)) {
+                    from = reader.nextString();
+                } else if ("to".equals(name)) {
+                    to = reader.nextString();
+                } else if ("length".equals(name)) {
+                    length = reader.nextString();
+                } else if ("person".equals(name)) {
+                    personId = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+
+            requests.add(createRequest(from, to, length, personId, formatter, persons, personService));
+        }
+
+        reader.endArray();
+
+        return requests;
+    }
+
+
+    private static WorkDaysRequest createRequest(String from, String to, String length, String personId,
+        DateTimeFormatter formatter, Map<Integer, Person> persons, PersonService personService) {
+
+        if (!StringUtils.hasText(from) || !StringUtils.hasText(to) || !StringUtils.hasText(length)
+                || !StringUtils.hasText(personId)) {
+            return null;
+        }
+
+        try {
+            DateMidnight startDate = DateMidnight.parse(from, formatter);
+            DateMidnight endDate = DateMidnight.parse(to, formatter);
+
+            if (startDate.isAfter(endDate)) {
+                return null;
+            }
+
+            DayLength howLong = DayLength.valueOf(length);
+
+            Integer id = Integer.valueOf(personId);
+
+            if (!persons.containsKey(id)) {
+                persons.put(id, personService.getPersonByID(id));
+            }
+
+            Person person = persons.get(id);
+
+            if (person == null) {
+                return null;
+            }
+
+            return new WorkDaysRequest(person, howLong, startDate, endDate);
+        } catch (IllegalArgumentException ex) {
+            // invalid date, day length or person id
+            return null;
+        }
+    }
+
+
+    /**
+     * Calculates the number of vacation days of all the given requests in one batch and writes them as array in the
+     * order of the requests, {@link RestApiJson#NOT_AVAILABLE} for requests that are {@code null} and for requests
+     * that can not be calculated, e.g. because the person has no valid working time in the period.
+     *
+     * @param  writer  to write to
+     * @param  requests  to be calculated, may contain {@code null} for invalid tuples
+     * @param  calendarService  to calculate the number of vacation days with
+     *
+     * @throws  IOException  if the JSON can not be written
+     */
+    static void calculateAndWrite(JsonWriter writer, List<WorkDaysRequest> requests,
+        OwnCalendarService calendarService) throws IOException {
+
+        List<WorkDaysRequest> validRequests = new ArrayList<>(requests.size());
+
+        for (WorkDaysRequest request : requests) {
+            if (request != null) {
+                validRequests.add(request);
+            }
+        }
+
+        Long[] halfDays = calendarService.getWorkDaysInHalfDaysOrNull(validRequests);
+
+        writer.beginArray();
+
+        int validRequest = 0;
+
+        for (WorkDaysRequest request : requests) {
+            Long halfDaysOfRequest = request == null ? null : halfDays[validRequest++];
+
+            if (halfDaysOfRequest == null) {
+                writer.value(RestApiJson.NOT_AVAILABLE);
+            } else {
+                writer.value(HalfDayUtil.toDays(halfDaysOfRequest).setScale(1));
+            }
+        }
+
+        writer.endArray();
+    }
+}
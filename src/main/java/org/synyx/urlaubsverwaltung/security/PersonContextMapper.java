@@ -13,7 +13,6 @@ import org.synyx.urlaubsverwaltung.core.mail.MailService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
 
-import java.security.KeyPair;
 import java.security.NoSuchAlgorithmException;
 
 import java.util.ArrayList;
@@ -94,17 +93,15 @@ public class PersonContextMapper implements UserDetailsContextMapper {
          */
         person.setPermissions(permissions);
 
+        personService.save(person);
+
         try {
-            KeyPair keyPair = CryptoUtil.generateKeyPair();
-            person.setPrivateKey(keyPair.getPrivate().getEncoded());
-            person.setPublicKey(keyPair.getPublic().getEncoded());
+            personService.saveKeyPair(person, CryptoUtil.generateKeyPair());
         } catch (NoSuchAlgorithmException ex) {
             LOG.error("An error occurred while trying to create key pair for user with login " + login, ex);
             mailService.sendKeyGeneratingErrorNotification(login, ex.getMessage());
         }
 
-        personService.save(person);
-
         LOG.info("Successfully created first person: " + person.toString());
 
         return person;
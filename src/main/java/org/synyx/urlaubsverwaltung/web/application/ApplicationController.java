@@ -1,9 +1,5 @@
 package org.synyx.urlaubsverwaltung.web.application;
 
-import com.google.common.base.Predicate;
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Lists;
-
 import org.joda.time.DateMidnight;
 import org.joda.time.chrono.GregorianChronology;
 import org.joda.time.format.DateTimeFormat;
@@ -30,6 +26,7 @@ import org.synyx.urlaubsverwaltung.DateFormat;
 import org.synyx.urlaubsverwaltung.core.account.Account;
 import org.synyx.urlaubsverwaltung.core.account.AccountService;
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationSortOrder;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.application.domain.Comment;
 import org.synyx.urlaubsverwaltung.core.application.domain.OverlapCase;
@@ -38,6 +35,8 @@ import org.synyx.urlaubsverwaltung.core.application.service.ApplicationInteracti
 import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
 import org.synyx.urlaubsverwaltung.core.application.service.CalculationService;
 import org.synyx.urlaubsverwaltung.core.application.service.CommentService;
+import org.synyx.urlaubsverwaltung.core.application.service.DaysPerYearService;
+import org.synyx.urlaubsverwaltung.core.application.service.LeftVacationDays;
 import org.synyx.urlaubsverwaltung.core.application.service.OverlapService;
 import org.synyx.urlaubsverwaltung.core.mail.MailService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
@@ -74,6 +73,12 @@ import java.util.Map;
 @Controller
 public class ApplicationController {
 
+    private static final String SORT = "sort";
+    private static final String ASCENDING = "asc";
+    private static final String AFTER = "after";
+
+    private static final int PAGE_SIZE = 50;
+
     @Autowired
     private PersonService personService;
 
@@ -89,6 +94,9 @@ public class ApplicationController {
     @Autowired
     private CalculationService calculationService;
 
+    @Autowired
+    private DaysPerYearService daysPerYearService;
+
     @Autowired
     private AccountService accountService;
 
@@ -132,68 +140,32 @@ public class ApplicationController {
 
 
     /**
-     * Show all applications for leave, not dependent on their status.
+     * Show all applications for leave, not dependent on their status, sorted and paged by the database.
      *
      * @param  year  if not given, the current year is used to display applications for leave for
+     * @param  sortOrder  to sort the applications for leave by
+     * @param  ascending  true to sort ascending, false to sort descending
+     * @param  after  id of the last application for leave of the previous page, not given for the first page
      * @param  model
      *
-     * @return  all applications for leave for the given year or for the current year if no year is given
+     * @return  a page of all applications for leave for the given year or for the current year if no year is given
      */
     @RequestMapping(value = "/all", method = RequestMethod.GET)
-    public String showAll(@RequestParam(value = ControllerConstants.YEAR, required = false) Integer year, Model model) {
+    public String showAll(@RequestParam(value = ControllerConstants.YEAR, required = false) Integer year,
+        @RequestParam(value = SORT, defaultValue = "START_DATE") ApplicationSortOrder sortOrder,
+        @RequestParam(value = ASCENDING, defaultValue = "true") boolean ascending,
+        @RequestParam(value = AFTER, required = false) Integer after, Model model) {
 
         if (sessionService.isBoss() || sessionService.isOffice()) {
             int yearToDisplay = year == null ? DateMidnight.now().getYear() : year;
 
-            List<Application> applicationsForLeave = getAllRelevantApplicationsForLeave(yearToDisplay);
-
-            model.addAttribute(ControllerConstants.APPLICATIONS, applicationsForLeave);
-            model.addAttribute(PersonConstants.GRAVATAR_URLS, getAllRelevantGravatarUrls(applicationsForLeave));
-            model.addAttribute(PersonConstants.LOGGED_USER, sessionService.getLoggedUser());
-            model.addAttribute("titleApp", "applications.all");
-            model.addAttribute(ControllerConstants.YEAR, DateMidnight.now().getYear());
-            model.addAttribute("filterRequest", new FilterRequest());
-
-            return ControllerConstants.APPLICATION + "/app_list";
+            return prepareRelevantApplicationsForLeave(null, yearToDisplay, sortOrder, ascending, after, model);
         } else {
             return ControllerConstants.ERROR_JSP;
         }
     }
 
 
-    /**
-     * Get all relevant applications for leave, i.e. not cancelled applications for leave and cancelled but formerly
-     * allowed applications for leave.
-     *
-     * @param  year  to get applications for leave for
-     *
-     * @return  all relevant applications for leave
-     */
-    private List<Application> getAllRelevantApplicationsForLeave(int year) {
-
-        DateMidnight firstDay = DateUtil.getFirstDayOfYear(year);
-        DateMidnight lastDay = DateUtil.getLastDayOfYear(year);
-
-        List<Application> applications = applicationService.getApplicationsForACertainPeriod(firstDay, lastDay);
-
-        List<Application> filteredApplications = Lists.newArrayList(Iterables.filter(applications,
-                    new Predicate<Application>() {
-
-                        @Override
-                        public boolean apply(Application application) {
-
-                            boolean isNotCancelled = !application.hasStatus(ApplicationStatus.CANCELLED);
-                            boolean isCancelledButWasAllowed = application.hasStatus(ApplicationStatus.CANCELLED)
-                                && application.isFormerlyAllowed();
-
-                            return isNotCancelled || isCancelledButWasAllowed;
-                        }
-                    }));
-
-        return filteredApplications;
-    }
-
-
     /**
      * Get all gravatar urls for the persons of the given applications for leave.
      *
@@ -218,69 +190,77 @@ public class ApplicationController {
 
 
     /**
-     * Show waiting applications for leave.
+     * Show waiting applications for leave, sorted and paged by the database.
      *
      * @param  year  if not given, the current year is used to display applications for leave for
+     * @param  sortOrder  to sort the applications for leave by
+     * @param  ascending  true to sort ascending, false to sort descending
+     * @param  after  id of the last application for leave of the previous page, not given for the first page
      * @param  model
      *
-     * @return  waiting applications for leave for the given year or for the current year if no year is given
+     * @return  a page of waiting applications for leave for the given year or for the current year if no year is given
      */
     @RequestMapping(value = "/waiting", method = RequestMethod.GET)
     public String showWaiting(@RequestParam(value = ControllerConstants.YEAR, required = false) Integer year,
-        Model model) {
+        @RequestParam(value = SORT, defaultValue = "START_DATE") ApplicationSortOrder sortOrder,
+        @RequestParam(value = ASCENDING, defaultValue = "true") boolean ascending,
+        @RequestParam(value = AFTER, required = false) Integer after, Model model) {
 
         if (sessionService.isBoss() || sessionService.isOffice()) {
             int yearToDisplay = year == null ? DateMidnight.now().getYear() : year;
 
-            return prepareRelevantApplicationsForLeave(ApplicationStatus.WAITING, yearToDisplay, model);
+            return prepareRelevantApplicationsForLeave(ApplicationStatus.WAITING, yearToDisplay, sortOrder,
+                    ascending, after, model);
         } else {
             return ControllerConstants.ERROR_JSP;
         }
     }
 
 
-    private String prepareRelevantApplicationsForLeave(ApplicationStatus status, int year, Model model) {
+    /**
+     * Prepares one page of the relevant applications for leave of the given status, i.e. for cancelled status only the
+     * formerly allowed applications for leave and for no given status all not cancelled and all formerly allowed
+     * applications for leave. One more application for leave than shown is loaded to know if there is a next page.
+     */
+    private String prepareRelevantApplicationsForLeave(ApplicationStatus status, int year,
+        ApplicationSortOrder sortOrder, boolean ascending, Integer after, Model model) {
 
-        String title = "";
+        String title = "applications.all";
+        String listUrl = "all";
 
-        if (status == ApplicationStatus.WAITING) {
-            title = "applications.waiting";
-        } else if (status == ApplicationStatus.ALLOWED) {
-            title = "applications.allowed";
-        } else if (status == ApplicationStatus.CANCELLED) {
-            title = "applications.cancelled";
-        } else if (status == ApplicationStatus.REJECTED) {
-            title = "applications.rejected";
+        if (status != null) {
+            title = "applications." + status.name().toLowerCase();
+            listUrl = status.name().toLowerCase();
         }
 
         DateMidnight firstDay = DateUtil.getFirstDayOfYear(year);
         DateMidnight lastDay = DateUtil.getLastDayOfYear(year);
 
-        List<Application> applicationsToBeShown;
-
-        List<Application> applications = applicationService.getApplicationsForACertainPeriodAndState(firstDay, lastDay,
-                status);
+        List<Application> applications;
 
-        // only formerly allowed applications for leave are relevant for cancelled status
-        if (status == ApplicationStatus.CANCELLED) {
-            applicationsToBeShown = Lists.newArrayList(Iterables.filter(applications, new Predicate<Application>() {
+        try {
+            applications = applicationService.getApplicationsPage(firstDay, lastDay, status, sortOrder, ascending,
+                    after, PAGE_SIZE + 1);
+        } catch (IllegalArgumentException ex) {
+            // unknown application for leave of the previous page
+            return ControllerConstants.ERROR_JSP;
+        }
 
-                            @Override
-                            public boolean apply(Application application) {
+        Integer nextApplication = null;
 
-                                return application.isFormerlyAllowed();
-                            }
-                        }));
-        } else {
-            applicationsToBeShown = applications;
+        if (applications.size() > PAGE_SIZE) {
+            applications = applications.subList(0, PAGE_SIZE);
+            nextApplication = applications.get(PAGE_SIZE - 1).getId();
         }
 
-        Map<Application, String> gravatarUrls = getAllRelevantGravatarUrls(applicationsToBeShown);
-
-        model.addAttribute(PersonConstants.GRAVATAR_URLS, gravatarUrls);
-        model.addAttribute(ControllerConstants.APPLICATIONS, applicationsToBeShown);
+        model.addAttribute(PersonConstants.GRAVATAR_URLS, getAllRelevantGravatarUrls(applications));
+        model.addAttribute(ControllerConstants.APPLICATIONS, applications);
         model.addAttribute(PersonConstants.LOGGED_USER, sessionService.getLoggedUser());
         model.addAttribute("titleApp", title);
+        model.addAttribute("listUrl", listUrl);
+        model.addAttribute(SORT, sortOrder);
+        model.addAttribute(ASCENDING, ascending);
+        model.addAttribute("nextApplication", nextApplication);
         model.addAttribute(ControllerConstants.YEAR, DateMidnight.now().getYear());
         model.addAttribute("filterRequest", new FilterRequest());
 
@@ -289,21 +269,27 @@ public class ApplicationController {
 
 
     /**
-     * Show allowed applications for leave.
+     * Show allowed applications for leave, sorted and paged by the database.
      *
      * @param  year  if not given, the current year is used to display applications for leave for
+     * @param  sortOrder  to sort the applications for leave by
+     * @param  ascending  true to sort ascending, false to sort descending
+     * @param  after  id of the last application for leave of the previous page, not given for the first page
      * @param  model
      *
-     * @return  allowed applications for leave for the given year or for the current year if no year is given
+     * @return  a page of allowed applications for leave for the given year or for the current year if no year is given
      */
     @RequestMapping(value = "/allowed", method = RequestMethod.GET)
     public String showAllowed(@RequestParam(value = ControllerConstants.YEAR, required = false) Integer year,
-        Model model) {
+        @RequestParam(value = SORT, defaultValue = "START_DATE") ApplicationSortOrder sortOrder,
+        @RequestParam(value = ASCENDING, defaultValue = "true") boolean ascending,
+        @RequestParam(value = AFTER, required = false) Integer after, Model model) {
 
         if (sessionService.isBoss() || sessionService.isOffice()) {
             int yearToDisplay = year == null ? DateMidnight.now().getYear() : year;
 
-            return prepareRelevantApplicationsForLeave(ApplicationStatus.ALLOWED, yearToDisplay, model);
+            return prepareRelevantApplicationsForLeave(ApplicationStatus.ALLOWED, yearToDisplay, sortOrder,
+                    ascending, after, model);
         } else {
             return ControllerConstants.ERROR_JSP;
         }
@@ -311,21 +297,28 @@ public class ApplicationController {
 
 
     /**
-     * Show cancelled applications for leave.
+     * Show cancelled applications for leave, sorted and paged by the database.
      *
      * @param  year  if not given, the current year is used to display applications for leave for
+     * @param  sortOrder  to sort the applications for leave by
+     * @param  ascending  true to sort ascending, false to sort descending
+     * @param  after  id of the last application for leave of the previous page, not given for the first page
      * @param  model
      *
-     * @return  cancelled applications for leave for the given year or for the current year if no year is given
+     * @return  a page of cancelled applications for leave for the given year or for the current year if no year is
+     *          given
      */
     @RequestMapping(value = "/cancelled", method = RequestMethod.GET)
     public String showCancelled(@RequestParam(value = ControllerConstants.YEAR, required = false) Integer year,
-        Model model) {
+        @RequestParam(value = SORT, defaultValue = "START_DATE") ApplicationSortOrder sortOrder,
+        @RequestParam(value = ASCENDING, defaultValue = "true") boolean ascending,
+        @RequestParam(value = AFTER, required = false) Integer after, Model model) {
 
         if (sessionService.isBoss() || sessionService.isOffice()) {
             int yearToDisplay = year == null ? DateMidnight.now().getYear() : year;
 
-            return prepareRelevantApplicationsForLeave(ApplicationStatus.CANCELLED, yearToDisplay, model);
+            return prepareRelevantApplicationsForLeave(ApplicationStatus.CANCELLED, yearToDisplay, sortOrder,
+                    ascending, after, model);
         } else {
             return ControllerConstants.ERROR_JSP;
         }
@@ -333,21 +326,27 @@ public class ApplicationController {
 
 
     /**
-     * Show rejected applications for leave.
+     * Show rejected applications for leave, sorted and paged by the database.
      *
      * @param  year  if not given, the current year is used to display applications for leave for
+     * @param  sortOrder  to sort the applications for leave by
+     * @param  ascending  true to sort ascending, false to sort descending
+     * @param  after  id of the last application for leave of the previous page, not given for the first page
      * @param  model
      *
-     * @return  rejected applications for leave for the given year or for the current year if no year is given
+     * @return  a page of rejected applications for leave for the given year or for the current year if no year is given
      */
     @RequestMapping(value = "/rejected", method = RequestMethod.GET)
     public String showRejected(@RequestParam(value = ControllerConstants.YEAR, required = false) Integer year,
-        Model model) {
+        @RequestParam(value = SORT, defaultValue = "START_DATE") ApplicationSortOrder sortOrder,
+        @RequestParam(value = ASCENDING, defaultValue = "true") boolean ascending,
+        @RequestParam(value = AFTER, required = false) Integer after, Model model) {
 
         if (sessionService.isBoss() || sessionService.isOffice()) {
             int yearToDisplay = year == null ? DateMidnight.now().getYear() : year;
 
-            return prepareRelevantApplicationsForLeave(ApplicationStatus.REJECTED, yearToDisplay, model);
+            return prepareRelevantApplicationsForLeave(ApplicationStatus.REJECTED, yearToDisplay, sortOrder,
+                    ascending, after, model);
         } else {
             return ControllerConstants.ERROR_JSP;
         }
@@ -476,10 +475,10 @@ public class ApplicationController {
 
         Application application = appForm.createApplicationObject();
 
-        BigDecimal days = applicationInteractionService.getNumberOfVacationDays(application);
+        applicationInteractionService.setNumberOfVacationDays(application);
 
         // ensure that no one applies for leave for a vacation of 0 days
-        if (CalcUtil.isZero(days)) {
+        if (CalcUtil.isZero(application.getDays())) {
             errors.reject("check.zero");
 
             return false;
@@ -686,6 +685,9 @@ public class ApplicationController {
             if (errors.hasErrors()) {
                 redirectAttributes.addFlashAttribute("errors", errors);
                 redirectAttributes.addFlashAttribute("action", "allow");
+            } else if (overlapService.checkOverlap(application) != OverlapCase.NO_OVERLAPPING) {
+                // another application for leave of the same period has been applied for since this one
+                redirectAttributes.addFlashAttribute("allowOverlap", true);
             } else {
                 applicationInteractionService.allow(application, boss, comment);
                 redirectAttributes.addFlashAttribute("allowSuccess", true);
@@ -885,6 +887,14 @@ public class ApplicationController {
 
             Map<Person, BigDecimal> leftVacationDays = new HashMap<>();
 
+            // the statistics are calculated for the year of the period, only the days of applications for leave
+            // spanning the turn of the year that are within this year are counted
+            int year = fromDate.getYear();
+
+            // left vacation days of all persons are calculated at once
+            Map<Person, LeftVacationDays> leftVacationDaysOfPersons = calculationService.calculateLeftVacationDays(
+                    year, persons);
+
             for (Person person : persons) {
                 String gravatarUrl = GravatarUtil.createImgURL(person.getEmail());
 
@@ -892,32 +902,34 @@ public class ApplicationController {
                     gravatarUrls.put(person, gravatarUrl);
                 }
 
-                Account account = accountService.getHolidaysAccount(fromDate.getYear(), person);
+                LeftVacationDays leftVacationDaysOfPerson = leftVacationDaysOfPersons.get(person);
 
-                if (account != null) {
-                    BigDecimal vacationDaysLeft = calculationService.calculateTotalLeftVacationDays(account);
-                    leftVacationDays.put(person, vacationDaysLeft);
+                if (leftVacationDaysOfPerson != null) {
+                    leftVacationDays.put(person, leftVacationDaysOfPerson.getTotalLeftVacationDays());
                 }
 
                 List<Application> waitingApplications =
                     applicationService.getApplicationsForACertainPeriodAndPersonAndState(fromDate, toDate, person,
                         ApplicationStatus.WAITING);
 
+                daysPerYearService.ensureDaysPerYear(waitingApplications);
+
                 BigDecimal numberOfWaitingDays = BigDecimal.ZERO;
 
                 for (Application waitingApplication : waitingApplications) {
-                    // TODO: It's not so easy....days of application are not correct if the application spans two years
-                    numberOfWaitingDays = numberOfWaitingDays.add(waitingApplication.getDays());
+                    numberOfWaitingDays = numberOfWaitingDays.add(waitingApplication.getDaysInYear(year));
                 }
 
                 List<Application> allowedApplications =
                     applicationService.getApplicationsForACertainPeriodAndPersonAndState(fromDate, toDate, person,
                         ApplicationStatus.ALLOWED);
 
+                daysPerYearService.ensureDaysPerYear(allowedApplications);
+
                 BigDecimal numberOfAllowedDays = BigDecimal.ZERO;
 
                 for (Application allowedApplication : allowedApplications) {
-                    numberOfAllowedDays = numberOfAllowedDays.add(allowedApplication.getDays());
+                    numberOfAllowedDays = numberOfAllowedDays.add(allowedApplication.getDaysInYear(year));
                 }
 
                 waitingVacationDays.put(person, numberOfWaitingDays);
@@ -1,11 +1,14 @@
 package org.synyx.urlaubsverwaltung.web.application;
 
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+import org.synyx.urlaubsverwaltung.core.util.HalfDayUtil;
 
 import java.math.BigDecimal;
 
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 
 /**
@@ -15,33 +18,46 @@ import java.util.Map;
  */
 public class UsedDays {
 
-    private final Map<String, BigDecimal> days;
+    private final Set<ApplicationStatus> status;
+
+    // number of half days, indexed by the ordinal of the application status
+    private final long[] halfDays;
 
     public UsedDays(ApplicationStatus... status) {
 
-        days = new HashMap<>();
+        this.status = EnumSet.noneOf(ApplicationStatus.class);
+        this.halfDays = new long[ApplicationStatus.values().length];
 
         for (ApplicationStatus applicationStatus : status) {
-            days.put(applicationStatus.name(), BigDecimal.ZERO);
+            this.status.add(applicationStatus);
         }
     }
 
     public Map<String, BigDecimal> getDays() {
 
+        Map<String, BigDecimal> days = new HashMap<>();
+
+        for (ApplicationStatus applicationStatus : status) {
+            days.put(applicationStatus.name(), HalfDayUtil.toDays(halfDays[applicationStatus.ordinal()]));
+        }
+
         return days;
     }
 
 
     public void addDays(ApplicationStatus status, BigDecimal days) {
 
-        String statusAsString = status.name();
+        addHalfDays(status, HalfDayUtil.toHalfDays(days));
+    }
+
+
+    public void addHalfDays(ApplicationStatus status, long halfDays) {
 
-        if (!this.days.containsKey(statusAsString)) {
+        if (!this.status.contains(status)) {
             // this status has not been used in initialization, so it's not supported here
-            throw new UnsupportedOperationException("Application status " + statusAsString + " not allowed here");
+            throw new UnsupportedOperationException("Application status " + status.name() + " not allowed here");
         }
 
-        BigDecimal addedDays = this.days.get(statusAsString).add(days);
-        this.days.put(statusAsString, addedDays);
+        this.halfDays[status.ordinal()] += halfDays;
     }
 }
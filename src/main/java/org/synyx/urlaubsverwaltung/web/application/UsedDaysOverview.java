@@ -1,15 +1,10 @@
 package org.synyx.urlaubsverwaltung.web.application;
 
-import org.joda.time.DateMidnight;
-
 import org.springframework.util.Assert;
 
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
-import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
 import org.synyx.urlaubsverwaltung.core.application.domain.VacationType;
-import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
-import org.synyx.urlaubsverwaltung.core.person.Person;
 
 import java.math.BigDecimal;
 
@@ -31,7 +26,7 @@ public class UsedDaysOverview {
     // used days for all the other vacation types except HOLIDAY
     private final UsedDays otherDays;
 
-    public UsedDaysOverview(List<Application> applications, int year, OwnCalendarService calendarService) {
+    public UsedDaysOverview(List<Application> applications, int year) {
 
         this.year = year;
         this.holidayDays = new UsedDays(ApplicationStatus.WAITING, ApplicationStatus.ALLOWED);
@@ -41,62 +36,36 @@ public class UsedDaysOverview {
             ApplicationStatus status = application.getStatus();
 
             if (ApplicationStatus.WAITING.equals(status) || ApplicationStatus.ALLOWED.equals(status)) {
-                BigDecimal days;
-
                 int yearOfStartDate = application.getStartDate().getYear();
                 int yearOfEndDate = application.getEndDate().getYear();
 
                 Assert.isTrue(yearOfStartDate == this.year || yearOfEndDate == this.year,
                     "Either start date or end date must be in the given year.");
 
-                if (yearOfStartDate != yearOfEndDate) {
-                    DateMidnight startDate = getStartDateForCalculation(application);
-                    DateMidnight endDate = getEndDateForCalculation(application);
-                    DayLength dayLength = application.getHowLong();
-                    Person person = application.getPerson();
-
-                    days = calendarService.getWorkDays(dayLength, startDate, endDate, person);
-                } else {
-                    days = application.getDays();
-                }
-
-                if (VacationType.HOLIDAY.equals(application.getVacationType())) {
-                    this.holidayDays.addDays(status, days);
-                } else {
-                    this.otherDays.addDays(status, days);
-                }
+                // applications spanning two years know their number of days per year
+                addDays(application, application.getDaysInYear(this.year));
             }
         }
     }
 
-    public UsedDays getHolidayDays() {
-
-        return holidayDays;
-    }
-
+    private void addDays(Application application, BigDecimal days) {
 
-    public UsedDays getOtherDays() {
-
-        return otherDays;
+        if (VacationType.HOLIDAY.equals(application.getVacationType())) {
+            this.holidayDays.addDays(application.getStatus(), days);
+        } else {
+            this.otherDays.addDays(application.getStatus(), days);
+        }
     }
 
 
-    private DateMidnight getStartDateForCalculation(Application application) {
+    public UsedDays getHolidayDays() {
 
-        if (application.getStartDate().getYear() == this.year) {
-            return application.getStartDate();
-        } else {
-            return application.getEndDate().dayOfYear().withMinimumValue(); // 1st January
-        }
+        return holidayDays;
     }
 
 
-    private DateMidnight getEndDateForCalculation(Application application) {
+    public UsedDays getOtherDays() {
 
-        if (application.getEndDate().getYear() == this.year) {
-            return application.getEndDate();
-        } else {
-            return application.getStartDate().dayOfYear().withMaximumValue(); // 31st December
-        }
+        return otherDays;
     }
 }
@@ -15,8 +15,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 
 import org.synyx.urlaubsverwaltung.DateFormat;
 import org.synyx.urlaubsverwaltung.core.account.Account;
-import org.synyx.urlaubsverwaltung.core.account.AccountService;
 import org.synyx.urlaubsverwaltung.core.application.service.CalculationService;
+import org.synyx.urlaubsverwaltung.core.application.service.LeftVacationDays;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
 import org.synyx.urlaubsverwaltung.core.util.DateUtil;
@@ -47,9 +47,6 @@ public class PersonController {
     @Autowired
     private PersonService personService;
 
-    @Autowired
-    private AccountService accountService;
-
     @Autowired
     private CalculationService calculationService;
 
@@ -175,11 +172,13 @@ public class PersonController {
         String url;
 
         Map<Person, Account> accounts = new HashMap<Person, Account>();
-        Account account;
 
         Map<Person, BigDecimal> leftDays = new HashMap<Person, BigDecimal>();
         Map<Person, BigDecimal> remLeftDays = new HashMap<Person, BigDecimal>();
 
+        // accounts and left days of all persons are calculated at once
+        Map<Person, LeftVacationDays> leftVacationDays = calculationService.calculateLeftVacationDays(year, persons);
+
         for (Person person : persons) {
             // get url of person's gravatar image
             url = GravatarUtil.createImgURL(person.getEmail());
@@ -188,17 +187,12 @@ public class PersonController {
                 gravatarUrls.put(person, url);
             }
 
-            // get person's account
-            account = accountService.getHolidaysAccount(year, person);
-
-            if (account != null) {
-                accounts.put(person, account);
-
-                BigDecimal vacationDaysLeft = calculationService.calculateLeftVacationDays(account);
-                leftDays.put(person, vacationDaysLeft);
+            LeftVacationDays leftVacationDaysOfPerson = leftVacationDays.get(person);
 
-                BigDecimal remVacationDaysLeft = calculationService.calculateLeftRemainingVacationDays(account);
-                remLeftDays.put(person, remVacationDaysLeft);
+            if (leftVacationDaysOfPerson != null) {
+                accounts.put(person, leftVacationDaysOfPerson.getAccount());
+                leftDays.put(person, leftVacationDaysOfPerson.getLeftVacationDays());
+                remLeftDays.put(person, leftVacationDaysOfPerson.getLeftRemainingVacationDays());
             }
         }
 
@@ -25,6 +25,7 @@ import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
 import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
 import org.synyx.urlaubsverwaltung.core.application.service.CalculationService;
+import org.synyx.urlaubsverwaltung.core.application.service.DaysPerYearService;
 import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
@@ -67,6 +68,9 @@ public class PersonalOverviewController {
     @Autowired
     private ApplicationService applicationService;
 
+    @Autowired
+    private DaysPerYearService daysPerYearService;
+
     @Autowired
     private OwnCalendarService calendarService;
 
@@ -260,7 +264,9 @@ public class PersonalOverviewController {
 
             model.addAttribute(ControllerConstants.APPLICATIONS, applications);
 
-            UsedDaysOverview usedDaysOverview = new UsedDaysOverview(applications, year, calendarService);
+            daysPerYearService.ensureDaysPerYear(applications);
+
+            UsedDaysOverview usedDaysOverview = new UsedDaysOverview(applications, year);
             model.addAttribute("usedDaysOverview", usedDaysOverview);
         }
     }
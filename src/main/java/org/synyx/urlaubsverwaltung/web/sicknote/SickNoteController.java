@@ -25,6 +25,7 @@ import org.synyx.urlaubsverwaltung.DateFormat;
 import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
 import org.synyx.urlaubsverwaltung.core.application.domain.VacationType;
 import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
+import org.synyx.urlaubsverwaltung.core.calendar.WorkDaysRequest;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
 import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
@@ -46,6 +47,7 @@ import org.synyx.urlaubsverwaltung.web.validator.SickNoteValidator;
 
 import java.math.BigDecimal;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -192,31 +194,41 @@ public class SickNoteController {
             gravatars.put(person, GravatarUtil.createImgURL(person.getEmail()));
         }
 
+        // the workdays of all AUB periods are calculated at once
+        List<SickNote> sickNotesWithAUB = new ArrayList<>();
+        List<WorkDaysRequest> aubRequests = new ArrayList<>();
+
         for (SickNote sickNote : sickNotes) {
             Person person = sickNote.getPerson();
 
             if (sickNote.getType().equals(SickNoteType.SICK_NOTE_CHILD)) {
                 BigDecimal currentChildSickDays = childSickDays.get(person);
                 childSickDays.put(person, currentChildSickDays.add(sickNote.getWorkDays()));
-
-                if (sickNote.isAubPresent()) {
-                    BigDecimal workDays = calendarService.getWorkDays(DayLength.FULL, sickNote.getAubStartDate(),
-                            sickNote.getAubEndDate(), person);
-
-                    BigDecimal currentChildSickDaysWithAUB = childSickDaysWithAUB.get(person);
-                    childSickDaysWithAUB.put(person, currentChildSickDaysWithAUB.add(workDays));
-                }
             } else {
                 BigDecimal currentSickDays = sickDays.get(person);
                 sickDays.put(person, currentSickDays.add(sickNote.getWorkDays()));
+            }
 
-                if (sickNote.isAubPresent()) {
-                    BigDecimal workDays = calendarService.getWorkDays(DayLength.FULL, sickNote.getAubStartDate(),
-                            sickNote.getAubEndDate(), person);
+            if (sickNote.isAubPresent()) {
+                sickNotesWithAUB.add(sickNote);
+                aubRequests.add(new WorkDaysRequest(person, DayLength.FULL, sickNote.getAubStartDate(),
+                        sickNote.getAubEndDate()));
+            }
+        }
 
-                    BigDecimal currentSickDaysWithAUB = sickDaysWithAUB.get(person);
-                    sickDaysWithAUB.put(person, currentSickDaysWithAUB.add(workDays));
-                }
+        List<BigDecimal> aubWorkDays = calendarService.getWorkDays(aubRequests);
+
+        for (int i = 0; i < sickNotesWithAUB.size(); i++) {
+            SickNote sickNote = sickNotesWithAUB.get(i);
+            Person person = sickNote.getPerson();
+            BigDecimal workDays = aubWorkDays.get(i);
+
+            if (sickNote.getType().equals(SickNoteType.SICK_NOTE_CHILD)) {
+                BigDecimal currentChildSickDaysWithAUB = childSickDaysWithAUB.get(person);
+                childSickDaysWithAUB.put(person, currentChildSickDaysWithAUB.add(workDays));
+            } else {
+                BigDecimal currentSickDaysWithAUB = sickDaysWithAUB.get(person);
+                sickDaysWithAUB.put(person, currentSickDaysWithAUB.add(workDays));
             }
         }
 
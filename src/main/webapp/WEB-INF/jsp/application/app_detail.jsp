@@ -64,6 +64,11 @@
                                     <spring:message code="application.action.reason.error" />
                                 </div>
                             </c:when>
+                            <c:when test="${allowOverlap == true}">
+                                <div class="alert alert-danger">
+                                    <spring:message code="check.overlap" />
+                                </div>
+                            </c:when>
                             <c:when test="${allowSuccess == true}">
                                 <div class="alert alert-success">
                                     <spring:message code="application.action.allow.success" />
@@ -17,37 +17,25 @@
 
     <c:otherwise>
 
-        <script type="text/javascript">
-            $(document).ready(function() {
-
-                $("table.sortable").tablesorter({
-                    sortList: [[2,0]],
-                    headers: {
-                        2: { sorter: 'germanDate' },
-                        3: { sorter: 'commaNumber' }
-                    },
-                    textExtraction: function(node) {
-
-                        var sortable = $(node).find(".sortable");
-
-                        if(sortable.length > 0) {
-                            return sortable[0].innerHTML;
-                        }
-
-                        return node.innerHTML;
-                    }
-                });
-
-            });
-        </script>
-
-        <table class="list-table selectable-table sortable tablesorter" cellspacing="0">
+        <table class="list-table selectable-table" cellspacing="0">
             <thead class="hidden-xs hidden-sm">
             <tr>
                 <th><%-- placeholder to ensure correct number of th --%></th>
-                <th class="sortable-field"><spring:message code="staff" /></th>
-                <th class="sortable-field"><spring:message code="time" /></th>
-                <th class="sortable-field"><spring:message code="days.vac" /></th>
+                <th class="sortable-field">
+                    <a href="${linkPrefix}/${listUrl}?year=${displayYear}&sort=PERSON&asc=${sort != 'PERSON' || !asc}">
+                        <spring:message code="staff" />
+                    </a>
+                </th>
+                <th class="sortable-field">
+                    <a href="${linkPrefix}/${listUrl}?year=${displayYear}&sort=START_DATE&asc=${sort != 'START_DATE' || !asc}">
+                        <spring:message code="time" />
+                    </a>
+                </th>
+                <th class="sortable-field">
+                    <a href="${linkPrefix}/${listUrl}?year=${displayYear}&sort=DAYS&asc=${sort != 'DAYS' || !asc}">
+                        <spring:message code="days.vac" />
+                    </a>
+                </th>
                 <th class="visible-print"><%-- placeholder to ensure correct number of th --%></th>
                 <th><%-- placeholder to ensure correct number of th --%></th>
             </tr>
@@ -68,7 +56,7 @@
                     </td>
                     <td>
                         <h5 class="is-inline-block hidden-xs hidden-print" style="line-height: 60px; vertical-align: middle">
-                            <a class="sortable" href="${URL_PREFIX}/staff/${app.person.id}/overview">
+                            <a href="${URL_PREFIX}/staff/${app.person.id}/overview">
                                 <c:out value="${app.person.niceName}"/>
                             </a>
                         </h5>
@@ -83,7 +71,7 @@
                             <spring:message code="${app.vacationType}"/>
                         </h4>
 
-                        <p class="sortable">
+                        <p>
                             <c:choose>
                                 <c:when test="${app.startDate == app.endDate}">
                                     <uv:date date="${app.startDate}"/>, <spring:message
@@ -97,7 +85,7 @@
                     </td>
                     <td class="hidden-xs">
                         <span>
-                            <span class="sortable"><uv:number number="${app.days}" /></span> Tage
+                            <uv:number number="${app.days}" /> Tage
                         </span>
                     </td>
                     <td class="visible-print">
@@ -126,6 +114,13 @@
             </c:forEach>
             </tbody>
         </table>
+
+        <c:if test="${nextApplication != null}">
+            <a class="btn btn-default pull-right hidden-print"
+               href="${linkPrefix}/${listUrl}?year=${displayYear}&sort=${sort}&asc=${asc}&after=${nextApplication}">
+                <spring:message code="applications.page.next" />&nbsp;<i class="fa fa-arrow-right"></i>
+            </a>
+        </c:if>
     </c:otherwise>
 </c:choose>  
 
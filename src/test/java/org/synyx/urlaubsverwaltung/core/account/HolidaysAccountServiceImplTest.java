@@ -10,6 +10,9 @@ import org.junit.Test;
 
 import org.mockito.Mockito;
 
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+import org.synyx.urlaubsverwaltung.core.cache.CacheRegistry;
 import org.synyx.urlaubsverwaltung.core.calendar.JollydayCalendar;
 import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
 import org.synyx.urlaubsverwaltung.core.calendar.workingtime.WorkingTimeService;
@@ -17,8 +20,12 @@ import org.synyx.urlaubsverwaltung.core.person.Person;
 
 import java.io.IOException;
 
+import java.lang.reflect.Field;
+
 import java.math.BigDecimal;
 
+import java.util.Date;
+
 
 /**
  * Unit test for {@link AccountServiceImpl}.
@@ -40,7 +47,7 @@ public class HolidaysAccountServiceImplTest {
 
         WorkingTimeService workingTimeService = Mockito.mock(WorkingTimeService.class);
         calendarService = new OwnCalendarService(new JollydayCalendar(), workingTimeService);
-        service = new AccountServiceImpl(accountDAO, calendarService);
+        service = new AccountServiceImpl(accountDAO, calendarService, new CacheRegistry(100, 10));
 
         person = new Person();
         person.setLoginName("horscht");
@@ -56,7 +63,9 @@ public class HolidaysAccountServiceImplTest {
     @Test
     public void testGetAccount() {
 
-        Mockito.when(accountDAO.getHolidaysAccountByYearAndPerson(2012, person)).thenReturn(account);
+        Mockito.when(accountDAO.getHolidaysAccountByValidFromAndPerson(
+                new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), person)).thenReturn(account);
 
         Account result = service.getHolidaysAccount(2012, person);
 
@@ -207,11 +216,85 @@ public class HolidaysAccountServiceImplTest {
                 new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), BigDecimal.valueOf(28),
                 BigDecimal.valueOf(5), true);
 
-        Mockito.when(accountDAO.getHolidaysAccountByYearAndPerson(2012, person)).thenReturn(a);
+        Mockito.when(accountDAO.getHolidaysAccountByValidFromAndPerson(
+                new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), person)).thenReturn(a);
 
         service.getOrCreateNewAccount(2013, person);
 
         // show that a new account is created by verifying that save method was called
         Mockito.verify(accountDAO).save(Mockito.any(Account.class));
     }
+
+
+    @Test
+    public void ensureAccountIsLoadedOnlyOncePerPersonAndYearUntilAnAccountOfThePersonIsSaved() throws Exception {
+
+        setId(account, 1);
+
+        Person persistedPerson = Mockito.mock(Person.class);
+        Mockito.when(persistedPerson.getId()).thenReturn(42);
+
+        Date firstDayOfYear = new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate();
+        Date lastDayOfYear = new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate();
+
+        Mockito.when(accountDAO.getHolidaysAccountByValidFromAndPerson(firstDayOfYear, lastDayOfYear,
+                persistedPerson)).thenReturn(account);
+
+        Assert.assertEquals(account, service.getHolidaysAccount(2012, persistedPerson));
+        Assert.assertEquals(account, service.getHolidaysAccount(2012, persistedPerson));
+
+        // there is no account for the next year, which is cached too
+        Assert.assertNull(service.getHolidaysAccount(2013, persistedPerson));
+        Assert.assertNull(service.getHolidaysAccount(2013, persistedPerson));
+
+        Mockito.verify(accountDAO, Mockito.times(1)).getHolidaysAccountByValidFromAndPerson(firstDayOfYear,
+            lastDayOfYear, persistedPerson);
+        Mockito.verify(accountDAO, Mockito.times(1)).getHolidaysAccountByValidFromAndPerson(
+            new DateMidnight(2013, DateTimeConstants.JANUARY, 1).toDate(),
+            new DateMidnight(2013, DateTimeConstants.DECEMBER, 31).toDate(), persistedPerson);
+
+        account.setPerson(persistedPerson);
+        service.save(account);
+
+        Assert.assertEquals(account, service.getHolidaysAccount(2012, persistedPerson));
+
+        Mockito.verify(accountDAO, Mockito.times(2)).getHolidaysAccountByValidFromAndPerson(firstDayOfYear,
+            lastDayOfYear, persistedPerson);
+    }
+
+
+    @Test
+    public void ensureEveryCallerGetsItsOwnCopyOfACachedAccount() throws Exception {
+
+        setId(account, 1);
+        account.setVacationDays(BigDecimal.valueOf(20));
+
+        Person persistedPerson = Mockito.mock(Person.class);
+        Mockito.when(persistedPerson.getId()).thenReturn(42);
+
+        Mockito.when(accountDAO.getHolidaysAccountByValidFromAndPerson(Mockito.any(Date.class),
+                Mockito.any(Date.class), Mockito.eq(persistedPerson))).thenReturn(account);
+
+        Account changedAccount = service.getHolidaysAccount(2012, persistedPerson);
+        changedAccount.setRemainingVacationDays(BigDecimal.TEN);
+
+        Account otherAccount = service.getHolidaysAccount(2012, persistedPerson);
+
+        Assert.assertNotSame(changedAccount, otherAccount);
+        Assert.assertEquals(account.getId(), otherAccount.getId());
+        Assert.assertEquals(BigDecimal.valueOf(5), otherAccount.getRemainingVacationDays());
+        Assert.assertEquals(BigDecimal.valueOf(20), otherAccount.getVacationDays());
+        Assert.assertEquals(BigDecimal.valueOf(28), otherAccount.getAnnualVacationDays());
+        Assert.assertEquals(account.getValidFrom(), otherAccount.getValidFrom());
+        Assert.assertEquals(account.getValidTo(), otherAccount.getValidTo());
+    }
+
+
+    private static void setId(Account account, Integer id) throws Exception {
+
+        Field idField = AbstractPersistable.class.getDeclaredField("id");
+        idField.setAccessible(true);
+        idField.set(account, id);
+    }
 }
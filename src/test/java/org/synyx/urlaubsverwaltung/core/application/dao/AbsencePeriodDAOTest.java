@@ -0,0 +1,175 @@
+package org.synyx.urlaubsverwaltung.core.application.dao;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsencePeriod;
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsencePeriodHandler;
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.application.domain.VacationType;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
+
+import java.io.IOException;
+
+import java.lang.reflect.Field;
+
+import java.math.BigDecimal;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+
+/**
+ * Runs the cursors of {@link AbsencePeriodDAO} against an in memory H2 database, which does not accept the streaming
+ * fetch size of MySQL.
+ *
+ * @author  agent
+ */
+public class AbsencePeriodDAOTest {
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private AbsencePeriodDAO absencePeriodDAO;
+
+    private Date startDate;
+    private Date endDate;
+
+    private List<AbsencePeriod> periods;
+    private AbsencePeriodHandler handler;
+
+    @Before
+    public void setUp() throws Exception {
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("hibernate.connection.driver_class", "org.h2.Driver");
+        properties.put("hibernate.connection.url", "jdbc:h2:mem:absencePeriods;DB_CLOSE_DELAY=-1");
+        properties.put("hibernate.connection.username", "sa");
+        properties.put("hibernate.connection.password", "");
+        properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("hibernate.hbm2ddl.auto", "create-drop");
+
+        entityManagerFactory = Persistence.createEntityManagerFactory("urlaubsverwaltung", properties);
+
+        absencePeriodDAO = new AbsencePeriodDAO();
+
+        Field entityManagerFactoryField = AbsencePeriodDAO.class.getDeclaredField("entityManagerFactory");
+        entityManagerFactoryField.setAccessible(true);
+        entityManagerFactoryField.set(absencePeriodDAO, entityManagerFactory);
+
+        startDate = new DateMidnight(2014, DateTimeConstants.JANUARY, 1).toDate();
+        endDate = new DateMidnight(2014, DateTimeConstants.DECEMBER, 31).toDate();
+
+        createAbsences();
+
+        periods = new ArrayList<>();
+        handler = new AbsencePeriodHandler() {
+
+            @Override
+            public void handle(AbsencePeriod period) throws IOException {
+
+                periods.add(period);
+            }
+        };
+    }
+
+
+    private void createAbsences() {
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+
+        Person person = new Person("muster", "Muster", "Max", "muster@muster.de");
+        entityManager.persist(person);
+
+        DateMidnight day = new DateMidnight(2014, DateTimeConstants.MARCH, 3);
+
+        entityManager.persist(createApplication(person, day, DayLength.MORNING, ApplicationStatus.ALLOWED));
+        entityManager.persist(createApplication(person, day.plusDays(7), DayLength.FULL, ApplicationStatus.WAITING));
+        entityManager.persist(createApplication(person, day.minusYears(1), DayLength.FULL,
+                ApplicationStatus.ALLOWED));
+
+        SickNote sickNote = new SickNote();
+        sickNote.setPerson(person);
+        sickNote.setStartDate(day.plusDays(14));
+        sickNote.setEndDate(day.plusDays(15));
+        sickNote.setActive(true);
+        entityManager.persist(sickNote);
+
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+
+    private Application createApplication(Person person, DateMidnight day, DayLength dayLength,
+        ApplicationStatus status) {
+
+        Application application = new Application();
+        application.setPerson(person);
+        application.setApplier(person);
+        application.setStartDate(day);
+        application.setEndDate(day);
+        application.setHowLong(dayLength);
+        application.setDays(BigDecimal.ONE);
+        application.setVacationType(VacationType.HOLIDAY);
+        application.setStatus(status);
+
+        return application;
+    }
+
+
+    @After
+    public void tearDown() {
+
+        entityManagerFactory.close();
+    }
+
+
+    @Test
+    public void ensureScrollsTheApplicationsWithTheGivenStatusInThePeriod() throws IOException {
+
+        absencePeriodDAO.scrollApplicationsForACertainTimeAndState(startDate, endDate, ApplicationStatus.ALLOWED,
+            handler);
+
+        Assert.assertEquals("Wrong number of absence periods", 1, periods.size());
+
+        AbsencePeriod period = periods.get(0);
+
+        Assert.assertEquals(new DateMidnight(2014, DateTimeConstants.MARCH, 3), period.getStartDate());
+        Assert.assertEquals(new DateMidnight(2014, DateTimeConstants.MARCH, 3), period.getEndDate());
+        Assert.assertEquals(DayLength.MORNING, period.getDayLength());
+        Assert.assertEquals("muster", period.getLoginName());
+        Assert.assertEquals("muster@muster.de", period.getEmail());
+    }
+
+
+    @Test
+    public void ensureScrollsTheSickNotesInThePeriodAsFullDays() throws IOException {
+
+        absencePeriodDAO.scrollSickNotesForACertainTime(startDate, endDate, handler);
+
+        Assert.assertEquals("Wrong number of absence periods", 1, periods.size());
+
+        AbsencePeriod period = periods.get(0);
+
+        Assert.assertEquals(new DateMidnight(2014, DateTimeConstants.MARCH, 17), period.getStartDate());
+        Assert.assertEquals(new DateMidnight(2014, DateTimeConstants.MARCH, 18), period.getEndDate());
+        Assert.assertEquals(DayLength.FULL, period.getDayLength());
+        Assert.assertEquals("Max", period.getFirstName());
+        Assert.assertEquals("Muster", period.getLastName());
+    }
+}
@@ -0,0 +1,238 @@
+package org.synyx.urlaubsverwaltung.core.application.dao;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationSortOrder;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.application.domain.VacationType;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+
+import java.lang.reflect.Field;
+
+import java.math.BigDecimal;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+
+/**
+ * Runs the keyset paging of {@link ApplicationDAO#getApplicationsPage} against an in memory H2 database. Many
+ * applications for leave have the same sort values, so the pages have to be split within the ties.
+ *
+ * @author  agent
+ */
+public class ApplicationDAOPagingTest {
+
+    private static final int NUMBER_OF_APPLICATIONS = 17;
+
+    private static final int PAGE_SIZE = 3;
+
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+
+    private ApplicationDAO applicationDAO;
+
+    private Date startDate;
+    private Date endDate;
+
+    private Set<Integer> expectedIds;
+
+    @Before
+    public void setUp() throws Exception {
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("hibernate.connection.driver_class", "org.h2.Driver");
+        properties.put("hibernate.connection.url", "jdbc:h2:mem:applicationPaging;DB_CLOSE_DELAY=-1");
+        properties.put("hibernate.connection.username", "sa");
+        properties.put("hibernate.connection.password", "");
+        properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("hibernate.hbm2ddl.auto", "create-drop");
+
+        entityManagerFactory = Persistence.createEntityManagerFactory("urlaubsverwaltung", properties);
+        entityManager = entityManagerFactory.createEntityManager();
+
+        ApplicationDAOImpl customImplementation = new ApplicationDAOImpl();
+        Field entityManagerField = ApplicationDAOImpl.class.getDeclaredField("entityManager");
+        entityManagerField.setAccessible(true);
+        entityManagerField.set(customImplementation, entityManager);
+
+        applicationDAO = new JpaRepositoryFactory(entityManager).getRepository(ApplicationDAO.class,
+                customImplementation);
+
+        startDate = new DateMidnight(2014, DateTimeConstants.JANUARY, 1).toDate();
+        endDate = new DateMidnight(2014, DateTimeConstants.DECEMBER, 31).toDate();
+
+        createApplications();
+
+        entityManager.clear();
+    }
+
+
+    private void createApplications() {
+
+        entityManager.getTransaction().begin();
+
+        // two persons with the same name and one without first name
+        Person[] persons = { createPerson("muster", "Max"), createPerson("muster2", "Max"),
+            createPerson("anonym", null) };
+
+        BigDecimal[] days = { BigDecimal.ONE, new BigDecimal("2"), null };
+
+        DateMidnight day = new DateMidnight(2014, DateTimeConstants.MARCH, 3);
+
+        expectedIds = new HashSet<>();
+
+        for (int i = 0; i < NUMBER_OF_APPLICATIONS; i++) {
+            // the sort values are repeated with different periods, so that they do not correlate with the ID
+            Application application = new Application();
+            application.setPerson(persons[i % persons.length]);
+            application.setApplier(application.getPerson());
+            application.setStartDate(day.plusDays(i % 4));
+            application.setEndDate(day.plusDays(i % 4));
+            application.setHowLong(DayLength.FULL);
+            application.setDays(days[(i / 2) % days.length]);
+            application.setVacationType(VacationType.HOLIDAY);
+            application.setStatus(i % 5 == 0 ? ApplicationStatus.ALLOWED : ApplicationStatus.WAITING);
+
+            entityManager.persist(application);
+
+            expectedIds.add(application.getId());
+        }
+
+        // not in the list without status, because it has never been allowed
+        Application cancelled = new Application();
+        cancelled.setPerson(persons[0]);
+        cancelled.setApplier(persons[0]);
+        cancelled.setStartDate(day);
+        cancelled.setEndDate(day);
+        cancelled.setHowLong(DayLength.FULL);
+        cancelled.setDays(BigDecimal.ONE);
+        cancelled.setVacationType(VacationType.HOLIDAY);
+        cancelled.setStatus(ApplicationStatus.CANCELLED);
+        entityManager.persist(cancelled);
+
+        entityManager.getTransaction().commit();
+    }
+
+
+    private Person createPerson(String loginName, String firstName) {
+
+        Person person = new Person(loginName, "Muster", firstName, loginName + "@muster.de");
+
+        entityManager.persist(person);
+
+        return person;
+    }
+
+
+    @After
+    public void tearDown() {
+
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+
+    @Test
+    public void ensurePagesByStartDateAscendingWithoutSkippingOrRepeating() {
+
+        assertPagesWithoutSkippingOrRepeating(ApplicationSortOrder.START_DATE, true);
+    }
+
+
+    @Test
+    public void ensurePagesByStartDateDescendingWithoutSkippingOrRepeating() {
+
+        assertPagesWithoutSkippingOrRepeating(ApplicationSortOrder.START_DATE, false);
+    }
+
+
+    @Test
+    public void ensurePagesByPersonAscendingWithoutSkippingOrRepeating() {
+
+        assertPagesWithoutSkippingOrRepeating(ApplicationSortOrder.PERSON, true);
+    }
+
+
+    @Test
+    public void ensurePagesByPersonDescendingWithoutSkippingOrRepeating() {
+
+        assertPagesWithoutSkippingOrRepeating(ApplicationSortOrder.PERSON, false);
+    }
+
+
+    @Test
+    public void ensurePagesByDaysAscendingWithoutSkippingOrRepeating() {
+
+        assertPagesWithoutSkippingOrRepeating(ApplicationSortOrder.DAYS, true);
+    }
+
+
+    @Test
+    public void ensurePagesByDaysDescendingWithoutSkippingOrRepeating() {
+
+        assertPagesWithoutSkippingOrRepeating(ApplicationSortOrder.DAYS, false);
+    }
+
+
+    private void assertPagesWithoutSkippingOrRepeating(ApplicationSortOrder sortOrder, boolean ascending) {
+
+        List<Integer> allInOnePage = getIds(applicationDAO.getApplicationsPage(startDate, endDate, null, sortOrder,
+                    ascending, null, Integer.MAX_VALUE));
+
+        List<Integer> paged = new ArrayList<>();
+        Application after = null;
+
+        for (int page = 0; page <= NUMBER_OF_APPLICATIONS; page++) {
+            List<Application> applications = applicationDAO.getApplicationsPage(startDate, endDate, null, sortOrder,
+                    ascending, after, PAGE_SIZE);
+
+            Assert.assertTrue("Page too large", applications.size() <= PAGE_SIZE);
+
+            if (applications.isEmpty()) {
+                break;
+            }
+
+            paged.addAll(getIds(applications));
+
+            // the last application for leave of the page is loaded by its ID, like for the next page of the list
+            entityManager.clear();
+            after = applicationDAO.findOne(applications.get(applications.size() - 1).getId());
+        }
+
+        Assert.assertEquals("Wrong number of applications", NUMBER_OF_APPLICATIONS, paged.size());
+        Assert.assertEquals("Applications skipped or repeated", expectedIds, new HashSet<>(paged));
+        Assert.assertEquals("Pages not in the order of the whole list", allInOnePage, paged);
+    }
+
+
+    private static List<Integer> getIds(List<Application> applications) {
+
+        List<Integer> ids = new ArrayList<>();
+
+        for (Application application : applications) {
+            ids.add(application.getId());
+        }
+
+        return ids;
+    }
+}
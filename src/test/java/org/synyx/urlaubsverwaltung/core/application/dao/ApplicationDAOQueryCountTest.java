@@ -0,0 +1,213 @@
+package org.synyx.urlaubsverwaltung.core.application.dao;
+
+import org.hibernate.Session;
+
+import org.hibernate.stat.Statistics;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationSortOrder;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.application.domain.VacationType;
+import org.synyx.urlaubsverwaltung.core.mail.MailNotification;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.security.Role;
+
+import java.lang.reflect.Field;
+
+import java.math.BigDecimal;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+
+/**
+ * Ensures that the list queries of {@link ApplicationDAO} load the persons of the applications for leave with a
+ * constant number of selects, no matter how many applications for leave and persons there are. Runs against an in
+ * memory H2 database.
+ *
+ * @author  agent
+ */
+public class ApplicationDAOQueryCountTest {
+
+    private static final int NUMBER_OF_PERSONS = 10;
+    private static final int APPLICATIONS_PER_PERSON = 3;
+
+    // one select for the applications for leave with their persons, the permissions and notifications of the persons
+    // are loaded with subselects; without fetch joins there would be three selects per person
+    private static final long MAX_STATEMENTS = 5;
+
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private Statistics statistics;
+
+    private ApplicationDAO applicationDAO;
+
+    private Date startDate;
+    private Date endDate;
+
+    @Before
+    public void setUp() throws Exception {
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("hibernate.connection.driver_class", "org.h2.Driver");
+        properties.put("hibernate.connection.url", "jdbc:h2:mem:applicationQueryCount;DB_CLOSE_DELAY=-1");
+        properties.put("hibernate.connection.username", "sa");
+        properties.put("hibernate.connection.password", "");
+        properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("hibernate.hbm2ddl.auto", "create-drop");
+        properties.put("hibernate.generate_statistics", "true");
+
+        entityManagerFactory = Persistence.createEntityManagerFactory("urlaubsverwaltung", properties);
+        entityManager = entityManagerFactory.createEntityManager();
+        statistics = ((Session) entityManager.getDelegate()).getSessionFactory().getStatistics();
+
+        ApplicationDAOImpl customImplementation = new ApplicationDAOImpl();
+        Field entityManagerField = ApplicationDAOImpl.class.getDeclaredField("entityManager");
+        entityManagerField.setAccessible(true);
+        entityManagerField.set(customImplementation, entityManager);
+
+        applicationDAO = new JpaRepositoryFactory(entityManager).getRepository(ApplicationDAO.class,
+                customImplementation);
+
+        startDate = new DateMidnight(2014, DateTimeConstants.JANUARY, 1).toDate();
+        endDate = new DateMidnight(2014, DateTimeConstants.DECEMBER, 31).toDate();
+
+        createApplications();
+
+        entityManager.clear();
+        statistics.clear();
+    }
+
+
+    private void createApplications() {
+
+        entityManager.getTransaction().begin();
+
+        Person boss = createPerson("boss");
+
+        for (int i = 0; i < NUMBER_OF_PERSONS; i++) {
+            Person person = createPerson("person" + i);
+
+            for (int j = 0; j < APPLICATIONS_PER_PERSON; j++) {
+                DateMidnight day = new DateMidnight(2014, DateTimeConstants.MARCH, 1).plusDays(i + 30 * j);
+
+                Application application = new Application();
+                application.setPerson(person);
+                application.setApplier(person);
+                application.setBoss(boss);
+                application.setCanceller(boss);
+                application.setRep(boss);
+                application.setStartDate(day);
+                application.setEndDate(day);
+                application.setHowLong(DayLength.FULL);
+                application.setDays(BigDecimal.ONE);
+                application.setVacationType(VacationType.HOLIDAY);
+                application.setStatus(ApplicationStatus.WAITING);
+
+                entityManager.persist(application);
+            }
+        }
+
+        entityManager.getTransaction().commit();
+    }
+
+
+    private Person createPerson(String loginName) {
+
+        Person person = new Person(loginName, "Muster", "Max", loginName + "@muster.de");
+        person.setPermissions(Arrays.asList(Role.USER));
+        person.setNotifications(Arrays.asList(MailNotification.NOTIFICATION_USER));
+
+        entityManager.persist(person);
+
+        return person;
+    }
+
+
+    @After
+    public void tearDown() {
+
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+
+    @Test
+    public void ensureListOfACertainTimeLoadsThePersonsWithConstantNumberOfStatements() {
+
+        List<Application> applications = applicationDAO.getApplicationsForACertainTime(startDate, endDate);
+
+        assertLoadedWithConstantNumberOfStatements(applications, NUMBER_OF_PERSONS * APPLICATIONS_PER_PERSON);
+    }
+
+
+    @Test
+    public void ensureListOfACertainTimeAndStateLoadsThePersonsWithConstantNumberOfStatements() {
+
+        List<Application> applications = applicationDAO.getApplicationsForACertainTimeAndState(startDate, endDate,
+                ApplicationStatus.WAITING);
+
+        assertLoadedWithConstantNumberOfStatements(applications, NUMBER_OF_PERSONS * APPLICATIONS_PER_PERSON);
+    }
+
+
+    @Test
+    public void ensureListOfACertainTimeAndStatesAndPersonsLoadsOnlyTheApplicationsOfTheGivenPersons() {
+
+        List<Integer> personIds = entityManager.createQuery(
+                "select x.id from Person x where x.loginName in ('person1', 'person2')", Integer.class).getResultList();
+
+        statistics.clear();
+
+        List<Application> applications = applicationDAO.getApplicationsForACertainTimeAndStatesAndPersons(startDate,
+                endDate, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED, personIds);
+
+        assertLoadedWithConstantNumberOfStatements(applications, 2 * APPLICATIONS_PER_PERSON);
+
+        for (Application application : applications) {
+            Assert.assertTrue("Wrong person", personIds.contains(application.getPerson().getId()));
+        }
+    }
+
+
+    @Test
+    public void ensurePageOfApplicationsLoadsThePersonsWithConstantNumberOfStatements() {
+
+        List<Application> applications = applicationDAO.getApplicationsPage(startDate, endDate, null,
+                ApplicationSortOrder.PERSON, true, null, 20);
+
+        assertLoadedWithConstantNumberOfStatements(applications, 20);
+    }
+
+
+    private void assertLoadedWithConstantNumberOfStatements(List<Application> applications, int expectedSize) {
+
+        Assert.assertEquals("Wrong number of applications", expectedSize, applications.size());
+
+        for (Application application : applications) {
+            Assert.assertFalse("Permissions not loaded", application.getPerson().getPermissions().isEmpty());
+            Assert.assertFalse("Notifications not loaded", application.getRep().getNotifications().isEmpty());
+        }
+
+        Assert.assertTrue("Too many statements: " + statistics.getPrepareStatementCount(),
+            statistics.getPrepareStatementCount() <= MAX_STATEMENTS);
+    }
+}
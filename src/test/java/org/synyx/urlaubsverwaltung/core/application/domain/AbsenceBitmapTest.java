@@ -0,0 +1,97 @@
+package org.synyx.urlaubsverwaltung.core.application.domain;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Unit test for {@link AbsenceBitmap}.
+ *
+ * @author  agent
+ */
+public class AbsenceBitmapTest {
+
+    private AbsenceBitmap bitmap;
+
+    @Before
+    public void setUp() {
+
+        bitmap = new AbsenceBitmap(2012);
+    }
+
+
+    @Test
+    public void ensureFullDayAbsenceIsAbsenceOnBothHalvesOfTheDays() {
+
+        bitmap.add(AbsenceKind.VACATION_ALLOWED, new DateMidnight(2012, DateTimeConstants.JANUARY, 23),
+            new DateMidnight(2012, DateTimeConstants.JANUARY, 27), DayLength.FULL);
+
+        DateMidnight day = new DateMidnight(2012, DateTimeConstants.JANUARY, 25);
+
+        Assert.assertTrue(bitmap.isAbsent(day, DayLength.FULL, AbsenceKind.VACATION_ALLOWED));
+        Assert.assertTrue(bitmap.isAbsent(day, DayLength.MORNING, AbsenceKind.VACATION_ALLOWED));
+        Assert.assertTrue(bitmap.isAbsent(day, DayLength.NOON, AbsenceKind.VACATION_ALLOWED));
+        Assert.assertFalse(bitmap.isAbsent(day, DayLength.FULL, AbsenceKind.VACATION_WAITING,
+                AbsenceKind.SICK_NOTE));
+        Assert.assertFalse(bitmap.isAbsent(new DateMidnight(2012, DateTimeConstants.JANUARY, 28), DayLength.FULL,
+                AbsenceKind.VACATION_ALLOWED));
+    }
+
+
+    @Test
+    public void ensureHalfDayAbsenceIsAbsenceOnlyOnThisHalfOfTheDay() {
+
+        DateMidnight day = new DateMidnight(2012, DateTimeConstants.JANUARY, 23);
+
+        bitmap.add(AbsenceKind.VACATION_WAITING, day, day, DayLength.MORNING);
+
+        Assert.assertTrue(bitmap.isAbsent(day, DayLength.FULL, AbsenceKind.VACATION_WAITING));
+        Assert.assertTrue(bitmap.isAbsent(day, DayLength.MORNING, AbsenceKind.VACATION_WAITING));
+        Assert.assertFalse(bitmap.isAbsent(day, DayLength.NOON, AbsenceKind.VACATION_WAITING));
+    }
+
+
+    @Test
+    public void ensureCountsDaysWithAbsenceOfAllGivenKinds() {
+
+        // 30.12.2011 - 03.01.2012: only 1st to 3rd of January are in the year of the bitmap
+        bitmap.add(AbsenceKind.VACATION_ALLOWED, new DateMidnight(2011, DateTimeConstants.DECEMBER, 30),
+            new DateMidnight(2012, DateTimeConstants.JANUARY, 3), DayLength.FULL);
+        bitmap.add(AbsenceKind.SICK_NOTE, new DateMidnight(2012, DateTimeConstants.FEBRUARY, 28),
+            new DateMidnight(2012, DateTimeConstants.MARCH, 2), DayLength.FULL);
+        bitmap.add(AbsenceKind.VACATION_WAITING, new DateMidnight(2012, DateTimeConstants.DECEMBER, 31),
+            new DateMidnight(2012, DateTimeConstants.DECEMBER, 31), DayLength.NOON);
+
+        DateMidnight startDate = new DateMidnight(2011, DateTimeConstants.DECEMBER, 1);
+        DateMidnight endDate = new DateMidnight(2013, DateTimeConstants.JANUARY, 31);
+
+        Assert.assertEquals(3 + 4 + 1,
+            bitmap.getNumberOfDaysWithAbsence(startDate, endDate, DayLength.FULL, AbsenceKind.values()));
+        Assert.assertEquals(3 + 1,
+            bitmap.getNumberOfDaysWithAbsence(startDate, endDate, DayLength.NOON, AbsenceKind.VACATION_ALLOWED,
+                AbsenceKind.VACATION_WAITING));
+        Assert.assertEquals(2,
+            bitmap.getNumberOfDaysWithAbsence(new DateMidnight(2012, DateTimeConstants.MARCH, 1),
+                new DateMidnight(2012, DateTimeConstants.MARCH, 31), DayLength.MORNING, AbsenceKind.SICK_NOTE));
+    }
+
+
+    @Test
+    public void ensureReturnsTheHalvesOfTheDayWithAbsence() {
+
+        DateMidnight day = new DateMidnight(2012, DateTimeConstants.DECEMBER, 31);
+
+        bitmap.add(AbsenceKind.VACATION_WAITING, day, day, DayLength.MORNING);
+        bitmap.add(AbsenceKind.VACATION_WAITING, day, day, DayLength.NOON);
+        bitmap.add(AbsenceKind.SICK_NOTE, day, day, DayLength.NOON);
+
+        Assert.assertEquals(DayLength.FULL, bitmap.getDayLength(day, AbsenceKind.VACATION_WAITING));
+        Assert.assertEquals(DayLength.NOON, bitmap.getDayLength(day, AbsenceKind.SICK_NOTE));
+        Assert.assertEquals(DayLength.ZERO, bitmap.getDayLength(day, AbsenceKind.VACATION_ALLOWED));
+        Assert.assertEquals(DayLength.ZERO, bitmap.getDayLength(day.plusDays(1), AbsenceKind.VACATION_WAITING));
+    }
+}
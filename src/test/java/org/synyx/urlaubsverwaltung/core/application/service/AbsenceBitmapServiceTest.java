@@ -0,0 +1,151 @@
+package org.synyx.urlaubsverwaltung.core.application.service;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import org.synyx.urlaubsverwaltung.core.application.dao.ApplicationDAO;
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsenceBitmap;
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsenceKind;
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.cache.CacheRegistry;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteDAO;
+
+import java.util.Arrays;
+import java.util.Date;
+
+
+/**
+ * Unit test for {@link AbsenceBitmapService}.
+ *
+ * @author  agent
+ */
+public class AbsenceBitmapServiceTest {
+
+    private AbsenceBitmapService service;
+
+    private ApplicationDAO applicationDAO;
+    private SickNoteDAO sickNoteDAO;
+
+    private Person person;
+
+    @Before
+    public void setUp() {
+
+        applicationDAO = Mockito.mock(ApplicationDAO.class);
+        sickNoteDAO = Mockito.mock(SickNoteDAO.class);
+
+        CacheRegistry cacheRegistry = new CacheRegistry(100, 10);
+        service = new AbsenceBitmapService(new ActiveApplicationIndex(applicationDAO, cacheRegistry), sickNoteDAO,
+                cacheRegistry);
+
+        person = Mockito.mock(Person.class);
+        Mockito.when(person.getId()).thenReturn(42);
+
+        Application application = new Application();
+        application.setPerson(person);
+        application.setStatus(ApplicationStatus.WAITING);
+        application.setHowLong(DayLength.NOON);
+        application.setStartDate(new DateMidnight(2014, DateTimeConstants.MAY, 2));
+        application.setEndDate(new DateMidnight(2014, DateTimeConstants.MAY, 2));
+
+        SickNote sickNote = new SickNote();
+        sickNote.setPerson(person);
+        sickNote.setStartDate(new DateMidnight(2014, DateTimeConstants.JUNE, 2));
+        sickNote.setEndDate(new DateMidnight(2014, DateTimeConstants.JUNE, 4));
+
+        Mockito.when(applicationDAO.getActiveApplicationsByPerson(person)).thenReturn(Arrays.asList(application));
+        Mockito.when(sickNoteDAO.findActiveByPersonAndPeriod(Mockito.eq(person), Mockito.any(Date.class),
+                    Mockito.any(Date.class)))
+            .thenReturn(Arrays.asList(sickNote));
+    }
+
+
+    @After
+    public void tearDown() {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+
+    @Test
+    public void ensureBuildsBitmapFromApplicationsForLeaveAndSickNotes() {
+
+        AbsenceBitmap bitmap = service.getAbsenceBitmap(person, 2014);
+
+        Assert.assertTrue(bitmap.isAbsent(new DateMidnight(2014, DateTimeConstants.MAY, 2), DayLength.NOON,
+                AbsenceKind.VACATION_WAITING));
+        Assert.assertFalse(bitmap.isAbsent(new DateMidnight(2014, DateTimeConstants.MAY, 2), DayLength.MORNING,
+                AbsenceKind.VACATION_WAITING));
+        Assert.assertEquals(3,
+            bitmap.getNumberOfDaysWithAbsence(new DateMidnight(2014, DateTimeConstants.JUNE, 1),
+                new DateMidnight(2014, DateTimeConstants.JUNE, 30), DayLength.FULL, AbsenceKind.SICK_NOTE));
+    }
+
+
+    @Test
+    public void ensureBuildsBitmapAgainOnlyAfterInvalidation() {
+
+        AbsenceBitmap bitmap = service.getAbsenceBitmap(person, 2014);
+
+        Assert.assertSame(bitmap, service.getAbsenceBitmap(person, 2014));
+
+        service.invalidate(person);
+
+        Assert.assertNotSame(bitmap, service.getAbsenceBitmap(person, 2014));
+
+        Mockito.verify(sickNoteDAO, Mockito.times(2)).findActiveByPersonAndPeriod(Mockito.eq(person),
+            Mockito.any(Date.class), Mockito.any(Date.class));
+    }
+
+
+    @Test
+    public void ensureDiscardsBitmapBuiltBeforeCommitAgainAfterCommit() {
+
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.invalidate(person);
+
+        // another thread builds the bitmap before the changed absences are committed
+        AbsenceBitmap bitmap = service.getAbsenceBitmap(person, 2014);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        Assert.assertNotSame(bitmap, service.getAbsenceBitmap(person, 2014));
+    }
+
+
+    @Test
+    public void ensureDiscardsBitmapBuiltInTheTransactionAfterRollback() {
+
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.invalidate(person);
+
+        // the same transaction builds the bitmap with its uncommitted absences and is rolled back afterwards
+        AbsenceBitmap bitmap = service.getAbsenceBitmap(person, 2014);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        Assert.assertNotSame(bitmap, service.getAbsenceBitmap(person, 2014));
+    }
+}
@@ -0,0 +1,168 @@
+package org.synyx.urlaubsverwaltung.core.application.service;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+import org.synyx.urlaubsverwaltung.core.application.dao.ApplicationDAO;
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsenceBitmap;
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsenceCalendar;
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsenceKind;
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.person.PersonService;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteDAO;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+
+/**
+ * Unit test for {@link AbsenceService}.
+ *
+ * @author  agent
+ */
+public class AbsenceServiceTest {
+
+    private AbsenceService service;
+
+    private ApplicationDAO applicationDAO;
+    private SickNoteDAO sickNoteDAO;
+    private AbsenceBitmapService absenceBitmapService;
+    private PersonService personService;
+
+    private Person person;
+    private Person otherPerson;
+
+    private Application otherApplication;
+
+    @Before
+    public void setUp() {
+
+        applicationDAO = Mockito.mock(ApplicationDAO.class);
+        sickNoteDAO = Mockito.mock(SickNoteDAO.class);
+        absenceBitmapService = Mockito.mock(AbsenceBitmapService.class);
+        personService = Mockito.mock(PersonService.class);
+
+        service = new AbsenceService(applicationDAO, sickNoteDAO, absenceBitmapService, personService);
+
+        person = Mockito.mock(Person.class);
+        Mockito.when(person.getId()).thenReturn(1);
+
+        otherPerson = Mockito.mock(Person.class);
+        Mockito.when(otherPerson.getId()).thenReturn(2);
+
+        // person: morning of 2nd June is waiting vacation, 2nd June to 4th June is sick note
+        Application application = new Application();
+        application.setPerson(person);
+        application.setStatus(ApplicationStatus.WAITING);
+        application.setHowLong(DayLength.MORNING);
+        application.setStartDate(new DateMidnight(2014, DateTimeConstants.JUNE, 2));
+        application.setEndDate(new DateMidnight(2014, DateTimeConstants.JUNE, 2));
+
+        SickNote sickNote = new SickNote();
+        sickNote.setPerson(person);
+        sickNote.setStartDate(new DateMidnight(2014, DateTimeConstants.JUNE, 2));
+        sickNote.setEndDate(new DateMidnight(2014, DateTimeConstants.JUNE, 4));
+
+        // other person: 28th May to 3rd June is allowed vacation
+        otherApplication = new Application();
+        otherApplication.setPerson(otherPerson);
+        otherApplication.setStatus(ApplicationStatus.ALLOWED);
+        otherApplication.setHowLong(DayLength.FULL);
+        otherApplication.setStartDate(new DateMidnight(2014, DateTimeConstants.MAY, 28));
+        otherApplication.setEndDate(new DateMidnight(2014, DateTimeConstants.JUNE, 3));
+
+        Mockito.when(applicationDAO.getApplicationsForACertainTimeAndStates(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(ApplicationStatus.WAITING),
+                    Mockito.eq(ApplicationStatus.ALLOWED)))
+            .thenReturn(Arrays.asList(otherApplication, application));
+        Mockito.when(sickNoteDAO.findActiveByPeriod(Mockito.any(Date.class), Mockito.any(Date.class))).thenReturn(
+            Arrays.asList(sickNote));
+    }
+
+
+    @Test
+    public void ensureReturnsAbsencesOfAllPersonsPerDay() {
+
+        AbsenceCalendar calendar = service.getAbsences(new DateMidnight(2014, DateTimeConstants.JUNE, 1),
+                new DateMidnight(2014, DateTimeConstants.JUNE, 5), null);
+
+        Assert.assertEquals(5, calendar.getNumberOfDays());
+        Assert.assertEquals(new DateMidnight(2014, DateTimeConstants.JUNE, 1), calendar.getDate(0));
+
+        // 1st June
+        Assert.assertEquals(1, calendar.getAbsentPersons(0).size());
+        Assert.assertEquals(AbsenceKind.VACATION_ALLOWED, calendar.getAbsences(0).get(0).getKind());
+
+        // 2nd June: person has two absences, but is counted once
+        Assert.assertEquals(3, calendar.getAbsences(1).size());
+        Assert.assertEquals(2, calendar.getAbsentPersons(1).size());
+
+        // 4th June and 5th June
+        Assert.assertEquals(1, calendar.getAbsentPersons(3).size());
+        Assert.assertEquals(AbsenceKind.SICK_NOTE, calendar.getAbsences(3).get(0).getKind());
+        Assert.assertTrue(calendar.getAbsentPersons(4).isEmpty());
+    }
+
+
+    @Test
+    public void ensureReadsAbsencesOfGivenPersonsFromTheirBitmaps() {
+
+        // other person: 28th May to 3rd June is allowed vacation, 5th June is sick note in the morning
+        AbsenceBitmap bitmap = new AbsenceBitmap(2014);
+        bitmap.add(AbsenceKind.VACATION_ALLOWED, new DateMidnight(2014, DateTimeConstants.MAY, 28),
+            new DateMidnight(2014, DateTimeConstants.JUNE, 3), DayLength.FULL);
+        bitmap.add(AbsenceKind.SICK_NOTE, new DateMidnight(2014, DateTimeConstants.JUNE, 5),
+            new DateMidnight(2014, DateTimeConstants.JUNE, 5), DayLength.MORNING);
+
+        Mockito.when(personService.getPersonByID(2)).thenReturn(otherPerson);
+        Mockito.when(absenceBitmapService.getAbsenceBitmap(otherPerson, 2014)).thenReturn(bitmap);
+
+        // the unknown person is skipped
+        List<Integer> personIds = Arrays.asList(2, 3, 2);
+
+        AbsenceCalendar calendar = service.getAbsences(new DateMidnight(2014, DateTimeConstants.JUNE, 1),
+                new DateMidnight(2014, DateTimeConstants.JUNE, 5), personIds);
+
+        for (int day = 0; day < 3; day++) {
+            Assert.assertEquals(1, calendar.getAbsences(day).size());
+            Assert.assertEquals(otherPerson, calendar.getAbsences(day).get(0).getPerson());
+            Assert.assertEquals(AbsenceKind.VACATION_ALLOWED, calendar.getAbsences(day).get(0).getKind());
+            Assert.assertEquals(DayLength.FULL, calendar.getAbsences(day).get(0).getDayLength());
+        }
+
+        // consecutive days are added as one absence
+        Assert.assertSame(calendar.getAbsences(0).get(0), calendar.getAbsences(2).get(0));
+
+        Assert.assertTrue(calendar.getAbsences(3).isEmpty());
+        Assert.assertEquals(1, calendar.getAbsences(4).size());
+        Assert.assertEquals(AbsenceKind.SICK_NOTE, calendar.getAbsences(4).get(0).getKind());
+        Assert.assertEquals(DayLength.MORNING, calendar.getAbsences(4).get(0).getDayLength());
+
+        Mockito.verifyZeroInteractions(applicationDAO, sickNoteDAO);
+    }
+
+
+    @Test
+    public void ensureQueriesNothingForEmptyListOfPersons() {
+
+        AbsenceCalendar calendar = service.getAbsences(new DateMidnight(2014, DateTimeConstants.JUNE, 1),
+                new DateMidnight(2014, DateTimeConstants.JUNE, 5), Collections.<Integer>emptyList());
+
+        Assert.assertEquals(5, calendar.getNumberOfDays());
+        Assert.assertTrue(calendar.getAbsentPersons(2).isEmpty());
+
+        Mockito.verifyZeroInteractions(applicationDAO, sickNoteDAO, absenceBitmapService);
+    }
+}
@@ -0,0 +1,183 @@
+package org.synyx.urlaubsverwaltung.core.application.service;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import org.synyx.urlaubsverwaltung.core.application.dao.ApplicationDAO;
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.cache.CacheRegistry;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Unit test for {@link ActiveApplicationIndex}.
+ *
+ * @author  agent
+ */
+public class ActiveApplicationIndexTest {
+
+    private ActiveApplicationIndex index;
+    private ApplicationDAO applicationDAO;
+    private Person person;
+
+    @Before
+    public void setUp() {
+
+        applicationDAO = Mockito.mock(ApplicationDAO.class);
+        index = new ActiveApplicationIndex(applicationDAO, new CacheRegistry(100, 10));
+
+        person = Mockito.mock(Person.class);
+        Mockito.when(person.getId()).thenReturn(42);
+    }
+
+
+    @After
+    public void tearDown() {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+
+    private Application createApplication(Integer id, int startDay, int endDay, ApplicationStatus status) {
+
+        Application application = Mockito.spy(new Application());
+        Mockito.when(application.getId()).thenReturn(id);
+        application.setPerson(person);
+        application.setStartDate(new DateMidnight(2014, DateTimeConstants.JANUARY, startDay));
+        application.setEndDate(new DateMidnight(2014, DateTimeConstants.JANUARY, endDay));
+        application.setStatus(status);
+
+        return application;
+    }
+
+
+    private List<Integer> getOverlappingApplications(int startDay, int endDay) {
+
+        List<Integer> applicationIds = new ArrayList<Integer>();
+
+        for (ActiveApplicationIndex.Interval interval : index.getOverlappingIntervals(person,
+                    new DateMidnight(2014, DateTimeConstants.JANUARY, startDay),
+                    new DateMidnight(2014, DateTimeConstants.JANUARY, endDay))) {
+            applicationIds.add(interval.getId());
+        }
+
+        return applicationIds;
+    }
+
+
+    @Test
+    public void ensureFindsOverlappingApplicationsSortedByStartDate() {
+
+        Application longOne = createApplication(1, 2, 20, ApplicationStatus.ALLOWED);
+        Application before = createApplication(2, 3, 4, ApplicationStatus.ALLOWED);
+        Application inside = createApplication(3, 10, 11, ApplicationStatus.WAITING);
+        Application touchingEnd = createApplication(4, 14, 16, ApplicationStatus.WAITING);
+        Application after = createApplication(5, 17, 18, ApplicationStatus.WAITING);
+
+        Mockito.when(applicationDAO.getActiveApplicationsByPerson(person)).thenReturn(Arrays.asList(touchingEnd,
+                after, longOne, before, inside));
+
+        Assert.assertEquals(Arrays.asList(1, 3, 4), getOverlappingApplications(5, 14));
+        Assert.assertEquals(Arrays.asList(1, 2), getOverlappingApplications(1, 4));
+        Assert.assertTrue(getOverlappingApplications(21, 31).isEmpty());
+    }
+
+
+    @Test
+    public void ensureLoadsApplicationsOfAPersonOnlyOnce() {
+
+        Mockito.when(applicationDAO.getActiveApplicationsByPerson(person)).thenReturn(new ArrayList<Application>());
+
+        getOverlappingApplications(1, 31);
+        getOverlappingApplications(1, 31);
+
+        Mockito.verify(applicationDAO, Mockito.times(1)).getActiveApplicationsByPerson(person);
+    }
+
+
+    @Test
+    public void ensureKeepsTheValuesOfTheApplicationsAsLoaded() {
+
+        Application application = createApplication(1, 6, 8, ApplicationStatus.WAITING);
+        application.setHowLong(DayLength.MORNING);
+
+        Mockito.when(applicationDAO.getActiveApplicationsByPerson(person)).thenReturn(Arrays.asList(application));
+
+        getOverlappingApplications(1, 31);
+
+        // changes that are not saved yet must not be visible
+        application.setStatus(ApplicationStatus.ALLOWED);
+        application.setEndDate(new DateMidnight(2014, DateTimeConstants.JANUARY, 20));
+
+        ActiveApplicationIndex.Interval interval = index.getOverlappingIntervals(person,
+                new DateMidnight(2014, DateTimeConstants.JANUARY, 1),
+                new DateMidnight(2014, DateTimeConstants.JANUARY, 31)).get(0);
+
+        Assert.assertEquals(ApplicationStatus.WAITING, interval.getStatus());
+        Assert.assertEquals(DayLength.MORNING, interval.getDayLength());
+        Assert.assertEquals(new DateMidnight(2014, DateTimeConstants.JANUARY, 6), interval.getStartDate());
+        Assert.assertEquals(new DateMidnight(2014, DateTimeConstants.JANUARY, 8), interval.getEndDate());
+        Assert.assertTrue(getOverlappingApplications(10, 20).isEmpty());
+    }
+
+
+    @Test
+    public void ensureInvalidateReloadsTheApplicationsOfThePerson() {
+
+        Application application = createApplication(1, 6, 8, ApplicationStatus.WAITING);
+
+        Mockito.when(applicationDAO.getActiveApplicationsByPerson(person)).thenReturn(new ArrayList<Application>());
+
+        Assert.assertTrue(getOverlappingApplications(1, 31).isEmpty());
+
+        Mockito.when(applicationDAO.getActiveApplicationsByPerson(person)).thenReturn(Arrays.asList(application));
+
+        index.invalidate(person);
+
+        Assert.assertEquals(Arrays.asList(1), getOverlappingApplications(1, 31));
+
+        Mockito.verify(applicationDAO, Mockito.times(2)).getActiveApplicationsByPerson(person);
+    }
+
+
+    @Test
+    public void ensureInvalidateDiscardsTheApplicationsLoadedBeforeCommitAgainAfterCommit() {
+
+        TransactionSynchronizationManager.initSynchronization();
+
+        Application application = createApplication(1, 6, 8, ApplicationStatus.WAITING);
+
+        Mockito.when(applicationDAO.getActiveApplicationsByPerson(person)).thenReturn(new ArrayList<Application>());
+
+        index.invalidate(person);
+
+        // another thread loads the applications before the new application is committed
+        Assert.assertTrue(getOverlappingApplications(1, 31).isEmpty());
+
+        Mockito.when(applicationDAO.getActiveApplicationsByPerson(person)).thenReturn(Arrays.asList(application));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        Assert.assertEquals(Arrays.asList(1), getOverlappingApplications(1, 31));
+    }
+}
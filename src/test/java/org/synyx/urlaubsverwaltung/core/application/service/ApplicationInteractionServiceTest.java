@@ -1,6 +1,7 @@
 package org.synyx.urlaubsverwaltung.core.application.service;
 
 import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -13,6 +14,7 @@ import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.application.domain.Comment;
 import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
 import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
+import org.synyx.urlaubsverwaltung.core.changelog.ChangeLogService;
 import org.synyx.urlaubsverwaltung.core.mail.MailService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 
@@ -31,6 +33,8 @@ public class ApplicationInteractionServiceTest {
     private SignService signService;
     private CommentService commentService;
     private MailService mailService;
+    private VacationDaysLedgerService vacationDaysLedgerService;
+    private ChangeLogService changeLogService;
 
     @Before
     public void setUp() {
@@ -40,9 +44,11 @@ public class ApplicationInteractionServiceTest {
         signService = Mockito.mock(SignService.class);
         commentService = Mockito.mock(CommentService.class);
         mailService = Mockito.mock(MailService.class);
+        vacationDaysLedgerService = Mockito.mock(VacationDaysLedgerService.class);
+        changeLogService = Mockito.mock(ChangeLogService.class);
 
         service = new ApplicationInteractionServiceImpl(applicationService, calendarService, signService,
-                commentService, mailService);
+                commentService, mailService, vacationDaysLedgerService, changeLogService);
     }
 
 
@@ -56,6 +62,8 @@ public class ApplicationInteractionServiceTest {
 
         Application applicationForLeave = new Application();
         applicationForLeave.setPerson(person);
+        applicationForLeave.setStartDate(new DateMidnight(2014, DateTimeConstants.MARCH, 3));
+        applicationForLeave.setEndDate(new DateMidnight(2014, DateTimeConstants.MARCH, 14));
 
         Mockito.when(calendarService.getWorkDays(Mockito.any(DayLength.class), Mockito.any(DateMidnight.class),
                 Mockito.any(DateMidnight.class), Mockito.any(Person.class))).thenReturn(BigDecimal.TEN);
@@ -69,6 +77,9 @@ public class ApplicationInteractionServiceTest {
         Assert.assertEquals("Wrong application date", DateMidnight.now(), applicationForLeave.getApplicationDate());
 
         Mockito.verify(applicationService).save(applicationForLeave);
+        Mockito.verify(changeLogService).logChange(applicationForLeave);
+        Mockito.verify(vacationDaysLedgerService).update(Mockito.eq(applicationForLeave),
+            (ApplicationStatus) Mockito.isNull());
 
         Mockito.verify(signService).signApplicationByUser(Mockito.eq(applicationForLeave), Mockito.eq(applier));
 
@@ -84,6 +95,8 @@ public class ApplicationInteractionServiceTest {
 
         Application applicationForLeave = new Application();
         applicationForLeave.setPerson(person);
+        applicationForLeave.setStartDate(new DateMidnight(2014, DateTimeConstants.MARCH, 3));
+        applicationForLeave.setEndDate(new DateMidnight(2014, DateTimeConstants.MARCH, 14));
 
         Mockito.when(calendarService.getWorkDays(Mockito.any(DayLength.class), Mockito.any(DateMidnight.class),
                 Mockito.any(DateMidnight.class), Mockito.any(Person.class))).thenReturn(BigDecimal.TEN);
@@ -105,6 +118,8 @@ public class ApplicationInteractionServiceTest {
 
         Application applicationForLeave = new Application();
         applicationForLeave.setPerson(person);
+        applicationForLeave.setStartDate(new DateMidnight(2014, DateTimeConstants.MARCH, 3));
+        applicationForLeave.setEndDate(new DateMidnight(2014, DateTimeConstants.MARCH, 14));
 
         Mockito.when(calendarService.getWorkDays(Mockito.any(DayLength.class), Mockito.any(DateMidnight.class),
                 Mockito.any(DateMidnight.class), Mockito.any(Person.class))).thenReturn(BigDecimal.TEN);
@@ -117,6 +132,31 @@ public class ApplicationInteractionServiceTest {
         Mockito.verify(mailService).sendNewApplicationNotification(Mockito.eq(applicationForLeave));
     }
 
+    @Test
+    public void ensureSetsNumberOfVacationDaysPerYearForApplicationForLeaveSpanningTheTurnOfTheYear() {
+
+        Person person = new Person();
+
+        Application applicationForLeave = new Application();
+        applicationForLeave.setPerson(person);
+        applicationForLeave.setHowLong(DayLength.FULL);
+        applicationForLeave.setStartDate(new DateMidnight(2014, DateTimeConstants.DECEMBER, 29));
+        applicationForLeave.setEndDate(new DateMidnight(2015, DateTimeConstants.JANUARY, 9));
+
+        Mockito.when(calendarService.getWorkDays(DayLength.FULL, new DateMidnight(2014, DateTimeConstants.DECEMBER, 29),
+                new DateMidnight(2014, DateTimeConstants.DECEMBER, 31), person)).thenReturn(new BigDecimal("2.5"));
+        Mockito.when(calendarService.getWorkDays(DayLength.FULL, new DateMidnight(2015, DateTimeConstants.JANUARY, 1),
+                new DateMidnight(2015, DateTimeConstants.JANUARY, 9), person)).thenReturn(new BigDecimal("6.0"));
+
+        service.setNumberOfVacationDays(applicationForLeave);
+
+        Assert.assertEquals("Wrong number of vacation days", new BigDecimal("8.5"), applicationForLeave.getDays());
+        Assert.assertEquals("Wrong number of vacation days in 2014", new BigDecimal("2.5"),
+            applicationForLeave.getDaysInYear(2014));
+        Assert.assertEquals("Wrong number of vacation days in 2015", new BigDecimal("6.0"),
+            applicationForLeave.getDaysInYear(2015));
+    }
+
     // END: APPLY
 
 
@@ -141,6 +181,9 @@ public class ApplicationInteractionServiceTest {
         Assert.assertEquals("Wrong edited date", DateMidnight.now(), applicationForLeave.getEditedDate());
 
         Mockito.verify(applicationService).save(applicationForLeave);
+        Mockito.verify(changeLogService).logChange(applicationForLeave);
+        Mockito.verify(vacationDaysLedgerService).update(Mockito.eq(applicationForLeave),
+            Mockito.eq(ApplicationStatus.WAITING));
 
         Mockito.verify(signService).signApplicationByBoss(Mockito.eq(applicationForLeave), Mockito.eq(boss));
 
@@ -206,6 +249,9 @@ public class ApplicationInteractionServiceTest {
         Assert.assertEquals("Wrong edited date", DateMidnight.now(), applicationForLeave.getEditedDate());
 
         Mockito.verify(applicationService).save(applicationForLeave);
+        Mockito.verify(changeLogService).logChange(applicationForLeave);
+        Mockito.verify(vacationDaysLedgerService).update(Mockito.eq(applicationForLeave),
+            Mockito.eq(ApplicationStatus.WAITING));
 
         Mockito.verify(signService).signApplicationByBoss(Mockito.eq(applicationForLeave), Mockito.eq(boss));
 
@@ -253,6 +299,9 @@ public class ApplicationInteractionServiceTest {
         Assert.assertFalse("Must be not set to formerly allowed", applicationForLeave.isFormerlyAllowed());
 
         Mockito.verify(applicationService).save(applicationForLeave);
+        Mockito.verify(changeLogService).logChange(applicationForLeave);
+        Mockito.verify(vacationDaysLedgerService).update(Mockito.eq(applicationForLeave),
+            Mockito.eq(ApplicationStatus.WAITING));
 
         Mockito.verify(commentService).saveComment(Mockito.eq(comment), Mockito.eq(person),
             Mockito.eq(applicationForLeave));
@@ -281,6 +330,9 @@ public class ApplicationInteractionServiceTest {
         Assert.assertTrue("Must be set to formerly allowed", applicationForLeave.isFormerlyAllowed());
 
         Mockito.verify(applicationService).save(applicationForLeave);
+        Mockito.verify(changeLogService).logChange(applicationForLeave);
+        Mockito.verify(vacationDaysLedgerService).update(Mockito.eq(applicationForLeave),
+            Mockito.eq(ApplicationStatus.ALLOWED));
 
         Mockito.verify(commentService).saveComment(Mockito.eq(comment), Mockito.eq(canceller),
             Mockito.eq(applicationForLeave));
@@ -310,6 +362,7 @@ public class ApplicationInteractionServiceTest {
         Assert.assertFalse("Must not be set to formerly allowed", applicationForLeave.isFormerlyAllowed());
 
         Mockito.verify(applicationService).save(applicationForLeave);
+        Mockito.verify(changeLogService).logChange(applicationForLeave);
 
         Mockito.verify(commentService).saveComment(Mockito.eq(comment), Mockito.eq(canceller),
             Mockito.eq(applicationForLeave));
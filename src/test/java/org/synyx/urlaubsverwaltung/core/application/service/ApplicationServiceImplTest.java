@@ -4,6 +4,10 @@
  */
 package org.synyx.urlaubsverwaltung.core.application.service;
 
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -11,6 +15,12 @@ import org.mockito.Mockito;
 
 import org.synyx.urlaubsverwaltung.core.application.dao.ApplicationDAO;
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationSortOrder;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 
 
 /**
@@ -22,12 +32,16 @@ public class ApplicationServiceImplTest {
 
     private ApplicationService applicationService;
     private ApplicationDAO applicationDAO;
+    private ActiveApplicationIndex activeApplicationIndex;
+    private AbsenceBitmapService absenceBitmapService;
 
     @Before
     public void setUp() {
 
         applicationDAO = Mockito.mock(ApplicationDAO.class);
-        applicationService = new ApplicationServiceImpl(applicationDAO);
+        activeApplicationIndex = Mockito.mock(ActiveApplicationIndex.class);
+        absenceBitmapService = Mockito.mock(AbsenceBitmapService.class);
+        applicationService = new ApplicationServiceImpl(applicationDAO, activeApplicationIndex, absenceBitmapService);
     }
 
 
@@ -46,5 +60,81 @@ public class ApplicationServiceImplTest {
 
         applicationService.save(application);
         Mockito.verify(applicationDAO).save(application);
+        Mockito.verify(activeApplicationIndex).invalidate(application.getPerson());
+        Mockito.verify(absenceBitmapService).invalidate(application.getPerson());
+    }
+
+
+    @Test
+    public void ensureGetApplicationsPageLoadsTheLastApplicationOfThePreviousPageForTheKeyset() {
+
+        DateMidnight startDate = new DateMidnight(2014, DateTimeConstants.JANUARY, 1);
+        DateMidnight endDate = new DateMidnight(2014, DateTimeConstants.DECEMBER, 31);
+
+        Application after = new Application();
+        Mockito.when(applicationDAO.findOne(42)).thenReturn(after);
+
+        applicationService.getApplicationsPage(startDate, endDate, ApplicationStatus.WAITING,
+            ApplicationSortOrder.PERSON, false, 42, 51);
+
+        Mockito.verify(applicationDAO).getApplicationsPage(startDate.toDate(), endDate.toDate(),
+            ApplicationStatus.WAITING, ApplicationSortOrder.PERSON, false, after, 51);
+    }
+
+
+    @Test
+    public void ensureGetApplicationsPageWithoutPreviousPageStartsAtTheBeginning() {
+
+        DateMidnight startDate = new DateMidnight(2014, DateTimeConstants.JANUARY, 1);
+        DateMidnight endDate = new DateMidnight(2014, DateTimeConstants.DECEMBER, 31);
+
+        applicationService.getApplicationsPage(startDate, endDate, null, ApplicationSortOrder.START_DATE, true, null,
+            51);
+
+        Mockito.verify(applicationDAO).getApplicationsPage(startDate.toDate(), endDate.toDate(), null,
+            ApplicationSortOrder.START_DATE, true, null, 51);
+        Mockito.verify(applicationDAO, Mockito.never()).findOne(Mockito.anyInt());
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureGetApplicationsPageThrowsIfTheApplicationOfThePreviousPageDoesNotExist() {
+
+        DateMidnight startDate = new DateMidnight(2014, DateTimeConstants.JANUARY, 1);
+        DateMidnight endDate = new DateMidnight(2014, DateTimeConstants.DECEMBER, 31);
+
+        Mockito.when(applicationDAO.findOne(42)).thenReturn(null);
+
+        applicationService.getApplicationsPage(startDate, endDate, null, ApplicationSortOrder.START_DATE, true, 42,
+            51);
+    }
+
+
+    @Test
+    public void ensureGetApplicationsForACertainPeriodAndStateAndPersonsQueriesOnlyTheGivenPersons() {
+
+        DateMidnight startDate = new DateMidnight(2014, DateTimeConstants.JANUARY, 1);
+        DateMidnight endDate = new DateMidnight(2014, DateTimeConstants.DECEMBER, 31);
+
+        applicationService.getApplicationsForACertainPeriodAndStateAndPersons(startDate, endDate,
+            ApplicationStatus.ALLOWED, Arrays.asList(1, 2));
+
+        Mockito.verify(applicationDAO).getApplicationsForACertainTimeAndStatesAndPersons(startDate.toDate(),
+            endDate.toDate(), ApplicationStatus.ALLOWED, ApplicationStatus.ALLOWED, Arrays.asList(1, 2));
+    }
+
+
+    @Test
+    public void ensureGetApplicationsForACertainPeriodAndStateAndPersonsDoesNotQueryWithoutPersons() {
+
+        DateMidnight startDate = new DateMidnight(2014, DateTimeConstants.JANUARY, 1);
+        DateMidnight endDate = new DateMidnight(2014, DateTimeConstants.DECEMBER, 31);
+
+        Assert.assertTrue(applicationService.getApplicationsForACertainPeriodAndStateAndPersons(startDate, endDate,
+                ApplicationStatus.ALLOWED, Collections.<Integer>emptyList()).isEmpty());
+
+        Mockito.verify(applicationDAO, Mockito.never()).getApplicationsForACertainTimeAndStatesAndPersons(
+            Mockito.any(Date.class), Mockito.any(Date.class), Mockito.any(ApplicationStatus.class),
+            Mockito.any(ApplicationStatus.class), Mockito.anyCollectionOf(Integer.class));
     }
 }
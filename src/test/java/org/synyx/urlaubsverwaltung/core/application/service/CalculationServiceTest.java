@@ -10,9 +10,14 @@ import org.junit.Test;
 
 import org.mockito.Mockito;
 
+import org.mockito.invocation.InvocationOnMock;
+
+import org.mockito.stubbing.Answer;
+
 import org.synyx.urlaubsverwaltung.core.account.Account;
 import org.synyx.urlaubsverwaltung.core.account.AccountService;
 import org.synyx.urlaubsverwaltung.core.application.dao.ApplicationDAO;
+import org.synyx.urlaubsverwaltung.core.application.dao.VacationDaysLedgerDAO;
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
@@ -29,7 +34,10 @@ import java.math.BigDecimal;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -43,6 +51,7 @@ public class CalculationServiceTest {
     private ApplicationDAO applicationDAO;
     private AccountService accountService;
     private OwnCalendarService calendarService;
+    private VacationDaysLedgerService vacationDaysLedgerService;
 
     @Before
     public void setUp() throws IOException {
@@ -58,11 +67,36 @@ public class CalculationServiceTest {
         List<Integer> workingDays = Arrays.asList(DateTimeConstants.MONDAY, DateTimeConstants.TUESDAY,
                 DateTimeConstants.WEDNESDAY, DateTimeConstants.THURSDAY, DateTimeConstants.FRIDAY);
         workingTime.setWorkingDays(workingDays, DayLength.FULL);
+        workingTime.setValidFrom(new DateMidnight(2000, DateTimeConstants.JANUARY, 1));
+
+        final List<WorkingTime> timeline = Arrays.asList(workingTime);
+
+        Mockito.when(workingTimeService.getTimelines(Mockito.anyCollectionOf(Person.class))).thenAnswer(
+            new Answer<Map<Person, List<WorkingTime>>>() {
+
+                @Override
+                public Map<Person, List<WorkingTime>> answer(InvocationOnMock invocation) {
+
+                    Map<Person, List<WorkingTime>> timelines = new HashMap<>();
 
-        Mockito.when(workingTimeService.getByPersonAndValidityDateEqualsOrMinorDate(Mockito.any(Person.class),
-                Mockito.any(DateMidnight.class))).thenReturn(workingTime);
+                    for (Object person : (Collection<?>) invocation.getArguments()[0]) {
+                        timelines.put((Person) person, timeline);
+                    }
 
-        service = new CalculationService(applicationDAO, accountService, calendarService);
+                    return timelines;
+                }
+            });
+
+        Mockito.when(workingTimeService.getByPersonAndPeriod(Mockito.any(Person.class), Mockito.any(DateMidnight.class),
+                Mockito.any(DateMidnight.class))).thenReturn(Arrays.asList(workingTime));
+
+        // there are no saved ledgers, so they are calculated from the applications for leave
+        vacationDaysLedgerService = new VacationDaysLedgerService(Mockito.mock(VacationDaysLedgerDAO.class),
+                applicationDAO, accountService, calendarService,
+                new DaysPerYearService(Mockito.mock(ApplicationService.class), calendarService),
+                Mockito.mock(VacationDaysLedgerCreationService.class));
+
+        service = new CalculationService(accountService, vacationDaysLedgerService);
     }
 
 
@@ -75,77 +109,56 @@ public class CalculationServiceTest {
         Person person = new Person();
         person.setLoginName("horscht");
 
-        DateMidnight firstMilestone = new DateMidnight(2012, DateTimeConstants.JANUARY, 1);
-        DateMidnight lastMilestone = new DateMidnight(2012, DateTimeConstants.MARCH, 31);
-
         Application a1 = new Application();
+        a1.setStatus(ApplicationStatus.ALLOWED);
         a1.setStartDate(new DateMidnight(2011, DateTimeConstants.DECEMBER, 29));
         a1.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 3));
         a1.setHowLong(DayLength.FULL);
+        a1.setDaysInStartYear(BigDecimal.valueOf(2));
+        a1.setDaysInEndYear(BigDecimal.valueOf(2));
         // must be 4 days at all: 2 before January + 2 after January
 
         Application a2 = new Application();
+        a2.setStatus(ApplicationStatus.ALLOWED);
         a2.setStartDate(new DateMidnight(2012, DateTimeConstants.MARCH, 12));
         a2.setEndDate(new DateMidnight(2012, DateTimeConstants.MARCH, 16));
         a2.setHowLong(DayLength.FULL);
         a2.setDays(BigDecimal.valueOf(5));
 
         Application a3 = new Application();
+        a3.setStatus(ApplicationStatus.ALLOWED);
         a3.setStartDate(new DateMidnight(2012, DateTimeConstants.FEBRUARY, 6));
         a3.setEndDate(new DateMidnight(2012, DateTimeConstants.FEBRUARY, 9));
         a3.setHowLong(DayLength.FULL);
         a3.setDays(BigDecimal.valueOf(4));
 
         Application a4 = new Application();
+        a4.setStatus(ApplicationStatus.ALLOWED);
         a4.setStartDate(new DateMidnight(2012, DateTimeConstants.MARCH, 29));
         a4.setEndDate(new DateMidnight(2012, DateTimeConstants.APRIL, 5));
         a4.setHowLong(DayLength.FULL);
         // must be 6 days at all: 2 before April + 4 after April
 
-        Mockito.when(applicationDAO.getApplicationsBetweenTwoMilestones(person, firstMilestone.toDate(),
-                lastMilestone.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(Arrays.asList(a2, a3));
-
-        Mockito.when(applicationDAO.getApplicationsBeforeFirstMilestone(person, firstMilestone.toDate(),
-                lastMilestone.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(Arrays.asList(a1));
-
-        Mockito.when(applicationDAO.getApplicationsAfterLastMilestone(person, firstMilestone.toDate(),
-                lastMilestone.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(Arrays.asList(a4));
-
-        DateMidnight firstMilestone2 = new DateMidnight(2012, DateTimeConstants.APRIL, 1);
-        DateMidnight lastMilestone2 = new DateMidnight(2012, DateTimeConstants.DECEMBER, 31);
-
         Application b1 = new Application();
+        b1.setStatus(ApplicationStatus.ALLOWED);
         b1.setStartDate(new DateMidnight(2012, DateTimeConstants.DECEMBER, 27));
         b1.setEndDate(new DateMidnight(2013, DateTimeConstants.JANUARY, 3));
         b1.setHowLong(DayLength.FULL);
+        b1.setDaysInStartYear(new BigDecimal("2.5"));
+        b1.setDaysInEndYear(BigDecimal.valueOf(2));
         // must be 4 days at all: 2.5 before January + 2 after January
 
         Application b2 = new Application();
+        b2.setStatus(ApplicationStatus.ALLOWED);
         b2.setStartDate(new DateMidnight(2012, DateTimeConstants.SEPTEMBER, 3));
         b2.setEndDate(new DateMidnight(2012, DateTimeConstants.SEPTEMBER, 7));
         b2.setHowLong(DayLength.FULL);
         b2.setDays(BigDecimal.valueOf(5));
 
-        Application b4 = new Application();
-        b4.setStartDate(new DateMidnight(2012, DateTimeConstants.MARCH, 29));
-        b4.setEndDate(new DateMidnight(2012, DateTimeConstants.APRIL, 5));
-        b4.setHowLong(DayLength.FULL);
-        // must be 6 days at all: 2 before April + 4 after April
-
-        Mockito.when(applicationDAO.getApplicationsBetweenTwoMilestones(person, firstMilestone2.toDate(),
-                lastMilestone2.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(Arrays.asList(b2));
-
-        Mockito.when(applicationDAO.getApplicationsBeforeFirstMilestone(person, firstMilestone2.toDate(),
-                lastMilestone2.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(Arrays.asList(b4));
-
-        Mockito.when(applicationDAO.getApplicationsAfterLastMilestone(person, firstMilestone2.toDate(),
-                lastMilestone2.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(Arrays.asList(b1));
+        Mockito.when(applicationDAO.getApplicationsForACertainTimeAndPersonAndVacationTypeAndStates(
+                new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), person, VacationType.HOLIDAY,
+                ApplicationStatus.WAITING, ApplicationStatus.ALLOWED)).thenReturn(Arrays.asList(a1, a2, a3, a4, b1, b2));
 
         Account account = new Account(person, new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
                 new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), BigDecimal.valueOf(28),
@@ -158,6 +171,7 @@ public class CalculationServiceTest {
         Mockito.when(accountService.getOrCreateNewAccount(2012, person)).thenReturn(account);
 
         Application n = new Application();
+        n.setStatus(ApplicationStatus.ALLOWED);
         n.setStartDate(new DateMidnight(2012, DateTimeConstants.AUGUST, 20));
         n.setEndDate(new DateMidnight(2012, DateTimeConstants.AUGUST, 21));
         n.setDays(BigDecimal.valueOf(2));
@@ -213,65 +227,38 @@ public class CalculationServiceTest {
         Person person = new Person();
         person.setLoginName("horscht");
 
-        DateMidnight firstMilestone = new DateMidnight(2012, DateTimeConstants.JANUARY, 1);
-        DateMidnight lastMilestone = new DateMidnight(2012, DateTimeConstants.MARCH, 31);
-
         Application a2 = new Application();
+        a2.setStatus(ApplicationStatus.ALLOWED);
         a2.setStartDate(new DateMidnight(2012, DateTimeConstants.MARCH, 12));
         a2.setEndDate(new DateMidnight(2012, DateTimeConstants.MARCH, 16));
         a2.setHowLong(DayLength.FULL);
         a2.setDays(BigDecimal.valueOf(5));
 
         Application a3 = new Application();
+        a3.setStatus(ApplicationStatus.ALLOWED);
         a3.setStartDate(new DateMidnight(2012, DateTimeConstants.FEBRUARY, 6));
         a3.setEndDate(new DateMidnight(2012, DateTimeConstants.FEBRUARY, 9));
         a3.setHowLong(DayLength.FULL);
         a3.setDays(BigDecimal.valueOf(4));
 
         Application a4 = new Application();
+        a4.setStatus(ApplicationStatus.ALLOWED);
         a4.setStartDate(new DateMidnight(2012, DateTimeConstants.MARCH, 29));
         a4.setEndDate(new DateMidnight(2012, DateTimeConstants.APRIL, 5));
         a4.setHowLong(DayLength.FULL);
         // must be 6 days at all: 2 before April + 4 after April
 
-        Mockito.when(applicationDAO.getApplicationsBetweenTwoMilestones(person, firstMilestone.toDate(),
-                lastMilestone.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(Arrays.asList(a2, a3));
-
-        Mockito.when(applicationDAO.getApplicationsBeforeFirstMilestone(person, firstMilestone.toDate(),
-                lastMilestone.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(new ArrayList<Application>());
-
-        Mockito.when(applicationDAO.getApplicationsAfterLastMilestone(person, firstMilestone.toDate(),
-                lastMilestone.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(Arrays.asList(a4));
-
-        DateMidnight firstMilestone2 = new DateMidnight(2012, DateTimeConstants.APRIL, 1);
-        DateMidnight lastMilestone2 = new DateMidnight(2012, DateTimeConstants.DECEMBER, 31);
-
         Application b2 = new Application();
+        b2.setStatus(ApplicationStatus.ALLOWED);
         b2.setStartDate(new DateMidnight(2012, DateTimeConstants.SEPTEMBER, 3));
         b2.setEndDate(new DateMidnight(2012, DateTimeConstants.SEPTEMBER, 7));
         b2.setHowLong(DayLength.FULL);
         b2.setDays(BigDecimal.valueOf(5));
 
-        Application b4 = new Application();
-        b4.setStartDate(new DateMidnight(2012, DateTimeConstants.MARCH, 29));
-        b4.setEndDate(new DateMidnight(2012, DateTimeConstants.APRIL, 5));
-        b4.setHowLong(DayLength.FULL);
-        // must be 6 days at all: 2 before April + 4 after April
-
-        Mockito.when(applicationDAO.getApplicationsBetweenTwoMilestones(person, firstMilestone2.toDate(),
-                lastMilestone2.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(Arrays.asList(b2));
-
-        Mockito.when(applicationDAO.getApplicationsBeforeFirstMilestone(person, firstMilestone2.toDate(),
-                lastMilestone2.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(Arrays.asList(b4));
-
-        Mockito.when(applicationDAO.getApplicationsAfterLastMilestone(person, firstMilestone2.toDate(),
-                lastMilestone2.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(new ArrayList<Application>());
+        Mockito.when(applicationDAO.getApplicationsForACertainTimeAndPersonAndVacationTypeAndStates(
+                new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), person, VacationType.HOLIDAY,
+                ApplicationStatus.WAITING, ApplicationStatus.ALLOWED)).thenReturn(Arrays.asList(a2, a3, a4, b2));
 
         Account account = new Account(person, new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
                 new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), BigDecimal.valueOf(28),
@@ -281,9 +268,12 @@ public class CalculationServiceTest {
         account.setVacationDays(BigDecimal.valueOf(28));
 
         Application n = new Application();
+        n.setStatus(ApplicationStatus.ALLOWED);
         n.setStartDate(new DateMidnight(2011, DateTimeConstants.DECEMBER, 20));
         n.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 3));
         n.setHowLong(DayLength.FULL);
+        n.setDaysInStartYear(BigDecimal.valueOf(8));
+        n.setDaysInEndYear(BigDecimal.valueOf(2));
         n.setPerson(person);
         n.setHowLong(DayLength.FULL);
         // at all there are 8 + 2 days (but only the 2 days of the new year are part of the calculation)
@@ -313,50 +303,52 @@ public class CalculationServiceTest {
         Person person = new Person();
         person.setLoginName("horscht");
 
-        DateMidnight firstMilestone = new DateMidnight(2012, DateTimeConstants.JANUARY, 1);
-        DateMidnight lastMilestone = new DateMidnight(2012, DateTimeConstants.MARCH, 31);
-
         Application a1 = new Application();
+        a1.setStatus(ApplicationStatus.ALLOWED);
         a1.setStartDate(new DateMidnight(2011, DateTimeConstants.DECEMBER, 29));
         a1.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 3));
         a1.setHowLong(DayLength.FULL);
+        a1.setDaysInStartYear(BigDecimal.valueOf(2));
+        a1.setDaysInEndYear(BigDecimal.valueOf(2));
         // must be 4 days at all: 2 before January + 2 after January
 
         Application a2 = new Application();
+        a2.setStatus(ApplicationStatus.ALLOWED);
         a2.setStartDate(new DateMidnight(2012, DateTimeConstants.MARCH, 12));
         a2.setEndDate(new DateMidnight(2012, DateTimeConstants.MARCH, 16));
         a2.setHowLong(DayLength.FULL);
         a2.setDays(BigDecimal.valueOf(5));
 
         Application a3 = new Application();
+        a3.setStatus(ApplicationStatus.ALLOWED);
         a3.setStartDate(new DateMidnight(2012, DateTimeConstants.FEBRUARY, 6));
         a3.setEndDate(new DateMidnight(2012, DateTimeConstants.FEBRUARY, 9));
         a3.setHowLong(DayLength.FULL);
         a3.setDays(BigDecimal.valueOf(4));
 
         Application a4 = new Application();
+        a4.setStatus(ApplicationStatus.ALLOWED);
         a4.setStartDate(new DateMidnight(2012, DateTimeConstants.MARCH, 29));
         a4.setEndDate(new DateMidnight(2012, DateTimeConstants.APRIL, 5));
         a4.setHowLong(DayLength.FULL);
         // must be 6 days at all: 2 before April + 4 after April
 
-        Mockito.when(applicationDAO.getApplicationsBetweenTwoMilestones(person, firstMilestone.toDate(),
-                lastMilestone.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(Arrays.asList(a2, a3));
+        Mockito.when(applicationDAO.getApplicationsForACertainTimeAndPersonAndVacationTypeAndStates(
+                new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), person, VacationType.HOLIDAY,
+                ApplicationStatus.WAITING, ApplicationStatus.ALLOWED)).thenReturn(Arrays.asList(a2, a3, a1, a4));
 
-        Mockito.when(applicationDAO.getApplicationsBeforeFirstMilestone(person, firstMilestone.toDate(),
-                lastMilestone.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(Arrays.asList(a1));
+        Account account = new Account(person, new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), BigDecimal.valueOf(28),
+                BigDecimal.valueOf(5), true);
 
-        Mockito.when(applicationDAO.getApplicationsAfterLastMilestone(person, firstMilestone.toDate(),
-                lastMilestone.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(Arrays.asList(a4));
+        UsedVacationDays usedVacationDays = service.getUsedVacationDays(account);
 
-        BigDecimal days = service.getDaysBetweenTwoMilestones(person, firstMilestone, lastMilestone);
         // must be: 2 + 5 + 4 + 2 = 13
+        Assert.assertEquals(new BigDecimal("13.0"), usedVacationDays.getDaysBeforeApril());
 
-        Assert.assertNotNull(days);
-        Assert.assertEquals(new BigDecimal("13.0"), days);
+        // must be: 4
+        Assert.assertEquals(new BigDecimal("4.0"), usedVacationDays.getDaysAfterApril());
     }
 
 
@@ -366,44 +358,172 @@ public class CalculationServiceTest {
         Person person = new Person();
         person.setLoginName("horscht");
 
-        DateMidnight firstMilestone = new DateMidnight(2012, DateTimeConstants.APRIL, 1);
-        DateMidnight lastMilestone = new DateMidnight(2012, DateTimeConstants.DECEMBER, 31);
-
         Application a1 = new Application();
+        a1.setStatus(ApplicationStatus.ALLOWED);
         a1.setStartDate(new DateMidnight(2012, DateTimeConstants.DECEMBER, 27));
         a1.setEndDate(new DateMidnight(2013, DateTimeConstants.JANUARY, 3));
         a1.setHowLong(DayLength.FULL);
+        a1.setDaysInStartYear(new BigDecimal("2.5"));
+        a1.setDaysInEndYear(BigDecimal.valueOf(2));
         // must be 4 days at all: 2.5 before January + 2 after January
 
         Application a2 = new Application();
+        a2.setStatus(ApplicationStatus.ALLOWED);
         a2.setStartDate(new DateMidnight(2012, DateTimeConstants.SEPTEMBER, 3));
         a2.setEndDate(new DateMidnight(2012, DateTimeConstants.SEPTEMBER, 7));
         a2.setHowLong(DayLength.FULL);
         a2.setDays(BigDecimal.valueOf(5));
 
         Application a4 = new Application();
+        a4.setStatus(ApplicationStatus.ALLOWED);
         a4.setStartDate(new DateMidnight(2012, DateTimeConstants.MARCH, 29));
         a4.setEndDate(new DateMidnight(2012, DateTimeConstants.APRIL, 5));
         a4.setHowLong(DayLength.FULL);
         // must be 6 days at all: 2 before April + 4 after April
 
-        Mockito.when(applicationDAO.getApplicationsBetweenTwoMilestones(person, firstMilestone.toDate(),
-                lastMilestone.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(Arrays.asList(a2));
+        Mockito.when(applicationDAO.getApplicationsForACertainTimeAndPersonAndVacationTypeAndStates(
+                new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), person, VacationType.HOLIDAY,
+                ApplicationStatus.WAITING, ApplicationStatus.ALLOWED)).thenReturn(Arrays.asList(a2, a4, a1));
 
-        Mockito.when(applicationDAO.getApplicationsBeforeFirstMilestone(person, firstMilestone.toDate(),
-                lastMilestone.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(Arrays.asList(a4));
+        Account account = new Account(person, new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), BigDecimal.valueOf(28),
+                BigDecimal.valueOf(5), true);
 
-        Mockito.when(applicationDAO.getApplicationsAfterLastMilestone(person, firstMilestone.toDate(),
-                lastMilestone.toDate(), VacationType.HOLIDAY, ApplicationStatus.WAITING, ApplicationStatus.ALLOWED))
-            .thenReturn(Arrays.asList(a1));
+        UsedVacationDays usedVacationDays = service.getUsedVacationDays(account);
 
-        BigDecimal days = service.getDaysBetweenTwoMilestones(person, firstMilestone, lastMilestone);
         // must be: 2.5 + 5 + 4 = 11.5
+        Assert.assertEquals(new BigDecimal("11.5"), usedVacationDays.getDaysAfterApril());
+
+        // must be: 2
+        Assert.assertEquals(new BigDecimal("2.0"), usedVacationDays.getDaysBeforeApril());
+    }
+
+
+    @Test
+    public void ensureCountsApplicationSpanningAllDaysBeforeApril() {
+
+        Person person = new Person();
+        person.setLoginName("horscht");
+
+        Application application = new Application();
+        application.setStatus(ApplicationStatus.ALLOWED);
+        application.setStartDate(new DateMidnight(2011, DateTimeConstants.DECEMBER, 29));
+        application.setEndDate(new DateMidnight(2012, DateTimeConstants.APRIL, 5));
+        application.setHowLong(DayLength.FULL);
+        application.setPerson(person);
+
+        Mockito.when(applicationDAO.getApplicationsForACertainTimeAndPersonAndVacationTypeAndStates(
+                new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), person, VacationType.HOLIDAY,
+                ApplicationStatus.WAITING, ApplicationStatus.ALLOWED)).thenReturn(Arrays.asList(application));
+
+        Account account = new Account(person, new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), BigDecimal.valueOf(28),
+                BigDecimal.valueOf(5), true);
+
+        UsedVacationDays usedVacationDays = service.getUsedVacationDays(account);
 
-        Assert.assertNotNull(days);
-        Assert.assertEquals(new BigDecimal("11.5"), days);
+        Assert.assertEquals(calendarService.getWorkDays(DayLength.FULL,
+                new DateMidnight(2012, DateTimeConstants.JANUARY, 1),
+                new DateMidnight(2012, DateTimeConstants.MARCH, 31), person), usedVacationDays.getDaysBeforeApril());
+        Assert.assertEquals(new BigDecimal("4.0"), usedVacationDays.getDaysAfterApril());
+    }
+
+
+    @Test
+    public void ensureCalculatesLeftVacationDaysOfManyPersonsLikeForSingleAccounts() {
+
+        Person person = new Person();
+        Person otherPerson = new Person();
+        Person personNotRequested = new Person();
+
+        Application a1 = new Application();
+        a1.setStatus(ApplicationStatus.ALLOWED);
+        a1.setPerson(person);
+        a1.setStartDate(new DateMidnight(2011, DateTimeConstants.DECEMBER, 29));
+        a1.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 3));
+        a1.setHowLong(DayLength.FULL);
+        a1.setDaysInStartYear(BigDecimal.valueOf(2));
+        a1.setDaysInEndYear(BigDecimal.valueOf(2));
+
+        Application a2 = new Application();
+        a2.setStatus(ApplicationStatus.ALLOWED);
+        a2.setPerson(person);
+        a2.setStartDate(new DateMidnight(2012, DateTimeConstants.MARCH, 29));
+        a2.setEndDate(new DateMidnight(2012, DateTimeConstants.APRIL, 5));
+        a2.setHowLong(DayLength.FULL);
+
+        Application b1 = new Application();
+        b1.setStatus(ApplicationStatus.ALLOWED);
+        b1.setPerson(otherPerson);
+        b1.setStartDate(new DateMidnight(2012, DateTimeConstants.SEPTEMBER, 3));
+        b1.setEndDate(new DateMidnight(2012, DateTimeConstants.SEPTEMBER, 7));
+        b1.setHowLong(DayLength.FULL);
+        b1.setDays(BigDecimal.valueOf(5));
+
+        Application b2 = new Application();
+        b2.setStatus(ApplicationStatus.ALLOWED);
+        b2.setPerson(otherPerson);
+        b2.setStartDate(new DateMidnight(2012, DateTimeConstants.DECEMBER, 27));
+        b2.setEndDate(new DateMidnight(2013, DateTimeConstants.JANUARY, 3));
+        b2.setHowLong(DayLength.FULL);
+        b2.setDaysInStartYear(new BigDecimal("2.5"));
+        b2.setDaysInEndYear(BigDecimal.valueOf(2));
+
+        Account account = new Account(person, new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), BigDecimal.valueOf(28),
+                BigDecimal.valueOf(5), true);
+        account.setVacationDays(BigDecimal.valueOf(28));
+
+        Account otherAccount = new Account(otherPerson, new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), BigDecimal.valueOf(20),
+                BigDecimal.valueOf(3), false);
+        otherAccount.setVacationDays(BigDecimal.valueOf(20));
+
+        Account accountNotRequested = new Account(personNotRequested,
+                new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), BigDecimal.valueOf(20),
+                BigDecimal.ZERO, false);
+
+        Mockito.when(accountService.getHolidaysAccounts(2012)).thenReturn(Arrays.asList(account, otherAccount,
+                accountNotRequested));
+
+        Mockito.when(applicationDAO.getApplicationsForACertainTimeAndVacationTypeAndStates(
+                new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), VacationType.HOLIDAY,
+                ApplicationStatus.WAITING, ApplicationStatus.ALLOWED)).thenReturn(Arrays.asList(a1, a2, b1, b2));
+
+        Mockito.when(applicationDAO.getApplicationsForACertainTimeAndPersonAndVacationTypeAndStates(
+                new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), person, VacationType.HOLIDAY,
+                ApplicationStatus.WAITING, ApplicationStatus.ALLOWED)).thenReturn(Arrays.asList(a1, a2));
+
+        Mockito.when(applicationDAO.getApplicationsForACertainTimeAndPersonAndVacationTypeAndStates(
+                new DateMidnight(2012, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2012, DateTimeConstants.DECEMBER, 31).toDate(), otherPerson, VacationType.HOLIDAY,
+                ApplicationStatus.WAITING, ApplicationStatus.ALLOWED)).thenReturn(Arrays.asList(b1, b2));
+
+        Map<Person, LeftVacationDays> leftVacationDays = service.calculateLeftVacationDays(2012,
+                Arrays.asList(person, otherPerson));
+
+        Assert.assertEquals(2, leftVacationDays.size());
+        Assert.assertFalse(leftVacationDays.containsKey(personNotRequested));
+
+        for (Account a : Arrays.asList(account, otherAccount)) {
+            LeftVacationDays left = leftVacationDays.get(a.getPerson());
+
+            Assert.assertEquals(a, left.getAccount());
+            Assert.assertEquals(service.calculateTotalLeftVacationDays(a), left.getTotalLeftVacationDays());
+            Assert.assertEquals(service.calculateLeftVacationDays(a), left.getLeftVacationDays());
+            Assert.assertEquals(service.calculateLeftRemainingVacationDays(a), left.getLeftRemainingVacationDays());
+        }
+
+        // 2 days in January + 2 days before April used from 5 remaining vacation days
+        Assert.assertEquals(new BigDecimal("1.0"), leftVacationDays.get(person).getLeftRemainingVacationDays());
+
+        // 5 days + 2.5 days (two days and New Year's Eve) used from 3 remaining and 20 vacation days
+        Assert.assertEquals(new BigDecimal("15.5"), leftVacationDays.get(otherPerson).getTotalLeftVacationDays());
     }
 
 
@@ -682,19 +802,12 @@ public class CalculationServiceTest {
 
     private void initCustomService(final String daysBeforeApril, final String daysAfterApril) {
 
-        service = new CalculationService(applicationDAO, accountService, calendarService) {
-
-            @Override
-            protected BigDecimal getDaysBeforeApril(Account account) {
-
-                return new BigDecimal(daysBeforeApril);
-            }
-
+        service = new CalculationService(accountService, vacationDaysLedgerService) {
 
             @Override
-            protected BigDecimal getDaysAfterApril(Account account) {
+            protected UsedVacationDays getUsedVacationDays(Account account) {
 
-                return new BigDecimal(daysAfterApril);
+                return new UsedVacationDays(new BigDecimal(daysBeforeApril), new BigDecimal(daysAfterApril));
             }
         };
     }
@@ -11,11 +11,14 @@ import org.mockito.Mockito;
 
 import org.synyx.urlaubsverwaltung.core.application.dao.ApplicationDAO;
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
 import org.synyx.urlaubsverwaltung.core.application.domain.OverlapCase;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -42,45 +45,6 @@ public class OverlapServiceTest {
     }
 
 
-    /**
-     * Test of checkOverlap method, of class OverlapService.
-     */
-    @Test
-    public void testCheckOverlap() {
-
-        // show that right method is used dependant on day length of application
-
-        // full day
-        Application app = new Application();
-        app.setHowLong(DayLength.FULL);
-        app.setStartDate(new DateMidnight(2012, 1, 25));
-        app.setEndDate(new DateMidnight(2012, 1, 30));
-        app.setPerson(person);
-
-        service.checkOverlap(app);
-        Mockito.verify(applicationDAO).getRelevantActiveApplicationsByPeriodForEveryDayLength(app.getStartDate()
-            .toDate(), app.getEndDate().toDate(), person);
-
-        // morning
-        app.setHowLong(DayLength.MORNING);
-        app.setStartDate(new DateMidnight(2012, 1, 25));
-        app.setEndDate(new DateMidnight(2012, 1, 25));
-
-        service.checkOverlap(app);
-        Mockito.verify(applicationDAO).getRelevantActiveApplicationsByPeriodAndDayLength(app.getStartDate().toDate(),
-            app.getEndDate().toDate(), person, DayLength.MORNING);
-
-        // noon
-        app.setHowLong(DayLength.NOON);
-        app.setStartDate(new DateMidnight(2012, 1, 25));
-        app.setEndDate(new DateMidnight(2012, 1, 25));
-
-        service.checkOverlap(app);
-        Mockito.verify(applicationDAO).getRelevantActiveApplicationsByPeriodAndDayLength(app.getStartDate().toDate(),
-            app.getEndDate().toDate(), person, DayLength.NOON);
-    }
-
-
     /**
      * Test of checkOverlapForFullDay method, of class ApplicationServiceImpl.
      */
@@ -98,12 +62,13 @@ public class OverlapServiceTest {
         a1.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 18));
 
         Application aNew = new Application();
+        aNew.setPerson(person);
         aNew.setHowLong(DayLength.FULL);
         aNew.setStartDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 23));
         aNew.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 24));
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodForEveryDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson())).thenReturn(new ArrayList<Application>());
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(Arrays.asList(a1));
 
         OverlapCase returnValue = service.checkOverlap(aNew);
 
@@ -121,13 +86,14 @@ public class OverlapServiceTest {
         a1.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 18));
 
         aNew = new Application();
+        aNew.setPerson(person);
         aNew.setHowLong(DayLength.FULL);
         aNew.setStartDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 19));
         aNew.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 20));
 
-        // return new and empty list
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodForEveryDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson())).thenReturn(new ArrayList<Application>());
+        // a1 is abutting, but not overlapping aNew
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(Arrays.asList(a1));
 
         returnValue = service.checkOverlap(aNew);
 
@@ -145,6 +111,7 @@ public class OverlapServiceTest {
         a1.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 20));
 
         aNew = new Application();
+        aNew.setPerson(person);
         aNew.setHowLong(DayLength.FULL);
         aNew.setStartDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 17));
         aNew.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 18));
@@ -152,8 +119,8 @@ public class OverlapServiceTest {
         List<Application> list = new ArrayList<Application>();
         list.add(a1);
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodForEveryDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson())).thenReturn(list);
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
         returnValue = service.checkOverlap(aNew);
 
@@ -171,6 +138,7 @@ public class OverlapServiceTest {
         a1.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 19));
 
         aNew = new Application();
+        aNew.setPerson(person);
         aNew.setHowLong(DayLength.FULL);
         aNew.setStartDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 18));
         aNew.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 20));
@@ -178,8 +146,8 @@ public class OverlapServiceTest {
         list = new ArrayList<Application>();
         list.add(a1);
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodForEveryDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson())).thenReturn(list);
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
         returnValue = service.checkOverlap(aNew);
 
@@ -192,6 +160,7 @@ public class OverlapServiceTest {
         // excepted return value == 3
 
         aNew = new Application();
+        aNew.setPerson(person);
         aNew.setHowLong(DayLength.FULL);
         aNew.setStartDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 16));
         aNew.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 19));
@@ -204,8 +173,8 @@ public class OverlapServiceTest {
         list = new ArrayList<Application>();
         list.add(a1);
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodForEveryDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson())).thenReturn(list);
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
         returnValue = service.checkOverlap(aNew);
 
@@ -219,6 +188,7 @@ public class OverlapServiceTest {
         // excepted return value == 3
 
         aNew = new Application();
+        aNew.setPerson(person);
         aNew.setHowLong(DayLength.FULL);
         aNew.setStartDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 17));
         aNew.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 26));
@@ -237,8 +207,8 @@ public class OverlapServiceTest {
         list.add(a1);
         list.add(a2);
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodForEveryDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson())).thenReturn(list);
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
         returnValue = service.checkOverlap(aNew);
 
@@ -252,6 +222,7 @@ public class OverlapServiceTest {
         // excepted return value == 2
 
         aNew = new Application();
+        aNew.setPerson(person);
         aNew.setHowLong(DayLength.FULL);
         aNew.setStartDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 17));
         aNew.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 23));
@@ -270,8 +241,8 @@ public class OverlapServiceTest {
         list.add(a1);
         list.add(a2);
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodForEveryDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson())).thenReturn(list);
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
         returnValue = service.checkOverlap(aNew);
 
@@ -287,6 +258,7 @@ public class OverlapServiceTest {
         a1.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 24));
 
         aNew = new Application();
+        aNew.setPerson(person);
         aNew.setHowLong(DayLength.FULL);
         aNew.setStartDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 23));
         aNew.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 25));
@@ -294,8 +266,8 @@ public class OverlapServiceTest {
         list = new ArrayList<Application>();
         list.add(a1);
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodForEveryDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson())).thenReturn(list);
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
         returnValue = service.checkOverlap(aNew);
 
@@ -311,6 +283,7 @@ public class OverlapServiceTest {
         a1.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 24));
 
         aNew = new Application();
+        aNew.setPerson(person);
         aNew.setHowLong(DayLength.FULL);
         aNew.setStartDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 24));
         aNew.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 24));
@@ -318,8 +291,8 @@ public class OverlapServiceTest {
         list = new ArrayList<Application>();
         list.add(a1);
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodForEveryDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson())).thenReturn(list);
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
         returnValue = service.checkOverlap(aNew);
 
@@ -356,10 +329,10 @@ public class OverlapServiceTest {
         aNew.setEndDate(new DateMidnight(2012, 1, 25));
         aNew.setPerson(person);
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.FULL)).thenReturn(list);
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
-        returnValue = service.checkOverlapForHalfDay(aNew, aNew.getHowLong());
+        returnValue = service.checkOverlap(aNew);
 
         assertEquals(OverlapCase.FULLY_OVERLAPPING, returnValue);
 
@@ -367,10 +340,10 @@ public class OverlapServiceTest {
         aNew.setStartDate(new DateMidnight(2012, 1, 23));
         aNew.setEndDate(new DateMidnight(2012, 1, 23));
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.FULL)).thenReturn(list);
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
-        returnValue = service.checkOverlapForHalfDay(aNew, aNew.getHowLong());
+        returnValue = service.checkOverlap(aNew);
 
         assertEquals(OverlapCase.FULLY_OVERLAPPING, returnValue);
 
@@ -379,10 +352,10 @@ public class OverlapServiceTest {
         aNew.setStartDate(new DateMidnight(2012, 1, 27));
         aNew.setEndDate(new DateMidnight(2012, 1, 27));
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.FULL)).thenReturn(list);
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
-        returnValue = service.checkOverlapForHalfDay(aNew, aNew.getHowLong());
+        returnValue = service.checkOverlap(aNew);
 
         assertEquals(OverlapCase.FULLY_OVERLAPPING, returnValue);
 
@@ -392,13 +365,10 @@ public class OverlapServiceTest {
         aNew.setStartDate(new DateMidnight(2012, 1, 28));
         aNew.setEndDate(new DateMidnight(2012, 1, 28));
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.FULL)).thenReturn(new ArrayList<Application>());
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.MORNING)).thenReturn(
-            new ArrayList<Application>()); // no overlap because of different dates
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
-        returnValue = service.checkOverlapForHalfDay(aNew, aNew.getHowLong());
+        returnValue = service.checkOverlap(aNew);
 
         assertEquals(OverlapCase.NO_OVERLAPPING, returnValue);
 
@@ -419,12 +389,10 @@ public class OverlapServiceTest {
         aNew.setStartDate(new DateMidnight(2012, 1, 23));
         aNew.setEndDate(new DateMidnight(2012, 1, 23));
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.FULL)).thenReturn(new ArrayList<Application>());
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.MORNING)).thenReturn(list);
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
-        returnValue = service.checkOverlapForHalfDay(aNew, aNew.getHowLong());
+        returnValue = service.checkOverlap(aNew);
 
         assertEquals(OverlapCase.FULLY_OVERLAPPING, returnValue);
 
@@ -432,13 +400,10 @@ public class OverlapServiceTest {
         // morning!) --> lists with existent applications are empty because there is no overlap! expected value == 1
         a.setHowLong(DayLength.NOON);
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.FULL)).thenReturn(new ArrayList<Application>());
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.MORNING)).thenReturn(
-            new ArrayList<Application>());
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
-        returnValue = service.checkOverlapForHalfDay(aNew, aNew.getHowLong());
+        returnValue = service.checkOverlap(aNew);
 
         assertEquals(OverlapCase.NO_OVERLAPPING, returnValue);
     }
@@ -472,10 +437,10 @@ public class OverlapServiceTest {
         aNew.setEndDate(new DateMidnight(2012, 1, 25));
         aNew.setPerson(person);
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.FULL)).thenReturn(list);
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
-        returnValue = service.checkOverlapForHalfDay(aNew, aNew.getHowLong());
+        returnValue = service.checkOverlap(aNew);
 
         assertEquals(OverlapCase.FULLY_OVERLAPPING, returnValue);
 
@@ -483,10 +448,10 @@ public class OverlapServiceTest {
         aNew.setStartDate(new DateMidnight(2012, 1, 23));
         aNew.setEndDate(new DateMidnight(2012, 1, 23));
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.FULL)).thenReturn(list);
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
-        returnValue = service.checkOverlapForHalfDay(aNew, aNew.getHowLong());
+        returnValue = service.checkOverlap(aNew);
 
         assertEquals(OverlapCase.FULLY_OVERLAPPING, returnValue);
 
@@ -495,10 +460,10 @@ public class OverlapServiceTest {
         aNew.setStartDate(new DateMidnight(2012, 1, 27));
         aNew.setEndDate(new DateMidnight(2012, 1, 27));
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.FULL)).thenReturn(list);
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
-        returnValue = service.checkOverlapForHalfDay(aNew, aNew.getHowLong());
+        returnValue = service.checkOverlap(aNew);
 
         assertEquals(OverlapCase.FULLY_OVERLAPPING, returnValue);
 
@@ -508,12 +473,10 @@ public class OverlapServiceTest {
         aNew.setStartDate(new DateMidnight(2012, 1, 28));
         aNew.setEndDate(new DateMidnight(2012, 1, 28));
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.FULL)).thenReturn(new ArrayList<Application>()); // no existent half day applications
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.NOON)).thenReturn(new ArrayList<Application>()); // no overlap because of different dates
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
-        returnValue = service.checkOverlapForHalfDay(aNew, aNew.getHowLong());
+        returnValue = service.checkOverlap(aNew);
 
         assertEquals(OverlapCase.NO_OVERLAPPING, returnValue);
 
@@ -534,12 +497,10 @@ public class OverlapServiceTest {
         aNew.setStartDate(new DateMidnight(2012, 1, 23));
         aNew.setEndDate(new DateMidnight(2012, 1, 23));
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.FULL)).thenReturn(new ArrayList<Application>());
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.NOON)).thenReturn(list);
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
-        returnValue = service.checkOverlapForHalfDay(aNew, aNew.getHowLong());
+        returnValue = service.checkOverlap(aNew);
 
         assertEquals(OverlapCase.FULLY_OVERLAPPING, returnValue);
 
@@ -548,13 +509,42 @@ public class OverlapServiceTest {
         // expected value == 1
         a.setHowLong(DayLength.MORNING);
 
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.FULL)).thenReturn(new ArrayList<Application>());
-        Mockito.when(applicationDAO.getRelevantActiveApplicationsByPeriodAndDayLength(aNew.getStartDate().toDate(),
-                aNew.getEndDate().toDate(), aNew.getPerson(), DayLength.NOON)).thenReturn(new ArrayList<Application>());
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(person))).thenReturn(list);
 
-        returnValue = service.checkOverlapForHalfDay(aNew, aNew.getHowLong());
+        returnValue = service.checkOverlap(aNew);
 
         assertEquals(OverlapCase.NO_OVERLAPPING, returnValue);
     }
+
+
+    @Test
+    public void ensureASavedApplicationDoesNotOverlapWithItself() {
+
+        Application waiting = Mockito.spy(new Application());
+        Mockito.when(waiting.getId()).thenReturn(42);
+        waiting.setPerson(person);
+        waiting.setHowLong(DayLength.FULL);
+        waiting.setStatus(ApplicationStatus.WAITING);
+        waiting.setStartDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 16));
+        waiting.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 18));
+
+        Application other = Mockito.spy(new Application());
+        Mockito.when(other.getId()).thenReturn(43);
+        other.setHowLong(DayLength.FULL);
+        other.setStatus(ApplicationStatus.ALLOWED);
+        other.setStartDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 18));
+        other.setEndDate(new DateMidnight(2012, DateTimeConstants.JANUARY, 19));
+
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(waiting.getStartDate().toDate(),
+                    waiting.getEndDate().toDate(), person)).thenReturn(Arrays.asList(waiting));
+
+        assertEquals(OverlapCase.NO_OVERLAPPING, service.checkOverlap(waiting));
+
+        // e.g. applied for and allowed on another node since the application has been loaded
+        Mockito.when(applicationDAO.getActiveApplicationsByPersonAndPeriod(waiting.getStartDate().toDate(),
+                    waiting.getEndDate().toDate(), person)).thenReturn(Arrays.asList(waiting, other));
+
+        assertEquals(OverlapCase.PARTLY_OVERLAPPING, service.checkOverlap(waiting));
+    }
 }
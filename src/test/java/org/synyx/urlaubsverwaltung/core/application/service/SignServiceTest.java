@@ -6,14 +6,20 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import org.synyx.urlaubsverwaltung.core.application.dao.ApplicationSignaturesDAO;
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationSignatures;
 import org.synyx.urlaubsverwaltung.core.application.domain.VacationType;
 import org.synyx.urlaubsverwaltung.core.mail.MailService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.person.PersonKeys;
+import org.synyx.urlaubsverwaltung.core.person.PersonService;
 import org.synyx.urlaubsverwaltung.security.CryptoUtil;
 
+import java.security.KeyPair;
 import java.security.NoSuchAlgorithmException;
 
 
@@ -24,21 +30,39 @@ public class SignServiceTest {
 
     private SignService signService;
 
+    private MailService mailService;
+    private PersonService personService;
+    private ApplicationSignaturesDAO applicationSignaturesDAO;
+
     @Before
     public void setUp() {
 
-        signService = new SignService(Mockito.mock(MailService.class));
+        mailService = Mockito.mock(MailService.class);
+        personService = Mockito.mock(PersonService.class);
+        applicationSignaturesDAO = Mockito.mock(ApplicationSignaturesDAO.class);
+
+        signService = new SignService(mailService, personService, applicationSignaturesDAO);
     }
 
 
-    @Test
-    public void ensureSigningApplicationByUserGeneratesPersonSignature() throws NoSuchAlgorithmException {
+    private Person createPersonWithKeys() throws NoSuchAlgorithmException {
 
         Person person = new Person();
-        Application application = new Application();
 
         // person needs some info: private key, last name
-        person.setPrivateKey(CryptoUtil.generateKeyPair().getPrivate().getEncoded());
+        KeyPair keyPair = CryptoUtil.generateKeyPair();
+        Mockito.when(personService.getKeys(person)).thenReturn(new PersonKeys(person,
+                keyPair.getPrivate().getEncoded(), keyPair.getPublic().getEncoded()));
+
+        return person;
+    }
+
+
+    @Test
+    public void ensureSigningApplicationByUserGeneratesPersonSignature() throws NoSuchAlgorithmException {
+
+        Person person = createPersonWithKeys();
+        Application application = new Application();
 
         // application needs data
         application.setPerson(person);
@@ -47,30 +71,52 @@ public class SignServiceTest {
 
         signService.signApplicationByUser(application, person);
 
+        ArgumentCaptor<ApplicationSignatures> signaturesCaptor = ArgumentCaptor.forClass(ApplicationSignatures.class);
+        Mockito.verify(applicationSignaturesDAO).save(signaturesCaptor.capture());
+
         // signature of person should be filled, signature of boss not
-        Assert.assertNotNull(application.getSignaturePerson());
-        Assert.assertNull(application.getSignatureBoss());
+        Assert.assertEquals(application, signaturesCaptor.getValue().getApplication());
+        Assert.assertNotNull(signaturesCaptor.getValue().getSignaturePerson());
+        Assert.assertNull(signaturesCaptor.getValue().getSignatureBoss());
     }
 
 
     @Test
     public void ensureSigningApplicationByUserGeneratesBossSignature() throws NoSuchAlgorithmException {
 
-        Person person = new Person();
+        Person person = createPersonWithKeys();
         Application application = new Application();
 
-        // person needs some info: private key, last name
-        person.setPrivateKey(CryptoUtil.generateKeyPair().getPrivate().getEncoded());
-
         // application needs data
         application.setPerson(person);
         application.setVacationType(VacationType.HOLIDAY);
         application.setApplicationDate(new DateMidnight(2011, 12, 21));
 
+        // application has already been signed by the applier
+        ApplicationSignatures signatures = new ApplicationSignatures(application);
+        signatures.setSignaturePerson(new byte[] { 1 });
+        Mockito.when(applicationSignaturesDAO.findByApplication(application)).thenReturn(signatures);
+
         signService.signApplicationByBoss(application, person);
 
-        // signature of boss should be filled, signature of person not
-        Assert.assertNotNull(application.getSignatureBoss());
-        Assert.assertNull(application.getSignaturePerson());
+        Mockito.verify(applicationSignaturesDAO).save(signatures);
+
+        // signature of boss should be filled, signature of person kept
+        Assert.assertNotNull(signatures.getSignatureBoss());
+        Assert.assertArrayEquals(new byte[] { 1 }, signatures.getSignaturePerson());
+    }
+
+
+    @Test
+    public void ensureSigningWithoutKeysSavesNoSignatureAndNotifiesAboutTheError() {
+
+        Person person = new Person();
+        Application application = new Application();
+        application.setPerson(person);
+
+        signService.signApplicationByUser(application, person);
+
+        Mockito.verify(applicationSignaturesDAO, Mockito.never()).save(Mockito.any(ApplicationSignatures.class));
+        Mockito.verify(mailService).sendSignErrorNotification(Mockito.anyInt(), Mockito.anyString());
     }
 }
@@ -0,0 +1,338 @@
+package org.synyx.urlaubsverwaltung.core.application.service;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import org.synyx.urlaubsverwaltung.core.account.Account;
+import org.synyx.urlaubsverwaltung.core.account.AccountService;
+import org.synyx.urlaubsverwaltung.core.application.dao.ApplicationDAO;
+import org.synyx.urlaubsverwaltung.core.application.dao.VacationDaysLedgerDAO;
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.application.domain.VacationDaysLedger;
+import org.synyx.urlaubsverwaltung.core.application.domain.VacationType;
+import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
+import org.synyx.urlaubsverwaltung.core.calendar.WorkDaysRequest;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+
+import java.math.BigDecimal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+
+/**
+ * Unit test for {@link VacationDaysLedgerService}.
+ *
+ * @author  agent
+ */
+public class VacationDaysLedgerServiceTest {
+
+    private VacationDaysLedgerService service;
+
+    private VacationDaysLedgerDAO ledgerDAO;
+    private ApplicationDAO applicationDAO;
+    private AccountService accountService;
+    private OwnCalendarService calendarService;
+    private ApplicationService applicationService;
+    private VacationDaysLedgerCreationService ledgerCreationService;
+
+    private Person person;
+    private Account account;
+
+    @Before
+    public void setUp() {
+
+        ledgerDAO = Mockito.mock(VacationDaysLedgerDAO.class);
+        applicationDAO = Mockito.mock(ApplicationDAO.class);
+        accountService = Mockito.mock(AccountService.class);
+        calendarService = Mockito.mock(OwnCalendarService.class);
+        applicationService = Mockito.mock(ApplicationService.class);
+        ledgerCreationService = Mockito.mock(VacationDaysLedgerCreationService.class);
+
+        service = new VacationDaysLedgerService(ledgerDAO, applicationDAO, accountService, calendarService,
+                new DaysPerYearService(applicationService, calendarService), ledgerCreationService);
+
+        person = new Person();
+
+        account = new Account(person, new DateMidnight(2014, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2014, DateTimeConstants.DECEMBER, 31).toDate(), BigDecimal.valueOf(28),
+                BigDecimal.ZERO, true);
+
+        Mockito.when(accountService.getHolidaysAccount(2014, person)).thenReturn(account);
+    }
+
+
+    private Application createApplication(DateMidnight startDate, DateMidnight endDate, BigDecimal days,
+        ApplicationStatus status) {
+
+        Application application = new Application();
+        application.setPerson(person);
+        application.setVacationType(VacationType.HOLIDAY);
+        application.setHowLong(DayLength.FULL);
+        application.setStartDate(startDate);
+        application.setEndDate(endDate);
+        application.setDays(days);
+        application.setStatus(status);
+
+        return application;
+    }
+
+
+    @Test
+    public void ensureUsesSavedLedgerWithoutLoadingApplicationsForLeave() {
+
+        VacationDaysLedger ledger = new VacationDaysLedger(account);
+        ledger.setWaitingDaysBeforeApril(new BigDecimal("2.00"));
+        ledger.setAllowedDaysBeforeApril(new BigDecimal("1.50"));
+        ledger.setAllowedDaysAfterApril(new BigDecimal("3.00"));
+
+        Mockito.when(ledgerDAO.findByAccount(account)).thenReturn(ledger);
+
+        UsedVacationDays usedVacationDays = service.getUsedVacationDays(account);
+
+        Assert.assertEquals(new BigDecimal("3.5"), usedVacationDays.getDaysBeforeApril());
+        Assert.assertEquals(new BigDecimal("3.0"), usedVacationDays.getDaysAfterApril());
+
+        Mockito.verifyZeroInteractions(applicationDAO, calendarService);
+    }
+
+
+    @Test
+    public void ensureCalculatesAndSavesLedgerIfThereIsNoneYet() {
+
+        Application waiting = createApplication(new DateMidnight(2014, DateTimeConstants.FEBRUARY, 3),
+                new DateMidnight(2014, DateTimeConstants.FEBRUARY, 7), BigDecimal.valueOf(5),
+                ApplicationStatus.WAITING);
+
+        Application allowed = createApplication(new DateMidnight(2014, DateTimeConstants.MARCH, 31),
+                new DateMidnight(2014, DateTimeConstants.APRIL, 2), BigDecimal.valueOf(3),
+                ApplicationStatus.ALLOWED);
+
+        Mockito.when(applicationDAO.getApplicationsForACertainTimeAndPersonAndVacationTypeAndStates(
+                    Mockito.any(Date.class), Mockito.any(Date.class), Mockito.eq(person),
+                    Mockito.eq(VacationType.HOLIDAY), Mockito.eq(ApplicationStatus.WAITING),
+                    Mockito.eq(ApplicationStatus.ALLOWED)))
+            .thenReturn(Arrays.asList(waiting, allowed));
+
+        // the allowed application for leave spans April: 1 day before April and 2 days from April on
+        Mockito.when(calendarService.getWorkDaysInHalfDays(Mockito.anyListOf(WorkDaysRequest.class)))
+            .thenReturn(new long[] { 2, 4 });
+
+        UsedVacationDays usedVacationDays = service.getUsedVacationDays(account);
+
+        Assert.assertEquals(new BigDecimal("6.0"), usedVacationDays.getDaysBeforeApril());
+        Assert.assertEquals(new BigDecimal("2.0"), usedVacationDays.getDaysAfterApril());
+
+        Mockito.verify(ledgerCreationService).create(Mockito.anyListOf(VacationDaysLedger.class));
+    }
+
+
+    @Test
+    public void ensureReadsLedgerCreatedConcurrentlyByAnotherRequestAgain() {
+
+        Mockito.when(applicationDAO.getApplicationsForACertainTimeAndPersonAndVacationTypeAndStates(
+                    Mockito.any(Date.class), Mockito.any(Date.class), Mockito.eq(person),
+                    Mockito.eq(VacationType.HOLIDAY), Mockito.eq(ApplicationStatus.WAITING),
+                    Mockito.eq(ApplicationStatus.ALLOWED)))
+            .thenReturn(Collections.<Application>emptyList());
+
+        Mockito.doThrow(new DataIntegrityViolationException("Duplicate entry for key 'account_id'"))
+            .when(ledgerCreationService).create(Mockito.anyListOf(VacationDaysLedger.class));
+
+        // the ledger of the other request contains an application for leave saved in the meantime
+        VacationDaysLedger concurrentlyCreatedLedger = new VacationDaysLedger(account);
+        concurrentlyCreatedLedger.setWaitingDaysAfterApril(new BigDecimal("2.00"));
+
+        Mockito.when(ledgerDAO.findByAccounts(Arrays.asList(account))).thenReturn(Arrays.asList(
+                concurrentlyCreatedLedger));
+
+        UsedVacationDays usedVacationDays = service.getUsedVacationDays(account);
+
+        Assert.assertEquals(new BigDecimal("0.0"), usedVacationDays.getDaysBeforeApril());
+        Assert.assertEquals(new BigDecimal("2.0"), usedVacationDays.getDaysAfterApril());
+    }
+
+
+    @Test
+    public void ensureAllowingApplicationForLeaveMovesDaysFromWaitingToAllowed() {
+
+        Application application = createApplication(new DateMidnight(2014, DateTimeConstants.FEBRUARY, 3),
+                new DateMidnight(2014, DateTimeConstants.FEBRUARY, 5), BigDecimal.valueOf(3),
+                ApplicationStatus.ALLOWED);
+
+        Mockito.when(ledgerDAO.addDays(Mockito.eq(account), Mockito.any(BigDecimal.class),
+                    Mockito.any(BigDecimal.class), Mockito.any(BigDecimal.class), Mockito.any(BigDecimal.class)))
+            .thenReturn(1);
+
+        service.update(application, ApplicationStatus.WAITING);
+
+        Mockito.verify(ledgerDAO).addDays(account, BigDecimal.valueOf(-3), BigDecimal.valueOf(3), BigDecimal.ZERO,
+            BigDecimal.ZERO);
+
+        Mockito.verifyZeroInteractions(applicationDAO, calendarService);
+    }
+
+
+    @Test
+    public void ensureCancellingApplicationForLeaveSpanningTheTurnOfTheYearUpdatesBothAccounts() {
+
+        Account accountOfLastYear = new Account(person, new DateMidnight(2013, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2013, DateTimeConstants.DECEMBER, 31).toDate(), BigDecimal.valueOf(28),
+                BigDecimal.ZERO, true);
+
+        Mockito.when(accountService.getHolidaysAccount(2013, person)).thenReturn(accountOfLastYear);
+
+        Application application = createApplication(new DateMidnight(2013, DateTimeConstants.DECEMBER, 30),
+                new DateMidnight(2014, DateTimeConstants.JANUARY, 3), BigDecimal.valueOf(3),
+                ApplicationStatus.CANCELLED);
+        application.setDaysInStartYear(new BigDecimal("1.5"));
+        application.setDaysInEndYear(BigDecimal.valueOf(2));
+
+        Mockito.when(ledgerDAO.addDays(Mockito.any(Account.class), Mockito.any(BigDecimal.class),
+                    Mockito.any(BigDecimal.class), Mockito.any(BigDecimal.class), Mockito.any(BigDecimal.class)))
+            .thenReturn(1);
+
+        service.update(application, ApplicationStatus.ALLOWED);
+
+        Mockito.verify(ledgerDAO).addDays(accountOfLastYear, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+            new BigDecimal("-1.5"));
+        Mockito.verify(ledgerDAO).addDays(account, BigDecimal.ZERO, BigDecimal.valueOf(-2), BigDecimal.ZERO,
+            BigDecimal.ZERO);
+
+        // the parts in both years are not spanning April, so the number of days per year is used
+        Mockito.verifyZeroInteractions(calendarService);
+    }
+
+
+    @Test
+    public void ensureCalculatesAndSavesMissingNumberOfDaysPerYearInsteadOfFailing() {
+
+        Mockito.when(accountService.getHolidaysAccount(2013, person)).thenReturn(null);
+
+        // saved before the number of days has been saved per year
+        Application application = createApplication(new DateMidnight(2013, DateTimeConstants.DECEMBER, 30),
+                new DateMidnight(2014, DateTimeConstants.JANUARY, 3), BigDecimal.valueOf(3),
+                ApplicationStatus.ALLOWED);
+
+        Mockito.when(calendarService.getWorkDays(DayLength.FULL, new DateMidnight(2013, DateTimeConstants.DECEMBER, 30),
+                new DateMidnight(2013, DateTimeConstants.DECEMBER, 31), person)).thenReturn(BigDecimal.ONE);
+        Mockito.when(ledgerDAO.addDays(Mockito.any(Account.class), Mockito.any(BigDecimal.class),
+                    Mockito.any(BigDecimal.class), Mockito.any(BigDecimal.class), Mockito.any(BigDecimal.class)))
+            .thenReturn(1);
+
+        service.update(application, ApplicationStatus.WAITING);
+
+        Assert.assertEquals(BigDecimal.ONE, application.getDaysInStartYear());
+        Assert.assertEquals(BigDecimal.valueOf(2), application.getDaysInEndYear());
+        Mockito.verify(applicationService).save(application);
+        Mockito.verify(ledgerDAO).addDays(account, BigDecimal.valueOf(-2), BigDecimal.valueOf(2), BigDecimal.ZERO,
+            BigDecimal.ZERO);
+    }
+
+
+    @Test
+    public void ensureDoesNotCreateLedgerIfThereIsNoneToUpdate() {
+
+        Application application = createApplication(new DateMidnight(2014, DateTimeConstants.FEBRUARY, 3),
+                new DateMidnight(2014, DateTimeConstants.FEBRUARY, 5), BigDecimal.valueOf(3),
+                ApplicationStatus.WAITING);
+        application.setDaysInStartYear(BigDecimal.valueOf(3));
+        application.setDaysInEndYear(BigDecimal.valueOf(3));
+
+        Mockito.when(ledgerDAO.addDays(Mockito.eq(account), Mockito.any(BigDecimal.class),
+                    Mockito.any(BigDecimal.class), Mockito.any(BigDecimal.class), Mockito.any(BigDecimal.class)))
+            .thenReturn(0);
+
+        service.update(application, null);
+
+        // the ledger is calculated from the committed applications for leave on first use
+        Mockito.verifyZeroInteractions(applicationDAO, ledgerCreationService);
+    }
+
+
+    @Test
+    public void ensureDoesNotUpdateLedgerForOtherVacationTypesThanHoliday() {
+
+        Application application = createApplication(new DateMidnight(2014, DateTimeConstants.FEBRUARY, 3),
+                new DateMidnight(2014, DateTimeConstants.FEBRUARY, 5), BigDecimal.valueOf(3),
+                ApplicationStatus.WAITING);
+        application.setVacationType(VacationType.OVERTIME);
+
+        service.update(application, null);
+
+        Mockito.verifyZeroInteractions(ledgerDAO);
+    }
+
+
+    @Test
+    public void ensureRebuildingCreatesMissingAndCorrectsDifferingLedgers() {
+
+        Account accountWithCorrectLedger = new Account();
+        Account accountWithDifferingLedger = new Account();
+        Account accountWithoutLedger = new Account();
+
+        List<Account> accounts = Arrays.asList(accountWithCorrectLedger, accountWithDifferingLedger,
+                accountWithoutLedger);
+
+        VacationDaysLedger correctLedger = new VacationDaysLedger(accountWithCorrectLedger);
+        VacationDaysLedger differingLedger = new VacationDaysLedger(accountWithDifferingLedger);
+        differingLedger.setWaitingDaysAfterApril(new BigDecimal("2.00"));
+
+        Mockito.when(accountService.getHolidaysAccounts(2014)).thenReturn(accounts);
+        Mockito.when(ledgerDAO.findByAccounts(accounts)).thenReturn(Arrays.asList(correctLedger, differingLedger));
+        Mockito.when(applicationDAO.getApplicationsForACertainTimeAndVacationTypeAndStates(Mockito.any(Date.class),
+                    Mockito.any(Date.class), Mockito.eq(VacationType.HOLIDAY), Mockito.eq(ApplicationStatus.WAITING),
+                    Mockito.eq(ApplicationStatus.ALLOWED)))
+            .thenReturn(Collections.<Application>emptyList());
+
+        int rebuiltLedgers = service.rebuildLedgers(2014);
+
+        Assert.assertEquals(2, rebuiltLedgers);
+        Assert.assertEquals(BigDecimal.ZERO, differingLedger.getWaitingDaysAfterApril());
+    }
+
+
+    @Test
+    public void ensureRebuildsLedgersOfThePersonFromTheYearOfTheGivenDateOn() {
+
+        Account accountOf2015 = new Account(person, new DateMidnight(2015, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2015, DateTimeConstants.DECEMBER, 31).toDate(), BigDecimal.valueOf(28),
+                BigDecimal.ZERO, true);
+
+        Mockito.when(accountService.getHolidaysAccount(2015, person)).thenReturn(accountOf2015);
+
+        VacationDaysLedger differingLedger = new VacationDaysLedger(account);
+        differingLedger.setAllowedDaysBeforeApril(new BigDecimal("2.00"));
+
+        VacationDaysLedger correctLedger = new VacationDaysLedger(accountOf2015);
+
+        Mockito.when(ledgerDAO.findByAccounts(Arrays.asList(account))).thenReturn(Arrays.asList(differingLedger));
+        Mockito.when(ledgerDAO.findByAccounts(Arrays.asList(accountOf2015))).thenReturn(Arrays.asList(
+                correctLedger));
+        Mockito.when(applicationDAO.getApplicationsForACertainTimeAndPersonAndVacationTypeAndStates(
+                    Mockito.any(Date.class), Mockito.any(Date.class), Mockito.eq(person),
+                    Mockito.eq(VacationType.HOLIDAY), Mockito.eq(ApplicationStatus.WAITING),
+                    Mockito.eq(ApplicationStatus.ALLOWED)))
+            .thenReturn(Collections.<Application>emptyList());
+
+        int rebuiltLedgers = service.rebuildLedgers(person, new DateMidnight(2014, DateTimeConstants.MAY, 1));
+
+        Assert.assertEquals(1, rebuiltLedgers);
+        Assert.assertEquals(BigDecimal.ZERO, differingLedger.getAllowedDaysBeforeApril());
+
+        Mockito.verify(accountService, Mockito.never()).getHolidaysAccount(2013, person);
+        Mockito.verify(ledgerDAO).save(Arrays.asList(differingLedger));
+    }
+}
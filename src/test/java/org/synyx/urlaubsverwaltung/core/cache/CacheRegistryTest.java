@@ -0,0 +1,67 @@
+package org.synyx.urlaubsverwaltung.core.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheStats;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.SortedMap;
+
+
+/**
+ * Unit test for {@link CacheRegistry}.
+ *
+ * @author  agent
+ */
+public class CacheRegistryTest {
+
+    private CacheRegistry cacheRegistry;
+
+    @Before
+    public void setUp() {
+
+        cacheRegistry = new CacheRegistry(2, 10);
+    }
+
+
+    @Test
+    public void ensureCreatedCachesAreLimitedToTheMaximumSize() {
+
+        Cache<Integer, String> cache = cacheRegistry.create("test");
+
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.put(3, "three");
+
+        Assert.assertEquals(2, cache.size());
+    }
+
+
+    @Test
+    public void ensureReturnsTheStatisticsOfAllCaches() {
+
+        Cache<Integer, String> cache = cacheRegistry.create("test");
+        cacheRegistry.create("other");
+
+        cache.put(1, "one");
+        cache.getIfPresent(1);
+        cache.getIfPresent(2);
+
+        SortedMap<String, CacheStats> statistics = cacheRegistry.getStatistics();
+
+        Assert.assertEquals("Wrong number of caches", 2, statistics.size());
+        Assert.assertEquals(1, statistics.get("test").hitCount());
+        Assert.assertEquals(1, statistics.get("test").missCount());
+        Assert.assertEquals(0, statistics.get("other").requestCount());
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureCacheNamesAreUnique() {
+
+        cacheRegistry.create("test");
+        cacheRegistry.create("test");
+    }
+}
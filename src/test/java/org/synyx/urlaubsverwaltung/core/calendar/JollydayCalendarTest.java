@@ -227,4 +227,42 @@ public class JollydayCalendarTest {
 
         Assert.assertEquals("Wrong working duration", BigDecimal.ZERO, workingDuration);
     }
+
+
+    @Test
+    public void ensureCorrectWorkingDurationInHalfDays() {
+
+        DateMidnight workDay = new DateMidnight(2013, DateTimeConstants.NOVEMBER, 27);
+        DateMidnight christmasEve = new DateMidnight(2013, DateTimeConstants.DECEMBER, 24);
+        DateMidnight christmas = new DateMidnight(2013, DateTimeConstants.DECEMBER, 25);
+
+        Assert.assertEquals("Wrong working duration", 2, jollydayCalendar.getWorkingDurationOfDateInHalfDays(workDay));
+        Assert.assertEquals("Wrong working duration", 1,
+            jollydayCalendar.getWorkingDurationOfDateInHalfDays(christmasEve));
+        Assert.assertEquals("Wrong working duration", 0,
+            jollydayCalendar.getWorkingDurationOfDateInHalfDays(christmas));
+    }
+
+
+    @Test
+    public void ensureWorkingDurationOfEveryDayOfLeapYearMatchesPublicHolidayCheck() {
+
+        DateMidnight day = new DateMidnight(2012, DateTimeConstants.JANUARY, 1);
+        DateMidnight lastDay = new DateMidnight(2012, DateTimeConstants.DECEMBER, 31);
+
+        while (!day.isAfter(lastDay)) {
+            BigDecimal workingDuration = jollydayCalendar.getWorkingDurationOfDate(day);
+
+            if (!jollydayCalendar.isPublicHoliday(day)) {
+                Assert.assertEquals("Wrong working duration for " + day, BigDecimal.ONE.setScale(1), workingDuration);
+            } else if (day.getMonthOfYear() == DateTimeConstants.DECEMBER
+                    && (day.getDayOfMonth() == 24 || day.getDayOfMonth() == 31)) {
+                Assert.assertEquals("Wrong working duration for " + day, new BigDecimal("0.5"), workingDuration);
+            } else {
+                Assert.assertEquals("Wrong working duration for " + day, BigDecimal.ZERO, workingDuration);
+            }
+
+            day = day.plusDays(1);
+        }
+    }
 }
@@ -0,0 +1,242 @@
+package org.synyx.urlaubsverwaltung.core.calendar;
+
+import de.jollyday.HolidayManager;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.synyx.urlaubsverwaltung.DateFormat;
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.cache.CacheRegistry;
+import org.synyx.urlaubsverwaltung.core.calendar.workingtime.NoValidWorkingTimeException;
+import org.synyx.urlaubsverwaltung.core.calendar.workingtime.WorkingTime;
+import org.synyx.urlaubsverwaltung.core.calendar.workingtime.WorkingTimeService;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.util.DateUtil;
+import org.synyx.urlaubsverwaltung.core.util.PropertiesUtil;
+
+import java.io.IOException;
+
+import java.math.BigDecimal;
+
+import java.net.URL;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Compares the calculation of work days by {@link OwnCalendarService#getWorkDays} with the former day by day
+ * calculation. The reference is the former implementation, copied unchanged into {@link BaselineOwnCalendarService}
+ * and {@link BaselineJollydayCalendar}, so that it does not benefit from the cached public holidays.
+ *
+ * <p>Not executed by the build: run the main method with the test classpath to get the comparison.</p>
+ *
+ * @author  agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OwnCalendarServiceBenchmark {
+
+    @Param({ "1", "14", "365" })
+    private int numberOfDays;
+
+    private OwnCalendarService calendarService;
+    private BaselineOwnCalendarService baselineCalendarService;
+    private WorkingTime workingTime;
+    private Person person;
+
+    private DateMidnight startDate;
+    private DateMidnight endDate;
+
+    public static void main(String[] args) throws RunnerException {
+
+        new Runner(new OptionsBuilder().include(OwnCalendarServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+
+
+    @Setup
+    public void setUp() throws IOException {
+
+        person = new Person();
+
+        workingTime = new WorkingTime();
+        workingTime.setWorkingDays(Arrays.asList(DateTimeConstants.MONDAY, DateTimeConstants.TUESDAY,
+                DateTimeConstants.WEDNESDAY, DateTimeConstants.THURSDAY, DateTimeConstants.FRIDAY), DayLength.FULL);
+
+        WorkingTimeService workingTimeService = new WorkingTimeService(null, new CacheRegistry(100, 10), null) {
+
+            @Override
+            public WorkingTime getByPersonAndValidityDateEqualsOrMinorDate(Person person, DateMidnight date) {
+
+                return workingTime;
+            }
+
+
+            @Override
+            public List<WorkingTime> getByPersonAndPeriod(Person person, DateMidnight startDate,
+                DateMidnight endDate) {
+
+                return Collections.singletonList(workingTime);
+            }
+        };
+
+        calendarService = new OwnCalendarService(new JollydayCalendar(), workingTimeService);
+        baselineCalendarService = new BaselineOwnCalendarService(new BaselineJollydayCalendar(), workingTimeService);
+
+        startDate = new DateMidnight(2014, DateTimeConstants.DECEMBER, 1);
+        endDate = startDate.plusDays(numberOfDays - 1);
+    }
+
+
+    @Benchmark
+    public BigDecimal cumulativeSums() {
+
+        return calendarService.getWorkDays(DayLength.FULL, startDate, endDate, person);
+    }
+
+
+    @Benchmark
+    public BigDecimal dayByDay() {
+
+        return baselineCalendarService.getWorkDays(DayLength.FULL, startDate, endDate, person);
+    }
+
+    /**
+     * The calculation of work days of {@link OwnCalendarService} before the cumulative sums, unchanged.
+     */
+    private static class BaselineOwnCalendarService {
+
+        private final BaselineJollydayCalendar jollydayCalendar;
+        private final WorkingTimeService workingTimeService;
+
+        BaselineOwnCalendarService(BaselineJollydayCalendar jollydayCalendar, WorkingTimeService workingTimeService) {
+
+            this.jollydayCalendar = jollydayCalendar;
+            this.workingTimeService = workingTimeService;
+        }
+
+        public BigDecimal getWorkDays(DayLength dayLength, DateMidnight startDate, DateMidnight endDate,
+            Person person) {
+
+            WorkingTime workingTime = workingTimeService.getByPersonAndValidityDateEqualsOrMinorDate(person, startDate);
+
+            if (workingTime == null) {
+                throw new NoValidWorkingTimeException("No working time found for User '" + person.getLoginName()
+                    + "' in period " + startDate.toString(DateFormat.PATTERN) + " - "
+                    + endDate.toString(DateFormat.PATTERN) + ". Please contact the application manager.");
+            }
+
+            BigDecimal vacationDays = BigDecimal.ZERO;
+
+            DateMidnight day = startDate;
+
+            while (!day.isAfter(endDate)) {
+                // value may be 1 for public holiday, 0 for not public holiday or 0.5 for Christmas Eve or New Year's
+                // Eve
+                BigDecimal duration = jollydayCalendar.getWorkingDurationOfDate(day);
+
+                int dayOfWeek = day.getDayOfWeek();
+                BigDecimal workingDuration = workingTime.getDayLengthForWeekDay(dayOfWeek).getDuration();
+
+                BigDecimal result = duration.multiply(workingDuration);
+
+                vacationDays = vacationDays.add(result);
+
+                day = day.plusDays(1);
+            }
+
+            // vacation days < 1 day --> must not be divided, else an ArithmeticException is thrown
+            if (vacationDays.compareTo(BigDecimal.ONE) < 0) {
+                return vacationDays.setScale(1);
+            }
+
+            return vacationDays.multiply(dayLength.getDuration()).setScale(1);
+        }
+    }
+
+    /**
+     * The lookup of the working duration of a day of {@link JollydayCalendar} before the public holidays were cached,
+     * unchanged.
+     */
+    private static class BaselineJollydayCalendar {
+
+        private static final String HOLIDAY_DEFINITION_FILE = "Holidays_custom.xml";
+
+        private static final String BUSINESS_PROPERTIES_FILE = "business.properties";
+        private static final String VACATION_DAY_COUNT_CONFIGURATION = "holiday.%s.vacationDay";
+        private static final String CHRISTMAS_EVE_PROPERTY_KEY = "CHRISTMAS_EVE";
+        private static final String NEW_YEARS_EVE_PROPERTY_KEY = "NEW_YEARS_EVE";
+
+        private HolidayManager manager;
+        private Properties businessProperties;
+
+        BaselineJollydayCalendar() throws IOException {
+
+            this.businessProperties = PropertiesUtil.load(BUSINESS_PROPERTIES_FILE);
+
+            ClassLoader cl = Thread.currentThread().getContextClassLoader();
+            URL url = cl.getResource(HOLIDAY_DEFINITION_FILE);
+
+            manager = HolidayManager.getInstance(url);
+        }
+
+        boolean isPublicHoliday(DateMidnight date) {
+
+            if (manager.isHoliday(date.toLocalDate())) {
+                return true;
+            }
+
+            return false;
+        }
+
+
+        public BigDecimal getWorkingDurationOfDate(DateMidnight date) {
+
+            if (isPublicHoliday(date)) {
+                if (DateUtil.isChristmasEve(date)) {
+                    return getConfiguredVacationDayCountForHoliday(CHRISTMAS_EVE_PROPERTY_KEY);
+                } else if (DateUtil.isNewYearsEve(date)) {
+                    return getConfiguredVacationDayCountForHoliday(NEW_YEARS_EVE_PROPERTY_KEY);
+                } else {
+                    return DayLength.ZERO.getDuration();
+                }
+            }
+
+            return DayLength.FULL.getDuration();
+        }
+
+
+        private BigDecimal getConfiguredVacationDayCountForHoliday(String holidayName) {
+
+            String propertyName = String.format(VACATION_DAY_COUNT_CONFIGURATION, holidayName);
+            String vacationDayCountConfig = businessProperties.getProperty(propertyName);
+
+            DayLength dayLength = DayLength.valueOf(vacationDayCountConfig);
+
+            return dayLength.getDuration();
+        }
+    }
+}
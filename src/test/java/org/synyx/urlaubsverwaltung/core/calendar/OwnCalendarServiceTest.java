@@ -4,6 +4,7 @@ package org.synyx.urlaubsverwaltung.core.calendar;
 import org.joda.time.DateMidnight;
 import org.joda.time.DateTimeConstants;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -11,19 +12,27 @@ import org.mockito.Mockito;
 
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.calendar.workingtime.NoValidWorkingTimeException;
 import org.synyx.urlaubsverwaltung.core.calendar.workingtime.WorkingTime;
 import org.synyx.urlaubsverwaltung.core.calendar.workingtime.WorkingTimeService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.util.DateUtil;
 
 import java.io.IOException;
 
 import java.math.BigDecimal;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 
 /**
@@ -56,8 +65,15 @@ public class OwnCalendarServiceTest {
                 DateTimeConstants.WEDNESDAY, DateTimeConstants.THURSDAY, DateTimeConstants.FRIDAY);
         workingTime.setWorkingDays(workingDays, DayLength.FULL);
 
-        Mockito.when(workingTimeService.getByPersonAndValidityDateEqualsOrMinorDate(Mockito.eq(person),
-                Mockito.any(DateMidnight.class))).thenReturn(workingTime);
+        Mockito.when(workingTimeService.getByPersonAndPeriod(Mockito.eq(person), Mockito.any(DateMidnight.class),
+                Mockito.any(DateMidnight.class))).thenReturn(Arrays.asList(workingTime));
+    }
+
+
+    @After
+    public void tearDown() {
+
+        instance.shutdown();
     }
 
 
@@ -77,6 +93,35 @@ public class OwnCalendarServiceTest {
     }
 
 
+    @Test
+    public void ensureWeekDaysAreEqualToCountingEveryDay() {
+
+        Random random = new Random(42);
+
+        for (int i = 0; i < 2000; i++) {
+            DateMidnight start = new DateMidnight(2010, DateTimeConstants.JANUARY, 1).plusDays(random.nextInt(3650));
+            DateMidnight end = start.plusDays(random.nextInt(3 * 366) - 7);
+
+            assertEquals("Wrong number of weekdays for " + start + " - " + end, countWeekDays(start, end),
+                instance.getWeekDays(start, end), 0.0);
+        }
+    }
+
+
+    private static double countWeekDays(DateMidnight startDate, DateMidnight endDate) {
+
+        double weekDays = 0.0;
+
+        for (DateMidnight day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            if (DateUtil.isWorkDay(day)) {
+                weekDays++;
+            }
+        }
+
+        return weekDays;
+    }
+
+
     /**
      * Test of getWorkDays method, of class OwnCalendarService.
      */
@@ -243,6 +288,17 @@ public class OwnCalendarServiceTest {
     }
 
 
+    @Test
+    public void ensureReturnsWorkDaysInHalfDays() {
+
+        DateMidnight startDate = new DateMidnight(2013, DateTimeConstants.DECEMBER, 16);
+        DateMidnight endDate = new DateMidnight(2013, DateTimeConstants.DECEMBER, 31);
+
+        assertEquals(18, instance.getWorkDaysInHalfDays(DayLength.FULL, startDate, endDate, person));
+        assertEquals(9, instance.getWorkDaysInHalfDays(DayLength.MORNING, startDate, endDate, person));
+    }
+
+
     @Test
     public void testGetWorkDaysZero() {
 
@@ -335,4 +391,208 @@ public class OwnCalendarServiceTest {
 
         assertEquals(new BigDecimal("2.5"), returnValue);
     }
+
+
+    @Test
+    public void testGetWorkDaysForPeriodWithChangingWorkingTime() {
+
+        WorkingTime fullTime = new WorkingTime();
+        fullTime.setWorkingDays(Arrays.asList(DateTimeConstants.MONDAY, DateTimeConstants.TUESDAY,
+                DateTimeConstants.WEDNESDAY, DateTimeConstants.THURSDAY, DateTimeConstants.FRIDAY), DayLength.FULL);
+        fullTime.setValidFrom(new DateMidnight(2013, DateTimeConstants.JANUARY, 1));
+
+        WorkingTime partTime = new WorkingTime();
+        partTime.setWorkingDays(Arrays.asList(DateTimeConstants.MONDAY, DateTimeConstants.TUESDAY), DayLength.FULL);
+        partTime.setValidFrom(new DateMidnight(2013, DateTimeConstants.NOVEMBER, 11));
+
+        // monday, 4th November - sunday, 17th November
+        DateMidnight from = new DateMidnight(2013, DateTimeConstants.NOVEMBER, 4);
+        DateMidnight to = new DateMidnight(2013, DateTimeConstants.NOVEMBER, 17);
+
+        Mockito.when(workingTimeService.getByPersonAndPeriod(person, from, to)).thenReturn(Arrays.asList(fullTime,
+                partTime));
+
+        BigDecimal returnValue = instance.getWorkDays(DayLength.FULL, from, to, person);
+
+        // 5 days full time + 2 days part time
+        assertEquals(new BigDecimal("7.0"), returnValue);
+    }
+
+
+    @Test(expected = NoValidWorkingTimeException.class)
+    public void testGetWorkDaysWithoutValidWorkingTime() {
+
+        DateMidnight from = new DateMidnight(2013, DateTimeConstants.NOVEMBER, 4);
+        DateMidnight to = new DateMidnight(2013, DateTimeConstants.NOVEMBER, 17);
+
+        Mockito.when(workingTimeService.getByPersonAndPeriod(person, from, to)).thenReturn(
+            new ArrayList<WorkingTime>());
+
+        instance.getWorkDays(DayLength.FULL, from, to, person);
+    }
+
+
+    @Test
+    public void ensureCalculatesWorkDaysOfManyRequestsInOrderOfTheRequests() {
+
+        Person partTimePerson = new Person();
+        WorkingTime partTime = new WorkingTime();
+        partTime.setWorkingDays(Arrays.asList(DateTimeConstants.MONDAY, DateTimeConstants.TUESDAY), DayLength.FULL);
+        partTime.setValidFrom(new DateMidnight(2010, DateTimeConstants.JANUARY, 1));
+        workingTime.setValidFrom(new DateMidnight(2010, DateTimeConstants.JANUARY, 1));
+
+        mockTimelines(person, workingTime, partTimePerson, partTime);
+
+        // monday, 25th November - sunday, 1st December
+        DateMidnight from = new DateMidnight(2013, DateTimeConstants.NOVEMBER, 25);
+        DateMidnight to = new DateMidnight(2013, DateTimeConstants.DECEMBER, 1);
+
+        List<BigDecimal> workDays = instance.getWorkDays(Arrays.asList(
+                    new WorkDaysRequest(person, DayLength.FULL, from, to),
+                    new WorkDaysRequest(partTimePerson, DayLength.FULL, from, to),
+                    new WorkDaysRequest(person, DayLength.MORNING, from, from),
+                    new WorkDaysRequest(partTimePerson, DayLength.MORNING, from, to)));
+
+        assertEquals(Arrays.asList(new BigDecimal("5.0"), new BigDecimal("2.0"), new BigDecimal("0.5"),
+                new BigDecimal("1.0")), workDays);
+
+        Mockito.verify(workingTimeService, Mockito.never()).getByPersonAndPeriod(Mockito.any(Person.class),
+            Mockito.any(DateMidnight.class), Mockito.any(DateMidnight.class));
+    }
+
+
+    @Test
+    public void ensureCalculatesWorkDaysOfLargeBatchLikeSingleRequests() {
+
+        Person partTimePerson = new Person();
+        WorkingTime partTime = new WorkingTime();
+        partTime.setWorkingDays(Arrays.asList(DateTimeConstants.MONDAY, DateTimeConstants.TUESDAY), DayLength.FULL);
+        partTime.setValidFrom(new DateMidnight(2010, DateTimeConstants.JANUARY, 1));
+        workingTime.setValidFrom(new DateMidnight(2010, DateTimeConstants.JANUARY, 1));
+
+        mockTimelines(person, workingTime, partTimePerson, partTime);
+
+        Mockito.when(workingTimeService.getByPersonAndPeriod(Mockito.eq(partTimePerson),
+                Mockito.any(DateMidnight.class), Mockito.any(DateMidnight.class))).thenReturn(Arrays.asList(partTime));
+
+        List<WorkDaysRequest> requests = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            DateMidnight from = new DateMidnight(2013, DateTimeConstants.JANUARY, 1).plusDays(i % 365);
+            DateMidnight to = from.plusDays(i % 40);
+
+            requests.add(new WorkDaysRequest(i % 2 == 0 ? person : partTimePerson, DayLength.FULL, from, to));
+        }
+
+        List<BigDecimal> workDays = instance.getWorkDays(requests);
+
+        assertEquals(requests.size(), workDays.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            WorkDaysRequest request = requests.get(i);
+
+            assertEquals(instance.getWorkDays(request.getDayLength(), request.getStartDate(), request.getEndDate(),
+                    request.getPerson()), workDays.get(i));
+        }
+    }
+
+
+    @Test(expected = NoValidWorkingTimeException.class)
+    public void ensureCalculationOfManyRequestsThrowsIfThereIsNoValidWorkingTime() {
+
+        Mockito.when(workingTimeService.getTimelines(Mockito.anyCollectionOf(Person.class))).thenReturn(
+            Collections.singletonMap(person, Collections.<WorkingTime>emptyList()));
+
+        DateMidnight from = new DateMidnight(2013, DateTimeConstants.NOVEMBER, 4);
+
+        instance.getWorkDays(Arrays.asList(new WorkDaysRequest(person, DayLength.FULL, from, from)));
+    }
+
+
+    @Test
+    public void ensureLenientCalculationOfManyRequestsReturnsNullForRequestsWithoutValidWorkingTime() {
+
+        Person personWithoutWorkingTime = new Person();
+
+        Map<Person, List<WorkingTime>> timelines = new HashMap<>();
+        timelines.put(person, Arrays.asList(workingTime));
+        timelines.put(personWithoutWorkingTime, Collections.<WorkingTime>emptyList());
+
+        Mockito.when(workingTimeService.getTimelines(Mockito.anyCollectionOf(Person.class))).thenReturn(timelines);
+
+        DateMidnight from = new DateMidnight(2013, DateTimeConstants.NOVEMBER, 4);
+        workingTime.setValidFrom(from.minusYears(1));
+
+        Long[] halfDays = instance.getWorkDaysInHalfDaysOrNull(Arrays.asList(
+                    new WorkDaysRequest(personWithoutWorkingTime, DayLength.FULL, from, from),
+                    new WorkDaysRequest(person, DayLength.FULL, from, from)));
+
+        assertNull(halfDays[0]);
+        assertEquals(Long.valueOf(2), halfDays[1]);
+    }
+
+
+    @Test
+    public void ensureCalculatesWorkDaysPerDayLikeOneRequestPerDay() {
+
+        Person partTimePerson = new Person();
+        WorkingTime partTime = new WorkingTime();
+        partTime.setWorkingDays(Arrays.asList(DateTimeConstants.MONDAY, DateTimeConstants.TUESDAY), DayLength.FULL);
+        partTime.setValidFrom(new DateMidnight(2013, DateTimeConstants.DECEMBER, 16));
+        workingTime.setValidFrom(new DateMidnight(2010, DateTimeConstants.JANUARY, 1));
+
+        Map<Person, List<WorkingTime>> timelines = new HashMap<>();
+        timelines.put(person, Arrays.asList(workingTime));
+        timelines.put(partTimePerson, Arrays.asList(workingTime, partTime));
+
+        Mockito.when(workingTimeService.getTimelines(Mockito.anyCollectionOf(Person.class))).thenReturn(timelines);
+
+        // the working time of the part time person changes within the period, which contains weekends, Christmas Eve,
+        // public holidays and New Year's Eve
+        List<WorkDaysRequest> requests = Arrays.asList(new WorkDaysRequest(person, DayLength.FULL,
+                    new DateMidnight(2013, DateTimeConstants.DECEMBER, 20),
+                    new DateMidnight(2014, DateTimeConstants.JANUARY, 2)),
+                new WorkDaysRequest(partTimePerson, DayLength.FULL,
+                    new DateMidnight(2013, DateTimeConstants.DECEMBER, 9),
+                    new DateMidnight(2013, DateTimeConstants.DECEMBER, 31)),
+                new WorkDaysRequest(person, DayLength.MORNING, new DateMidnight(2013, DateTimeConstants.DECEMBER, 23),
+                    new DateMidnight(2013, DateTimeConstants.DECEMBER, 23)));
+
+        List<WorkDaysRequest> requestsPerDay = new ArrayList<>();
+
+        for (WorkDaysRequest request : requests) {
+            for (DateMidnight day = request.getStartDate(); !day.isAfter(request.getEndDate());
+                    day = day.plusDays(1)) {
+                requestsPerDay.add(new WorkDaysRequest(request.getPerson(), request.getDayLength(), day, day));
+            }
+        }
+
+        long[] halfDaysPerDay = instance.getWorkDaysPerDayInHalfDays(requests);
+
+        assertEquals(Arrays.toString(instance.getWorkDaysInHalfDays(requestsPerDay)), Arrays.toString(halfDaysPerDay));
+    }
+
+
+    @Test(expected = NoValidWorkingTimeException.class)
+    public void ensureCalculationOfWorkDaysPerDayThrowsIfThereIsNoValidWorkingTime() {
+
+        Mockito.when(workingTimeService.getTimelines(Mockito.anyCollectionOf(Person.class))).thenReturn(
+            Collections.singletonMap(person, Collections.<WorkingTime>emptyList()));
+
+        DateMidnight from = new DateMidnight(2013, DateTimeConstants.NOVEMBER, 4);
+
+        instance.getWorkDaysPerDayInHalfDays(Arrays.asList(new WorkDaysRequest(person, DayLength.FULL, from,
+                    from.plusDays(3))));
+    }
+
+
+    private void mockTimelines(Person firstPerson, WorkingTime workingTimeOfFirstPerson, Person secondPerson,
+        WorkingTime workingTimeOfSecondPerson) {
+
+        Map<Person, List<WorkingTime>> timelines = new HashMap<>();
+        timelines.put(firstPerson, Arrays.asList(workingTimeOfFirstPerson));
+        timelines.put(secondPerson, Arrays.asList(workingTimeOfSecondPerson));
+
+        Mockito.when(workingTimeService.getTimelines(Mockito.anyCollectionOf(Person.class))).thenReturn(timelines);
+    }
 }
@@ -0,0 +1,112 @@
+package org.synyx.urlaubsverwaltung.core.calendar;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.calendar.workingtime.WorkingTime;
+
+import java.io.IOException;
+
+import java.math.BigDecimal;
+
+import java.util.Arrays;
+import java.util.Random;
+
+
+/**
+ * Unit test for {@link WorkDayCounter}.
+ *
+ * @author  agent
+ */
+public class WorkDayCounterTest {
+
+    private JollydayCalendar jollydayCalendar;
+    private WorkDayCounter workDayCounter;
+
+    @Before
+    public void setUp() throws IOException {
+
+        jollydayCalendar = new JollydayCalendar();
+        workDayCounter = new WorkDayCounter(jollydayCalendar);
+    }
+
+
+    @Test
+    public void ensureCorrectWorkingDurationForChristmasHolidays() {
+
+        WorkingTime workingTime = new WorkingTime();
+        workingTime.setWorkingDays(Arrays.asList(DateTimeConstants.MONDAY, DateTimeConstants.TUESDAY,
+                DateTimeConstants.WEDNESDAY, DateTimeConstants.THURSDAY, DateTimeConstants.FRIDAY), DayLength.FULL);
+
+        DateMidnight from = new DateMidnight(2013, DateTimeConstants.DECEMBER, 23);
+        DateMidnight to = new DateMidnight(2014, DateTimeConstants.JANUARY, 2);
+
+        BigDecimal workingDuration = workDayCounter.getWorkingDuration(from, to, workingTime);
+
+        Assert.assertEquals("Wrong working duration", new BigDecimal("5.00"), workingDuration);
+    }
+
+
+    @Test
+    public void ensureWorkingDurationIsZeroIfEndDateIsBeforeStartDate() {
+
+        WorkingTime workingTime = new WorkingTime();
+        workingTime.setWorkingDays(Arrays.asList(DateTimeConstants.MONDAY), DayLength.FULL);
+
+        DateMidnight from = new DateMidnight(2013, DateTimeConstants.DECEMBER, 23);
+        DateMidnight to = new DateMidnight(2013, DateTimeConstants.DECEMBER, 2);
+
+        BigDecimal workingDuration = workDayCounter.getWorkingDuration(from, to, workingTime);
+
+        Assert.assertEquals("Wrong working duration", 0, workingDuration.signum());
+    }
+
+
+    @Test
+    public void ensureWorkingDurationMatchesDayByDayCalculationForRandomPeriodsAndWorkingTimes() {
+
+        Random random = new Random(42);
+        DayLength[] dayLengths = DayLength.values();
+        DateMidnight earliestStart = new DateMidnight(2010, DateTimeConstants.JANUARY, 1);
+
+        for (int i = 0; i < 500; i++) {
+            WorkingTime workingTime = new WorkingTime();
+
+            for (Day day : Day.values()) {
+                workingTime.setDayLengthForWeekDay(day.getDayOfWeek(), dayLengths[random.nextInt(dayLengths.length)]);
+            }
+
+            DateMidnight from = earliestStart.plusDays(random.nextInt(5 * 365));
+            DateMidnight to = from.plusDays(random.nextInt(800));
+
+            BigDecimal expected = getWorkingDurationDayByDay(from, to, workingTime);
+            BigDecimal actual = workDayCounter.getWorkingDuration(from, to, workingTime);
+
+            Assert.assertEquals("Wrong working duration for " + from + " - " + to, 0, expected.compareTo(actual));
+        }
+    }
+
+
+    private BigDecimal getWorkingDurationDayByDay(DateMidnight from, DateMidnight to, WorkingTime workingTime) {
+
+        BigDecimal workingDuration = BigDecimal.ZERO;
+
+        DateMidnight day = from;
+
+        while (!day.isAfter(to)) {
+            BigDecimal duration = jollydayCalendar.getWorkingDurationOfDate(day);
+            BigDecimal dayLength = workingTime.getDayLengthForWeekDay(day.getDayOfWeek()).getDuration();
+
+            workingDuration = workingDuration.add(duration.multiply(dayLength));
+
+            day = day.plusDays(1);
+        }
+
+        return workingDuration;
+    }
+}
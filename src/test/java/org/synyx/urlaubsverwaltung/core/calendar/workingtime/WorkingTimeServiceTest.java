@@ -0,0 +1,183 @@
+package org.synyx.urlaubsverwaltung.core.calendar.workingtime;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.ArgumentMatcher;
+import org.mockito.Mockito;
+
+import org.synyx.urlaubsverwaltung.core.application.service.VacationDaysLedgerService;
+import org.synyx.urlaubsverwaltung.core.cache.CacheRegistry;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Unit test for {@link WorkingTimeService}.
+ *
+ * @author  agent
+ */
+public class WorkingTimeServiceTest {
+
+    private WorkingTimeService service;
+    private WorkingTimeDAO workingTimeDAO;
+    private VacationDaysLedgerService vacationDaysLedgerService;
+
+    private Person person;
+    private WorkingTime workingTimeSince2012;
+    private WorkingTime workingTimeSince2013;
+
+    @Before
+    public void setUp() {
+
+        workingTimeDAO = Mockito.mock(WorkingTimeDAO.class);
+        vacationDaysLedgerService = Mockito.mock(VacationDaysLedgerService.class);
+        service = new WorkingTimeService(workingTimeDAO, new CacheRegistry(100, 10), vacationDaysLedgerService);
+
+        person = Mockito.mock(Person.class);
+        Mockito.when(person.getId()).thenReturn(1);
+
+        workingTimeSince2012 = new WorkingTime();
+        workingTimeSince2012.setValidFrom(new DateMidnight(2012, DateTimeConstants.JANUARY, 1));
+
+        workingTimeSince2013 = new WorkingTime();
+        workingTimeSince2013.setValidFrom(new DateMidnight(2013, DateTimeConstants.JUNE, 1));
+
+        Mockito.when(workingTimeDAO.findByPerson(person)).thenReturn(Arrays.asList(workingTimeSince2012,
+                workingTimeSince2013));
+    }
+
+
+    @Test
+    public void ensureReturnsWorkingTimeValidAtTheGivenDate() {
+
+        Assert.assertNull(service.getByPersonAndValidityDateEqualsOrMinorDate(person,
+                new DateMidnight(2011, DateTimeConstants.DECEMBER, 31)));
+        Assert.assertEquals(workingTimeSince2012,
+            service.getByPersonAndValidityDateEqualsOrMinorDate(person,
+                new DateMidnight(2013, DateTimeConstants.MAY, 31)));
+        Assert.assertEquals(workingTimeSince2013,
+            service.getByPersonAndValidityDateEqualsOrMinorDate(person,
+                new DateMidnight(2013, DateTimeConstants.JUNE, 1)));
+    }
+
+
+    @Test
+    public void ensureReturnsAllWorkingTimesValidInTheGivenPeriod() {
+
+        List<WorkingTime> workingTimes = service.getByPersonAndPeriod(person,
+                new DateMidnight(2013, DateTimeConstants.MAY, 1), new DateMidnight(2013, DateTimeConstants.JULY, 1));
+
+        Assert.assertEquals(Arrays.asList(workingTimeSince2012, workingTimeSince2013), workingTimes);
+    }
+
+
+    @Test
+    public void ensureReturnsOnlyTheWorkingTimeValidAtStartDateIfThereIsNoChangeInThePeriod() {
+
+        List<WorkingTime> workingTimes = service.getByPersonAndPeriod(person,
+                new DateMidnight(2013, DateTimeConstants.JULY, 1), new DateMidnight(2013, DateTimeConstants.JULY, 5));
+
+        Assert.assertEquals(Arrays.asList(workingTimeSince2013), workingTimes);
+    }
+
+
+    @Test
+    public void ensureReturnsNoWorkingTimesIfThereIsNoWorkingTimeValidAtStartDate() {
+
+        List<WorkingTime> workingTimes = service.getByPersonAndPeriod(person,
+                new DateMidnight(2011, DateTimeConstants.DECEMBER, 1),
+                new DateMidnight(2012, DateTimeConstants.JANUARY, 5));
+
+        Assert.assertTrue("Should not find any working time", workingTimes.isEmpty());
+    }
+
+
+    @Test
+    public void ensureWorkingTimesOfAPersonAreLoadedOnlyOnce() {
+
+        service.getByPersonAndValidityDateEqualsOrMinorDate(person, DateMidnight.now());
+        service.getByPersonAndPeriod(person, DateMidnight.now(), DateMidnight.now());
+
+        Mockito.verify(workingTimeDAO, Mockito.times(1)).findByPerson(person);
+    }
+
+
+    @Test
+    public void ensureWorkingTimesOfAPersonAreReloadedAfterTouchingAWorkingTime() {
+
+        service.getByPersonAndValidityDateEqualsOrMinorDate(person, DateMidnight.now());
+
+        service.touch(Arrays.asList(DateTimeConstants.MONDAY), DateMidnight.now(), person);
+
+        service.getByPersonAndValidityDateEqualsOrMinorDate(person, DateMidnight.now());
+
+        Mockito.verify(workingTimeDAO, Mockito.times(2)).findByPerson(person);
+    }
+
+
+    @Test
+    public void ensureTouchingAWorkingTimeRebuildsTheVacationDaysLedgersOfThePerson() {
+
+        DateMidnight validFrom = new DateMidnight(2014, DateTimeConstants.MAY, 1);
+
+        service.touch(Arrays.asList(DateTimeConstants.MONDAY), validFrom, person);
+
+        Mockito.verify(vacationDaysLedgerService).rebuildLedgers(person, validFrom);
+    }
+
+
+    @Test
+    public void ensureLoadsTimelinesOfAllPersonsNotCachedYetWithOneQuery() {
+
+        Person otherPerson = Mockito.mock(Person.class);
+        Mockito.when(otherPerson.getId()).thenReturn(2);
+
+        Person personWithoutWorkingTime = Mockito.mock(Person.class);
+        Mockito.when(personWithoutWorkingTime.getId()).thenReturn(3);
+
+        WorkingTime workingTimeOfOtherPerson = new WorkingTime();
+        workingTimeOfOtherPerson.setPerson(otherPerson);
+        workingTimeOfOtherPerson.setValidFrom(new DateMidnight(2012, DateTimeConstants.JULY, 1));
+
+        // timeline of the person is cached
+        service.getByPersonAndPeriod(person, new DateMidnight(2013, DateTimeConstants.JULY, 1),
+            new DateMidnight(2013, DateTimeConstants.JULY, 5));
+
+        Mockito.when(workingTimeDAO.findByPersons(Mockito.anyCollectionOf(Person.class))).thenReturn(Arrays.asList(
+                workingTimeOfOtherPerson));
+
+        Map<Person, List<WorkingTime>> timelines = service.getTimelines(Arrays.asList(person, otherPerson,
+                    personWithoutWorkingTime));
+
+        Assert.assertEquals(Arrays.asList(workingTimeSince2012, workingTimeSince2013), timelines.get(person));
+        Assert.assertEquals(Arrays.asList(workingTimeOfOtherPerson), timelines.get(otherPerson));
+        Assert.assertTrue(timelines.get(personWithoutWorkingTime).isEmpty());
+
+        Mockito.verify(workingTimeDAO).findByPerson(person);
+        Mockito.verify(workingTimeDAO).findByPersons(Mockito.argThat(new ArgumentMatcher<Collection<Person>>() {
+
+                    @Override
+                    public boolean matches(Object argument) {
+
+                        Collection<?> persons = (Collection<?>) argument;
+
+                        return persons.size() == 2 && !persons.contains(person);
+                    }
+                }));
+
+        // the loaded timelines are cached
+        service.getByPersonAndPeriod(otherPerson, new DateMidnight(2013, DateTimeConstants.JULY, 1),
+            new DateMidnight(2013, DateTimeConstants.JULY, 5));
+
+        Mockito.verify(workingTimeDAO, Mockito.never()).findByPerson(otherPerson);
+    }
+}
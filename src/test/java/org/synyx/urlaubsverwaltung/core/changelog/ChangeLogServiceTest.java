@@ -0,0 +1,203 @@
+package org.synyx.urlaubsverwaltung.core.changelog;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeUtils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+
+/**
+ * Unit test for {@link ChangeLogService}, runs the keyset paging against an in memory H2 database.
+ *
+ * @author  agent
+ */
+public class ChangeLogServiceTest {
+
+    private static final DateTime NOW = new DateTime(2014, DateTimeConstants.JUNE, 2, 12, 0);
+
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+
+    private ChangeLogService changeLogService;
+
+    private SickNote sickNote;
+
+    @Before
+    public void setUp() {
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("hibernate.connection.driver_class", "org.h2.Driver");
+        properties.put("hibernate.connection.url", "jdbc:h2:mem:changeLog;DB_CLOSE_DELAY=-1");
+        properties.put("hibernate.connection.username", "sa");
+        properties.put("hibernate.connection.password", "");
+        properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("hibernate.hbm2ddl.auto", "create-drop");
+
+        entityManagerFactory = Persistence.createEntityManagerFactory("urlaubsverwaltung", properties);
+        entityManager = entityManagerFactory.createEntityManager();
+
+        changeLogService = new ChangeLogService(new JpaRepositoryFactory(entityManager).getRepository(
+                    ChangeLogDAO.class));
+
+        entityManager.getTransaction().begin();
+
+        Person person = new Person("muster", "Muster", "Max", "muster@muster.de");
+        entityManager.persist(person);
+
+        sickNote = new SickNote();
+        sickNote.setPerson(person);
+        sickNote.setStartDate(new DateMidnight(2014, DateTimeConstants.MAY, 5));
+        sickNote.setEndDate(new DateMidnight(2014, DateTimeConstants.MAY, 6));
+        entityManager.persist(sickNote);
+
+        entityManager.getTransaction().commit();
+
+        DateTimeUtils.setCurrentMillisFixed(NOW.getMillis());
+    }
+
+
+    @After
+    public void tearDown() {
+
+        DateTimeUtils.setCurrentMillisSystem();
+
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+
+    /**
+     * Logs a change of the sick note at the given time.
+     *
+     * @return  the sequence of the change
+     */
+    private int logChangeAt(DateTime changeDate) {
+
+        DateTimeUtils.setCurrentMillisFixed(changeDate.getMillis());
+
+        entityManager.getTransaction().begin();
+
+        ChangeLogEntry entry = new ChangeLogEntry(sickNote);
+        entityManager.persist(entry);
+
+        entityManager.getTransaction().commit();
+
+        DateTimeUtils.setCurrentMillisFixed(NOW.getMillis());
+
+        return entry.getId();
+    }
+
+
+    private List<Integer> getSequencesOfChangesAfter(int sequence, int limit) {
+
+        List<Integer> sequences = new ArrayList<>();
+
+        for (ChangeLogEntry entry : changeLogService.getChangesAfter(sequence, limit)) {
+            sequences.add(entry.getId());
+        }
+
+        return sequences;
+    }
+
+
+    @Test
+    public void ensurePagesThroughAllChangesWithoutSkippingOrRepeatingAny() {
+
+        List<Integer> logged = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            logged.add(logChangeAt(NOW.minusMinutes(10).plusSeconds(i)));
+        }
+
+        List<Integer> read = new ArrayList<>();
+        int cursor = 0;
+
+        for (List<Integer> page = getSequencesOfChangesAfter(cursor, 2); !page.isEmpty();
+                page = getSequencesOfChangesAfter(cursor, 2)) {
+            Assert.assertTrue("Page too large", page.size() <= 2);
+
+            read.addAll(page);
+            cursor = page.get(page.size() - 1);
+        }
+
+        Assert.assertEquals(logged, read);
+    }
+
+
+    @Test
+    public void ensureChangesWithinTheSafetyLagAndAllChangesAfterThemAreHeldBack() {
+
+        int old = logChangeAt(NOW.minusMinutes(10));
+        int young = logChangeAt(NOW.minusSeconds(ChangeLogService.SAFETY_LAG_SECONDS - 1));
+
+        // e.g. logged by a node whose clock is behind
+        int oldAfterYoung = logChangeAt(NOW.minusMinutes(5));
+
+        List<Integer> sequences = getSequencesOfChangesAfter(0, 10);
+
+        Assert.assertEquals("Wrong number of changes", 1, sequences.size());
+        Assert.assertEquals(Integer.valueOf(old), sequences.get(0));
+
+        DateTimeUtils.setCurrentMillisFixed(NOW.plusSeconds(ChangeLogService.SAFETY_LAG_SECONDS).getMillis());
+
+        List<Integer> sequencesAfterSafetyLag = getSequencesOfChangesAfter(old, 10);
+
+        Assert.assertEquals("Wrong number of changes", 2, sequencesAfterSafetyLag.size());
+        Assert.assertEquals(Integer.valueOf(young), sequencesAfterSafetyLag.get(0));
+        Assert.assertEquals(Integer.valueOf(oldAfterYoung), sequencesAfterSafetyLag.get(1));
+    }
+
+
+    @Test
+    public void ensureVersionChangesIfAChangeIsCommittedAfterAChangeWithHigherSequence() {
+
+        logChangeAt(NOW.minusMinutes(10));
+
+        String version = changeLogService.getVersion();
+
+        Assert.assertEquals(version, changeLogService.getVersion());
+
+        int lateSequence = logChangeAt(NOW);
+        logChangeAt(NOW);
+
+        // the transaction of the change with the lower sequence is still running
+        executeUpdate("DELETE FROM ChangeLogEntry WHERE id = " + lateSequence);
+
+        String versionBeforeCommit = changeLogService.getVersion();
+
+        Assert.assertFalse("Version should have changed", version.equals(versionBeforeCommit));
+
+        executeUpdate("INSERT INTO ChangeLogEntry (id, sickNote_id, changeDate) VALUES (" + lateSequence + ", "
+            + sickNote.getId() + ", CURRENT_TIMESTAMP)");
+
+        Assert.assertFalse("Version should have changed", versionBeforeCommit.equals(changeLogService.getVersion()));
+    }
+
+
+    private void executeUpdate(String sql) {
+
+        entityManager.getTransaction().begin();
+        entityManager.createNativeQuery(sql).executeUpdate();
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+    }
+}
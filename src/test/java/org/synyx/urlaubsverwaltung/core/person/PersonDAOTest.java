@@ -0,0 +1,105 @@
+package org.synyx.urlaubsverwaltung.core.person;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+
+/**
+ * Unit test for the version of the persons of {@link PersonDAO}, runs the queries against an in memory H2 database.
+ *
+ * @author  agent
+ */
+public class PersonDAOTest {
+
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+
+    private PersonDAO personDAO;
+
+    @Before
+    public void setUp() {
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("hibernate.connection.driver_class", "org.h2.Driver");
+        properties.put("hibernate.connection.url", "jdbc:h2:mem:personVersion;DB_CLOSE_DELAY=-1");
+        properties.put("hibernate.connection.username", "sa");
+        properties.put("hibernate.connection.password", "");
+        properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("hibernate.hbm2ddl.auto", "create-drop");
+
+        entityManagerFactory = Persistence.createEntityManagerFactory("urlaubsverwaltung", properties);
+        entityManager = entityManagerFactory.createEntityManager();
+
+        personDAO = new JpaRepositoryFactory(entityManager).getRepository(PersonDAO.class);
+    }
+
+
+    @After
+    public void tearDown() {
+
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+
+    @Test
+    public void ensureVersionOfAllPersonsIsZeroWithoutPersons() {
+
+        Assert.assertEquals(Long.valueOf(0), personDAO.getVersionOfAllPersons());
+    }
+
+
+    @Test
+    public void ensureVersionOfAllPersonsChangesWithEverySave() {
+
+        entityManager.getTransaction().begin();
+
+        Person person = personDAO.save(new Person("muster", "Muster", "Max", "muster@muster.de"));
+        personDAO.incrementVersion(person.getId());
+
+        Person otherPerson = personDAO.save(new Person("test", "Test", "Marlene", "test@muster.de"));
+        personDAO.incrementVersion(otherPerson.getId());
+        personDAO.incrementVersion(otherPerson.getId());
+
+        entityManager.getTransaction().commit();
+
+        Assert.assertEquals(Long.valueOf(3), personDAO.getVersionOfAllPersons());
+    }
+
+
+    @Test
+    public void ensureSavingAStaleCopyDoesNotResetTheVersion() {
+
+        entityManager.getTransaction().begin();
+
+        Person person = personDAO.save(new Person("muster", "Muster", "Max", "muster@muster.de"));
+        Person staleCopy = person.copy();
+
+        personDAO.incrementVersion(person.getId());
+        personDAO.incrementVersion(person.getId());
+
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+
+        entityManager.getTransaction().begin();
+
+        staleCopy.setLastName("Musterfrau");
+        personDAO.save(staleCopy);
+        personDAO.incrementVersion(staleCopy.getId());
+
+        entityManager.getTransaction().commit();
+
+        Assert.assertEquals(Long.valueOf(3), personDAO.getVersionOfAllPersons());
+    }
+}
@@ -1,14 +1,28 @@
 package org.synyx.urlaubsverwaltung.core.person;
 
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import org.synyx.urlaubsverwaltung.core.cache.CacheRegistry;
 import org.synyx.urlaubsverwaltung.core.mail.MailNotification;
+import org.synyx.urlaubsverwaltung.security.CryptoUtil;
 import org.synyx.urlaubsverwaltung.security.Role;
 
+import java.lang.reflect.Field;
+
+import java.security.KeyPair;
+import java.security.NoSuchAlgorithmException;
+
 import java.util.Arrays;
 import java.util.List;
 
@@ -22,13 +36,50 @@ public class PersonServiceTest {
     private PersonService service;
 
     private PersonDAO personDAO;
+    private PersonKeysDAO personKeysDAO;
 
     @Before
     public void setUp() {
 
         personDAO = Mockito.mock(PersonDAO.class);
+        personKeysDAO = Mockito.mock(PersonKeysDAO.class);
+
+        service = new PersonServiceImpl(personDAO, personKeysDAO, new CacheRegistry(100, 10));
+    }
+
+
+    @After
+    public void tearDown() {
 
-        service = new PersonServiceImpl(personDAO);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+
+    /**
+     * The service hands out copies of the persons, which are equal to the persons if they have the same ID.
+     */
+    private static Person createPerson(Integer id) {
+
+        return createPerson(id, null, null, null, null);
+    }
+
+
+    private static Person createPerson(Integer id, String loginName, String lastName, String firstName,
+        String email) {
+
+        Person person = new Person(loginName, lastName, firstName, email);
+
+        try {
+            Field idField = AbstractPersistable.class.getDeclaredField("id");
+            idField.setAccessible(true);
+            idField.set(person, id);
+        } catch (NoSuchFieldException | IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        return person;
     }
 
 
@@ -41,6 +92,24 @@ public class PersonServiceTest {
     }
 
 
+    @Test
+    public void ensureSaveKeyPairSavesTheKeysApartFromThePerson() throws NoSuchAlgorithmException {
+
+        Person person = new Person();
+        KeyPair keyPair = CryptoUtil.generateKeyPair();
+
+        service.saveKeyPair(person, keyPair);
+
+        ArgumentCaptor<PersonKeys> keysCaptor = ArgumentCaptor.forClass(PersonKeys.class);
+        Mockito.verify(personKeysDAO).save(keysCaptor.capture());
+        Mockito.verifyZeroInteractions(personDAO);
+
+        Assert.assertEquals(person, keysCaptor.getValue().getPerson());
+        Assert.assertArrayEquals(keyPair.getPrivate().getEncoded(), keysCaptor.getValue().getPrivateKey());
+        Assert.assertArrayEquals(keyPair.getPublic().getEncoded(), keysCaptor.getValue().getPublicKey());
+    }
+
+
     @Test
     public void ensureGetPersonByIDCallsCorrectDaoMethod() {
 
@@ -68,6 +137,82 @@ public class PersonServiceTest {
     }
 
 
+    @Test
+    public void ensurePersonsAreLoadedOnlyOnceUntilAPersonIsSaved() {
+
+        Person person = createPerson(1);
+        Mockito.when(personDAO.findByLoginName("foo")).thenReturn(person);
+        Mockito.when(personDAO.findActive()).thenReturn(Arrays.asList(person));
+
+        Assert.assertEquals(person, service.getPersonByLogin("foo"));
+        Assert.assertEquals(person, service.getPersonByLogin("foo"));
+        Assert.assertNull(service.getPersonByLogin("bar"));
+        Assert.assertNull(service.getPersonByLogin("bar"));
+        Assert.assertEquals(Arrays.asList(person), service.getActivePersons());
+        Assert.assertEquals(Arrays.asList(person), service.getActivePersons());
+
+        Mockito.verify(personDAO, Mockito.times(1)).findByLoginName("foo");
+        Mockito.verify(personDAO, Mockito.times(1)).findByLoginName("bar");
+        Mockito.verify(personDAO, Mockito.times(1)).findActive();
+
+        service.save(person);
+
+        service.getPersonByLogin("foo");
+        service.getActivePersons();
+
+        Mockito.verify(personDAO, Mockito.times(2)).findByLoginName("foo");
+        Mockito.verify(personDAO, Mockito.times(2)).findActive();
+    }
+
+
+    @Test
+    public void ensureDiscardsPersonsLoadedInTheTransactionAfterRollback() {
+
+        Person person = createPerson(1);
+        Mockito.when(personDAO.findActive()).thenReturn(Arrays.asList(person));
+
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.save(person);
+
+        // the same transaction loads the persons with its uncommitted changes and is rolled back afterwards
+        service.getActivePersons();
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        service.getActivePersons();
+
+        Mockito.verify(personDAO, Mockito.times(2)).findActive();
+    }
+
+
+    @Test
+    public void ensureSavingAPersonIncrementsItsVersion() {
+
+        Person person = createPerson(1);
+
+        service.save(person);
+
+        Mockito.verify(personDAO).save(person);
+        Mockito.verify(personDAO).incrementVersion(1);
+    }
+
+
+    @Test
+    public void ensurePersonsVersionIsReadFromTheDatabaseAndNotCached() {
+
+        Mockito.when(personDAO.getVersionOfAllPersons()).thenReturn(3L, 4L);
+
+        // e.g. another node saves a person in the meantime
+        Assert.assertEquals(3L, service.getPersonsVersion());
+        Assert.assertEquals(4L, service.getPersonsVersion());
+
+        Mockito.verify(personDAO, Mockito.never()).findActive();
+    }
+
+
     @Test
     public void ensureGetInactivePersonsCallsCorrectDaoMethod() {
 
@@ -79,9 +224,9 @@ public class PersonServiceTest {
     @Test
     public void ensureGetAllPersonsExceptAGivenOneReturnsAllPersonsExceptTheGivenOne() {
 
-        Person hansPeter = new Person("hpeter", "Peter", "Hans", "hpeter@foo.de");
-        Person horstDieter = new Person("hdieter", "Horst", "Dieter", "hdieter@foo.de");
-        Person berndMeier = new Person("bmeier", "Meier", "Bernd", "bmeier@foo.de");
+        Person hansPeter = createPerson(1, "hpeter", "Peter", "Hans", "hpeter@foo.de");
+        Person horstDieter = createPerson(2, "hdieter", "Horst", "Dieter", "hdieter@foo.de");
+        Person berndMeier = createPerson(3, "bmeier", "Meier", "Bernd", "bmeier@foo.de");
 
         List<Person> allPersons = Arrays.asList(hansPeter, horstDieter, berndMeier);
 
@@ -99,13 +244,13 @@ public class PersonServiceTest {
     @Test
     public void ensureGetPersonsByRoleReturnsOnlyPersonsWithTheGivenRole() {
 
-        Person user = new Person();
+        Person user = createPerson(1);
         user.setPermissions(Arrays.asList(Role.USER));
 
-        Person boss = new Person();
+        Person boss = createPerson(2);
         boss.setPermissions(Arrays.asList(Role.USER, Role.BOSS));
 
-        Person office = new Person();
+        Person office = createPerson(3);
         office.setPermissions(Arrays.asList(Role.USER, Role.BOSS, Role.OFFICE));
 
         List<Person> allPersons = Arrays.asList(user, boss, office);
@@ -123,13 +268,13 @@ public class PersonServiceTest {
     @Test
     public void ensureGetPersonsByNotificationTypeReturnsOnlyPersonsWithTheGivenNotificationType() {
 
-        Person user = new Person();
+        Person user = createPerson(1);
         user.setNotifications(Arrays.asList(MailNotification.NOTIFICATION_USER));
 
-        Person boss = new Person();
+        Person boss = createPerson(2);
         boss.setNotifications(Arrays.asList(MailNotification.NOTIFICATION_USER, MailNotification.NOTIFICATION_BOSS));
 
-        Person office = new Person();
+        Person office = createPerson(3);
         office.setNotifications(Arrays.asList(MailNotification.NOTIFICATION_USER, MailNotification.NOTIFICATION_BOSS, MailNotification.NOTIFICATION_OFFICE));
 
         List<Person> allPersons = Arrays.asList(user, boss, office);
@@ -143,4 +288,30 @@ public class PersonServiceTest {
         Assert.assertTrue("Missing person", filteredList.contains(boss));
         Assert.assertTrue("Missing person", filteredList.contains(office));
     }
+
+
+    @Test
+    public void ensureEveryCallerGetsItsOwnCopyOfACachedPerson() {
+
+        Person person = createPerson(1, "foo", "Muster", "Max", "muster@muster.de");
+        person.setPermissions(Arrays.asList(Role.USER));
+        Mockito.when(personDAO.findByLoginName("foo")).thenReturn(person);
+        Mockito.when(personDAO.findActive()).thenReturn(Arrays.asList(person));
+
+        Person changedPerson = service.getPersonByLogin("foo");
+        changedPerson.setFirstName("Changed");
+        changedPerson.setPermissions(Arrays.asList(Role.USER, Role.OFFICE));
+
+        service.getActivePersons().get(0).setFirstName("Changed");
+
+        Person cachedPerson = service.getPersonByLogin("foo");
+
+        Assert.assertNotSame(person, changedPerson);
+        Assert.assertEquals(person, cachedPerson);
+        Assert.assertEquals("Max", cachedPerson.getFirstName());
+        Assert.assertFalse("Permissions should not be changed", cachedPerson.hasRole(Role.OFFICE));
+        Assert.assertEquals("Max", service.getActivePersons().get(0).getFirstName());
+
+        Mockito.verify(personDAO, Mockito.times(1)).findByLoginName("foo");
+    }
 }
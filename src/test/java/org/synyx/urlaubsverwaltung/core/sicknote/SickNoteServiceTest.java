@@ -10,12 +10,19 @@ import org.junit.Test;
 
 import org.mockito.Mockito;
 
+import org.synyx.urlaubsverwaltung.core.application.service.AbsenceBitmapService;
+import org.synyx.urlaubsverwaltung.core.application.service.ApplicationInteractionService;
 import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
 import org.synyx.urlaubsverwaltung.core.application.service.CommentService;
 import org.synyx.urlaubsverwaltung.core.application.service.SignService;
+import org.synyx.urlaubsverwaltung.core.application.service.VacationDaysLedgerService;
 import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
+import org.synyx.urlaubsverwaltung.core.changelog.ChangeLogService;
 import org.synyx.urlaubsverwaltung.core.mail.MailService;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.sicknote.comment.SickNoteComment;
 import org.synyx.urlaubsverwaltung.core.sicknote.comment.SickNoteCommentDAO;
+import org.synyx.urlaubsverwaltung.core.sicknote.comment.SickNoteStatus;
 
 import java.math.BigDecimal;
 
@@ -35,6 +42,10 @@ public class SickNoteServiceTest {
     private SignService signService;
     private CommentService commentService;
     private MailService mailService;
+    private VacationDaysLedgerService vacationDaysLedgerService;
+    private ApplicationInteractionService applicationInteractionService;
+    private AbsenceBitmapService absenceBitmapService;
+    private ChangeLogService changeLogService;
 
     @Before
     public void setup() {
@@ -46,9 +57,14 @@ public class SickNoteServiceTest {
         signService = Mockito.mock(SignService.class);
         commentService = Mockito.mock(CommentService.class);
         mailService = Mockito.mock(MailService.class);
+        vacationDaysLedgerService = Mockito.mock(VacationDaysLedgerService.class);
+        applicationInteractionService = Mockito.mock(ApplicationInteractionService.class);
+        absenceBitmapService = Mockito.mock(AbsenceBitmapService.class);
+        changeLogService = Mockito.mock(ChangeLogService.class);
 
         service = new SickNoteService(sickNoteDAO, commentDAO, calendarService, applicationService, signService,
-                commentService, mailService);
+                commentService, mailService, vacationDaysLedgerService, applicationInteractionService,
+                absenceBitmapService, changeLogService);
     }
 
 
@@ -67,4 +83,52 @@ public class SickNoteServiceTest {
         Assert.assertEquals(false, sickNote.isActive());
         Assert.assertEquals(BigDecimal.ZERO, sickNote.getWorkDays());
     }
+
+
+    @Test
+    public void ensureCancellingSickNoteDiscardsCachedAbsencesOfPerson() {
+
+        Person person = new Person();
+
+        SickNote sickNote = new SickNote();
+        sickNote.setPerson(person);
+
+        Mockito.when(sickNoteDAO.findOne(Mockito.anyInt())).thenReturn(sickNote);
+
+        service.cancel(sickNote, person);
+
+        Mockito.verify(absenceBitmapService, Mockito.atLeastOnce()).invalidate(person);
+    }
+
+
+    @Test
+    public void ensureCancellingSickNoteIsLoggedAsOneChange() {
+
+        Person person = new Person();
+
+        SickNote sickNote = new SickNote();
+        sickNote.setPerson(person);
+
+        Mockito.when(sickNoteDAO.findOne(Mockito.anyInt())).thenReturn(sickNote);
+
+        service.cancel(sickNote, person);
+
+        Mockito.verify(changeLogService, Mockito.times(1)).logChange(sickNote);
+    }
+
+
+    @Test
+    public void ensureAddingCommentToSickNoteIsLoggedAsOneChange() {
+
+        Person person = new Person();
+
+        SickNote sickNote = new SickNote();
+        sickNote.setPerson(person);
+
+        Mockito.when(sickNoteDAO.findOne(Mockito.anyInt())).thenReturn(sickNote);
+
+        service.addComment(1, new SickNoteComment(), SickNoteStatus.COMMENTED, person);
+
+        Mockito.verify(changeLogService, Mockito.times(1)).logChange(sickNote);
+    }
 }
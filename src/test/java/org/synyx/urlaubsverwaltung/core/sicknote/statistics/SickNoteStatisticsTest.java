@@ -4,14 +4,20 @@ import junit.framework.Assert;
 
 import org.joda.time.DateMidnight;
 import org.joda.time.DateTimeConstants;
+import org.joda.time.Interval;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import org.mockito.Mockito;
 
+import org.mockito.invocation.InvocationOnMock;
+
+import org.mockito.stubbing.Answer;
+
 import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
 import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
+import org.synyx.urlaubsverwaltung.core.calendar.WorkDaysRequest;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
 import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteDAO;
@@ -20,7 +26,10 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -44,27 +53,55 @@ public class SickNoteStatisticsTest {
         sickNotes = new ArrayList<SickNote>();
         person = new Person();
 
-        SickNote sickNote1 = new SickNote();
-        sickNote1.setStartDate(new DateMidnight(2013, DateTimeConstants.OCTOBER, 7));
-        sickNote1.setEndDate(new DateMidnight(2013, DateTimeConstants.OCTOBER, 11));
-        sickNote1.setPerson(person);
+        Date firstDayOf2013 = new DateMidnight(2013, DateTimeConstants.JANUARY, 1).toDate();
+        Date lastDayOf2013 = new DateMidnight(2013, DateTimeConstants.DECEMBER, 31).toDate();
 
         SickNote sickNote2 = new SickNote();
         sickNote2.setStartDate(new DateMidnight(2013, DateTimeConstants.DECEMBER, 18));
         sickNote2.setEndDate(new DateMidnight(2014, DateTimeConstants.JANUARY, 3));
         sickNote2.setPerson(person);
 
-        sickNotes.add(sickNote1);
+        // one sick note with 5 work days within the year is aggregated by the database, the other one crosses the
+        // turn of the year, so its work days within the year are calculated
         sickNotes.add(sickNote2);
 
-        Mockito.when(sickNoteDAO.findNumberOfPersonsWithMinimumOneSickNote(2013)).thenReturn(7L);
-        Mockito.when(sickNoteDAO.findAllActiveByYear(2013)).thenReturn(sickNotes);
+        Mockito.when(sickNoteDAO.findNumberOfPersonsWithMinimumOneSickNote(firstDayOf2013, lastDayOf2013))
+            .thenReturn(7L);
+        Mockito.when(sickNoteDAO.findNumberOfActiveSickNotesWithinPeriod(firstDayOf2013, lastDayOf2013))
+            .thenReturn(1L);
+        Mockito.when(sickNoteDAO.findNumberOfWorkDaysOfActiveSickNotesWithinPeriod(firstDayOf2013, lastDayOf2013))
+            .thenReturn(new BigDecimal("5"));
+        Mockito.when(sickNoteDAO.findActiveSickNotesCrossingPeriodBounds(firstDayOf2013, lastDayOf2013)).thenReturn(
+            sickNotes);
+
+        final Map<Interval, Long> workDaysInHalfDays = new HashMap<>();
+        workDaysInHalfDays.put(new Interval(new DateMidnight(2013, DateTimeConstants.DECEMBER, 18),
+                new DateMidnight(2013, DateTimeConstants.DECEMBER, 31)), 18L);
+
+        Mockito.when(calendarService.getWorkDaysInHalfDays(Mockito.anyListOf(WorkDaysRequest.class))).thenAnswer(
+            new Answer<long[]>() {
+
+                @Override
+                public long[] answer(InvocationOnMock invocation) {
+
+                    @SuppressWarnings("unchecked")
+                    List<WorkDaysRequest> requests = (List<WorkDaysRequest>) invocation.getArguments()[0];
+
+                    long[] halfDays = new long[requests.size()];
+
+                    for (int i = 0; i < requests.size(); i++) {
+                        WorkDaysRequest request = requests.get(i);
+
+                        Assert.assertEquals(DayLength.FULL, request.getDayLength());
+                        Assert.assertEquals(person, request.getPerson());
 
-        Mockito.when(calendarService.getWorkDays(DayLength.FULL, new DateMidnight(2013, DateTimeConstants.OCTOBER, 7),
-                new DateMidnight(2013, DateTimeConstants.OCTOBER, 11), person)).thenReturn(new BigDecimal("5"));
+                        halfDays[i] = workDaysInHalfDays.get(new Interval(request.getStartDate(),
+                                    request.getEndDate()));
+                    }
 
-        Mockito.when(calendarService.getWorkDays(DayLength.FULL, new DateMidnight(2013, DateTimeConstants.DECEMBER, 18),
-                new DateMidnight(2013, DateTimeConstants.DECEMBER, 31), person)).thenReturn(new BigDecimal("9"));
+                    return halfDays;
+                }
+            });
 
         statistics = new SickNoteStatistics(2013, sickNoteDAO, calendarService);
     }
@@ -100,7 +137,8 @@ public class SickNoteStatisticsTest {
     @Test
     public void testGetAverageDurationOfDiseasePerPersonDivisionByZero() throws Exception {
 
-        Mockito.when(sickNoteDAO.findNumberOfPersonsWithMinimumOneSickNote(2013)).thenReturn(0L);
+        Mockito.when(sickNoteDAO.findNumberOfPersonsWithMinimumOneSickNote(Mockito.any(Date.class),
+                Mockito.any(Date.class))).thenReturn(0L);
 
         statistics = new SickNoteStatistics(2013, sickNoteDAO, calendarService);
 
@@ -111,7 +149,9 @@ public class SickNoteStatisticsTest {
     @Test(expected = IllegalArgumentException.class)
     public void testGetTotalNumberOfSickDaysInvalidDateRange() throws Exception {
 
-        Mockito.when(sickNoteDAO.findAllActiveByYear(2015)).thenReturn(sickNotes);
+        Mockito.when(sickNoteDAO.findActiveSickNotesCrossingPeriodBounds(
+                new DateMidnight(2015, DateTimeConstants.JANUARY, 1).toDate(),
+                new DateMidnight(2015, DateTimeConstants.DECEMBER, 31).toDate())).thenReturn(sickNotes);
 
         statistics = new SickNoteStatistics(2015, sickNoteDAO, calendarService);
 
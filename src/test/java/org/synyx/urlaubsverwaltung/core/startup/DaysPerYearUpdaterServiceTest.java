@@ -0,0 +1,110 @@
+package org.synyx.urlaubsverwaltung.core.startup;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
+import org.synyx.urlaubsverwaltung.core.application.service.DaysPerYearService;
+import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
+import org.synyx.urlaubsverwaltung.core.calendar.workingtime.NoValidWorkingTimeException;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+
+import java.math.BigDecimal;
+
+import java.util.Arrays;
+
+
+/**
+ * Unit test for {@link DaysPerYearUpdaterService}.
+ *
+ * @author  agent
+ */
+public class DaysPerYearUpdaterServiceTest {
+
+    private DaysPerYearUpdaterService service;
+
+    private ApplicationService applicationService;
+    private OwnCalendarService calendarService;
+
+    @Before
+    public void setUp() {
+
+        applicationService = Mockito.mock(ApplicationService.class);
+        calendarService = Mockito.mock(OwnCalendarService.class);
+
+        service = new DaysPerYearUpdaterService(applicationService,
+                new DaysPerYearService(applicationService, calendarService));
+    }
+
+
+    private Application createApplication(Person person, DateMidnight startDate, DateMidnight endDate,
+        BigDecimal days) {
+
+        Application application = new Application();
+        application.setPerson(person);
+        application.setStartDate(startDate);
+        application.setEndDate(endDate);
+        application.setHowLong(DayLength.FULL);
+        application.setDays(days);
+
+        return application;
+    }
+
+
+    @Test
+    public void ensureSplitsTheDaysOfAnApplicationOverTwoYears() {
+
+        Person person = new Person();
+        Application application = createApplication(person, new DateMidnight(2013, DateTimeConstants.DECEMBER, 30),
+                new DateMidnight(2014, DateTimeConstants.JANUARY, 3), new BigDecimal("4"));
+
+        Mockito.when(applicationService.getApplicationsWithoutDaysPerYear()).thenReturn(Arrays.asList(application));
+        Mockito.when(calendarService.getWorkDays(DayLength.FULL, new DateMidnight(2013, DateTimeConstants.DECEMBER, 30),
+                new DateMidnight(2013, DateTimeConstants.DECEMBER, 31), person)).thenReturn(new BigDecimal("2"));
+
+        service.updateApplicationsWithoutDaysPerYear();
+
+        Assert.assertEquals(new BigDecimal("2"), application.getDaysInStartYear());
+        Assert.assertEquals(new BigDecimal("2"), application.getDaysInEndYear());
+        Mockito.verify(applicationService).save(application);
+    }
+
+
+    @Test
+    public void ensureInvalidApplicationsAreSkippedAndTheOthersAreUpdated() {
+
+        Person personWithoutWorkingTime = new Person();
+        Application withoutWorkingTime = createApplication(personWithoutWorkingTime,
+                new DateMidnight(2013, DateTimeConstants.DECEMBER, 30),
+                new DateMidnight(2014, DateTimeConstants.JANUARY, 3), new BigDecimal("4"));
+
+        Application withoutDays = createApplication(new Person(), new DateMidnight(2014, DateTimeConstants.MAY, 5),
+                new DateMidnight(2014, DateTimeConstants.MAY, 6), null);
+
+        Application valid = createApplication(new Person(), new DateMidnight(2014, DateTimeConstants.MAY, 5),
+                new DateMidnight(2014, DateTimeConstants.MAY, 6), new BigDecimal("2"));
+
+        Mockito.when(applicationService.getApplicationsWithoutDaysPerYear()).thenReturn(Arrays.asList(
+                withoutWorkingTime, withoutDays, valid));
+        Mockito.when(calendarService.getWorkDays(Mockito.any(DayLength.class), Mockito.any(DateMidnight.class),
+                Mockito.any(DateMidnight.class), Mockito.eq(personWithoutWorkingTime))).thenThrow(
+            new NoValidWorkingTimeException("No working time"));
+
+        service.updateApplicationsWithoutDaysPerYear();
+
+        Mockito.verify(applicationService, Mockito.never()).save(withoutWorkingTime);
+        Mockito.verify(applicationService, Mockito.never()).save(withoutDays);
+        Mockito.verify(applicationService).save(valid);
+
+        Assert.assertEquals(new BigDecimal("2"), valid.getDaysInStartYear());
+        Assert.assertEquals(new BigDecimal("2"), valid.getDaysInEndYear());
+    }
+}
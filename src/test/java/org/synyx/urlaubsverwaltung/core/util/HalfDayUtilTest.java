@@ -0,0 +1,50 @@
+package org.synyx.urlaubsverwaltung.core.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+
+/**
+ * Unit test for {@link HalfDayUtil}.
+ *
+ * @author  agent
+ */
+public class HalfDayUtilTest {
+
+    @Test
+    public void ensureConvertsDaysToHalfDays() {
+
+        Assert.assertEquals(0, HalfDayUtil.toHalfDays(BigDecimal.ZERO));
+        Assert.assertEquals(1, HalfDayUtil.toHalfDays(new BigDecimal("0.5")));
+        Assert.assertEquals(27, HalfDayUtil.toHalfDays(new BigDecimal("13.50")));
+        Assert.assertEquals(-4, HalfDayUtil.toHalfDays(new BigDecimal("-2")));
+    }
+
+
+    @Test(expected = ArithmeticException.class)
+    public void ensureThrowsIfDaysAreNoMultipleOfHalfADay() {
+
+        HalfDayUtil.toHalfDays(new BigDecimal("0.25"));
+    }
+
+
+    @Test
+    public void ensureConvertsHalfDaysToDays() {
+
+        Assert.assertEquals(BigDecimal.ZERO, HalfDayUtil.toDays(0));
+        Assert.assertEquals(new BigDecimal("0.5"), HalfDayUtil.toDays(1));
+        Assert.assertEquals(new BigDecimal("13"), HalfDayUtil.toDays(26));
+        Assert.assertEquals(new BigDecimal("-1.5"), HalfDayUtil.toDays(-3));
+    }
+
+
+    @Test
+    public void ensureConversionIsReversible() {
+
+        for (long halfDays = -100; halfDays <= 100; halfDays++) {
+            Assert.assertEquals(halfDays, HalfDayUtil.toHalfDays(HalfDayUtil.toDays(halfDays)));
+        }
+    }
+}
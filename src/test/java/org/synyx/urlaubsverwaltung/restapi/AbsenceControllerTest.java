@@ -0,0 +1,96 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsenceCalendar;
+import org.synyx.urlaubsverwaltung.core.application.service.AbsenceService;
+
+import java.lang.reflect.Field;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * Unit test for {@link AbsenceController}.
+ *
+ * @author  agent
+ */
+public class AbsenceControllerTest {
+
+    private AbsenceController controller;
+    private AbsenceService absenceService;
+
+    @Before
+    public void setUp() throws Exception {
+
+        absenceService = Mockito.mock(AbsenceService.class);
+
+        controller = new AbsenceController();
+
+        Field absenceServiceField = AbsenceController.class.getDeclaredField("absenceService");
+        absenceServiceField.setAccessible(true);
+        absenceServiceField.set(controller, absenceService);
+    }
+
+
+    @Test
+    public void ensureReturnsOneEntryPerDayOfThePeriodForTheGivenPersons() {
+
+        DateMidnight startDate = new DateMidnight(2014, DateTimeConstants.JUNE, 1);
+        DateMidnight endDate = new DateMidnight(2014, DateTimeConstants.JUNE, 3);
+        List<Integer> personIds = Arrays.asList(1, 2);
+
+        Mockito.when(absenceService.getAbsences(startDate, endDate, personIds)).thenReturn(new AbsenceCalendar(
+                startDate, endDate));
+
+        DayAbsencesListResponse response = controller.absences("2014-06-01", "2014-06-03", personIds);
+
+        Assert.assertEquals("Wrong number of days", 3, response.getDays().size());
+    }
+
+
+    @Test(expected = InvalidParameterException.class)
+    public void ensureRejectsStartDateAfterEndDate() {
+
+        controller.absences("2014-06-03", "2014-06-01", null);
+    }
+
+
+    @Test(expected = InvalidParameterException.class)
+    public void ensureRejectsPeriodLongerThanAYear() {
+
+        controller.absences("2014-01-01", "2015-01-02", null);
+    }
+
+
+    @Test(expected = InvalidParameterException.class)
+    public void ensureRejectsInvalidDate() {
+
+        controller.absences("2014-13-01", "2014-12-31", null);
+    }
+
+
+    @Test
+    public void ensureAcceptsPeriodOfAYear() {
+
+        Mockito.when(absenceService.getAbsences(Mockito.any(DateMidnight.class), Mockito.any(DateMidnight.class),
+                Mockito.anyCollectionOf(Integer.class))).thenReturn(new AbsenceCalendar(
+                new DateMidnight(2016, DateTimeConstants.JANUARY, 1),
+                new DateMidnight(2016, DateTimeConstants.DECEMBER, 31)));
+
+        DayAbsencesListResponse response = controller.absences("2016-01-01", "2016-12-31", null);
+
+        Assert.assertEquals("Wrong number of days", 366, response.getDays().size());
+        Mockito.verify(absenceService).getAbsences(new DateMidnight(2016, DateTimeConstants.JANUARY, 1),
+            new DateMidnight(2016, DateTimeConstants.DECEMBER, 31), (Collection<Integer>) null);
+    }
+}
@@ -0,0 +1,48 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import com.google.gson.stream.JsonWriter;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.AbsencePeriod;
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+
+/**
+ * Unit test for {@link AbsencePeriodWriter}.
+ *
+ * @author  agent
+ */
+public class AbsencePeriodWriterTest {
+
+    @Test
+    public void ensureWritesAbsencePeriodsAsListOfResponseObject() throws IOException {
+
+        StringWriter output = new StringWriter();
+
+        AbsencePeriodWriter periodWriter = new AbsencePeriodWriter(new JsonWriter(output));
+
+        periodWriter.beginList("vacations");
+        periodWriter.handle(new AbsencePeriod(new DateMidnight(2014, DateTimeConstants.JUNE, 2),
+                new DateMidnight(2014, DateTimeConstants.JUNE, 6), DayLength.FULL, "muster", null, "Max",
+                "Mustermann"));
+        periodWriter.handle(new AbsencePeriod(new DateMidnight(2014, DateTimeConstants.JUNE, 9),
+                new DateMidnight(2014, DateTimeConstants.JUNE, 9), DayLength.MORNING, "muster", null, "Max",
+                "Mustermann"));
+        periodWriter.endList();
+
+        Assert.assertEquals("{\"response\":{\"vacations\":["
+            + "{\"from\":\"2014-06-02\",\"to\":\"2014-06-06\",\"dayLength\":1.0,\"person\":"
+            + "{\"ldapName\":\"muster\",\"email\":null,\"firstName\":\"Max\",\"lastName\":\"Mustermann\"}},"
+            + "{\"from\":\"2014-06-09\",\"to\":\"2014-06-09\",\"dayLength\":0.5,\"person\":"
+            + "{\"ldapName\":\"muster\",\"email\":null,\"firstName\":\"Max\",\"lastName\":\"Mustermann\"}}]}}",
+            output.toString());
+    }
+}
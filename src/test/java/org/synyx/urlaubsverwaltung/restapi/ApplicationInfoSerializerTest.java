@@ -0,0 +1,124 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import com.google.gson.stream.JsonWriter;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
+import org.synyx.urlaubsverwaltung.core.calendar.WorkDaysRequest;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Unit test for {@link ApplicationInfoSerializer}.
+ *
+ * @author  agent
+ */
+public class ApplicationInfoSerializerTest {
+
+    private StringWriter output;
+    private JsonWriter writer;
+
+    private List<Application> applications;
+
+    @Before
+    public void setUp() {
+
+        output = new StringWriter();
+        writer = new JsonWriter(output);
+        writer.setSerializeNulls(false);
+
+        // Friday to Monday
+        Application application = new Application();
+        application.setPerson(new Person());
+        application.setStatus(ApplicationStatus.ALLOWED);
+        application.setHowLong(DayLength.FULL);
+        application.setStartDate(new DateMidnight(2014, DateTimeConstants.MAY, 30));
+        application.setEndDate(new DateMidnight(2014, DateTimeConstants.JUNE, 2));
+
+        applications = Arrays.asList(application);
+    }
+
+
+    @Test
+    public void ensureWritesOneEntryPerDay() throws IOException {
+
+        ApplicationInfoSerializer.writeDays(writer, applications);
+
+        Assert.assertEquals("[{\"date\":\"2014-05-30\",\"status\":\"ALLOWED\",\"dayLength\":1.0},"
+            + "{\"date\":\"2014-05-31\",\"status\":\"ALLOWED\",\"dayLength\":1.0},"
+            + "{\"date\":\"2014-06-01\",\"status\":\"ALLOWED\",\"dayLength\":1.0},"
+            + "{\"date\":\"2014-06-02\",\"status\":\"ALLOWED\",\"dayLength\":1.0}]",
+            output.toString());
+    }
+
+
+    @Test
+    public void ensureWritesOneEntryPerApplicationWithDaysDifferingFromDayLengthAsExceptions() throws IOException {
+
+        OwnCalendarService calendarService = Mockito.mock(OwnCalendarService.class);
+
+        // weekend days are no work days
+        Mockito.when(calendarService.getWorkDaysPerDayInHalfDays(Mockito.anyListOf(WorkDaysRequest.class))).thenReturn(
+            new long[] { 2, 0, 0, 2 });
+
+        ApplicationInfoSerializer.writeRanges(writer, applications, calendarService);
+
+        Assert.assertEquals("[{\"from\":\"2014-05-30\",\"to\":\"2014-06-02\",\"status\":\"ALLOWED\","
+            + "\"dayLength\":1.0,\"exceptions\":[{\"date\":\"2014-05-31\",\"dayLength\":0.0},"
+            + "{\"date\":\"2014-06-01\",\"dayLength\":0.0}]}]",
+            output.toString());
+    }
+
+
+    @Test
+    public void ensureWritesApplicationsPerPersonWithOneBatchCalculationOfTheDayLengths() throws IOException {
+
+        Application otherApplication = new Application();
+        otherApplication.setPerson(new Person());
+        otherApplication.setStatus(ApplicationStatus.ALLOWED);
+        otherApplication.setHowLong(DayLength.MORNING);
+        otherApplication.setStartDate(new DateMidnight(2014, DateTimeConstants.JUNE, 3));
+        otherApplication.setEndDate(new DateMidnight(2014, DateTimeConstants.JUNE, 3));
+
+        Map<Integer, List<Application>> applicationsByPerson = new LinkedHashMap<>();
+        applicationsByPerson.put(1, applications);
+        applicationsByPerson.put(2, Arrays.asList(otherApplication));
+        applicationsByPerson.put(3, Collections.<Application>emptyList());
+
+        OwnCalendarService calendarService = Mockito.mock(OwnCalendarService.class);
+
+        Mockito.when(calendarService.getWorkDaysPerDayInHalfDays(Mockito.anyListOf(WorkDaysRequest.class))).thenReturn(
+            new long[] { 2, 0, 0, 2, 1 });
+
+        ApplicationInfoSerializer.writeRangesPerPerson(writer, applicationsByPerson, calendarService);
+
+        Assert.assertEquals("{\"1\":[{\"from\":\"2014-05-30\",\"to\":\"2014-06-02\",\"status\":\"ALLOWED\","
+            + "\"dayLength\":1.0,\"exceptions\":[{\"date\":\"2014-05-31\",\"dayLength\":0.0},"
+            + "{\"date\":\"2014-06-01\",\"dayLength\":0.0}]}],"
+            + "\"2\":[{\"from\":\"2014-06-03\",\"to\":\"2014-06-03\",\"status\":\"ALLOWED\",\"dayLength\":0.5}],"
+            + "\"3\":[]}",
+            output.toString());
+
+        Mockito.verify(calendarService).getWorkDaysPerDayInHalfDays(Mockito.anyListOf(WorkDaysRequest.class));
+    }
+}
@@ -0,0 +1,128 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+import org.synyx.urlaubsverwaltung.core.changelog.ChangeLogEntry;
+import org.synyx.urlaubsverwaltung.core.changelog.ChangeLogService;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
+
+import java.lang.reflect.Field;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Unit test for {@link ChangeController}.
+ *
+ * @author  agent
+ */
+public class ChangeControllerTest {
+
+    private ChangeController controller;
+    private ChangeLogService changeLogService;
+
+    @Before
+    public void setUp() throws Exception {
+
+        changeLogService = Mockito.mock(ChangeLogService.class);
+
+        controller = new ChangeController();
+
+        Field changeLogServiceField = ChangeController.class.getDeclaredField("changeLogService");
+        changeLogServiceField.setAccessible(true);
+        changeLogServiceField.set(controller, changeLogService);
+    }
+
+
+    private ChangeLogEntry createEntry(int sequence, SickNote sickNote) {
+
+        ChangeLogEntry entry = Mockito.mock(ChangeLogEntry.class);
+        Mockito.when(entry.getId()).thenReturn(sequence);
+        Mockito.when(entry.getChangeDate()).thenReturn(new DateTime(2014, DateTimeConstants.JUNE, 2, 12, 0));
+        Mockito.when(entry.getSickNote()).thenReturn(sickNote);
+
+        return entry;
+    }
+
+
+    private SickNote createSickNote(Integer id) {
+
+        SickNote sickNote = Mockito.spy(new SickNote());
+        Mockito.when(sickNote.getId()).thenReturn(id);
+        sickNote.setPerson(new Person("muster", "Muster", "Max", "muster@muster.de"));
+        sickNote.setStartDate(new DateMidnight(2014, DateTimeConstants.MAY, 5));
+        sickNote.setEndDate(new DateMidnight(2014, DateTimeConstants.MAY, 6));
+
+        return sickNote;
+    }
+
+
+    private static List<Integer> getSequences(ChangeListResponse response) {
+
+        List<Integer> sequences = new ArrayList<>();
+
+        for (ChangeResponse change : response.getChanges()) {
+            sequences.add(change.getSequence());
+        }
+
+        return sequences;
+    }
+
+
+    @Test
+    public void ensureReturnsEveryChangedEntityOnceAtItsLastChangeAndTheLastSequenceAsCursor() {
+
+        SickNote sickNote = createSickNote(1);
+        SickNote otherSickNote = createSickNote(2);
+
+        List<ChangeLogEntry> entries = Arrays.asList(createEntry(11, sickNote), createEntry(12, otherSickNote),
+                createEntry(14, sickNote));
+
+        Mockito.when(changeLogService.getChangesAfter(10, 100)).thenReturn(entries);
+
+        ChangeListResponse response = controller.changes(10, 100);
+
+        Assert.assertEquals(Arrays.asList(12, 14), getSequences(response));
+        Assert.assertEquals(Integer.valueOf(2), response.getChanges().get(0).getId());
+        Assert.assertEquals(Integer.valueOf(1), response.getChanges().get(1).getId());
+        Assert.assertEquals(ChangeResponse.TYPE_SICK_NOTE, response.getChanges().get(1).getType());
+
+        // the duplicate is left out, but the cursor is the last sequence of the page
+        Assert.assertEquals(14, response.getNext());
+    }
+
+
+    @Test
+    public void ensureKeepsTheCursorIfThereAreNoChanges() {
+
+        Mockito.when(changeLogService.getChangesAfter(10, 100)).thenReturn(Collections.<ChangeLogEntry>emptyList());
+
+        ChangeListResponse response = controller.changes(10, 100);
+
+        Assert.assertTrue("Should not return any change", response.getChanges().isEmpty());
+        Assert.assertEquals(10, response.getNext());
+    }
+
+
+    @Test
+    public void ensureLimitsTheNumberOfChanges() {
+
+        controller.changes(0, 5000);
+        controller.changes(0, 0);
+
+        Mockito.verify(changeLogService).getChangesAfter(0, 1000);
+        Mockito.verify(changeLogService).getChangesAfter(0, 1);
+    }
+}
@@ -0,0 +1,25 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Unit test for {@link ETags}.
+ *
+ * @author  agent
+ */
+public class ETagsTest {
+
+    @Test
+    public void ensureEntityTagIsQuotedAndDependsOnAllParts() {
+
+        String tag = ETags.of("/vacation", 42, "2014", null);
+
+        Assert.assertTrue(tag.startsWith("\"") && tag.endsWith("\""));
+        Assert.assertEquals(tag, ETags.of("/vacation", 42, "2014", null));
+
+        Assert.assertFalse(tag.equals(ETags.of("/vacation", 43, "2014", null)));
+        Assert.assertFalse(tag.equals(ETags.of("/vacation", 42, "2014", "1")));
+    }
+}
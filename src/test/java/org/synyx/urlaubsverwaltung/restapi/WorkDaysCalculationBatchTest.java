@@ -0,0 +1,121 @@
+package org.synyx.urlaubsverwaltung.restapi;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
+import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
+import org.synyx.urlaubsverwaltung.core.calendar.WorkDaysRequest;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.person.PersonService;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Unit test for {@link WorkDaysCalculationBatch}.
+ *
+ * @author  agent
+ */
+public class WorkDaysCalculationBatchTest {
+
+    private PersonService personService;
+
+    private Person person;
+
+    @Before
+    public void setUp() {
+
+        personService = Mockito.mock(PersonService.class);
+
+        person = new Person();
+        Mockito.when(personService.getPersonByID(1)).thenReturn(person);
+    }
+
+
+    @Test
+    public void ensureReadsOneRequestPerTupleAndLooksUpEveryPersonOnlyOnce() throws IOException {
+
+        String json = "[{\"from\":\"2014-06-02\",\"to\":\"2014-06-06\",\"length\":\"FULL\",\"person\":1},"
+            + "{\"from\":\"2014-06-06\",\"to\":\"2014-06-02\",\"length\":\"FULL\",\"person\":1},"
+            + "{\"from\":\"2014-06-02\",\"to\":\"2014-06-02\",\"length\":\"UNKNOWN\",\"person\":1},"
+            + "{\"from\":\"2014-06-02\",\"to\":\"2014-06-02\",\"length\":\"MORNING\",\"person\":\"2\"},"
+            + "{\"from\":\"2014-06-02\",\"to\":\"2014-06-02\",\"length\":\"NOON\",\"person\":1,\"unknown\":[1]}]";
+
+        List<WorkDaysRequest> requests = WorkDaysCalculationBatch.read(new JsonReader(new StringReader(json)),
+                personService);
+
+        Assert.assertEquals(5, requests.size());
+
+        Assert.assertEquals(person, requests.get(0).getPerson());
+        Assert.assertEquals(DayLength.FULL, requests.get(0).getDayLength());
+        Assert.assertEquals(new DateMidnight(2014, DateTimeConstants.JUNE, 2), requests.get(0).getStartDate());
+        Assert.assertEquals(new DateMidnight(2014, DateTimeConstants.JUNE, 6), requests.get(0).getEndDate());
+
+        // end before start, unknown day length, unknown person
+        Assert.assertNull(requests.get(1));
+        Assert.assertNull(requests.get(2));
+        Assert.assertNull(requests.get(3));
+
+        Assert.assertEquals(DayLength.NOON, requests.get(4).getDayLength());
+
+        Mockito.verify(personService).getPersonByID(1);
+        Mockito.verify(personService).getPersonByID(2);
+    }
+
+
+    @Test
+    public void ensureWritesResultsInOrderOfTheRequestsWithOneBatchCalculation() throws IOException {
+
+        DateMidnight day = new DateMidnight(2014, DateTimeConstants.JUNE, 2);
+
+        List<WorkDaysRequest> requests = Arrays.asList(new WorkDaysRequest(person, DayLength.FULL, day,
+                    day.plusDays(4)), null, new WorkDaysRequest(person, DayLength.MORNING, day, day));
+
+        OwnCalendarService calendarService = Mockito.mock(OwnCalendarService.class);
+        Mockito.when(calendarService.getWorkDaysInHalfDaysOrNull(Mockito.anyListOf(WorkDaysRequest.class)))
+            .thenReturn(new Long[] { 10L, 1L });
+
+        StringWriter output = new StringWriter();
+
+        WorkDaysCalculationBatch.calculateAndWrite(new JsonWriter(output), requests, calendarService);
+
+        Assert.assertEquals("[5.0,\"N/A\",0.5]", output.toString());
+
+        Mockito.verify(calendarService).getWorkDaysInHalfDaysOrNull(Arrays.asList(requests.get(0),
+                requests.get(2)));
+    }
+
+
+    @Test
+    public void ensureWritesNotAvailableForRequestsThatCanNotBeCalculated() throws IOException {
+
+        DateMidnight day = new DateMidnight(2014, DateTimeConstants.JUNE, 2);
+
+        List<WorkDaysRequest> requests = Arrays.asList(new WorkDaysRequest(person, DayLength.FULL, day, day),
+                new WorkDaysRequest(person, DayLength.MORNING, day, day));
+
+        OwnCalendarService calendarService = Mockito.mock(OwnCalendarService.class);
+        Mockito.when(calendarService.getWorkDaysInHalfDaysOrNull(requests)).thenReturn(new Long[] { null, 1L });
+
+        StringWriter output = new StringWriter();
+
+        WorkDaysCalculationBatch.calculateAndWrite(new JsonWriter(output), requests, calendarService);
+
+        Assert.assertEquals("[\"N/A\",0.5]", output.toString());
+    }
+}
@@ -2,14 +2,11 @@ package org.synyx.urlaubsverwaltung.web.application;
 
 import org.joda.time.DateMidnight;
 import org.junit.Assert;
-import org.junit.Before;
 import org.junit.Test;
-import org.mockito.Mockito;
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.application.domain.DayLength;
 import org.synyx.urlaubsverwaltung.core.application.domain.VacationType;
-import org.synyx.urlaubsverwaltung.core.calendar.OwnCalendarService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 
 import java.math.BigDecimal;
@@ -25,15 +22,6 @@ import static org.junit.Assert.*;
  */
 public class UsedDaysOverviewTest {
 
-    private OwnCalendarService calendarService;
-
-    @Before
-    public void setUp() {
-
-        calendarService = Mockito.mock(OwnCalendarService.class);
-
-    }
-
     @Test
     public void ensureGeneratesCorrectUsedDaysOverview() {
 
@@ -94,7 +82,7 @@ public class UsedDaysOverviewTest {
         overtimeLeaveAllowed.setStatus(ApplicationStatus.ALLOWED);
 
         List<Application> applications = Arrays.asList(holiday, holidayAllowed, specialLeave, specialLeaveAllowed, unpaidLeave, unpaidLeaveAllowed, overtimeLeave, overtimeLeaveAllowed);
-        UsedDaysOverview usedDaysOverview = new UsedDaysOverview(applications, 2014, calendarService);
+        UsedDaysOverview usedDaysOverview = new UsedDaysOverview(applications, 2014);
 
         UsedDays holidayDays = usedDaysOverview.getHolidayDays();
         Assert.assertNotNull("Should not be null", holidayDays.getDays());
@@ -125,13 +113,13 @@ public class UsedDaysOverviewTest {
         holiday.setEndDate(endDate);
         // sum is 5 days
         holiday.setDays(BigDecimal.valueOf(5));
+        holiday.setDaysInStartYear(BigDecimal.valueOf(3));
+        holiday.setDaysInEndYear(BigDecimal.valueOf(2));
         holiday.setStatus(ApplicationStatus.WAITING);
         holiday.setPerson(person);
         holiday.setHowLong(fullDay);
 
-        Mockito.when(calendarService.getWorkDays(fullDay, new DateMidnight(2014, 1, 1), endDate, person)).thenReturn(BigDecimal.valueOf(2));
-
-        UsedDaysOverview usedDaysOverview = new UsedDaysOverview(Arrays.asList(holiday), 2014, calendarService);
+        UsedDaysOverview usedDaysOverview = new UsedDaysOverview(Arrays.asList(holiday), 2014);
 
         UsedDays holidayDays = usedDaysOverview.getHolidayDays();
         Assert.assertNotNull("Should not be null", holidayDays.getDays());